@@ -1,4 +1,5 @@
 import sys
+import time
 import traceback
 import joblib
 import pandas as pd
@@ -55,6 +56,29 @@ except Exception as e:
     print(f"❌ ERRO CRÍTICO AO CARREGAR MODELO: {e}")
     traceback.print_exc()
 
+# Prazo propagado pela API Java (epoch em milissegundos)
+DEADLINE_HEADER = 'X-Request-Deadline'
+
+
+def corpo_nao_json():
+    """Responde 415 a corpos que não são JSON (ex.: o frame binário da API Java), que então volta a enviar JSON."""
+    if not request.is_json:
+        return jsonify({'status': 'error',
+                        'message': f'Content-Type não suportado: {request.mimetype or "ausente"}'}), 415
+    return None
+
+
+def prazo_expirado():
+    """True quando o chamador já desistiu da requisição (cabeçalho X-Request-Deadline)."""
+    valor = request.headers.get(DEADLINE_HEADER)
+    if not valor:
+        return False
+    try:
+        return int(valor) <= time.time() * 1000
+    except ValueError:
+        return False
+
+
 # --- 3. ENDPOINT HEALTH (Blindado contra erros 500) ---
 
 
@@ -90,11 +114,19 @@ def health():
 
 @app.route('/predict', methods=['POST'])
 def predict():
+    # Descarta trabalho cujo prazo já expirou
+    if prazo_expirado():
+        return jsonify({'status': 'error', 'message': 'Prazo da requisição expirado'}), 504
+
     # Verifica modelo
     current_model = globals().get('model')
     if current_model is None:
         return jsonify({'message': 'Modelo offline - falha no carregamento', 'status': 'error'}), 503
 
+    nao_json = corpo_nao_json()
+    if nao_json:
+        return nao_json
+
     try:
         data_json = request.get_json()
         if not data_json:
@@ -144,5 +176,63 @@ def predict():
         return jsonify({'message': str(e), 'status': 'error'}), 500
 
 
+# --- 5. ENDPOINT PREDICT BATCH (uma única chamada vetorizada ao modelo) ---
+
+
+@app.route('/predict/batch', methods=['POST'])
+def predict_batch():
+    # Descarta trabalho cujo prazo já expirou
+    if prazo_expirado():
+        return jsonify({'status': 'error', 'message': 'Prazo da requisição expirado'}), 504
+
+    current_model = globals().get('model')
+    if current_model is None:
+        return jsonify({'message': 'Modelo offline - falha no carregamento', 'status': 'error'}), 503
+
+    nao_json = corpo_nao_json()
+    if nao_json:
+        return nao_json
+
+    try:
+        data_json = request.get_json()
+        if not isinstance(data_json, list) or not data_json:
+            return jsonify({'status': 'error', 'message': 'Esperada uma lista JSON não vazia.'}), 400
+
+        expected = ['companhia', 'origem', 'destino', 'data_partida']
+        for i, item in enumerate(data_json):
+            missing_input = [k for k in expected if k not in item]
+            if missing_input:
+                return jsonify({'status': 'error', 'message': f'Item {i}: campos faltando na entrada: {missing_input}'}), 400
+
+        # Um único DataFrame para o lote inteiro
+        df_input = pd.DataFrame({
+            'sg_empresa_icao': [item.get('companhia') for item in data_json],
+            'sg_iata_origem': [item.get('origem') for item in data_json],
+            'sg_iata_destino': [item.get('destino') for item in data_json],
+            'dt_partida_prevista': [item.get('data_partida') for item in data_json],
+        })
+
+        predictions = current_model.predict(df_input)
+        probas = np.zeros(len(data_json))
+        if hasattr(current_model, 'predict_proba'):
+            try:
+                probas = current_model.predict_proba(df_input)[:, 1]
+            except Exception as e:
+                # Uma probabilidade 0.0 seria lida como confiança real pelo Java
+                print("Erro ao calcular as probabilidades do lote:")
+                traceback.print_exc()
+                return jsonify({'message': f'Falha ao calcular probabilidades: {e}', 'status': 'error'}), 500
+
+        return jsonify([
+            {'prediction': int(p), 'probability': float(pr), 'status': 'success'}
+            for p, pr in zip(predictions, probas)
+        ])
+
+    except Exception as e:
+        print("Erro durante o processamento da previsão em lote:")
+        traceback.print_exc()
+        return jsonify({'message': str(e), 'status': 'error'}), 500
+
+
 if __name__ == '__main__':
     app.run(host='0.0.0.0', port=5000, debug=False)
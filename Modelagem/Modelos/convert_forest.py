@@ -0,0 +1,172 @@
+"""
+Converte o dump JSON de export_forest.py para o modelo binário compacto que a API
+mapeia em memória (ml.inference.model-format=BINARY, com.backend.fot.inference.ForestFile).
+
+O arquivo tem um cabeçalho fixo, os metadados (nome do modelo, versão do sklearn,
+classes, vocabulário de features e o pré-processamento), as raízes das árvores, os
+nós empacotados em 8 bytes (limiar em float32 e o deslocamento do filho direito,
+com as árvores em pré-ordem) e as probabilidades das folhas quantizadas em 16 bits.
+Tudo em big-endian, como o DataOutputStream do Java; os dois lados gravam os mesmos
+bytes para o mesmo dump.
+
+Usa apenas a biblioteca padrão.
+
+Uso:
+    python convert_forest.py --dump forest.json --out forest.fotm
+"""
+import argparse
+import json
+import math
+import struct
+
+MAGIC = 0x464F544D
+VERSION = 1
+FOLHA = 0x7F
+MISSING_ESQUERDA = 0x80
+QUANT = 0xFFFF
+MAX_DESLOCAMENTO = (1 << 24) - 1
+
+
+def float32_abaixo(valor):
+    """Maior float32 que não passa de valor: decide cada split como a comparação em float64."""
+    f = struct.unpack('>f', struct.pack('>f', valor))[0]
+    if f <= valor:
+        return f
+    bits = struct.unpack('>I', struct.pack('>f', f))[0]
+    if f == 0.0:
+        bits = 0x80000001
+    elif f > 0:
+        bits -= 1
+    else:
+        bits += 1
+    return struct.unpack('>f', struct.pack('>I', bits))[0]
+
+
+def quantizar(p):
+    # Mesma expressão de ForestFile.quantize
+    return int(max(0, min(QUANT, math.floor(p * QUANT + 0.5))))
+
+
+def utf_java(texto):
+    """String no formato de DataOutputStream.writeUTF (UTF-8 modificado)."""
+    dados = bytearray()
+    unidades = texto.encode('utf-16-be')
+    for i in range(0, len(unidades), 2):
+        c = (unidades[i] << 8) | unidades[i + 1]
+        if 0 < c < 0x80:
+            dados.append(c)
+        elif c < 0x800:
+            dados += bytes([0xC0 | c >> 6, 0x80 | c & 0x3F])
+        else:
+            dados += bytes([0xE0 | c >> 12, 0x80 | (c >> 6) & 0x3F, 0x80 | c & 0x3F])
+    if len(dados) > 0xFFFF:
+        raise ValueError(f'String longa demais: {texto[:40]}...')
+    return struct.pack('>H', len(dados)) + bytes(dados)
+
+
+def opcional(texto):
+    if texto is None:
+        return b'\x00'
+    return b'\x01' + utf_java(texto)
+
+
+def lista(textos):
+    return struct.pack('>i', len(textos)) + b''.join(opcional(t) for t in textos)
+
+
+def metadados(dump):
+    dados = bytearray()
+    dados += opcional(dump.get('model'))
+    dados += opcional(dump.get('sklearn_version'))
+    dados += b''.join(struct.pack('>i', c) for c in dump['classes'])
+    dados += b''.join(utf_java(f) for f in dump['features'])
+    pre = dump.get('preprocessing') or {}
+    data = pre.get('date')
+    if data:
+        dados += b'\x01' + utf_java(data['column']) + lista(data['features'])
+    else:
+        dados += b'\x00'
+    encoders = pre.get('target_encoders') or []
+    dados += struct.pack('>i', len(encoders))
+    for encoder in encoders:
+        dados += utf_java(encoder['column']) + lista(encoder['categories'])
+        dados += b''.join(struct.pack('>d', e) for e in encoder['encodings'])
+        dados += struct.pack('>d', encoder['default'])
+    dados += lista(pre.get('passthrough') or [])
+    return bytes(dados)
+
+
+def pre_ordem(arvore, t):
+    """Nós em profundidade, subárvore esquerda primeiro, como RandomForestModel."""
+    esquerda, direita = arvore['children_left'], arvore['children_right']
+    ordem, pilha, vistos = [], [0], set()
+    while pilha:
+        no = pilha.pop()
+        if no < 0 or no >= len(esquerda) or no in vistos:
+            raise ValueError(f'Árvore {t} tem filhos inválidos no nó {no}')
+        vistos.add(no)
+        ordem.append(no)
+        if esquerda[no] >= 0:
+            pilha.append(direita[no])
+            pilha.append(esquerda[no])
+    if len(ordem) != len(esquerda):
+        raise ValueError(f'Árvore {t} tem {len(esquerda) - len(ordem)} nós inalcançáveis')
+    return ordem
+
+
+def converter(dump):
+    num_features = len(dump['features'])
+    num_classes = len(dump['classes'])
+    if num_features >= FOLHA:
+        raise ValueError(f'O modelo binário aceita no máximo {FOLHA - 1} features')
+
+    raizes, nos, folhas = [], bytearray(), bytearray()
+    base = 0
+    num_folhas = 0
+    for t, arvore in enumerate(dump['trees']):
+        ordem = pre_ordem(arvore, t)
+        posicao = {no: k for k, no in enumerate(ordem)}
+        raizes.append(base)
+        for k, n in enumerate(ordem):
+            if arvore['children_left'][n] < 0:
+                nos += struct.pack('>ii', num_folhas, FOLHA)
+                folhas += b''.join(struct.pack('>H', quantizar(p)) for p in arvore['value'][n])
+                num_folhas += 1
+                continue
+            feature = arvore['feature'][n]
+            if not 0 <= feature < num_features:
+                raise ValueError(f'Árvore {t} nó {n} usa a feature {feature}')
+            deslocamento = posicao[arvore['children_right'][n]] - k
+            if deslocamento > MAX_DESLOCAMENTO:
+                raise ValueError(f'Árvore {t} nó {n}: filho direito a {deslocamento} nós')
+            missing = MISSING_ESQUERDA if arvore['missing_go_to_left'][n] else 0
+            nos += struct.pack('>fI', float32_abaixo(arvore['threshold'][n]),
+                               (deslocamento << 8 | missing | feature) & 0xFFFFFFFF)
+        base += len(ordem)
+
+    meta = metadados(dump)
+    arquivo = bytearray(struct.pack('>8i', MAGIC, VERSION, num_features, num_classes, len(raizes), base,
+                                    num_folhas, len(meta)))
+    arquivo += meta
+    arquivo += b'\x00' * (-len(arquivo) % 8)
+    arquivo += b''.join(struct.pack('>i', r) for r in raizes)
+    arquivo += b'\x00' * (-len(arquivo) % 8)
+    return bytes(arquivo + nos + folhas)
+
+
+def main():
+    parser = argparse.ArgumentParser(description='Converte o dump JSON do RandomForest para o modelo binário')
+    parser.add_argument('--dump', default='forest.json')
+    parser.add_argument('--out', default='forest.fotm')
+    args = parser.parse_args()
+
+    with open(args.dump, encoding='utf-8') as f:
+        dump = json.load(f)
+    dados = converter(dump)
+    with open(args.out, 'wb') as f:
+        f.write(dados)
+    print(f'Modelo binário gravado em {args.out} ({len(dados)} bytes)')
+
+
+if __name__ == '__main__':
+    main()
@@ -0,0 +1,187 @@
+"""
+Exporta o pipeline RandomForest (modelo_atraso_voos_rf_res.pkl) para o dump JSON
+lido pelo motor de inferência Java da API (com.backend.fot.inference).
+
+O dump contém as árvores em arrays planos (children_left, children_right, feature,
+threshold, missing_go_to_left, as probabilidades de classe e o peso de treino
+que chega a cada nó, usado pelas explicações TreeSHAP) e os
+parâmetros do pré-processamento (ExtratorDeDatas e TargetEncoder).
+
+Com --fixture, grava também entradas de exemplo com as features geradas pelo
+pré-processamento e as probabilidades de predict_proba, usadas pelos testes de
+paridade do lado Java.
+
+Uso:
+    python export_forest.py --model modelo_atraso_voos_rf_res.pkl --out forest.json \
+        [--fixture entradas.json --fixture-out forest-fixture.json]
+
+entradas.json é uma lista de objetos {companhia, origem, destino, data_partida},
+o mesmo contrato de /predict.
+"""
+import argparse
+import json
+import math
+
+import joblib
+import numpy as np
+import pandas as pd
+import sklearn
+from sklearn.base import BaseEstimator, TransformerMixin
+from sklearn.preprocessing import TargetEncoder
+import sklearn.compose._column_transformer
+
+# Mesmo bloco de compatibilidade de app.py
+try:
+    if not hasattr(sklearn.compose._column_transformer, '_RemainderColsList'):
+        class _RemainderColsList(list):
+            def __getstate__(self):
+                return self[:]
+
+            def __setstate__(self, state):
+                self[:] = state
+        sklearn.compose._column_transformer._RemainderColsList = _RemainderColsList
+except Exception:
+    pass
+
+
+class ExtratorDeDatas(BaseEstimator, TransformerMixin):
+    """Mesma transformação de app.py; o pickle referencia esta classe por nome."""
+
+    def fit(self, X, y=None):
+        return self
+
+    def transform(self, X):
+        X_copy = X.copy()
+        if isinstance(X_copy, pd.DataFrame):
+            series = X_copy.iloc[:, 0]
+        else:
+            series = X_copy
+        dt_series = pd.to_datetime(series, errors='coerce')
+        return pd.DataFrame({
+            'mes': dt_series.dt.month,
+            'dia_semana': dt_series.dt.dayofweek,
+            'hora': dt_series.dt.hour,
+            'dia_ano': dt_series.dt.day_of_year
+        })
+
+    def get_feature_names_out(self, input_features=None):
+        return ['mes', 'dia_semana', 'hora', 'dia_ano']
+
+
+DATE_FEATURES = ['mes', 'dia_semana', 'hora', 'dia_ano']
+FORMAT = 'fot-random-forest'
+VERSION = 1
+
+
+def categoria(valor):
+    """Categorias viram string; NaN/None viram null."""
+    if valor is None or (isinstance(valor, float) and math.isnan(valor)):
+        return None
+    return str(valor)
+
+
+def exportar_preprocessamento(preprocessor):
+    preprocessing = {'date': None, 'target_encoders': [], 'passthrough': []}
+    for nome, transformer, colunas in preprocessor.transformers_:
+        if isinstance(transformer, str) and transformer == 'drop':
+            continue
+        colunas = list(colunas)
+        if isinstance(transformer, ExtratorDeDatas):
+            preprocessing['date'] = {'column': colunas[0], 'features': DATE_FEATURES}
+        elif isinstance(transformer, TargetEncoder):
+            if transformer.target_type_ != 'binary':
+                raise ValueError(f'TargetEncoder {nome}: apenas target_type binary é suportado')
+            for coluna, categorias, encodings in zip(colunas, transformer.categories_, transformer.encodings_):
+                preprocessing['target_encoders'].append({
+                    'column': coluna,
+                    'categories': [categoria(c) for c in categorias],
+                    'encodings': [float(e) for e in encodings],
+                    'default': float(transformer.target_mean_),
+                })
+        elif isinstance(transformer, str) and transformer == 'passthrough':
+            preprocessing['passthrough'].extend(colunas)
+        else:
+            raise ValueError(f'Transformer não suportado: {nome} ({type(transformer).__name__})')
+    return preprocessing
+
+
+def exportar_arvore(estimator):
+    tree = estimator.tree_
+    values = tree.value[:, 0, :]
+    totals = values.sum(axis=1, keepdims=True)
+    totals[totals == 0] = 1.0
+    missing = getattr(tree, 'missing_go_to_left', None)
+    return {
+        'children_left': tree.children_left.tolist(),
+        'children_right': tree.children_right.tolist(),
+        'feature': tree.feature.tolist(),
+        'threshold': tree.threshold.tolist(),
+        'missing_go_to_left': (missing.astype(int).tolist() if missing is not None
+                               else [0] * tree.node_count),
+        'value': (values / totals).tolist(),
+        'weighted_n_node_samples': tree.weighted_n_node_samples.tolist(),
+    }
+
+
+def exportar(pipeline, nome_modelo):
+    preprocessor = pipeline.named_steps['preprocessor']
+    modelo = pipeline.named_steps['modelo']
+    return {
+        'format': FORMAT,
+        'version': VERSION,
+        'model': nome_modelo,
+        'sklearn_version': sklearn.__version__,
+        'classes': [int(c) for c in modelo.classes_],
+        'features': [str(f) for f in preprocessor.get_feature_names_out()],
+        'preprocessing': exportar_preprocessamento(preprocessor),
+        'trees': [exportar_arvore(e) for e in modelo.estimators_],
+    }
+
+
+def gerar_fixture(pipeline, entradas):
+    df = pd.DataFrame({
+        'sg_empresa_icao': [e.get('companhia') for e in entradas],
+        'sg_iata_origem': [e.get('origem') for e in entradas],
+        'sg_iata_destino': [e.get('destino') for e in entradas],
+        'dt_partida_prevista': [e.get('data_partida') for e in entradas],
+    })
+    features = np.asarray(pipeline.named_steps['preprocessor'].transform(df), dtype=float)
+    probas = pipeline.predict_proba(df)
+    predicoes = pipeline.predict(df)
+    return {
+        'sklearn_version': sklearn.__version__,
+        'cases': [
+            {
+                'input': entrada,
+                'features': [None if math.isnan(v) else v for v in linha.tolist()],
+                'probabilities': proba.tolist(),
+                'prediction': int(predicao),
+            }
+            for entrada, linha, proba, predicao in zip(entradas, features, probas, predicoes)
+        ],
+    }
+
+
+def main():
+    parser = argparse.ArgumentParser(description='Exporta o RandomForest para o motor de inferência Java')
+    parser.add_argument('--model', default='modelo_atraso_voos_rf_res.pkl')
+    parser.add_argument('--out', default='forest.json')
+    parser.add_argument('--fixture', help='JSON com entradas no contrato de /predict')
+    parser.add_argument('--fixture-out', default='forest-fixture.json')
+    args = parser.parse_args()
+
+    pipeline = joblib.load(args.model)
+    with open(args.out, 'w', encoding='utf-8') as f:
+        json.dump(exportar(pipeline, args.model), f)
+    print(f'Dump gravado em {args.out}')
+
+    if args.fixture:
+        with open(args.fixture, encoding='utf-8') as f:
+            entradas = json.load(f)
+        with open(args.fixture_out, 'w', encoding='utf-8') as f:
+            json.dump(gerar_fixture(pipeline, entradas), f, indent=1)
+        print(f'Fixture gravada em {args.fixture_out}')
+
+
+if __name__ == '__main__':
+    main()
@@ -0,0 +1,123 @@
+"""
+Exporta o RandomForest do pipeline (modelo_atraso_voos_rf_res.pkl) para ONNX, para
+o motor de inferência Java com ml.inference.model-format=ONNX
+(com.backend.fot.inference.OnnxForestModel, ONNX Runtime na CPU).
+
+O grafo ONNX contém apenas o classificador (TreeEnsembleClassifier): entrada
+"input" em float32 [N, features] e saída "probabilities" [N, classes], sem ZipMap.
+O pré-processamento (ExtratorDeDatas e TargetEncoder) continua na API; o cabeçalho
+do dump de export_forest.py, sem as árvores, vai nos metadados do modelo
+(fot.header), junto com o número de árvores e de nós.
+
+Os limiares são gravados como o maior float32 que não passa do limiar em float64 e
+a direção dos valores ausentes segue missing_go_to_left, para que cada split decida
+como no sklearn; a soma das folhas em float32 do ONNX Runtime difere do
+predict_proba apenas nos últimos bits.
+
+Requer skl2onnx e onnx (e onnxruntime para --fixture).
+
+Uso:
+    python export_onnx.py --model modelo_atraso_voos_rf_res.pkl --out forest.onnx \
+        [--fixture entradas.json]
+
+Com --fixture, compara as probabilidades do ONNX Runtime com as do pipeline para as
+entradas (mesmo contrato de /predict) e mostra a maior diferença.
+"""
+import __main__
+import argparse
+import json
+
+import joblib
+import numpy as np
+import onnx
+from onnx import helper
+from skl2onnx import convert_sklearn
+from skl2onnx.common.data_types import FloatTensorType
+
+from export_forest import ExtratorDeDatas, exportar, gerar_fixture
+from convert_forest import float32_abaixo
+
+# O pickle referencia a classe como __main__.ExtratorDeDatas
+__main__.ExtratorDeDatas = ExtratorDeDatas
+
+OPSET = {'': 15, 'ai.onnx.ml': 3}
+
+
+def ajustar_splits(modelo_onnx, floresta):
+    """Limiares arredondados para baixo em float32 e NaN por missing_go_to_left."""
+    no = next(n for n in modelo_onnx.graph.node if n.op_type == 'TreeEnsembleClassifier')
+    atributos = {a.name: a for a in no.attribute}
+    arvores = list(atributos['nodes_treeids'].ints)
+    nos = list(atributos['nodes_nodeids'].ints)
+    modos = [m.decode() for m in atributos['nodes_modes'].strings]
+
+    limiares, ausentes = [], []
+    for t, n, modo in zip(arvores, nos, modos):
+        tree = floresta.estimators_[t].tree_
+        if modo == 'LEAF':
+            limiares.append(0.0)
+            ausentes.append(0)
+            continue
+        limiares.append(float32_abaixo(float(tree.threshold[n])))
+        missing = getattr(tree, 'missing_go_to_left', None)
+        ausentes.append(int(missing[n]) if missing is not None else 0)
+
+    for nome in ('nodes_values', 'nodes_missing_value_tracks_true'):
+        if nome in atributos:
+            no.attribute.remove(atributos[nome])
+    no.attribute.append(helper.make_attribute('nodes_values', limiares))
+    no.attribute.append(helper.make_attribute('nodes_missing_value_tracks_true', ausentes))
+
+
+def converter(pipeline, nome_modelo):
+    floresta = pipeline.named_steps['modelo']
+    cabecalho = exportar(pipeline, nome_modelo)
+    cabecalho['trees'] = []
+    num_features = len(cabecalho['features'])
+
+    modelo_onnx = convert_sklearn(
+        floresta,
+        initial_types=[('input', FloatTensorType([None, num_features]))],
+        options={id(floresta): {'zipmap': False}},
+        target_opset=OPSET,
+    )
+    ajustar_splits(modelo_onnx, floresta)
+    helper.set_model_props(modelo_onnx, {
+        'fot.header': json.dumps(cabecalho),
+        'fot.num_trees': str(len(floresta.estimators_)),
+        'fot.num_nodes': str(sum(e.tree_.node_count for e in floresta.estimators_)),
+    })
+    onnx.checker.check_model(modelo_onnx)
+    return modelo_onnx
+
+
+def verificar(pipeline, caminho, entradas):
+    import onnxruntime
+
+    fixture = gerar_fixture(pipeline, entradas)
+    features = np.array([[np.nan if v is None else v for v in caso['features']] for caso in fixture['cases']],
+                        dtype=np.float32)
+    esperado = np.array([caso['probabilities'] for caso in fixture['cases']])
+    sessao = onnxruntime.InferenceSession(caminho, providers=['CPUExecutionProvider'])
+    obtido = sessao.run(['probabilities'], {'input': features})[0]
+    print(f'{len(entradas)} entradas, maior diferença de probabilidade: {np.abs(obtido - esperado).max():.3g}')
+
+
+def main():
+    parser = argparse.ArgumentParser(description='Exporta o RandomForest para ONNX')
+    parser.add_argument('--model', default='modelo_atraso_voos_rf_res.pkl')
+    parser.add_argument('--out', default='forest.onnx')
+    parser.add_argument('--fixture', help='JSON com entradas no contrato de /predict')
+    args = parser.parse_args()
+
+    pipeline = joblib.load(args.model)
+    onnx.save(converter(pipeline, args.model), args.out)
+    print(f'Modelo ONNX gravado em {args.out}')
+
+    if args.fixture:
+        with open(args.fixture, encoding='utf-8') as f:
+            verificar(pipeline, args.out, json.load(f))
+
+
+if __name__ == '__main__':
+    main()
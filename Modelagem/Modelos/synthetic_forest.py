@@ -0,0 +1,197 @@
+"""
+Gera um RandomForest sintético no formato de export_forest.py, junto com uma
+fixture de paridade, para os testes do motor de inferência Java.
+
+Usa apenas a biblioteca padrão: as árvores são sorteadas com a mesma estrutura do
+sklearn (nós em pré-ordem, folhas com children_left = children_right = -1,
+feature = -2) e as saídas esperadas são calculadas com a mesma semântica de
+predict_proba: features convertidas para float32 antes da comparação
+"x <= threshold", NaN seguindo missing_go_to_left e média das probabilidades
+das folhas entre as árvores. As features de data seguem o ExtratorDeDatas
+(dia_semana com segunda-feira = 0) e as categóricas o TargetEncoder (categoria
+desconhecida recebe target_mean_).
+
+Para a paridade com o modelo real, use export_forest.py --fixture.
+
+Uso:
+    python synthetic_forest.py --out-dir ../../fot/src/test/resources/inference
+"""
+import argparse
+import datetime
+import json
+import math
+import os
+import random
+import struct
+
+DATE_FEATURES = ['mes', 'dia_semana', 'hora', 'dia_ano']
+DATE_RANGES = {'mes': (1, 12), 'dia_semana': (0, 6), 'hora': (0, 23), 'dia_ano': (1, 366)}
+CATEGORICAL = {
+    'sg_empresa_icao': ['ABJ', 'AZU', 'GLO', 'PTB', 'TAM', 'TTL'],
+    'sg_iata_origem': ['BEL', 'BSB', 'CGH', 'CNF', 'CWB', 'FLN', 'FOR', 'GIG', 'GRU', 'MAO',
+                       'POA', 'REC', 'SDU', 'SSA', 'VCP'],
+    'sg_iata_destino': ['BEL', 'BSB', 'CGH', 'CNF', 'CWB', 'FLN', 'FOR', 'GIG', 'GRU', 'MAO',
+                        'POA', 'REC', 'SDU', 'SSA', 'VCP'],
+}
+INPUT_FIELDS = {'sg_empresa_icao': 'companhia', 'sg_iata_origem': 'origem', 'sg_iata_destino': 'destino'}
+TARGET_MEAN = 0.5
+
+
+def float32(valor):
+    return struct.unpack('f', struct.pack('f', valor))[0]
+
+
+def gerar_encoders(rng):
+    encoders = []
+    for coluna, categorias in CATEGORICAL.items():
+        encoders.append({
+            'column': coluna,
+            'categories': sorted(categorias),
+            'encodings': [rng.uniform(0.2, 0.8) for _ in categorias],
+            'default': TARGET_MEAN,
+        })
+    return encoders
+
+
+def limiar(rng, feature, encoders):
+    if feature in DATE_RANGES:
+        inicio, fim = DATE_RANGES[feature]
+        return rng.randint(inicio, fim - 1) + 0.5
+    encodings = sorted(next(e['encodings'] for e in encoders if e['column'] == feature))
+    i = rng.randrange(len(encodings) - 1)
+    # Ponto médio entre dois valores em float32, como o sklearn escolhe os limiares
+    return (float32(encodings[i]) + float32(encodings[i + 1])) / 2.0
+
+
+def gerar_arvore(rng, features, encoders, profundidade_max):
+    arvore = {'children_left': [], 'children_right': [], 'feature': [], 'threshold': [],
+              'missing_go_to_left': [], 'value': []}
+
+    def novo_no(profundidade):
+        no = len(arvore['feature'])
+        p = rng.random()
+        for chave in arvore:
+            arvore[chave].append(None)
+        arvore['value'][no] = [1.0 - p, p]
+        folha = profundidade >= profundidade_max or (profundidade >= 2 and rng.random() < 0.25)
+        if folha:
+            arvore['children_left'][no] = -1
+            arvore['children_right'][no] = -1
+            arvore['feature'][no] = -2
+            arvore['threshold'][no] = -2.0
+            arvore['missing_go_to_left'][no] = 0
+            return no
+        indice = rng.randrange(len(features))
+        arvore['feature'][no] = indice
+        arvore['threshold'][no] = limiar(rng, features[indice], encoders)
+        arvore['missing_go_to_left'][no] = rng.randint(0, 1)
+        arvore['children_left'][no] = novo_no(profundidade + 1)
+        arvore['children_right'][no] = novo_no(profundidade + 1)
+        return no
+
+    novo_no(0)
+    return arvore
+
+
+def extrair_features(entrada, encoders):
+    partida = entrada.get('data_partida')
+    if partida:
+        dt = datetime.datetime.fromisoformat(partida)
+        datas = [dt.month, dt.weekday(), dt.hour, dt.timetuple().tm_yday]
+    else:
+        datas = [math.nan] * 4
+    categoricas = []
+    for encoder in encoders:
+        valor = entrada.get(INPUT_FIELDS[encoder['column']])
+        if valor in encoder['categories']:
+            categoricas.append(encoder['encodings'][encoder['categories'].index(valor)])
+        else:
+            categoricas.append(encoder['default'])
+    return [float(v) for v in datas] + categoricas
+
+
+def predict_proba(dump, features):
+    total = [0.0, 0.0]
+    for arvore in dump['trees']:
+        no = 0
+        while arvore['children_left'][no] != -1:
+            x = features[arvore['feature'][no]]
+            if math.isnan(x):
+                esquerda = arvore['missing_go_to_left'][no] == 1
+            else:
+                esquerda = float32(x) <= arvore['threshold'][no]
+            no = arvore['children_left'][no] if esquerda else arvore['children_right'][no]
+        folha = arvore['value'][no]
+        total = [total[0] + folha[0], total[1] + folha[1]]
+    return [t / len(dump['trees']) for t in total]
+
+
+def gerar_entradas(rng, quantidade):
+    entradas = []
+    inicio = datetime.datetime(2026, 1, 1)
+    for i in range(quantidade):
+        partida = inicio + datetime.timedelta(minutes=rng.randrange(366 * 24 * 60))
+        entrada = {
+            'companhia': rng.choice(CATEGORICAL['sg_empresa_icao']),
+            'origem': rng.choice(CATEGORICAL['sg_iata_origem']),
+            'destino': rng.choice(CATEGORICAL['sg_iata_destino']),
+            'data_partida': partida.replace(second=0).isoformat(),
+        }
+        # Algumas categorias fora do vocabulário do encoder
+        if i % 17 == 0:
+            entrada['companhia'] = 'XYZ'
+        if i % 23 == 0:
+            entrada['destino'] = 'JPA'
+        # Data ausente vira NaT no ExtratorDeDatas e NaN nas features de data
+        if i % 29 == 0:
+            entrada['data_partida'] = None
+        entradas.append(entrada)
+    return entradas
+
+
+def main():
+    parser = argparse.ArgumentParser(description='Gera um RandomForest sintético para os testes Java')
+    parser.add_argument('--out-dir', default='.')
+    parser.add_argument('--trees', type=int, default=20)
+    parser.add_argument('--depth', type=int, default=8)
+    parser.add_argument('--cases', type=int, default=200)
+    parser.add_argument('--seed', type=int, default=42)
+    args = parser.parse_args()
+
+    rng = random.Random(args.seed)
+    encoders = gerar_encoders(rng)
+    features = DATE_FEATURES + [e['column'] for e in encoders]
+    dump = {
+        'format': 'fot-random-forest',
+        'version': 1,
+        'model': 'synthetic',
+        'sklearn_version': None,
+        'classes': [0, 1],
+        'features': features,
+        'preprocessing': {
+            'date': {'column': 'dt_partida_prevista', 'features': DATE_FEATURES},
+            'target_encoders': encoders,
+            'passthrough': [],
+        },
+        'trees': [gerar_arvore(rng, features, encoders, args.depth) for _ in range(args.trees)],
+    }
+
+    casos = []
+    for entrada in gerar_entradas(rng, args.cases):
+        x = extrair_features(entrada, encoders)
+        proba = predict_proba(dump, x)
+        casos.append({
+            'input': entrada,
+            'features': [None if math.isnan(v) else v for v in x],
+            'probabilities': proba,
+            'prediction': dump['classes'][1 if proba[1] > proba[0] else 0],
+        })
+
+    with open(os.path.join(args.out_dir, 'forest.json'), 'w', encoding='utf-8') as f:
+        json.dump(dump, f)
+    with open(os.path.join(args.out_dir, 'forest-fixture.json'), 'w', encoding='utf-8') as f:
+        json.dump({'sklearn_version': None, 'cases': casos}, f, indent=1)
+
+
+if __name__ == '__main__':
+    main()
@@ -0,0 +1,230 @@
+package com.backend.fot.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Background prober that keeps a cached view of the ML service's health.
+ * <p>
+ * Every {@code ml.service.health.probe-interval} each replica's {@code /health}
+ * endpoint is called on the async client, and the result (status, probe latency
+ * and the {@code model_loaded} flag reported by the model server) is published as
+ * an immutable {@link MLHealthSnapshot}. Readers such as {@code /api/v1/health} and
+ * the readiness check only dereference the snapshot, so monitoring traffic never
+ * adds load to the ML service or waits on it.
+ * </p>
+ * <p>
+ * Results also feed call decisions: {@link ReplicaBalancer} skips replicas found
+ * down, and {@link MLServiceClient} fails fast while every replica is down. A
+ * "down" result is trusted for two probe intervals, so a stalled prober cannot
+ * block predictions indefinitely.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ * @since 2026-10-16
+ */
+@Slf4j
+@Component
+public class MLHealthProber {
+
+    private final CloseableHttpAsyncClient asyncHttpClient;
+    private final UnixSocketHttpClient unixSocketHttpClient;
+    private final ReplicaBalancer balancer;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final long probeIntervalMs;
+    private final long probeTimeoutMs;
+    private final long downTtlNanos;
+    private final AtomicReference<MLHealthSnapshot> snapshot = new AtomicReference<>(MLHealthSnapshot.UNKNOWN);
+
+    private ScheduledExecutorService scheduler;
+
+    public MLHealthProber(
+            CloseableHttpAsyncClient asyncHttpClient,
+            UnixSocketHttpClient unixSocketHttpClient,
+            ReplicaBalancer balancer,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${ml.service.health.enabled:true}") boolean enabled,
+            @Value("${ml.service.health.probe-interval:5000}") long probeIntervalMs,
+            @Value("${ml.service.health.probe-timeout:1000}") long probeTimeoutMs) {
+        this.asyncHttpClient = asyncHttpClient;
+        this.unixSocketHttpClient = unixSocketHttpClient;
+        this.balancer = balancer;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.probeIntervalMs = probeIntervalMs;
+        this.probeTimeoutMs = probeTimeoutMs;
+        this.downTtlNanos = TimeUnit.MILLISECONDS.toNanos(2 * probeIntervalMs);
+
+        Gauge.builder("ml.client.health.up", snapshot, s -> s.get().isUp() ? 1 : 0)
+                .description("1 while the background probe finds the ML service up")
+                .register(meterRegistry);
+        Gauge.builder("ml.client.health.latency", snapshot, s -> s.get().latencyMillis())
+                .description("Slowest ML health probe round trip of the last round, in milliseconds")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ml-health-prober");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::probeQuietly, 0, probeIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("Probing ML service health every {}ms", probeIntervalMs);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * @return latest published health snapshot; never null
+     */
+    public MLHealthSnapshot snapshot() {
+        return snapshot.get();
+    }
+
+    private void probeQuietly() {
+        try {
+            probe().join();
+        } catch (RuntimeException e) {
+            log.warn("ML health probe round failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Probes every replica once and publishes the resulting snapshot.
+     *
+     * @return future completed with the published snapshot
+     */
+    CompletableFuture<MLHealthSnapshot> probe() {
+        List<CompletableFuture<MLHealthSnapshot.ReplicaHealth>> probes = new ArrayList<>();
+        for (ReplicaBalancer.Replica replica : balancer.replicas()) {
+            probes.add(probe(replica).thenApply(health -> {
+                replica.markProbed(health.status() == MLHealthSnapshot.Status.UP, downTtlNanos);
+                return health;
+            }));
+        }
+        return CompletableFuture.allOf(probes.toArray(CompletableFuture[]::new)).thenApply(ignored -> {
+            MLHealthSnapshot previous = snapshot.get();
+            MLHealthSnapshot current = MLHealthSnapshot.of(probes.stream().map(CompletableFuture::join).toList(),
+                    Instant.now());
+            snapshot.set(current);
+            if (previous.status() != current.status()) {
+                log.info("ML service health changed from {} to {}", previous.status(), current.status());
+            }
+            return current;
+        });
+    }
+
+    private CompletableFuture<MLHealthSnapshot.ReplicaHealth> probe(ReplicaBalancer.Replica replica) {
+        CompletableFuture<MLHealthSnapshot.ReplicaHealth> result = new CompletableFuture<>();
+        long start = System.nanoTime();
+        Timeout timeout = Timeout.ofMilliseconds(probeTimeoutMs);
+
+        FutureCallback<SimpleHttpResponse> callback = new FutureCallback<>() {
+            @Override
+            public void completed(SimpleHttpResponse response) {
+                result.complete(toHealth(replica, response, elapsedMillis(start)));
+            }
+
+            @Override
+            public void failed(Exception ex) {
+                result.complete(down(replica, null, elapsedMillis(start), ex.getMessage()));
+            }
+
+            @Override
+            public void cancelled() {
+                result.complete(down(replica, null, elapsedMillis(start), "probe cancelled"));
+            }
+        };
+        Future<SimpleHttpResponse> exchange = UnixSocketHttpClient.isUnixUrl(replica.healthUrl())
+                ? unixSocketHttpClient.get(replica.healthUrl(), probeTimeoutMs, callback)
+                : asyncHttpClient.execute(
+                        SimpleRequestBuilder.get(replica.healthUrl())
+                                .setRequestConfig(RequestConfig.custom()
+                                        .setConnectionRequestTimeout(timeout)
+                                        .setResponseTimeout(timeout)
+                                        .build())
+                                .build(),
+                        callback);
+
+        // Connecting is not bounded by the request config; cap the whole probe here
+        return result.completeOnTimeout(down(replica, null, probeTimeoutMs, "probe timed out"),
+                        probeTimeoutMs, TimeUnit.MILLISECONDS)
+                .whenComplete((health, error) -> exchange.cancel(true));
+    }
+
+    private MLHealthSnapshot.ReplicaHealth toHealth(ReplicaBalancer.Replica replica, SimpleHttpResponse response,
+                                                    long latencyMillis) {
+        Boolean modelLoaded = readModelLoaded(response);
+        if (response.getCode() < 200 || response.getCode() >= 300) {
+            return down(replica, modelLoaded, latencyMillis, "HTTP " + response.getCode());
+        }
+        if (Boolean.FALSE.equals(modelLoaded)) {
+            return down(replica, false, latencyMillis, "model not loaded");
+        }
+        return new MLHealthSnapshot.ReplicaHealth(replica.url(), MLHealthSnapshot.Status.UP, modelLoaded,
+                latencyMillis, null);
+    }
+
+    /**
+     * @return {@code model_loaded} from the JSON body, or null if the body does not carry it
+     */
+    private Boolean readModelLoaded(SimpleHttpResponse response) {
+        byte[] body = response.getBodyBytes();
+        if (body == null || body.length == 0) {
+            return null;
+        }
+        try {
+            JsonNode flag = objectMapper.readTree(body).get("model_loaded");
+            return flag != null && flag.isBoolean() ? flag.booleanValue() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static MLHealthSnapshot.ReplicaHealth down(ReplicaBalancer.Replica replica, Boolean modelLoaded,
+                                                       long latencyMillis, String detail) {
+        return new MLHealthSnapshot.ReplicaHealth(replica.url(), MLHealthSnapshot.Status.DOWN, modelLoaded,
+                latencyMillis, detail);
+    }
+
+    private static long elapsedMillis(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,88 @@
+package com.backend.fot.client;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Immutable result of one round of ML service health probes.
+ * <p>
+ * Published by {@link MLHealthProber} after every round and read by the health
+ * endpoints without any network call. The service is UP when at least one replica
+ * answered its {@code /health} endpoint with 2xx and did not report
+ * {@code model_loaded: false}.
+ * </p>
+ *
+ * @param status        aggregate status over all replicas
+ * @param modelLoaded   true if an UP replica reported a loaded model, null if none reported it
+ * @param latencyMillis slowest probe round trip of the round, in milliseconds
+ * @param checkedAt     when the round completed, or null before the first round
+ * @param replicas      per-replica results, in configuration order
+ * @author FlightOnTime Team
+ * @version 1.0
+ * @since 2026-10-16
+ */
+public record MLHealthSnapshot(
+        Status status,
+        Boolean modelLoaded,
+        long latencyMillis,
+        Instant checkedAt,
+        List<ReplicaHealth> replicas) {
+
+    /**
+     * Snapshot published before the first probe round completes.
+     */
+    public static final MLHealthSnapshot UNKNOWN = new MLHealthSnapshot(Status.UNKNOWN, null, -1, null, List.of());
+
+    /**
+     * Health of the ML service as seen by the prober.
+     */
+    public enum Status {
+        UNKNOWN, UP, DOWN
+    }
+
+    /**
+     * Probe result for one replica.
+     *
+     * @param url           prediction endpoint of the replica
+     * @param status        UP or DOWN
+     * @param modelLoaded   {@code model_loaded} as reported by the replica, null if absent
+     * @param latencyMillis probe round trip in milliseconds
+     * @param detail        failure reason, null when UP
+     */
+    public record ReplicaHealth(String url, Status status, Boolean modelLoaded, long latencyMillis, String detail) {
+    }
+
+    /**
+     * Aggregates one round of replica results.
+     *
+     * @param replicas  per-replica results
+     * @param checkedAt completion time of the round
+     * @return aggregated snapshot
+     */
+    static MLHealthSnapshot of(List<ReplicaHealth> replicas, Instant checkedAt) {
+        boolean anyUp = false;
+        Boolean modelLoaded = null;
+        long latencyMillis = 0;
+        for (ReplicaHealth replica : replicas) {
+            latencyMillis = Math.max(latencyMillis, replica.latencyMillis());
+            if (replica.status() == Status.UP) {
+                anyUp = true;
+                if (replica.modelLoaded() != null) {
+                    modelLoaded = Boolean.TRUE;
+                }
+            } else if (modelLoaded == null && Boolean.FALSE.equals(replica.modelLoaded())) {
+                modelLoaded = Boolean.FALSE;
+            }
+        }
+        if (anyUp && Boolean.FALSE.equals(modelLoaded)) {
+            // Some replica is up but did not report the flag; do not claim the model is missing
+            modelLoaded = null;
+        }
+        return new MLHealthSnapshot(anyUp ? Status.UP : Status.DOWN, modelLoaded, latencyMillis, checkedAt,
+                List.copyOf(replicas));
+    }
+
+    public boolean isUp() {
+        return status == Status.UP;
+    }
+}
@@ -0,0 +1,217 @@
+package com.backend.fot.client;
+
+import com.backend.fot.dto.FlightPredictionRequestDTO;
+import com.backend.fot.dto.MLServiceResponseDTO;
+import com.backend.fot.resilience.Deadline;
+import com.backend.fot.resilience.DeadlineExceededException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-batching stage in front of the ML service batch endpoint.
+ * <p>
+ * Concurrent predictions are queued and a single dispatcher thread groups them
+ * until either {@code ml.service.batch.max-size} items are collected or the oldest
+ * item has waited {@code ml.service.batch.max-wait-micros}. Each group is sent as
+ * one call to {@link MLServiceClient#predictBatchAsync} and every caller receives
+ * its own element of the response. Items whose {@link Deadline} expired while
+ * queued are dropped, and the batch call runs until the latest remaining deadline.
+ * </p>
+ * <p>
+ * Batching is disabled by default because the ML wrapper does not expose a batch
+ * endpoint; enable it when {@code ml.service.url} points at a service that does.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ * @since 2026-10-16
+ */
+@Slf4j
+@Component
+public class MLPredictionBatcher {
+
+    private final MLServiceClient mlServiceClient;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final BlockingQueue<PendingPrediction> queue;
+    private final DistributionSummary batchSizeSummary;
+    private final Timer queueWaitTimer;
+
+    private volatile boolean running;
+    private Thread dispatcher;
+
+    public MLPredictionBatcher(
+            MLServiceClient mlServiceClient,
+            MeterRegistry meterRegistry,
+            @Value("${ml.service.batch.enabled:false}") boolean enabled,
+            @Value("${ml.service.batch.max-size:32}") int maxBatchSize,
+            @Value("${ml.service.batch.max-wait-micros:2000}") long maxWaitMicros,
+            @Value("${ml.service.batch.queue-capacity:10000}") int queueCapacity) {
+        this.mlServiceClient = mlServiceClient;
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = TimeUnit.MICROSECONDS.toNanos(maxWaitMicros);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        this.batchSizeSummary = DistributionSummary.builder("ml.client.batch.size")
+                .description("Number of predictions sent per batch call")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.queueWaitTimer = Timer.builder("ml.client.batch.wait")
+                .description("Time a prediction waited in the batch queue before dispatch")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("ml.client.batch.queue", queue, BlockingQueue::size)
+                .description("Predictions waiting to be batched")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        dispatcher = new Thread(this::dispatchLoop, "ml-batch-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+        log.info("ML prediction batching enabled: maxBatchSize={}, maxWait={}us",
+                maxBatchSize, TimeUnit.NANOSECONDS.toMicros(maxWaitNanos));
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+            dispatcher.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        List<PendingPrediction> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        abandoned.forEach(pending -> pending.future().completeExceptionally(
+                new MLServiceClient.MLServiceException("Prediction batcher is shutting down")));
+    }
+
+    /**
+     * @return true if predictions should be routed through {@link #submit}
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues a prediction for the next batch.
+     *
+     * @param request  Flight prediction request
+     * @param deadline time by which the caller needs the answer
+     * @return future completed when the batch containing this request returns
+     */
+    public CompletableFuture<MLServiceResponseDTO> submit(FlightPredictionRequestDTO request, Deadline deadline) {
+        PendingPrediction pending = new PendingPrediction(request, deadline, new CompletableFuture<>(), System.nanoTime());
+
+        if (!running || !queue.offer(pending)) {
+            pending.future().completeExceptionally(
+                    new MLServiceClient.MLServiceException("Prediction batch queue is full or not running"));
+        }
+        return pending.future();
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                List<PendingPrediction> batch = collectBatch();
+                dispatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Unexpected error in ML batch dispatcher", e);
+            }
+        }
+    }
+
+    private List<PendingPrediction> collectBatch() throws InterruptedException {
+        List<PendingPrediction> batch = new ArrayList<>(maxBatchSize);
+        PendingPrediction first = queue.take();
+        batch.add(first);
+
+        // The wait budget starts when the oldest item was queued, not when it was taken
+        long deadline = first.enqueuedNanos() + maxWaitNanos;
+        while (batch.size() < maxBatchSize) {
+            long remaining = deadline - System.nanoTime();
+            PendingPrediction next = remaining > 0
+                    ? queue.poll(remaining, TimeUnit.NANOSECONDS)
+                    : queue.poll();
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    private void dispatch(List<PendingPrediction> collected) {
+        long now = System.nanoTime();
+        List<PendingPrediction> batch = new ArrayList<>(collected.size());
+        List<FlightPredictionRequestDTO> requests = new ArrayList<>(collected.size());
+        Deadline latest = null;
+        for (PendingPrediction pending : collected) {
+            queueWaitTimer.record(now - pending.enqueuedNanos(), TimeUnit.NANOSECONDS);
+            if (pending.deadline().isExpired()) {
+                // Nobody is waiting for this answer any more
+                pending.future().completeExceptionally(
+                        new DeadlineExceededException("ML call deadline expired while waiting for a batch"));
+                continue;
+            }
+            batch.add(pending);
+            requests.add(pending.request());
+            if (latest == null || pending.deadline().remainingNanos() > latest.remainingNanos()) {
+                latest = pending.deadline();
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        batchSizeSummary.record(batch.size());
+
+        CompletableFuture<List<MLServiceResponseDTO>> call;
+        try {
+            call = mlServiceClient.predictBatchAsync(requests, latest);
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+
+        call.whenComplete((responses, error) -> {
+            for (int i = 0; i < batch.size(); i++) {
+                CompletableFuture<MLServiceResponseDTO> future = batch.get(i).future();
+                if (error != null) {
+                    future.completeExceptionally(error);
+                } else {
+                    future.complete(responses.get(i));
+                }
+            }
+        });
+    }
+
+    private record PendingPrediction(
+            FlightPredictionRequestDTO request,
+            Deadline deadline,
+            CompletableFuture<MLServiceResponseDTO> future,
+            long enqueuedNanos) {
+    }
+}
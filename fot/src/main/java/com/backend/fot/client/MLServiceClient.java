@@ -2,67 +2,170 @@ package com.backend.fot.client;
 
 import com.backend.fot.dto.FlightPredictionRequestDTO;
 import com.backend.fot.dto.MLServiceResponseDTO;
+import com.backend.fot.resilience.AdaptiveConcurrencyLimiter;
+import com.backend.fot.resilience.CallNotPermittedException;
+import com.backend.fot.resilience.Deadline;
+import com.backend.fot.resilience.DeadlineExceededException;
+import com.backend.fot.resilience.RequestHedger;
+import com.backend.fot.resilience.RetryPolicy;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.ConnectTimeoutException;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.util.Timeout;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
-import java.time.Duration;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
 
 /**
  * HTTP client for communication with Flask ML Wrapper service.
+ * <p>
+ * Offers a blocking {@link #predict} backed by the pooled RestTemplate and a
+ * non-blocking {@link #predictAsync} backed by the async HTTP client, which does
+ * not hold a request thread while waiting for the model.
+ * </p>
+ * <p>
+ * {@code ml.service.url} may list several replicas separated by commas. Each call
+ * goes to the replica picked by {@link ReplicaBalancer}, and {@link #predictAsync}
+ * hedges to a second replica through {@link RequestHedger} when the first one is slow.
+ * Every HTTP exchange first takes a permit from {@link AdaptiveConcurrencyLimiter}.
+ * </p>
+ * <p>
+ * Each call carries the caller's {@link Deadline}: its read timeout is the smaller
+ * of {@code ml.service.read-timeout} and the time left, the deadline is forwarded in
+ * the {@link Deadline#HEADER} header, and a call whose deadline has already passed
+ * is not sent at all. A call that times out because the deadline, not the read
+ * timeout, set its timeout fails with {@link DeadlineExceededException}, which
+ * {@link #isServiceFault} does not hold against the service.
+ * </p>
+ * <p>
+ * Calls that fail to connect or get HTTP 503 are retried through {@link RetryPolicy}
+ * on a freshly chosen replica; other failures are not, since the model may already
+ * have processed the request.
+ * </p>
+ * <p>
+ * While {@link MLHealthProber} finds every replica down, calls fail fast with
+ * {@link CallNotPermittedException} instead of waiting on a dead service.
+ * </p>
+ * <p>
+ * Replicas addressed as {@code http+unix://...} are reached over a Unix domain
+ * socket through {@link UnixSocketHttpClient}, on both the blocking and the
+ * non-blocking path.
+ * </p>
+ * <p>
+ * With {@code ml.service.contract=MODEL} the client speaks the model service's
+ * native contract ({@code companhia}, {@code origem}, {@code destino},
+ * {@code data_partida} in; {@code prediction}, {@code probability} out) and
+ * {@code ml.service.url} points straight at the model service, skipping the
+ * wrapper's extra hop and JSON re-encode.
+ * </p>
+ * <p>
+ * Bodies are encoded and decoded by {@link MLWireCodec}: compact JSON by default,
+ * or the binary frame with {@code ml.service.encoding=FRAME}.
+ * </p>
  * 
  * @author FlightOnTime Team
- * @version 1.0
+ * @version 2.2
  * @since 2025-12-21
  */
 @Slf4j
 @Component
 public class MLServiceClient {
 
+    private static final int SERVICE_UNAVAILABLE = 503;
+
+    private static final int UNSUPPORTED_MEDIA_TYPE = 415;
+
     private final RestTemplate restTemplate;
-    private final String mlServiceUrl;
-    private final Duration timeout;
+    private final CloseableHttpAsyncClient asyncHttpClient;
+    private final UnixSocketHttpClient unixSocketHttpClient;
+    private final RequestHedger requestHedger;
+    private final ReplicaBalancer balancer;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final RetryPolicy retryPolicy;
+    private final long readTimeoutMs;
+    private final MLWireCodec codec;
 
     public MLServiceClient(
             RestTemplate restTemplate,
-            @Value("${ml.service.url:http://localhost:5000/predict}") String mlServiceUrl,
-            @Value("${ml.service.timeout:5000}") long timeoutMs) {
+            CloseableHttpAsyncClient asyncHttpClient,
+            UnixSocketHttpClient unixSocketHttpClient,
+            RequestHedger requestHedger,
+            ReplicaBalancer balancer,
+            AdaptiveConcurrencyLimiter limiter,
+            RetryPolicy retryPolicy,
+            @Value("${ml.service.read-timeout:5000}") long readTimeoutMs,
+            MLWireCodec codec) {
         this.restTemplate = restTemplate;
-        this.mlServiceUrl = mlServiceUrl;
-        this.timeout = Duration.ofMillis(timeoutMs);
+        this.asyncHttpClient = asyncHttpClient;
+        this.unixSocketHttpClient = unixSocketHttpClient;
+        this.requestHedger = requestHedger;
+        this.balancer = balancer;
+        this.limiter = limiter;
+        this.retryPolicy = retryPolicy;
+        this.readTimeoutMs = readTimeoutMs;
+        this.codec = codec;
         
-        log.info("MLServiceClient initialized with URL: {}", mlServiceUrl);
-        log.info("MLServiceClient timeout set to: {}ms", timeoutMs);
+        log.info("MLServiceClient initialized with URLs: {} ({} contract, {} encoding)",
+                balancer.replicas(), codec.contract(), codec.encoding());
+        log.info("MLServiceClient read timeout set to: {}ms", readTimeoutMs);
     }
 
     /**
      * Sends flight data to Flask ML Wrapper for prediction.
      * 
-     * @param request Flight prediction request
+     * @param request  Flight prediction request
+     * @param deadline time by which the answer is needed
      * @return ML service response with prediction and probability
      * @throws MLServiceException if communication fails
      */
-    public MLServiceResponseDTO predict(FlightPredictionRequestDTO request) {
+    public MLServiceResponseDTO predict(FlightPredictionRequestDTO request, Deadline deadline) {
         log.info("Sending prediction request to ML service for flight: {}", request.getFlightNumber());
+        if (balancer.allProbedDown()) {
+            throw knownDown();
+        }
         
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            
-            HttpEntity<FlightPredictionRequestDTO> entity = new HttpEntity<>(request, headers);
-            
-            log.debug("Calling ML service at: {}", mlServiceUrl);
-            ResponseEntity<MLServiceResponseDTO> response = restTemplate.postForEntity(
-                    mlServiceUrl,
-                    entity,
-                    MLServiceResponseDTO.class
-            );
+            ResponseEntity<MLServiceResponseDTO> response = retryPolicy.execute(deadline, MLServiceClient::isRetryable,
+                    () -> {
+                        ReplicaBalancer.Replica replica = balancer.choose();
+                        log.debug("Calling ML service at: {}", replica.url());
+                        return limiter.execute(() -> {
+                            checkNotExpired(deadline);
+
+                            long timeoutMs = deadline.capMillis(readTimeoutMs);
+                            return PerCallRequestConfig.callWith(requestConfig(timeoutMs), () -> balancer.trackBlocking(
+                                    replica,
+                                    () -> UnixSocketHttpClient.isUnixUrl(replica.url())
+                                            ? ResponseEntity.ok(postOverUnixSocket(replica.url(), request, deadline))
+                                            : postForEntity(replica.url(), request, deadline, timeoutMs)));
+                        });
+                    });
             
             MLServiceResponseDTO result = response.getBody();
             
@@ -83,37 +186,371 @@ public class MLServiceClient {
     }
 
     /**
-     * Checks if ML service is available.
-     * 
-     * @return true if service is reachable, false otherwise
+     * Sends flight data to Flask ML Wrapper without blocking the calling thread.
+     * <p>
+     * The returned future completes on an I/O reactor thread; failures complete it
+     * exceptionally with {@link MLServiceException}. Cancelling the future aborts the
+     * underlying HTTP exchange. With more than one replica, a slow call is hedged to
+     * the next replica.
+     * </p>
+     *
+     * @param request  Flight prediction request
+     * @param deadline time by which the answer is needed
+     * @return future with the ML service response
      */
-    public boolean isServiceAvailable() {
+    public CompletableFuture<MLServiceResponseDTO> predictAsync(FlightPredictionRequestDTO request, Deadline deadline) {
+        log.info("Sending async prediction request to ML service for flight: {}", request.getFlightNumber());
+        if (balancer.allProbedDown()) {
+            return CompletableFuture.failedFuture(knownDown());
+        }
+
+        return retryPolicy.executeAsync(deadline, MLServiceClient::isRetryable, () -> {
+            ReplicaBalancer.Replica primary = balancer.choose();
+            ReplicaBalancer.Replica secondary = balancer.chooseOther(primary);
+
+            return requestHedger.execute(primary, secondary, replica -> limiter.executeAsync(() -> balancer.track(replica,
+                    () -> postAsync(replica.url(), codec.encode(request), deadline, (body, contentType) -> {
+                        MLServiceResponseDTO result = codec.decode(body, contentType);
+                        log.info("Received prediction from ML service: prediction={}, probability={}",
+                                result.getPrediction(), result.getConfidence());
+                        return result;
+                    }))));
+        });
+    }
+
+    /**
+     * Sends several flights to the batch prediction endpoint in a single call.
+     * <p>
+     * The endpoint receives a JSON array of requests (or one frame holding them all)
+     * and must answer with the responses in the same order.
+     * </p>
+     *
+     * @param requests Flight prediction requests
+     * @param deadline time by which the answers are needed
+     * @return future with one ML service response per request, in request order
+     */
+    public CompletableFuture<List<MLServiceResponseDTO>> predictBatchAsync(List<FlightPredictionRequestDTO> requests,
+                                                                         Deadline deadline) {
+        log.debug("Sending batch of {} prediction requests to ML service", requests.size());
+        if (balancer.allProbedDown()) {
+            return CompletableFuture.failedFuture(knownDown());
+        }
+
+        return retryPolicy.executeAsync(deadline, MLServiceClient::isRetryable, () -> {
+            ReplicaBalancer.Replica replica = balancer.choose();
+            return limiter.executeAsync(() -> balancer.track(replica,
+                    () -> postAsync(replica.url() + "/batch", codec.encodeBatch(requests), deadline, (body, contentType) -> {
+                        List<MLServiceResponseDTO> results = codec.decodeBatch(body, contentType);
+                        if (results.size() != requests.size()) {
+                            throw new MLServiceException(String.format(
+                                    "ML service returned %d predictions for a batch of %d",
+                                    results.size(), requests.size()));
+                        }
+                        return results;
+                    })));
+        });
+    }
+
+    private <T> CompletableFuture<T> postAsync(String url, byte[] body, Deadline deadline, ResponseParser<T> parser) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        if (deadline.isExpired()) {
+            result.completeExceptionally(expired());
+            return result;
+        }
+        String contentType = codec.contentType();
+        long timeoutMs = deadline.capMillis(readTimeoutMs);
+
+        log.debug("Calling ML service asynchronously at: {}", url);
+        FutureCallback<SimpleHttpResponse> callback = new FutureCallback<>() {
+            @Override
+            public void completed(SimpleHttpResponse response) {
+                try {
+                    result.complete(parser.parse(readBody(response), contentType(response)));
+                } catch (MLServiceException e) {
+                    result.completeExceptionally(e);
+                } catch (IOException | RuntimeException e) {
+                    // Anything else thrown here would leave the result, and with it the
+                    // permit, bulkhead slot and replica count, pending for good
+                    result.completeExceptionally(
+                            new MLServiceException("Failed to parse ML service response: " + e.getMessage(), e));
+                }
+            }
+
+            @Override
+            public void failed(Exception ex) {
+                if (isDeadlineBound(timeoutMs) && isTimeout(ex)) {
+                    log.debug("ML call ran out of the caller's deadline after {}ms: {}", timeoutMs, ex.getMessage());
+                    result.completeExceptionally(callerDeadlineExceeded(timeoutMs, ex));
+                    return;
+                }
+                log.error("Error communicating with ML service: {}", ex.getMessage());
+                result.completeExceptionally(
+                        new MLServiceException("Failed to communicate with ML service: " + ex.getMessage(), ex));
+            }
+
+            @Override
+            public void cancelled() {
+                result.completeExceptionally(new MLServiceException("ML service request was cancelled"));
+            }
+        };
+
+        Future<SimpleHttpResponse> exchange;
+        if (UnixSocketHttpClient.isUnixUrl(url)) {
+            exchange = unixSocketHttpClient.post(url, body,
+                    Map.of("Content-Type", contentType,
+                            "Accept", codec.accept(),
+                            Deadline.HEADER, Long.toString(deadline.epochMillis())),
+                    timeoutMs, callback);
+        } else {
+            SimpleHttpRequest httpRequest = SimpleRequestBuilder.post(url)
+                    .setBody(body, ContentType.create(contentType))
+                    .addHeader("Accept", codec.accept())
+                    .addHeader(Deadline.HEADER, Long.toString(deadline.epochMillis()))
+                    .setRequestConfig(requestConfig(timeoutMs))
+                    .build();
+            exchange = asyncHttpClient.execute(httpRequest, callback);
+        }
+
+        result.whenComplete((response, error) -> {
+            if (result.isCancelled()) {
+                exchange.cancel(true);
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * Blocking single prediction over a Unix domain socket; the caller already holds
+     * a concurrency permit and tracks the replica.
+     */
+    private MLServiceResponseDTO postOverUnixSocket(String url, FlightPredictionRequestDTO request, Deadline deadline) {
         try {
-            String healthUrl = mlServiceUrl.replace("/predict", "/health");
-            log.debug("Checking ML service health at: {}", healthUrl);
-            
-            ResponseEntity<String> response = restTemplate.getForEntity(healthUrl, String.class);
-            boolean available = response.getStatusCode().is2xxSuccessful();
-            
-            log.info("ML service health check result: {}", available ? "UP" : "DOWN");
-            return available;
-            
-        } catch (Exception e) {
-            log.warn("ML service health check failed: {}", e.getMessage());
-            return false;
+            return postAsync(url, codec.encode(request), deadline, codec::decode).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new MLServiceException("Failed to communicate with ML service: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Blocking single prediction through the pooled RestTemplate, with raw bodies so
+     * that {@link MLWireCodec} does the encoding.
+     */
+    private ResponseEntity<MLServiceResponseDTO> postForEntity(String url, FlightPredictionRequestDTO request,
+                                                               Deadline deadline, long timeoutMs) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.CONTENT_TYPE, codec.contentType());
+        headers.set(HttpHeaders.ACCEPT, codec.accept());
+        headers.set(Deadline.HEADER, Long.toString(deadline.epochMillis()));
+
+        ResponseEntity<byte[]> response;
+        try {
+            response = restTemplate.exchange(url, HttpMethod.POST, new HttpEntity<>(codec.encode(request), headers),
+                    byte[].class);
+        } catch (HttpStatusCodeException e) {
+            if (e.getStatusCode().value() == UNSUPPORTED_MEDIA_TYPE) {
+                codec.frameRejected();
+            }
+            throw e;
+        } catch (ResourceAccessException e) {
+            if (isDeadlineBound(timeoutMs) && isTimeout(e)) {
+                throw callerDeadlineExceeded(timeoutMs, e);
+            }
+            throw e;
+        }
+        byte[] body = response.getBody();
+        if (body == null || body.length == 0) {
+            return ResponseEntity.status(response.getStatusCode()).build();
+        }
+        MediaType contentType = response.getHeaders().getContentType();
+        try {
+            return ResponseEntity.status(response.getStatusCode())
+                    .body(codec.decode(body, contentType != null ? contentType.toString() : null));
+        } catch (MLServiceException e) {
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            throw new MLServiceException("Failed to parse ML service response: " + e.getMessage(), e);
+        }
+    }
+
+    private RequestConfig requestConfig(long timeoutMs) {
+        Timeout timeout = Timeout.ofMilliseconds(timeoutMs);
+        return RequestConfig.custom()
+                .setConnectionRequestTimeout(timeout)
+                .setResponseTimeout(timeout)
+                .build();
+    }
+
+    private static void checkNotExpired(Deadline deadline) {
+        if (deadline.isExpired()) {
+            throw expired();
+        }
+    }
+
+    /**
+     * A call may be retried only when the model cannot have processed it: the
+     * connection was never established, or the service answered 503, or it
+     * rejected a binary frame with 415 (the next attempt is sent as JSON).
+     *
+     * @param error failure of one attempt
+     * @return true if the attempt can safely be repeated
+     */
+    static boolean isRetryable(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectException || cause instanceof ConnectTimeoutException) {
+                return true;
+            }
+            if (cause instanceof MLServiceException mlError && isRetryableStatus(mlError.getStatusCode())) {
+                return true;
+            }
+            if (cause instanceof HttpStatusCodeException httpError
+                    && isRetryableStatus(httpError.getStatusCode().value())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether a failure says something about the ML service's health, for the
+     * circuit breaker, replica ejection and the concurrency limit. Connect errors,
+     * 5xx answers, unreadable answers and timeouts set by {@code ml.service.read-timeout}
+     * do. Cancellations, local rejections, timeouts set by the caller's deadline
+     * ({@link DeadlineExceededException}) and 4xx answers to the request itself do not.
+     *
+     * @param error failure of one call
+     * @return true if the failure should count against the service
+     */
+    public static boolean isServiceFault(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof CancellationException || cause instanceof CallNotPermittedException) {
+                return false;
+            }
+            if (cause instanceof MLServiceException mlError && isClientErrorStatus(mlError.getStatusCode())) {
+                return false;
+            }
+            if (cause instanceof HttpStatusCodeException httpError
+                    && isClientErrorStatus(httpError.getStatusCode().value())) {
+                return false;
+            }
         }
+        return true;
+    }
+
+    private static boolean isClientErrorStatus(int status) {
+        return status >= 400 && status < 500;
+    }
+
+    /**
+     * @return true if a timeout of {@code timeoutMs} came from the caller's deadline
+     *         rather than {@code ml.service.read-timeout}
+     */
+    private boolean isDeadlineBound(long timeoutMs) {
+        return timeoutMs < readTimeoutMs;
+    }
+
+    /**
+     * Response, connection-lease and Unix socket exchange timeouts; connect
+     * timeouts are not bounded by the deadline and stay service failures.
+     */
+    private static boolean isTimeout(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectTimeoutException) {
+                return false;
+            }
+            if (cause instanceof InterruptedIOException || cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static DeadlineExceededException callerDeadlineExceeded(long timeoutMs, Throwable cause) {
+        return new DeadlineExceededException(
+                "ML call did not complete within the caller's deadline (" + timeoutMs + "ms)", cause);
+    }
+
+    private static boolean isRetryableStatus(int status) {
+        return status == SERVICE_UNAVAILABLE || status == UNSUPPORTED_MEDIA_TYPE;
+    }
+
+    private static CallNotPermittedException knownDown() {
+        return new CallNotPermittedException("ML service is down according to its health probes");
+    }
+
+    private static DeadlineExceededException expired() {
+        return new DeadlineExceededException("ML call deadline expired before the request was sent");
+    }
+
+    private byte[] readBody(SimpleHttpResponse response) {
+        if (response.getCode() < 200 || response.getCode() >= 300) {
+            if (response.getCode() == UNSUPPORTED_MEDIA_TYPE) {
+                codec.frameRejected();
+            }
+            throw new MLServiceException("ML service responded with HTTP " + response.getCode(), response.getCode());
+        }
+
+        byte[] body = response.getBodyBytes();
+        if (body == null || body.length == 0) {
+            log.error("ML service returned null response");
+            throw new MLServiceException("ML service returned empty response");
+        }
+        return body;
+    }
+
+    private static String contentType(SimpleHttpResponse response) {
+        ContentType contentType = response.getContentType();
+        if (contentType != null) {
+            return contentType.toString();
+        }
+        Header header = response.getFirstHeader(HttpHeaders.CONTENT_TYPE);
+        return header != null ? header.getValue() : null;
+    }
+
+    @FunctionalInterface
+    private interface ResponseParser<T> {
+        T parse(byte[] body, String contentType) throws IOException;
+    }
+
+    /**
+     * Checks if ML service is available, from the background health probes.
+     * No network call is made.
+     * 
+     * @return false only while the latest probes found every replica down
+     */
+    public boolean isServiceAvailable() {
+        return !balancer.allProbedDown();
     }
 
     /**
      * Custom exception for ML service communication errors.
      */
     public static class MLServiceException extends RuntimeException {
+
+        /**
+         * HTTP status returned by the ML service, or 0 if no response was received.
+         */
+        private final int statusCode;
+
         public MLServiceException(String message) {
+            this(message, 0);
+        }
+
+        public MLServiceException(String message, int statusCode) {
             super(message);
+            this.statusCode = statusCode;
         }
 
         public MLServiceException(String message, Throwable cause) {
             super(message, cause);
+            this.statusCode = 0;
+        }
+
+        public int getStatusCode() {
+            return statusCode;
         }
     }
 }
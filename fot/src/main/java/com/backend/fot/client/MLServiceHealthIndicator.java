@@ -0,0 +1,47 @@
+package com.backend.fot.client;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator health contributor ({@code mlService}) backed by the cached probe snapshot.
+ * <p>
+ * Included in the readiness group, so an instance whose ML service is down stops
+ * receiving traffic. Reading it never touches the network.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ * @since 2026-10-16
+ */
+@Component("mlServiceHealthIndicator")
+@RequiredArgsConstructor
+public class MLServiceHealthIndicator implements HealthIndicator {
+
+    private final MLHealthProber healthProber;
+
+    @Override
+    public Health health() {
+        MLHealthSnapshot snapshot = healthProber.snapshot();
+        Health.Builder builder = switch (snapshot.status()) {
+            case UP -> Health.up();
+            case DOWN -> Health.down();
+            case UNKNOWN -> Health.unknown();
+        };
+        if (snapshot.modelLoaded() != null) {
+            builder.withDetail("modelLoaded", snapshot.modelLoaded());
+        }
+        if (snapshot.checkedAt() != null) {
+            builder.withDetail("latencyMs", snapshot.latencyMillis())
+                    .withDetail("checkedAt", snapshot.checkedAt().toString());
+        }
+        for (MLHealthSnapshot.ReplicaHealth replica : snapshot.replicas()) {
+            if (replica.detail() != null) {
+                builder.withDetail(replica.url(), replica.detail());
+            }
+        }
+        return builder.build();
+    }
+}
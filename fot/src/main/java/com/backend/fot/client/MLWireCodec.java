@@ -0,0 +1,575 @@
+package com.backend.fot.client;
+
+import com.backend.fot.dto.FlightPredictionRequestDTO;
+import com.backend.fot.dto.MLServiceResponseDTO;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Encodes ML requests and decodes ML responses without Jackson data binding.
+ * <p>
+ * JSON requests carry only the fields the service reads, written straight into a
+ * per-thread scratch buffer: serializing {@link FlightPredictionRequestDTO} with
+ * Jackson also emits derived getters such as {@code flightCategory} and
+ * {@code domesticFlight}. Responses are read with the streaming parser.
+ * </p>
+ * <p>
+ * With {@code ml.service.encoding=FRAME}, requests and responses use a fixed-layout
+ * binary frame ({@value #FRAME_CONTENT_TYPE}) that a service can opt into through
+ * content negotiation: the client sends a frame and accepts either a frame or JSON
+ * back. A service that answers 415 gets JSON from then on. All integers are big-endian.
+ * </p>
+ * <pre>
+ * request frame:  u8 version, u16 count, count x {
+ *                     str flightNumber, str companyName, str origin, str destination,
+ *                     i64 departure (epoch seconds, UTC), i32 distance }
+ * response frame: u8 version, u16 count, count x { i8 prediction, f64 confidence }
+ * str:            u8 length (255 = null), UTF-8 bytes
+ * </pre>
+ * <p>
+ * Missing numbers are encoded as {@code Long.MIN_VALUE}, {@code Integer.MIN_VALUE},
+ * -1 and NaN respectively. A decoded prediction without a confidence, or with one
+ * that is not a number, is rejected with {@link IOException} like any other
+ * malformed body.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.1
+ * @since 2026-10-16
+ */
+@Slf4j
+@Component
+public class MLWireCodec {
+
+    /**
+     * Media type of the binary frame.
+     */
+    public static final String FRAME_CONTENT_TYPE = "application/x-fot-frame";
+
+    /**
+     * Accept header sent with frames: a frame is preferred, JSON is understood.
+     */
+    public static final String FRAME_ACCEPT = FRAME_CONTENT_TYPE + ", application/json;q=0.5";
+
+    public static final String JSON_CONTENT_TYPE = "application/json";
+
+    private static final byte FRAME_VERSION = 1;
+    private static final int NULL_STRING = 0xFF;
+    private static final int MAX_BATCH = 0xFFFF;
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(() -> new Scratch(512));
+
+    /**
+     * Request/response contract of the service behind {@code ml.service.url}.
+     */
+    public enum Contract {
+        /**
+         * The ML wrapper: API field names in, {@code prediction}/{@code confidence} out.
+         */
+        WRAPPER,
+        /**
+         * The model service itself, which the wrapper would otherwise translate for.
+         */
+        MODEL
+    }
+
+    /**
+     * Body encoding of ML requests.
+     */
+    public enum Encoding {
+        JSON, FRAME
+    }
+
+    private final Contract contract;
+    private volatile Encoding encoding;
+
+    public MLWireCodec(
+            @Value("${ml.service.contract:WRAPPER}") Contract contract,
+            @Value("${ml.service.encoding:JSON}") Encoding encoding) {
+        this.contract = contract;
+        this.encoding = encoding;
+    }
+
+    public Contract contract() {
+        return contract;
+    }
+
+    public Encoding encoding() {
+        return encoding;
+    }
+
+    /**
+     * @return Content-Type of the bodies produced by {@link #encode} and {@link #encodeBatch}
+     */
+    public String contentType() {
+        return encoding == Encoding.FRAME ? FRAME_CONTENT_TYPE : JSON_CONTENT_TYPE;
+    }
+
+    /**
+     * @return Accept header matching {@link #contentType()}
+     */
+    public String accept() {
+        return encoding == Encoding.FRAME ? FRAME_ACCEPT : JSON_CONTENT_TYPE;
+    }
+
+    /**
+     * Called when the service answered 415 to a frame; later calls fall back to JSON.
+     */
+    void frameRejected() {
+        if (encoding == Encoding.FRAME) {
+            encoding = Encoding.JSON;
+            log.warn("ML service does not accept {} bodies, falling back to JSON", FRAME_CONTENT_TYPE);
+        }
+    }
+
+    /**
+     * @param request flight to predict
+     * @return request body in the configured encoding and contract
+     */
+    public byte[] encode(FlightPredictionRequestDTO request) {
+        if (encoding == Encoding.FRAME) {
+            return encodeFrame(List.of(request));
+        }
+        Scratch out = SCRATCH.get().reset();
+        writeJson(out, request, contract);
+        return out.toByteArray();
+    }
+
+    /**
+     * @param requests flights to predict in one call
+     * @return batch request body in the configured encoding and contract
+     */
+    public byte[] encodeBatch(List<FlightPredictionRequestDTO> requests) {
+        if (encoding == Encoding.FRAME) {
+            return encodeFrame(requests);
+        }
+        Scratch out = SCRATCH.get().reset();
+        out.put('[');
+        for (int i = 0; i < requests.size(); i++) {
+            if (i > 0) {
+                out.put(',');
+            }
+            writeJson(out, requests.get(i), contract);
+        }
+        out.put(']');
+        return out.toByteArray();
+    }
+
+    /**
+     * @param body        response body
+     * @param contentType response Content-Type, may be null
+     * @return decoded prediction
+     * @throws IOException if the body is malformed
+     */
+    public MLServiceResponseDTO decode(byte[] body, String contentType) throws IOException {
+        if (isFrame(contentType)) {
+            List<MLServiceResponseDTO> results = decodeFrameResponses(body);
+            if (results.size() != 1) {
+                throw new IOException("Expected one prediction in the frame, got " + results.size());
+            }
+            return results.get(0);
+        }
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+            return readJsonPrediction(parser, contract);
+        }
+    }
+
+    /**
+     * @param body        batch response body
+     * @param contentType response Content-Type, may be null
+     * @return decoded predictions, in request order
+     * @throws IOException if the body is malformed
+     */
+    public List<MLServiceResponseDTO> decodeBatch(byte[] body, String contentType) throws IOException {
+        if (isFrame(contentType)) {
+            return decodeFrameResponses(body);
+        }
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            expect(parser, parser.nextToken(), JsonToken.START_ARRAY);
+            List<MLServiceResponseDTO> results = new ArrayList<>();
+            for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+                expect(parser, token, JsonToken.START_OBJECT);
+                results.add(readJsonPrediction(parser, contract));
+            }
+            return results;
+        }
+    }
+
+    /**
+     * @param contentType Content-Type header value, may be null
+     * @return true if it names the binary frame
+     */
+    public static boolean isFrame(String contentType) {
+        return contentType != null && contentType.regionMatches(true, 0, FRAME_CONTENT_TYPE, 0,
+                FRAME_CONTENT_TYPE.length());
+    }
+
+    // ---------------------------------------------------------------- JSON
+
+    private static void writeJson(Scratch out, FlightPredictionRequestDTO request, Contract contract) {
+        if (contract == Contract.MODEL) {
+            // Same mapping as the wrapper, see ModelPredictionRequestDTO
+            out.putAscii("{\"companhia\":");
+            writeString(out, upper(request.getCompanyName()));
+            out.putAscii(",\"origem\":");
+            writeString(out, upper(request.getFlightOrigin()));
+            out.putAscii(",\"destino\":");
+            writeString(out, upper(request.getFlightDestination()));
+            out.putAscii(",\"data_partida\":");
+            writeDateTime(out, request.getFlightDepartureDate());
+            out.put('}');
+            return;
+        }
+        out.putAscii("{\"flightNumber\":");
+        writeString(out, request.getFlightNumber());
+        out.putAscii(",\"companyName\":");
+        writeString(out, request.getCompanyName());
+        out.putAscii(",\"flightOrigin\":");
+        writeString(out, request.getFlightOrigin());
+        out.putAscii(",\"flightDestination\":");
+        writeString(out, request.getFlightDestination());
+        out.putAscii(",\"flightDepartureDate\":");
+        writeDateTime(out, request.getFlightDepartureDate());
+        out.putAscii(",\"flightDistance\":");
+        if (request.getFlightDistance() == null) {
+            out.putAscii("null");
+        } else {
+            out.putAscii(Integer.toString(request.getFlightDistance()));
+        }
+        out.put('}');
+    }
+
+    private static void writeString(Scratch out, String value) {
+        if (value == null) {
+            out.putAscii("null");
+            return;
+        }
+        out.put('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.put('\\');
+                out.put(c);
+            } else if (c < 0x20) {
+                out.putAscii(String.format("\\u%04x", (int) c));
+            } else if (c < 0x80) {
+                out.put(c);
+            } else {
+                int codePoint = value.codePointAt(i);
+                out.put(new String(Character.toChars(codePoint)).getBytes(StandardCharsets.UTF_8));
+                i += Character.charCount(codePoint) - 1;
+            }
+        }
+        out.put('"');
+    }
+
+    /**
+     * Writes {@code yyyy-MM-dd'T'HH:mm:ss}, the API's date pattern.
+     */
+    private static void writeDateTime(Scratch out, LocalDateTime value) {
+        if (value == null) {
+            out.putAscii("null");
+            return;
+        }
+        out.put('"');
+        writeDigits(out, value.getYear(), 4);
+        out.put('-');
+        writeDigits(out, value.getMonthValue(), 2);
+        out.put('-');
+        writeDigits(out, value.getDayOfMonth(), 2);
+        out.put('T');
+        writeDigits(out, value.getHour(), 2);
+        out.put(':');
+        writeDigits(out, value.getMinute(), 2);
+        out.put(':');
+        writeDigits(out, value.getSecond(), 2);
+        out.put('"');
+    }
+
+    private static void writeDigits(Scratch out, int value, int width) {
+        String digits = Integer.toString(value);
+        for (int i = digits.length(); i < width; i++) {
+            out.put('0');
+        }
+        out.putAscii(digits);
+    }
+
+    private static MLServiceResponseDTO readJsonPrediction(JsonParser parser, Contract contract) throws IOException {
+        String confidenceField = contract == Contract.MODEL ? "probability" : "confidence";
+        MLServiceResponseDTO.MLServiceResponseDTOBuilder builder = MLServiceResponseDTO.builder();
+        for (JsonToken token = parser.nextToken(); token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            if ("prediction".equals(field)) {
+                builder.prediction(parser.getValueAsInt());
+            } else if (confidenceField.equals(field)) {
+                builder.confidence(value == JsonToken.VALUE_STRING
+                        ? parseDecimal(parser.getText())
+                        : parser.getDecimalValue());
+            } else if (contract == Contract.WRAPPER && "modelVersion".equals(field)) {
+                builder.modelVersion(parser.getText());
+            } else if (contract == Contract.WRAPPER && "processingTimeMs".equals(field)) {
+                builder.processingTimeMs(parser.getValueAsLong());
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return requireConfidence(builder.build());
+    }
+
+    private static BigDecimal parseDecimal(String text) throws IOException {
+        try {
+            return new BigDecimal(text);
+        } catch (NumberFormatException e) {
+            throw new IOException("Malformed confidence: " + text, e);
+        }
+    }
+
+    /**
+     * A prediction without a confidence cannot be answered; reject it here rather than
+     * fail later on the way to the API response.
+     */
+    private static MLServiceResponseDTO requireConfidence(MLServiceResponseDTO result) throws IOException {
+        if (result.getConfidence() == null) {
+            throw new IOException("Missing confidence");
+        }
+        return result;
+    }
+
+    private static void expect(JsonParser parser, JsonToken actual, JsonToken expected) throws JsonParseException {
+        if (actual != expected) {
+            throw new JsonParseException(parser, "Expected " + expected + " but found " + actual);
+        }
+    }
+
+    private static String upper(String code) {
+        return code != null ? code.toUpperCase(Locale.ROOT) : null;
+    }
+
+    // --------------------------------------------------------------- frame
+
+    /**
+     * @param requests flights to encode, at most 65535
+     * @return request frame
+     */
+    public static byte[] encodeFrame(List<FlightPredictionRequestDTO> requests) {
+        if (requests.size() > MAX_BATCH) {
+            throw new IllegalArgumentException("A frame holds at most " + MAX_BATCH + " requests");
+        }
+        Scratch out = SCRATCH.get().reset();
+        out.put(FRAME_VERSION);
+        out.putShort(requests.size());
+        for (FlightPredictionRequestDTO request : requests) {
+            putFrameString(out, request.getFlightNumber());
+            putFrameString(out, request.getCompanyName());
+            putFrameString(out, request.getFlightOrigin());
+            putFrameString(out, request.getFlightDestination());
+            LocalDateTime departure = request.getFlightDepartureDate();
+            out.putLong(departure != null ? departure.toEpochSecond(ZoneOffset.UTC) : Long.MIN_VALUE);
+            out.putInt(request.getFlightDistance() != null ? request.getFlightDistance() : Integer.MIN_VALUE);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Server side of {@link #encodeFrame}.
+     *
+     * @param frame request frame
+     * @return decoded flights
+     * @throws IOException if the frame is malformed
+     */
+    public static List<FlightPredictionRequestDTO> decodeFrameRequests(byte[] frame) throws IOException {
+        try {
+            ByteBuffer in = openFrame(frame);
+            int count = Short.toUnsignedInt(in.getShort());
+            List<FlightPredictionRequestDTO> requests = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String flightNumber = getFrameString(in);
+                String companyName = getFrameString(in);
+                String origin = getFrameString(in);
+                String destination = getFrameString(in);
+                long departure = in.getLong();
+                int distance = in.getInt();
+                requests.add(FlightPredictionRequestDTO.builder()
+                        .flightNumber(flightNumber)
+                        .companyName(companyName)
+                        .flightOrigin(origin)
+                        .flightDestination(destination)
+                        .flightDepartureDate(departure == Long.MIN_VALUE
+                                ? null : LocalDateTime.ofEpochSecond(departure, 0, ZoneOffset.UTC))
+                        .flightDistance(distance == Integer.MIN_VALUE ? null : distance)
+                        .build());
+            }
+            return requests;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated request frame", e);
+        }
+    }
+
+    /**
+     * Server side of {@link #decodeFrameResponses}.
+     *
+     * @param results predictions to encode, at most 65535
+     * @return response frame
+     */
+    public static byte[] encodeFrameResponses(List<MLServiceResponseDTO> results) {
+        if (results.size() > MAX_BATCH) {
+            throw new IllegalArgumentException("A frame holds at most " + MAX_BATCH + " results");
+        }
+        Scratch out = SCRATCH.get().reset();
+        out.put(FRAME_VERSION);
+        out.putShort(results.size());
+        for (MLServiceResponseDTO result : results) {
+            out.put(result.getPrediction() != null ? result.getPrediction().byteValue() : (byte) -1);
+            out.putLong(Double.doubleToLongBits(
+                    result.getConfidence() != null ? result.getConfidence().doubleValue() : Double.NaN));
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @param frame response frame
+     * @return decoded predictions
+     * @throws IOException if the frame is malformed
+     */
+    public static List<MLServiceResponseDTO> decodeFrameResponses(byte[] frame) throws IOException {
+        try {
+            ByteBuffer in = openFrame(frame);
+            int count = Short.toUnsignedInt(in.getShort());
+            List<MLServiceResponseDTO> results = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                byte prediction = in.get();
+                double confidence = in.getDouble();
+                results.add(requireConfidence(MLServiceResponseDTO.builder()
+                        .prediction(prediction >= 0 ? (int) prediction : null)
+                        .confidence(Double.isNaN(confidence) ? null : BigDecimal.valueOf(confidence))
+                        .build()));
+            }
+            return results;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated response frame", e);
+        }
+    }
+
+    private static ByteBuffer openFrame(byte[] frame) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(frame);
+        byte version = in.get();
+        if (version != FRAME_VERSION) {
+            throw new IOException("Unsupported frame version " + version);
+        }
+        return in;
+    }
+
+    private static void putFrameString(Scratch out, String value) {
+        if (value == null) {
+            out.put((byte) NULL_STRING);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length >= NULL_STRING) {
+            throw new IllegalArgumentException("Frame strings are limited to " + (NULL_STRING - 1) + " bytes");
+        }
+        out.put((byte) bytes.length);
+        out.put(bytes);
+    }
+
+    private static String getFrameString(ByteBuffer in) {
+        int length = Byte.toUnsignedInt(in.get());
+        if (length == NULL_STRING) {
+            return null;
+        }
+        if (length > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    /**
+     * Growable byte buffer reused by one thread across calls; only the final copy is allocated.
+     */
+    private static final class Scratch {
+
+        private byte[] bytes;
+        private int size;
+
+        Scratch(int capacity) {
+            this.bytes = new byte[capacity];
+        }
+
+        Scratch reset() {
+            size = 0;
+            return this;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+
+        void put(byte b) {
+            ensure(1);
+            bytes[size++] = b;
+        }
+
+        void put(char asciiChar) {
+            put((byte) asciiChar);
+        }
+
+        void put(byte[] values) {
+            ensure(values.length);
+            System.arraycopy(values, 0, bytes, size, values.length);
+            size += values.length;
+        }
+
+        void putAscii(String ascii) {
+            ensure(ascii.length());
+            for (int i = 0; i < ascii.length(); i++) {
+                bytes[size++] = (byte) ascii.charAt(i);
+            }
+        }
+
+        void putShort(int value) {
+            put((byte) (value >>> 8));
+            put((byte) value);
+        }
+
+        void putInt(int value) {
+            putShort(value >>> 16);
+            putShort(value);
+        }
+
+        void putLong(long value) {
+            putInt((int) (value >>> 32));
+            putInt((int) value);
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+            }
+        }
+    }
+}
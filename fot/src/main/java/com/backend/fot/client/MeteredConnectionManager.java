@@ -0,0 +1,81 @@
+package com.backend.fot.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.io.LeaseRequest;
+import org.apache.hc.client5.http.socket.ConnectionSocketFactory;
+import org.apache.hc.core5.http.config.Registry;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Pooling connection manager that records how long callers wait to lease a
+ * connection to the ML service.
+ * <p>
+ * Pool occupancy (leased, available and pending leases) is published separately by
+ * Micrometer's pool binder; this class adds the lease wait time, which is what grows
+ * first when the pool is undersized.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ * @since 2026-10-16
+ */
+public class MeteredConnectionManager extends PoolingHttpClientConnectionManager {
+
+    static final String LEASE_TIMER = "ml.client.pool.lease";
+
+    private final Timer acquiredTimer;
+    private final Timer timedOutTimer;
+
+    public MeteredConnectionManager(Registry<ConnectionSocketFactory> socketFactoryRegistry,
+                                    MeterRegistry meterRegistry) {
+        // LIFO reuse keeps the hottest connections alive and lets idle ones age out
+        super(socketFactoryRegistry, PoolConcurrencyPolicy.STRICT, PoolReusePolicy.LIFO, TimeValue.NEG_ONE_MILLISECOND);
+        this.acquiredTimer = leaseTimer(meterRegistry, "acquired");
+        this.timedOutTimer = leaseTimer(meterRegistry, "timeout");
+    }
+
+    @Override
+    public LeaseRequest lease(String id, HttpRoute route, Timeout requestTimeout, Object state) {
+        long startNanos = System.nanoTime();
+        LeaseRequest delegate = super.lease(id, route, requestTimeout, state);
+
+        return new LeaseRequest() {
+            @Override
+            public ConnectionEndpoint get(Timeout timeout)
+                    throws InterruptedException, ExecutionException, TimeoutException {
+                try {
+                    ConnectionEndpoint endpoint = delegate.get(timeout);
+                    acquiredTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                    return endpoint;
+                } catch (TimeoutException e) {
+                    timedOutTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                    throw e;
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+                return delegate.cancel();
+            }
+        };
+    }
+
+    private static Timer leaseTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder(LEASE_TIMER)
+                .description("Time spent waiting for a pooled connection to the ML service")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
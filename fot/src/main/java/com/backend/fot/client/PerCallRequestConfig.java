@@ -0,0 +1,63 @@
+package com.backend.fot.client;
+
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.springframework.http.HttpMethod;
+
+import java.net.URI;
+import java.util.function.Supplier;
+
+/**
+ * Hands a per-call {@link RequestConfig} to the blocking RestTemplate.
+ * <p>
+ * RestTemplate offers no per-request timeout, so {@link MLServiceClient#predict}
+ * publishes the config for the current thread while it runs the call, and the
+ * request factory picks it up through {@link #httpContext}. Calls made outside
+ * {@link #callWith} keep the client defaults.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ * @since 2026-10-16
+ */
+public final class PerCallRequestConfig {
+
+    private static final ThreadLocal<RequestConfig> CURRENT = new ThreadLocal<>();
+
+    private PerCallRequestConfig() {
+    }
+
+    /**
+     * Runs a blocking call with {@code config} applied to the HTTP requests it makes.
+     *
+     * @param config request config for this call
+     * @param call   blocking call
+     * @return call result
+     */
+    static <T> T callWith(RequestConfig config, Supplier<T> call) {
+        CURRENT.set(config);
+        try {
+            return call.get();
+        } finally {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * HTTP context factory for {@code HttpComponentsClientHttpRequestFactory}.
+     *
+     * @param method HTTP method
+     * @param uri    request URI
+     * @return context carrying the current call's config, or null to use the defaults
+     */
+    public static HttpContext httpContext(HttpMethod method, URI uri) {
+        RequestConfig config = CURRENT.get();
+        if (config == null) {
+            return null;
+        }
+        HttpClientContext context = HttpClientContext.create();
+        context.setRequestConfig(config);
+        return context;
+    }
+}
@@ -0,0 +1,47 @@
+package com.backend.fot.client;
+
+import com.backend.fot.dto.FlightPredictionRequestDTO;
+
+import java.time.LocalDateTime;
+
+/**
+ * Identity of a prediction from the model's point of view.
+ * <p>
+ * Only the fields the model actually consumes take part in equality, so two
+ * requests that differ in casing or in fields the model ignores (such as the
+ * flight number) map to the same key.
+ * </p>
+ *
+ * @param companyName airline code, uppercase
+ * @param flightOrigin origin airport code, uppercase
+ * @param flightDestination destination airport code, uppercase
+ * @param flightDepartureDate scheduled departure
+ * @param flightDistance flight distance in kilometers
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ * @since 2026-10-16
+ */
+public record PredictionKey(
+        String companyName,
+        String flightOrigin,
+        String flightDestination,
+        LocalDateTime flightDepartureDate,
+        Integer flightDistance
+) {
+
+    /**
+     * Builds the key from an already normalized request.
+     *
+     * @param normalizedRequest request returned by {@link FlightPredictionRequestDTO#toUpperCase()}
+     * @return prediction key
+     */
+    public static PredictionKey of(FlightPredictionRequestDTO normalizedRequest) {
+        return new PredictionKey(
+                normalizedRequest.getCompanyName(),
+                normalizedRequest.getFlightOrigin(),
+                normalizedRequest.getFlightDestination(),
+                normalizedRequest.getFlightDepartureDate(),
+                normalizedRequest.getFlightDistance());
+    }
+}
@@ -0,0 +1,411 @@
+package com.backend.fot.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Client-side load balancer over the ML service replicas listed in {@code ml.service.url}.
+ * <p>
+ * Replicas are picked by power-of-two-choices: two healthy replicas are sampled
+ * at random and the one with the lower load wins. Load is either the number of
+ * outstanding requests ({@link Strategy#LEAST_OUTSTANDING}) or the EWMA latency
+ * weighted by outstanding requests ({@link Strategy#EWMA}).
+ * </p>
+ * <p>
+ * A replica that fails {@code ml.service.balancer.eject-after-failures} times in a
+ * row is ejected. Only failures that {@link MLServiceClient#isServiceFault} holds
+ * against the service count: connect errors, 5xx answers and read timeouts, not
+ * 4xx answers or timeouts set by the caller's deadline. Ejected replicas are probed on their {@code /health} endpoint
+ * every {@code ml.service.balancer.probe-interval} and return after
+ * {@code ml.service.balancer.probe-successes} consecutive passes. If every replica
+ * is ejected, all of them are used again rather than failing every call.
+ * </p>
+ * <p>
+ * Replicas that {@link MLHealthProber} last found down are skipped the same way
+ * until a later probe finds them up again or the result goes stale.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.2
+ * @since 2026-10-16
+ */
+@Slf4j
+@Component
+public class ReplicaBalancer {
+
+    /**
+     * Load measure used to compare the two sampled replicas.
+     */
+    public enum Strategy {
+        LEAST_OUTSTANDING, EWMA
+    }
+
+    /**
+     * Weight of the newest sample in the EWMA latency.
+     */
+    private static final double EWMA_ALPHA = 0.3;
+
+    /**
+     * Limit for a health probe over a Unix domain socket; TCP probes use the client's defaults.
+     */
+    private static final long PROBE_TIMEOUT_MS = 5000;
+
+    private final CloseableHttpAsyncClient asyncHttpClient;
+    private final UnixSocketHttpClient unixSocketHttpClient;
+    private final List<Replica> replicas;
+    private final Strategy strategy;
+    private final int ejectAfterFailures;
+    private final long probeIntervalMs;
+    private final int probeSuccesses;
+    private final Counter ejectionCounter;
+
+    private ScheduledExecutorService prober;
+
+    public ReplicaBalancer(
+            CloseableHttpAsyncClient asyncHttpClient,
+            UnixSocketHttpClient unixSocketHttpClient,
+            MeterRegistry meterRegistry,
+            @Value("${ml.service.url:http://localhost:5000/predict}") String mlServiceUrl,
+            @Value("${ml.service.balancer.strategy:LEAST_OUTSTANDING}") Strategy strategy,
+            @Value("${ml.service.balancer.eject-after-failures:5}") int ejectAfterFailures,
+            @Value("${ml.service.balancer.probe-interval:5000}") long probeIntervalMs,
+            @Value("${ml.service.balancer.probe-successes:2}") int probeSuccesses) {
+        this.asyncHttpClient = asyncHttpClient;
+        this.unixSocketHttpClient = unixSocketHttpClient;
+        this.replicas = Arrays.stream(mlServiceUrl.split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .map(Replica::new)
+                .toList();
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("ml.service.url must contain at least one URL");
+        }
+        this.strategy = strategy;
+        this.ejectAfterFailures = ejectAfterFailures;
+        this.probeIntervalMs = probeIntervalMs;
+        this.probeSuccesses = probeSuccesses;
+
+        this.ejectionCounter = Counter.builder("ml.client.balancer.ejections")
+                .description("Replicas ejected after consecutive failures")
+                .register(meterRegistry);
+        for (Replica replica : replicas) {
+            Gauge.builder("ml.client.balancer.outstanding", replica, r -> r.outstanding.get())
+                    .description("Requests in flight per ML replica")
+                    .tag("replica", replica.url)
+                    .register(meterRegistry);
+            Gauge.builder("ml.client.balancer.ejected", replica, r -> r.ejected ? 1 : 0)
+                    .description("1 while the ML replica is ejected")
+                    .tag("replica", replica.url)
+                    .register(meterRegistry);
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        if (replicas.size() < 2) {
+            return;
+        }
+        prober = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ml-replica-prober");
+            thread.setDaemon(true);
+            return thread;
+        });
+        prober.scheduleWithFixedDelay(this::probeEjected, probeIntervalMs, probeIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("Balancing ML calls over {} replicas with {}", replicas.size(), strategy);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (prober != null) {
+            prober.shutdownNow();
+        }
+    }
+
+    /**
+     * @return all configured replicas, in configuration order
+     */
+    public List<Replica> replicas() {
+        return replicas;
+    }
+
+    /**
+     * Picks the replica for a new call.
+     *
+     * @return chosen replica
+     */
+    public Replica choose() {
+        return choose(null);
+    }
+
+    /**
+     * Picks a replica other than {@code exclude}, e.g. for a hedge.
+     *
+     * @param exclude replica already in use
+     * @return another replica, or null if there is only one
+     */
+    public Replica chooseOther(Replica exclude) {
+        return replicas.size() < 2 ? null : choose(exclude);
+    }
+
+    private Replica choose(Replica exclude) {
+        List<Replica> candidates = new ArrayList<>(replicas.size());
+        for (Replica replica : replicas) {
+            if (!replica.ejected && !replica.isProbedDown() && replica != exclude) {
+                candidates.add(replica);
+            }
+        }
+        if (candidates.isEmpty()) {
+            // Everything is ejected: spread load over all replicas instead of failing every call
+            for (Replica replica : replicas) {
+                if (replica != exclude) {
+                    candidates.add(replica);
+                }
+            }
+        }
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        Replica a = candidates.get(first);
+        Replica b = candidates.get(second);
+        return load(a) <= load(b) ? a : b;
+    }
+
+    /**
+     * @return true if the background health probe currently finds every replica down
+     */
+    public boolean allProbedDown() {
+        for (Replica replica : replicas) {
+            if (!replica.isProbedDown()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private double load(Replica replica) {
+        int outstanding = replica.outstanding.get();
+        if (strategy == Strategy.EWMA) {
+            return replica.ewmaNanos * (outstanding + 1);
+        }
+        return outstanding;
+    }
+
+    /**
+     * Runs a non-blocking call against {@code replica}, tracking its load and outcome.
+     *
+     * @param replica target replica
+     * @param call    call to run
+     * @return the call's future
+     */
+    public <T> CompletableFuture<T> track(Replica replica, Supplier<CompletableFuture<T>> call) {
+        replica.outstanding.incrementAndGet();
+        long start = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((result, error) -> {
+            replica.outstanding.decrementAndGet();
+            record(replica, start, error);
+        });
+        return future;
+    }
+
+    /**
+     * Runs a blocking call against {@code replica}, tracking its load and outcome.
+     *
+     * @param replica target replica
+     * @param call    call to run
+     * @return call result
+     */
+    public <T> T trackBlocking(Replica replica, Supplier<T> call) {
+        replica.outstanding.incrementAndGet();
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            record(replica, start, null);
+            return result;
+        } catch (RuntimeException e) {
+            record(replica, start, e);
+            throw e;
+        } finally {
+            replica.outstanding.decrementAndGet();
+        }
+    }
+
+    private void record(Replica replica, long start, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause != null && !MLServiceClient.isServiceFault(cause)) {
+            // A cancelled hedge loser is slow, not broken; a caller's short deadline or a
+            // rejected request says nothing about the replica either
+            return;
+        }
+        if (cause == null) {
+            replica.consecutiveFailures.set(0);
+            long latency = System.nanoTime() - start;
+            double previous = replica.ewmaNanos;
+            replica.ewmaNanos = previous == 0 ? latency : EWMA_ALPHA * latency + (1 - EWMA_ALPHA) * previous;
+            return;
+        }
+        if (replica.consecutiveFailures.incrementAndGet() >= ejectAfterFailures && !replica.ejected) {
+            replica.ejected = true;
+            replica.probePasses = 0;
+            ejectionCounter.increment();
+            log.warn("Ejecting ML replica {} after {} consecutive failures: {}",
+                    replica.url, ejectAfterFailures, cause.getMessage());
+        }
+    }
+
+    /**
+     * Sends one health probe to every ejected replica.
+     *
+     * @return future completed once every probe has been answered or has failed
+     */
+    CompletableFuture<Void> probeEjected() {
+        List<CompletableFuture<Void>> probes = new ArrayList<>();
+        for (Replica replica : replicas) {
+            if (replica.ejected) {
+                probes.add(probe(replica));
+            }
+        }
+        return CompletableFuture.allOf(probes.toArray(CompletableFuture[]::new));
+    }
+
+    private CompletableFuture<Void> probe(Replica replica) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        FutureCallback<SimpleHttpResponse> callback = new FutureCallback<>() {
+            @Override
+            public void completed(SimpleHttpResponse response) {
+                if (response.getCode() >= 200 && response.getCode() < 300) {
+                    onProbePassed(replica);
+                } else {
+                    replica.probePasses = 0;
+                }
+                done.complete(null);
+            }
+
+            @Override
+            public void failed(Exception ex) {
+                replica.probePasses = 0;
+                done.complete(null);
+            }
+
+            @Override
+            public void cancelled() {
+                replica.probePasses = 0;
+                done.complete(null);
+            }
+        };
+        if (UnixSocketHttpClient.isUnixUrl(replica.healthUrl)) {
+            unixSocketHttpClient.get(replica.healthUrl, PROBE_TIMEOUT_MS, callback);
+        } else {
+            asyncHttpClient.execute(SimpleRequestBuilder.get(replica.healthUrl).build(), callback);
+        }
+        return done;
+    }
+
+    private void onProbePassed(Replica replica) {
+        if (++replica.probePasses >= probeSuccesses && replica.ejected) {
+            replica.consecutiveFailures.set(0);
+            replica.ejected = false;
+            log.info("ML replica {} passed {} health probes, returning it to rotation", replica.url, probeSuccesses);
+        }
+    }
+
+    /**
+     * One ML service endpoint and its live load statistics.
+     */
+    public static final class Replica {
+
+        private final String url;
+        private final String healthUrl;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private volatile double ewmaNanos;
+        private volatile boolean ejected;
+        private volatile int probePasses;
+        private volatile long probedDownUntilNanos;
+
+        Replica(String url) {
+            this.url = url;
+            this.healthUrl = url.replace("/predict", "/health");
+        }
+
+        /**
+         * @return prediction endpoint URL
+         */
+        public String url() {
+            return url;
+        }
+
+        /**
+         * @return health endpoint URL
+         */
+        public String healthUrl() {
+            return healthUrl;
+        }
+
+        public boolean isEjected() {
+            return ejected;
+        }
+
+        /**
+         * @return true if the last background health probe found the replica down
+         *         and that result is still fresh
+         */
+        public boolean isProbedDown() {
+            long until = probedDownUntilNanos;
+            return until != 0 && System.nanoTime() - until < 0;
+        }
+
+        /**
+         * Records a background health probe result.
+         *
+         * @param up       whether the replica is up and has its model loaded
+         * @param ttlNanos how long a "down" result is trusted
+         */
+        void markProbed(boolean up, long ttlNanos) {
+            probedDownUntilNanos = up ? 0 : System.nanoTime() + ttlNanos;
+        }
+
+        public int outstanding() {
+            return outstanding.get();
+        }
+
+        @Override
+        public String toString() {
+            return url;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.backend.fot.client;
+
+import com.backend.fot.dto.FlightPredictionRequestDTO;
+import com.backend.fot.dto.MLServiceResponseDTO;
+import com.backend.fot.resilience.Deadline;
+import com.backend.fot.resilience.DeadlineExceededException;
+import com.backend.fot.resilience.MLServiceGuard;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Single-flight layer in front of {@link MLServiceClient}.
+ * <p>
+ * Concurrent requests with the same {@link PredictionKey} share one outbound call
+ * and receive the same {@link MLServiceResponseDTO}. The call is forgotten as soon
+ * as it completes, so this layer never serves stale results; it only collapses
+ * bursts of identical lookups that are in flight at the same time.
+ * </p>
+ * <p>
+ * A caller only joins a call whose {@link Deadline} is at least as late as its own,
+ * so a short-budget caller never fails a longer one. Otherwise it issues its own
+ * call, which later arrivals join instead.
+ * </p>
+ * <p>
+ * Distinct non-blocking calls go through {@link MLPredictionBatcher} when batching
+ * is enabled, so coalescing happens before batching. Every outbound call runs under
+ * {@link MLServiceGuard}, so a coalesced burst costs the breaker and bulkhead one call.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.1
+ * @since 2026-10-16
+ */
+@Slf4j
+@Component
+public class SingleFlightMLClient {
+
+    static final String CALLS_COUNTER = "ml.client.singleflight.calls";
+
+    private final MLServiceClient mlServiceClient;
+    private final MLPredictionBatcher batcher;
+    private final MLServiceGuard guard;
+    private final Map<PredictionKey, SharedCall> inFlight = new ConcurrentHashMap<>();
+    private final Counter issuedCounter;
+    private final Counter coalescedCounter;
+
+    public SingleFlightMLClient(MLServiceClient mlServiceClient, MLPredictionBatcher batcher,
+                                MLServiceGuard guard, MeterRegistry meterRegistry) {
+        this.mlServiceClient = mlServiceClient;
+        this.batcher = batcher;
+        this.guard = guard;
+        this.issuedCounter = Counter.builder(CALLS_COUNTER)
+                .description("Prediction calls by single-flight outcome")
+                .tag("result", "issued")
+                .register(meterRegistry);
+        this.coalescedCounter = Counter.builder(CALLS_COUNTER)
+                .description("Prediction calls by single-flight outcome")
+                .tag("result", "coalesced")
+                .register(meterRegistry);
+        Gauge.builder("ml.client.singleflight.in_flight", inFlight, Map::size)
+                .description("Distinct predictions currently in flight")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Blocking prediction; the first caller for a key performs the call on its own thread.
+     *
+     * @param request  Flight prediction request
+     * @param deadline time by which the answer is needed
+     * @return ML service response
+     * @throws MLServiceClient.MLServiceException if the shared call fails
+     */
+    public MLServiceResponseDTO predict(FlightPredictionRequestDTO request, Deadline deadline) {
+        FlightPredictionRequestDTO normalized = request.toUpperCase();
+        PredictionKey key = PredictionKey.of(normalized);
+
+        SharedCall call = new SharedCall(new CompletableFuture<>(), deadline);
+        SharedCall existing = register(key, call);
+        if (existing != null) {
+            coalescedCounter.increment();
+            log.debug("Joining in-flight prediction for {}", key);
+            return await(existing.result(), deadline);
+        }
+
+        issuedCounter.increment();
+        try {
+            MLServiceResponseDTO response = guard.execute(() -> mlServiceClient.predict(normalized, deadline));
+            inFlight.remove(key, call);
+            call.result().complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            inFlight.remove(key, call);
+            call.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Non-blocking prediction; identical concurrent requests share one future.
+     * <p>
+     * Each caller receives its own dependent future, so one caller cancelling does not
+     * cancel the shared call for the others.
+     * </p>
+     *
+     * @param request  Flight prediction request
+     * @param deadline time by which the answer is needed
+     * @return future with the ML service response
+     */
+    public CompletableFuture<MLServiceResponseDTO> predictAsync(FlightPredictionRequestDTO request, Deadline deadline) {
+        FlightPredictionRequestDTO normalized = request.toUpperCase();
+        PredictionKey key = PredictionKey.of(normalized);
+
+        SharedCall call = new SharedCall(new CompletableFuture<>(), deadline);
+        SharedCall existing = register(key, call);
+        if (existing != null) {
+            coalescedCounter.increment();
+            log.debug("Joining in-flight prediction for {}", key);
+            return existing.result().copy();
+        }
+
+        issuedCounter.increment();
+        CompletableFuture<MLServiceResponseDTO> outbound = guard.executeAsync(() -> batcher.isEnabled()
+                ? batcher.submit(normalized, deadline)
+                : mlServiceClient.predictAsync(normalized, deadline));
+
+        outbound.whenComplete((response, error) -> {
+            // Forget the call before publishing, so late arrivals start a fresh one
+            inFlight.remove(key, call);
+            if (error != null) {
+                call.result().completeExceptionally(unwrap(error));
+            } else {
+                call.result().complete(response);
+            }
+        });
+
+        return call.result().copy();
+    }
+
+    /**
+     * Registers {@code call} as the in-flight call for {@code key}, unless one that
+     * runs at least as long is already there.
+     *
+     * @return call to join, or null if the caller must issue {@code call} itself
+     */
+    private SharedCall register(PredictionKey key, SharedCall call) {
+        SharedCall existing = inFlight.putIfAbsent(key, call);
+        if (existing == null || !existing.deadline().isBefore(call.deadline())) {
+            return existing;
+        }
+        // The call in flight would give up before this caller: later arrivals join ours instead
+        inFlight.replace(key, existing, call);
+        return null;
+    }
+
+    private static MLServiceResponseDTO await(CompletableFuture<MLServiceResponseDTO> future, Deadline deadline) {
+        try {
+            return future.get(Math.max(0, deadline.remainingNanos()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new DeadlineExceededException("ML call deadline expired while waiting for a shared prediction");
+        } catch (ExecutionException e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new MLServiceClient.MLServiceException("Shared prediction call failed: " + cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MLServiceClient.MLServiceException("Interrupted while waiting for shared prediction", e);
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    /**
+     * Outbound call shared by identical requests, with the deadline it runs under.
+     */
+    private record SharedCall(CompletableFuture<MLServiceResponseDTO> result, Deadline deadline) {
+    }
+}
@@ -0,0 +1,426 @@
+package com.backend.fot.client;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.net.StandardProtocolFamily;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal HTTP/1.1 client over Unix domain sockets, for a model service on the same host.
+ * <p>
+ * Replicas are addressed as {@code http+unix://<url-encoded socket path>/<path>}, e.g.
+ * {@code http+unix://%2Frun%2Fml%2Fml.sock/predict}, the convention used by
+ * {@code requests-unixsocket} and similar clients. Exchanges skip the TCP handshake
+ * and the loopback network stack. Connections are kept alive and pooled per socket
+ * path. Each exchange runs on a small worker pool because JDK socket channels block;
+ * a timeout or cancellation interrupts the worker, which closes its connection.
+ * </p>
+ * <p>
+ * Only what the ML calls need is supported: request bodies with a known length and
+ * responses delimited by {@code Content-Length}, chunked encoding or connection close.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ * @since 2026-10-16
+ */
+@Slf4j
+@Component
+public class UnixSocketHttpClient {
+
+    /**
+     * URL scheme that selects this transport.
+     */
+    public static final String SCHEME = "http+unix";
+
+    private static final int MAX_LINE_LENGTH = 8192;
+
+    private final ExecutorService workers;
+    private final int maxIdlePerSocket;
+    private final Map<Path, ConcurrentLinkedDeque<Connection>> idle = new ConcurrentHashMap<>();
+
+    public UnixSocketHttpClient(
+            @Value("${ml.service.uds.threads:32}") int threads,
+            @Value("${ml.service.uds.max-idle:32}") int maxIdlePerSocket) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "ml-uds-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        this.workers = pool;
+        this.maxIdlePerSocket = maxIdlePerSocket;
+    }
+
+    /**
+     * @param url replica or endpoint URL
+     * @return true if the URL addresses a Unix domain socket
+     */
+    public static boolean isUnixUrl(String url) {
+        return url.startsWith(SCHEME + "://");
+    }
+
+    @PreDestroy
+    void close() {
+        workers.shutdownNow();
+        idle.values().forEach(connections -> connections.forEach(Connection::close));
+        idle.clear();
+    }
+
+    /**
+     * Sends a POST request.
+     *
+     * @param url       {@code http+unix} URL
+     * @param body      request body
+     * @param headers   request headers
+     * @param timeoutMs limit for the whole exchange
+     * @param callback  notified once the exchange completes, fails or is cancelled
+     * @return future with the response; cancelling it aborts the exchange
+     */
+    public CompletableFuture<SimpleHttpResponse> post(String url, byte[] body, Map<String, String> headers,
+                                                      long timeoutMs, FutureCallback<SimpleHttpResponse> callback) {
+        return execute("POST", url, body, headers, timeoutMs, callback);
+    }
+
+    /**
+     * Sends a GET request.
+     *
+     * @param url       {@code http+unix} URL
+     * @param timeoutMs limit for the whole exchange
+     * @param callback  notified once the exchange completes, fails or is cancelled
+     * @return future with the response; cancelling it aborts the exchange
+     */
+    public CompletableFuture<SimpleHttpResponse> get(String url, long timeoutMs,
+                                                     FutureCallback<SimpleHttpResponse> callback) {
+        return execute("GET", url, null, Map.of(), timeoutMs, callback);
+    }
+
+    private CompletableFuture<SimpleHttpResponse> execute(String method, String url, byte[] body,
+                                                          Map<String, String> headers, long timeoutMs,
+                                                          FutureCallback<SimpleHttpResponse> callback) {
+        CompletableFuture<SimpleHttpResponse> result = new CompletableFuture<>();
+        Target target;
+        try {
+            target = Target.parse(url);
+        } catch (IllegalArgumentException e) {
+            callback.failed(e);
+            result.completeExceptionally(e);
+            return result;
+        }
+
+        Future<?> worker = workers.submit(() -> {
+            try {
+                result.complete(exchange(target, method, body, headers));
+            } catch (IOException | RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+
+        result.orTimeout(timeoutMs, TimeUnit.MILLISECONDS).whenComplete((response, error) -> {
+            if (error == null) {
+                callback.completed(response);
+                return;
+            }
+            // Interrupting the worker closes its channel, so nothing is left half-read in the pool
+            worker.cancel(true);
+            if (result.isCancelled()) {
+                callback.cancelled();
+            } else if (error instanceof TimeoutException) {
+                callback.failed(new TimeoutException("Unix socket exchange with " + target.socketPath()
+                        + " timed out after " + timeoutMs + "ms"));
+            } else {
+                callback.failed(error instanceof Exception exception ? exception : new IOException(error));
+            }
+        });
+        return result;
+    }
+
+    private SimpleHttpResponse exchange(Target target, String method, byte[] body, Map<String, String> headers)
+            throws IOException {
+        Connection connection = idle.computeIfAbsent(target.socketPath(), path -> new ConcurrentLinkedDeque<>())
+                .pollFirst();
+        if (connection != null) {
+            try {
+                return exchange(connection, target, method, body, headers);
+            } catch (StaleConnectionException e) {
+                // The server closed the pooled connection before reading the request; use a fresh one
+                log.debug("Discarding stale Unix socket connection to {}", target.socketPath());
+            }
+        }
+        return exchange(Connection.open(target.socketPath()), target, method, body, headers);
+    }
+
+    private SimpleHttpResponse exchange(Connection connection, Target target, String method, byte[] body,
+                                        Map<String, String> headers) throws IOException {
+        boolean released = false;
+        try {
+            SimpleHttpResponse response = connection.exchange(method, target.requestPath(), body, headers);
+            if (connection.keepAlive) {
+                released = release(connection);
+            }
+            return response;
+        } finally {
+            if (!released) {
+                connection.close();
+            }
+        }
+    }
+
+    private boolean release(Connection connection) {
+        ConcurrentLinkedDeque<Connection> connections = idle.get(connection.path);
+        if (connections == null || connections.size() >= maxIdlePerSocket) {
+            return false;
+        }
+        connections.addFirst(connection);
+        return true;
+    }
+
+    /**
+     * Socket path and request target decoded from an {@code http+unix} URL.
+     */
+    record Target(Path socketPath, String requestPath) {
+
+        static Target parse(String url) {
+            URI uri = URI.create(url);
+            if (!SCHEME.equals(uri.getScheme()) || uri.getRawAuthority() == null) {
+                throw new IllegalArgumentException("Not an " + SCHEME + " URL: " + url);
+            }
+            String socketPath = URLDecoder.decode(uri.getRawAuthority(), StandardCharsets.UTF_8);
+            String requestPath = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+            if (uri.getRawQuery() != null) {
+                requestPath += "?" + uri.getRawQuery();
+            }
+            return new Target(Path.of(socketPath), requestPath);
+        }
+    }
+
+    /**
+     * Pooled connection failed before any response byte was read.
+     */
+    private static final class StaleConnectionException extends IOException {
+        StaleConnectionException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    /**
+     * One keep-alive connection to a socket.
+     */
+    private static final class Connection implements Closeable {
+
+        private final Path path;
+        private final SocketChannel channel;
+        private final InputStream in;
+        private final OutputStream out;
+        private boolean keepAlive;
+
+        private Connection(Path path, SocketChannel channel) {
+            this.path = path;
+            this.channel = channel;
+            this.in = new BufferedInputStream(Channels.newInputStream(channel));
+            this.out = new BufferedOutputStream(Channels.newOutputStream(channel));
+        }
+
+        static Connection open(Path path) throws ConnectException {
+            SocketChannel channel = null;
+            try {
+                channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+                channel.connect(UnixDomainSocketAddress.of(path));
+                return new Connection(path, channel);
+            } catch (IOException e) {
+                closeQuietly(channel);
+                ConnectException connectException =
+                        new ConnectException("Connect to unix socket " + path + " failed: " + e.getMessage());
+                connectException.initCause(e);
+                throw connectException;
+            }
+        }
+
+        SimpleHttpResponse exchange(String method, String requestPath, byte[] body, Map<String, String> headers)
+                throws IOException {
+            boolean responseStarted = false;
+            try {
+                writeRequest(method, requestPath, body, headers);
+                String statusLine = readLine();
+                if (statusLine == null) {
+                    throw new StaleConnectionException("Connection closed before a response was received", null);
+                }
+                responseStarted = true;
+                return readResponse(statusLine);
+            } catch (StaleConnectionException e) {
+                throw e;
+            } catch (IOException e) {
+                if (!responseStarted && !(e instanceof java.nio.channels.ClosedByInterruptException)
+                        && !Thread.currentThread().isInterrupted()) {
+                    throw new StaleConnectionException(e.getMessage(), e);
+                }
+                throw e;
+            }
+        }
+
+        private void writeRequest(String method, String requestPath, byte[] body, Map<String, String> headers)
+                throws IOException {
+            StringBuilder head = new StringBuilder(256)
+                    .append(method).append(' ').append(requestPath).append(" HTTP/1.1\r\n")
+                    .append("Host: localhost\r\n");
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                head.append(header.getKey()).append(": ").append(header.getValue()).append("\r\n");
+            }
+            if (body != null) {
+                head.append("Content-Length: ").append(body.length).append("\r\n");
+            }
+            head.append("\r\n");
+            out.write(head.toString().getBytes(StandardCharsets.ISO_8859_1));
+            if (body != null) {
+                out.write(body);
+            }
+            out.flush();
+        }
+
+        private SimpleHttpResponse readResponse(String statusLine) throws IOException {
+            String[] status = statusLine.split(" ", 3);
+            if (status.length < 2 || !status[0].startsWith("HTTP/")) {
+                throw new IOException("Malformed status line: " + statusLine);
+            }
+            int code = Integer.parseInt(status[1]);
+
+            String contentType = null;
+            String transferEncoding = null;
+            String connectionHeader = null;
+            long contentLength = -1;
+            for (String line = readLine(); line != null && !line.isEmpty(); line = readLine()) {
+                int colon = line.indexOf(':');
+                if (colon <= 0) {
+                    continue;
+                }
+                String name = line.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+                String value = line.substring(colon + 1).trim();
+                switch (name) {
+                    case "content-type" -> contentType = value;
+                    case "content-length" -> contentLength = Long.parseLong(value);
+                    case "transfer-encoding" -> transferEncoding = value;
+                    case "connection" -> connectionHeader = value;
+                    default -> {
+                    }
+                }
+            }
+
+            keepAlive = status[0].equals("HTTP/1.1")
+                    ? !"close".equalsIgnoreCase(connectionHeader)
+                    : "keep-alive".equalsIgnoreCase(connectionHeader);
+
+            byte[] body;
+            if (code == 204 || code == 304 || (code >= 100 && code < 200)) {
+                body = new byte[0];
+            } else if (transferEncoding != null && transferEncoding.toLowerCase(Locale.ROOT).contains("chunked")) {
+                body = readChunked();
+            } else if (contentLength >= 0) {
+                body = in.readNBytes(Math.toIntExact(contentLength));
+                if (body.length < contentLength) {
+                    throw new EOFException("Response body truncated");
+                }
+            } else {
+                body = in.readAllBytes();
+                keepAlive = false;
+            }
+
+            return SimpleHttpResponse.create(code, body,
+                    contentType != null ? ContentType.parse(contentType) : ContentType.APPLICATION_JSON);
+        }
+
+        private byte[] readChunked() throws IOException {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            while (true) {
+                String sizeLine = readLine();
+                if (sizeLine == null) {
+                    throw new EOFException("Chunked response truncated");
+                }
+                int extension = sizeLine.indexOf(';');
+                int size = Integer.parseInt((extension >= 0 ? sizeLine.substring(0, extension) : sizeLine).trim(), 16);
+                if (size == 0) {
+                    // Skip trailers up to the blank line
+                    for (String line = readLine(); line != null && !line.isEmpty(); line = readLine()) {
+                        // ignored
+                    }
+                    return body.toByteArray();
+                }
+                byte[] chunk = in.readNBytes(size);
+                if (chunk.length < size) {
+                    throw new EOFException("Chunked response truncated");
+                }
+                body.write(chunk);
+                readLine();
+            }
+        }
+
+        /**
+         * @return next CRLF- or LF-terminated line without its terminator, or null at end of stream
+         */
+        private String readLine() throws IOException {
+            ByteArrayOutputStream line = new ByteArrayOutputStream(64);
+            int b;
+            while ((b = in.read()) != -1) {
+                if (b == '\n') {
+                    byte[] bytes = line.toByteArray();
+                    int length = bytes.length > 0 && bytes[bytes.length - 1] == '\r' ? bytes.length - 1 : bytes.length;
+                    return new String(bytes, 0, length, StandardCharsets.ISO_8859_1);
+                }
+                if (line.size() >= MAX_LINE_LENGTH) {
+                    throw new IOException("HTTP line too long");
+                }
+                line.write(b);
+            }
+            return line.size() == 0 ? null : line.toString(StandardCharsets.ISO_8859_1);
+        }
+
+        @Override
+        public void close() {
+            closeQuietly(channel);
+        }
+
+        private static void closeQuietly(SocketChannel channel) {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                    // Nothing useful to do
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.backend.fot.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.http2.config.H2Config;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for the non-blocking HTTP client used by
+ * {@link com.backend.fot.client.MLServiceClient#predictAsync}.
+ * <p>
+ * Requests are multiplexed over a small, fixed number of I/O reactor threads, so the
+ * number of predictions in flight is bounded by the connection pool instead of by
+ * the number of request threads. The pool shares the {@code ml.service.pool.*}
+ * settings and the connect and read timeouts with the blocking client.
+ * </p>
+ * <p>
+ * With {@code ml.service.protocol=H2C} the client speaks HTTP/2 over cleartext
+ * (prior knowledge) instead: one connection per replica carries every concurrent
+ * call as a separate stream. Streams above the replica's advertised
+ * {@code SETTINGS_MAX_CONCURRENT_STREAMS} wait on that connection for a free slot,
+ * and bodies respect the per-stream flow-control windows, so a burst of predictions
+ * never opens extra sockets. The replicas must accept h2c. The HTTP/1.1 pool and
+ * its {@code ml-service-async} pool metrics are then not created.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.2
+ * @since 2026-10-16
+ */
+@Configuration
+public class AsyncHttpClientConfig {
+
+    private static final long SELECT_INTERVAL_MS = 50;
+
+    /**
+     * Wire protocol of the non-blocking client.
+     */
+    public enum Protocol {
+        /**
+         * HTTP/1.1 with a connection per in-flight call, from the pool.
+         */
+        HTTP1,
+        /**
+         * HTTP/2 over cleartext, multiplexed over one connection per replica.
+         */
+        H2C
+    }
+
+    @Value("${ml.service.protocol:HTTP1}")
+    private Protocol protocol;
+
+    @Value("${ml.service.h2.initial-window-size:1048576}")
+    private int initialWindowSize;
+
+    @Value("${ml.service.connect-timeout:1000}")
+    private long connectTimeoutMs;
+
+    @Value("${ml.service.read-timeout:5000}")
+    private long readTimeoutMs;
+
+    @Value("${ml.service.async.io-threads:2}")
+    private int ioThreads;
+
+    @Value("${ml.service.pool.max-total:200}")
+    private int maxTotal;
+
+    @Value("${ml.service.pool.max-per-route:50}")
+    private int maxPerRoute;
+
+    @Value("${ml.service.pool.idle-eviction:30000}")
+    private long idleEvictionMs;
+
+    @Value("${ml.service.pool.time-to-live:300000}")
+    private long timeToLiveMs;
+
+    @Value("${ml.service.pool.validate-after-inactivity:2000}")
+    private long validateAfterInactivityMs;
+
+    /**
+     * Creates the pooled non-blocking connection manager.
+     *
+     * @return configured async connection manager
+     */
+    @Bean
+    @ConditionalOnProperty(name = "ml.service.protocol", havingValue = "HTTP1", matchIfMissing = true)
+    public PoolingAsyncClientConnectionManager mlAsyncConnectionManager() {
+        return PoolingAsyncClientConnectionManagerBuilder.create()
+                .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.STRICT)
+                .setConnPoolPolicy(PoolReusePolicy.LIFO)
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .setTimeToLive(TimeValue.ofMilliseconds(timeToLiveMs))
+                        .setValidateAfterInactivity(TimeValue.ofMilliseconds(validateAfterInactivityMs))
+                        .build())
+                .build();
+    }
+
+    /**
+     * Publishes pool occupancy gauges for the async pool.
+     *
+     * @param mlAsyncConnectionManager async connection manager
+     * @return meter binder registered by Spring Boot
+     */
+    @Bean
+    @ConditionalOnProperty(name = "ml.service.protocol", havingValue = "HTTP1", matchIfMissing = true)
+    public MeterBinder mlAsyncConnectionPoolMetrics(PoolingAsyncClientConnectionManager mlAsyncConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(mlAsyncConnectionManager, "ml-service-async");
+    }
+
+    /**
+     * Creates and starts the non-blocking HTTP client: pooled HTTP/1.1, or multiplexed
+     * h2c with {@code ml.service.protocol=H2C}.
+     *
+     * @param mlAsyncConnectionManager async connection manager, absent with h2c
+     * @return started async HTTP client
+     */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpAsyncClient mlAsyncHttpClient(
+            ObjectProvider<PoolingAsyncClientConnectionManager> mlAsyncConnectionManager) {
+        CloseableHttpAsyncClient client = protocol == Protocol.H2C
+                ? HttpAsyncClients.customHttp2()
+                        .setH2Config(H2Config.custom()
+                                .setPushEnabled(false)
+                                .setInitialWindowSize(initialWindowSize)
+                                .build())
+                        .setIOReactorConfig(ioReactorConfig())
+                        .setDefaultConnectionConfig(ConnectionConfig.custom()
+                                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                                .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                                .build())
+                        .setDefaultRequestConfig(requestConfig())
+                        .evictIdleConnections(TimeValue.ofMilliseconds(idleEvictionMs))
+                        .disableAutomaticRetries()
+                        .build()
+                : HttpAsyncClients.custom()
+                        .setConnectionManager(mlAsyncConnectionManager.getObject())
+                        .setIOReactorConfig(ioReactorConfig())
+                        .setDefaultRequestConfig(requestConfig())
+                        .evictIdleConnections(TimeValue.ofMilliseconds(idleEvictionMs))
+                        .evictExpiredConnections()
+                        // Retries are decided by RetryPolicy; the built-in strategy would silently repeat 503s
+                        .disableAutomaticRetries()
+                        .build();
+        client.start();
+        return client;
+    }
+
+    private IOReactorConfig ioReactorConfig() {
+        return IOReactorConfig.custom()
+                .setIoThreadCount(ioThreads)
+                // Timeouts are only checked once per select interval; the 1s default
+                // is too coarse for read timeouts derived from request deadlines
+                .setSelectInterval(TimeValue.ofMilliseconds(SELECT_INTERVAL_MS))
+                .build();
+    }
+
+    private RequestConfig requestConfig() {
+        return RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                .build();
+    }
+}
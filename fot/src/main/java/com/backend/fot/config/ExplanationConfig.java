@@ -0,0 +1,102 @@
+package com.backend.fot.config;
+
+import com.backend.fot.inference.ForestDump;
+import com.backend.fot.inference.ModelRegistry;
+import com.backend.fot.inference.PredictionExplainer;
+import com.backend.fot.inference.TreeShapExplainer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Sets up {@code POST /api/v1/predict?explain=true} explanations.
+ * <p>
+ * With {@code ml.inference.engine=LOCAL} and a JSON model, each registry version
+ * explains its own predictions. {@code ml.explanation.model-path} points at a JSON
+ * dump from {@code Modelagem/Modelos/export_forest.py}, any Spring resource location,
+ * used with the REMOTE engine or a binary or ONNX model; its explanations are only
+ * returned for predictions they agree with (model version, and probability within
+ * {@code ml.explanation.tolerance}). Neither LOCAL nor a model path leaves
+ * explanations off and {@code explain=true} is ignored. An invalid dump fails startup.
+ * </p>
+ * <p>
+ * {@code ml.explanation.cache-size} explanations are kept by feature row;
+ * {@code ml.explanation.cache} counts hits and misses, {@code ml.explanation.dropped}
+ * explanations left out because they disagreed with the prediction or the
+ * {@code ml.explanation.threads} workers were {@code ml.explanation.queue-capacity} behind.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.1
+ * @since 2026-10-16
+ */
+@Slf4j
+@Configuration
+@ConditionalOnExpression("'${ml.inference.engine:REMOTE}'.equalsIgnoreCase('LOCAL')"
+        + " or !'${ml.explanation.model-path:}'.isBlank()")
+public class ExplanationConfig {
+
+    @Bean(destroyMethod = "close")
+    public PredictionExplainer predictionExplainer(ObjectProvider<ModelRegistry> modelRegistry,
+                                                   @Value("${ml.explanation.model-path:}") String modelPath,
+                                                   @Value("${ml.explanation.cache-size:65536}") int cacheSize,
+                                                   @Value("${ml.explanation.tolerance:1e-4}") double tolerance,
+                                                   @Value("${ml.explanation.threads:2}") int threads,
+                                                   @Value("${ml.explanation.queue-capacity:256}") int queueCapacity,
+                                                   ResourceLoader resourceLoader,
+                                                   ObjectMapper objectMapper,
+                                                   MeterRegistry meterRegistry) throws IOException {
+        TreeShapExplainer fixed = modelPath.isBlank()
+                ? null
+                : load(resourceLoader.getResource(modelPath), cacheSize, objectMapper);
+        PredictionExplainer explainer = new PredictionExplainer(modelRegistry.getIfAvailable(), fixed, cacheSize,
+                tolerance, threads, queueCapacity);
+        if (!explainer.canExplain()) {
+            log.warn("Explanations need a JSON model or ml.explanation.model-path; explain=true is ignored");
+        }
+
+        FunctionCounter.builder("ml.explanation.cache", explainer, PredictionExplainer::cacheHits)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("ml.explanation.cache", explainer, PredictionExplainer::cacheMisses)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("ml.explanation.dropped", explainer, PredictionExplainer::mismatches)
+                .description("Explanations left out of a response")
+                .tag("reason", "model_mismatch")
+                .register(meterRegistry);
+        FunctionCounter.builder("ml.explanation.dropped", explainer, PredictionExplainer::rejections)
+                .description("Explanations left out of a response")
+                .tag("reason", "queue_full")
+                .register(meterRegistry);
+        return explainer;
+    }
+
+    private static TreeShapExplainer load(Resource modelPath, int cacheSize, ObjectMapper objectMapper)
+            throws IOException {
+        long start = System.nanoTime();
+        TreeShapExplainer explainer;
+        try (InputStream in = modelPath.getInputStream()) {
+            explainer = TreeShapExplainer.from(ForestDump.read(in, objectMapper), cacheSize);
+        }
+        log.info("Loaded explanations for model {} from {} in {} ms: base value {}, cache of {} rows",
+                explainer.modelVersion(), modelPath, (System.nanoTime() - start) / 1_000_000,
+                explainer.baseValue(), cacheSize);
+        if (!explainer.hasNodeSamples()) {
+            log.warn("Model dump {} has no weighted_n_node_samples; explanations weight every split evenly."
+                    + " Re-export it with export_forest.py to explain against the training data", modelPath);
+        }
+        return explainer;
+    }
+}
@@ -0,0 +1,128 @@
+package com.backend.fot.config;
+
+import com.backend.fot.inference.ForestModel;
+import com.backend.fot.inference.ForestPredictor;
+import com.backend.fot.inference.ModelRegistry;
+import com.backend.fot.inference.OnnxForestModel;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * Loads the exported RandomForest when predictions run inside the JVM
+ * ({@code ml.inference.engine=LOCAL}).
+ * <p>
+ * {@code ml.inference.model-path} points at the dump written by
+ * {@code Modelagem/Modelos/export_forest.py} and accepts any Spring resource
+ * location ({@code file:}, {@code classpath:}). A missing or invalid dump fails
+ * startup instead of the first prediction. {@code ml.inference.evaluator} selects
+ * how the trees are evaluated ({@code TRAVERSAL}, {@code QUICKSCORER} or {@code COMPILED}).
+ * </p>
+ * <p>
+ * With {@code ml.inference.model-format=BINARY} the path must be a file written by
+ * {@code convert_forest.py}; it is mapped read-only instead of parsed, so startup
+ * does not depend on the model size and replicas on one host share its pages.
+ * With {@code ml.inference.model-format=ONNX} it must be a file written by
+ * {@code export_onnx.py}, scored by ONNX Runtime on the CPU with
+ * {@code ml.inference.onnx.*} sizing the session and its batches; ONNX Runtime's
+ * native library needs a glibc image (see the Dockerfile's {@code RUNTIME_IMAGE}).
+ * </p>
+ * <p>
+ * Predictions read the model from a {@link ModelRegistry}. Without
+ * {@code ml.inference.registry.dir} it serves the model at
+ * {@code ml.inference.model-path} for the life of the process; with it, the newest
+ * valid version in that directory, and versions added later are validated, warmed
+ * up and swapped in without a restart ({@code ml.inference.registry.*}).
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.4
+ * @since 2026-10-16
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "ml.inference.engine", havingValue = "LOCAL")
+public class LocalInferenceConfig {
+
+    /**
+     * How the model file at {@code ml.inference.model-path} is stored.
+     */
+    public enum ModelFormat {
+        /** JSON dump from {@code export_forest.py}, parsed into heap arrays. */
+        JSON("forest.json"),
+        /** Binary file from {@code convert_forest.py}, memory-mapped. */
+        BINARY("forest.fotm"),
+        /** Classifier exported by {@code export_onnx.py}, scored by ONNX Runtime. */
+        ONNX("forest.onnx");
+
+        private final String fileName;
+
+        ModelFormat(String fileName) {
+            this.fileName = fileName;
+        }
+
+        /**
+         * @return name of the model file inside a registry version directory
+         */
+        public String fileName() {
+            return fileName;
+        }
+    }
+
+    @Bean(destroyMethod = "close")
+    public ModelRegistry modelRegistry(@Value("${ml.inference.model-path:file:forest.json}") Resource modelPath,
+                                       @Value("${ml.inference.model-format:JSON}") ModelFormat format,
+                                       @Value("${ml.inference.evaluator:TRAVERSAL}") ForestPredictor.Evaluator evaluator,
+                                       @Value("${ml.inference.onnx.intra-op-threads:1}") int intraOpThreads,
+                                       @Value("${ml.inference.onnx.max-batch:256}") int maxBatch,
+                                       @Value("${ml.inference.registry.dir:}") String registryDir,
+                                       @Value("${ml.inference.registry.poll-interval:10000}") long pollIntervalMs,
+                                       @Value("${ml.inference.registry.tolerance:1e-4}") double tolerance,
+                                       @Value("${ml.inference.registry.warmup-rounds:200}") int warmupRounds,
+                                       ObjectMapper objectMapper) throws IOException {
+        if (registryDir.isBlank()) {
+            long start = System.nanoTime();
+            ForestPredictor predictor = load(modelPath, format, evaluator, intraOpThreads, maxBatch, objectMapper);
+            ForestModel model = predictor.model();
+            log.info("Loaded local model {} from {} in {} ms: {} trees, {} nodes, {} features, {} format, {} evaluator",
+                    predictor.modelVersion(), modelPath, (System.nanoTime() - start) / 1_000_000, model.numTrees(),
+                    model.numNodes(), model.numFeatures(), format, evaluator);
+            return ModelRegistry.of(predictor);
+        }
+        ModelRegistry registry = ModelRegistry.open(Path.of(registryDir), format.fileName(),
+                file -> load(new FileSystemResource(file), format, evaluator, intraOpThreads, maxBatch, objectMapper),
+                objectMapper, tolerance, warmupRounds);
+        log.info("Serving local model version {} from registry {}: {} format, {} evaluator",
+                registry.active().modelVersion(), registryDir, format, evaluator);
+        registry.start(pollIntervalMs);
+        return registry;
+    }
+
+    private static ForestPredictor load(Resource modelPath, ModelFormat format, ForestPredictor.Evaluator evaluator,
+                                        int intraOpThreads, int maxBatch, ObjectMapper objectMapper)
+            throws IOException {
+        if (format != ModelFormat.JSON && evaluator != ForestPredictor.Evaluator.TRAVERSAL) {
+            throw new IllegalStateException("ml.inference.evaluator=" + evaluator + " needs the JSON model");
+        }
+        // Mapping and ONNX Runtime need a real file, not a classpath entry inside the jar
+        if (format == ModelFormat.BINARY) {
+            return ForestPredictor.map(modelPath.getFile().toPath());
+        }
+        if (format == ModelFormat.ONNX) {
+            return ForestPredictor.onnx(OnnxForestModel.open(modelPath.getFile().toPath(), objectMapper,
+                    intraOpThreads, maxBatch));
+        }
+        try (InputStream in = modelPath.getInputStream()) {
+            return ForestPredictor.load(in, objectMapper, evaluator);
+        }
+    }
+}
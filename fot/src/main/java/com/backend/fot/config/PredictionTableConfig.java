@@ -0,0 +1,49 @@
+package com.backend.fot.config;
+
+import com.backend.fot.inference.PredictionTable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+/**
+ * Maps the precomputed predictions for scheduled flights in front of the ML service.
+ * <p>
+ * {@code ml.prediction-table.path} points at the file written by
+ * {@link com.backend.fot.inference.PredictionTableJob}; blank (the default) gives an
+ * empty table and every prediction goes to the ML service. An invalid file fails
+ * startup. The table is mapped once; regenerate it before its horizon ends and
+ * restart to pick it up.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ * @since 2026-10-16
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "ml.inference.engine", havingValue = "REMOTE", matchIfMissing = true)
+public class PredictionTableConfig {
+
+    @Bean
+    public PredictionTable predictionTable(@Value("${ml.prediction-table.path:}") String path) throws IOException {
+        if (path.isBlank()) {
+            return PredictionTable.empty();
+        }
+        long start = System.nanoTime();
+        PredictionTable table = PredictionTable.open(Path.of(path));
+        log.info("Mapped {} precomputed predictions of model {} for {} to {} from {} in {} ms", table.size(),
+                table.modelVersion(), table.firstDate(), table.lastDate(), path,
+                (System.nanoTime() - start) / 1_000_000);
+        if (table.lastDate().isBefore(LocalDate.now())) {
+            log.warn("Prediction table {} ended on {}; every prediction goes to the ML service", path,
+                    table.lastDate());
+        }
+        return table;
+    }
+}
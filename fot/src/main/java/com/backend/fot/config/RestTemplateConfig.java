@@ -1,37 +1,142 @@
 package com.backend.fot.config;
 
+import com.backend.fot.client.MeteredConnectionManager;
+import com.backend.fot.client.PerCallRequestConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.socket.ConnectionSocketFactory;
+import org.apache.hc.client5.http.socket.PlainConnectionSocketFactory;
+import org.apache.hc.client5.http.ssl.SSLConnectionSocketFactory;
+import org.apache.hc.core5.http.config.RegistryBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
-import java.time.Duration;
-
 /**
  * Configuration for RestTemplate used in HTTP client communications.
- * 
+ * <p>
+ * Calls to the ML service go through a pooled Apache HttpClient so keep-alive
+ * connections are reused instead of opening a new socket per prediction.
+ * Pool sizing and connection lifecycle are configured under {@code ml.service.pool.*}.
+ * </p>
+ * <p>
+ * {@code ml.service.connect-timeout} and {@code ml.service.read-timeout} are the
+ * defaults; each ML call lowers its read timeout to the time left before its deadline
+ * through {@link PerCallRequestConfig}.
+ * </p>
+ *
  * @author FlightOnTime Team
- * @version 1.0
+ * @version 1.2
  * @since 2025-12-21
  */
 @Configuration
 public class RestTemplateConfig {
 
-    @Value("${ml.service.timeout:5000}")
-    private long timeoutMs;
+    @Value("${ml.service.connect-timeout:1000}")
+    private long connectTimeoutMs;
+
+    @Value("${ml.service.read-timeout:5000}")
+    private long readTimeoutMs;
+
+    @Value("${ml.service.pool.max-total:200}")
+    private int maxTotal;
+
+    @Value("${ml.service.pool.max-per-route:50}")
+    private int maxPerRoute;
+
+    @Value("${ml.service.pool.idle-eviction:30000}")
+    private long idleEvictionMs;
+
+    @Value("${ml.service.pool.time-to-live:300000}")
+    private long timeToLiveMs;
+
+    @Value("${ml.service.pool.validate-after-inactivity:2000}")
+    private long validateAfterInactivityMs;
+
+    /**
+     * Creates the pooled connection manager shared by all ML service calls.
+     *
+     * @param meterRegistry registry for lease-time metrics
+     * @return configured connection manager
+     */
+    @Bean
+    public PoolingHttpClientConnectionManager mlConnectionManager(MeterRegistry meterRegistry) {
+        MeteredConnectionManager connectionManager = new MeteredConnectionManager(
+                RegistryBuilder.<ConnectionSocketFactory>create()
+                        .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                        .register("https", SSLConnectionSocketFactory.getSocketFactory())
+                        .build(),
+                meterRegistry);
+
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        connectionManager.setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                .setTimeToLive(TimeValue.ofMilliseconds(timeToLiveMs))
+                .setValidateAfterInactivity(TimeValue.ofMilliseconds(validateAfterInactivityMs))
+                .build());
+
+        return connectionManager;
+    }
+
+    /**
+     * Publishes pool occupancy gauges (leased, available, pending leases).
+     *
+     * @param mlConnectionManager pooled connection manager
+     * @return meter binder registered by Spring Boot
+     */
+    @Bean
+    public MeterBinder mlConnectionPoolMetrics(PoolingHttpClientConnectionManager mlConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(mlConnectionManager, "ml-service");
+    }
+
+    /**
+     * Creates the HTTP client with idle and expired connection eviction.
+     *
+     * @param mlConnectionManager pooled connection manager
+     * @return configured HTTP client
+     */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient mlHttpClient(PoolingHttpClientConnectionManager mlConnectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(mlConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleEvictionMs))
+                .evictExpiredConnections()
+                // Retries are decided by RetryPolicy; the built-in strategy would silently repeat 503s
+                .disableAutomaticRetries()
+                .build();
+    }
 
     /**
-     * Creates a configured RestTemplate bean with timeout settings.
-     * 
+     * Creates a configured RestTemplate bean backed by the pooled HTTP client.
+     *
      * @param builder RestTemplate builder
+     * @param mlHttpClient pooled HTTP client
      * @return Configured RestTemplate instance
      */
     @Bean
-    public RestTemplate restTemplate(RestTemplateBuilder builder) {
+    public RestTemplate restTemplate(RestTemplateBuilder builder, CloseableHttpClient mlHttpClient) {
         return builder
-                .setConnectTimeout(Duration.ofMillis(timeoutMs))
-                .setReadTimeout(Duration.ofMillis(timeoutMs))
+                .requestFactory(() -> {
+                    HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory(mlHttpClient);
+                    factory.setHttpContextFactory(PerCallRequestConfig::httpContext);
+                    return factory;
+                })
                 .build();
     }
 }
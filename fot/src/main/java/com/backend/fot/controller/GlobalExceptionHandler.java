@@ -1,5 +1,7 @@
 package com.backend.fot.controller;
 
+import com.backend.fot.exceptions.PredictionTimeoutException;
+import com.backend.fot.exceptions.PredictionUnavailableException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -117,6 +119,46 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE).body(errorResponse);
     }
 
+    /**
+     * Handles predictions that could not be produced because the ML service is unavailable.
+     * Returns 503 SERVICE UNAVAILABLE so clients know the request may be retried later.
+     * 
+     * @param ex the prediction unavailable exception
+     * @return error response with service unavailable details
+     */
+    @ExceptionHandler(PredictionUnavailableException.class)
+    public ResponseEntity<Map<String, Object>> handlePredictionUnavailableException(PredictionUnavailableException ex) {
+        log.warn("Prediction unavailable: {}", ex.getCause() != null ? ex.getCause().getMessage() : ex.getMessage());
+
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("timestamp", Instant.now().toString());
+        errorResponse.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        errorResponse.put("error", "Service Unavailable");
+        errorResponse.put("message", "ML prediction service is temporarily unavailable. Please try again later.");
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
+    }
+
+    /**
+     * Handles predictions that did not finish before the request deadline.
+     * Returns 504 GATEWAY TIMEOUT.
+     * 
+     * @param ex the prediction timeout exception
+     * @return error response with gateway timeout details
+     */
+    @ExceptionHandler(PredictionTimeoutException.class)
+    public ResponseEntity<Map<String, Object>> handlePredictionTimeoutException(PredictionTimeoutException ex) {
+        log.warn("Prediction timed out: {}", ex.getCause() != null ? ex.getCause().getMessage() : ex.getMessage());
+
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("timestamp", Instant.now().toString());
+        errorResponse.put("status", HttpStatus.GATEWAY_TIMEOUT.value());
+        errorResponse.put("error", "Gateway Timeout");
+        errorResponse.put("message", "ML prediction did not complete within the request deadline.");
+
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(errorResponse);
+    }
+
     /**
      * Handles all other unexpected exceptions.
      * Returns 500 INTERNAL SERVER ERROR for unhandled errors.
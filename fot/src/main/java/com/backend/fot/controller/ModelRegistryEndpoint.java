@@ -0,0 +1,53 @@
+package com.backend.fot.controller;
+
+import com.backend.fot.inference.ModelRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint for the local model registry ({@code /actuator/models}).
+ * <p>
+ * {@code GET} reports the active and previous versions and the rejected ones;
+ * {@code POST} puts the previous version back in service at once. Not exposed
+ * unless {@code models} is added to {@code management.endpoints.web.exposure.include}.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ * @since 2026-10-16
+ */
+@Slf4j
+@Component
+@Endpoint(id = "models")
+@ConditionalOnProperty(name = "ml.inference.engine", havingValue = "LOCAL")
+@RequiredArgsConstructor
+public class ModelRegistryEndpoint {
+
+    private final ModelRegistry modelRegistry;
+
+    @ReadOperation
+    public ModelRegistry.Status status() {
+        return modelRegistry.status();
+    }
+
+    /**
+     * Rolls the active model back to the previous version.
+     *
+     * @return whether there was a version to return to, and the resulting status
+     */
+    @WriteOperation
+    public Map<String, Object> rollback() {
+        boolean rolledBack = modelRegistry.rollback();
+        if (!rolledBack) {
+            log.warn("Model rollback requested but there is no previous version");
+        }
+        return Map.of("rolledBack", rolledBack, "status", modelRegistry.status());
+    }
+}
@@ -1,9 +1,15 @@
 package com.backend.fot.controller;
 
+import com.backend.fot.client.MLHealthProber;
+import com.backend.fot.client.MLHealthSnapshot;
 import com.backend.fot.dto.FlightPredictionRequestDTO;
 import com.backend.fot.dto.FlightPredictionResponseDTO;
+import com.backend.fot.inference.PredictionExplainer;
+import com.backend.fot.resilience.CircuitBreaker;
+import com.backend.fot.resilience.MLServiceGuard;
 import com.backend.fot.service.PredictionService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -13,15 +19,19 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * REST Controller for flight delay predictions.
  * 
  * 
  * @author FlightOnTime Team
- * @version 1.0
+ * @version 1.2
  * @since 2025-12-17
  */
 @Slf4j
@@ -31,6 +41,11 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "Flight Predictions", description = "Endpoints for flight delay prediction using Machine Learning")
 public class PredictionController {
 
+    /**
+     * Optional request header with the client's time budget in milliseconds.
+     */
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout-Ms";
+
     /**
      * Service layer dependency injected via constructor (Dependency Inversion
      * Principle).
@@ -39,10 +54,38 @@ public class PredictionController {
     private final PredictionService predictionService;
 
     /**
+     * Guard around ML service calls; its circuit breaker state is reported by the health check.
+     */
+    private final MLServiceGuard mlServiceGuard;
+
+    /**
+     * Background ML health prober; its cached snapshot is reported by the health check.
+     */
+    private final MLHealthProber mlHealthProber;
+
+    /**
+     * Explains predictions with the model that served them, present when explanations are enabled.
+     */
+    private final ObjectProvider<PredictionExplainer> predictionExplainer;
+
+    /**
+     * Predicts whether a flight will be delayed.
+     * 
+     * The prediction is produced asynchronously: the servlet thread is released while
+     * the ML service is being called and the response is written when the future completes.
      * 
+     * A client may send {@value #TIMEOUT_HEADER} to say how long it is willing to wait;
+     * the budget is capped by the configured deadline and answered with 504 once spent.
+     * 
+     * With {@code explain=true} and explanations enabled, the response also carries
+     * each feature's contribution to the probability of delay. It is computed only once
+     * the prediction succeeded, on the explainer's own threads, by the model that served
+     * the prediction, and cached by feature row.
      * 
      * @param request Flight information (validated automatically by @Valid)
-     * @return ResponseEntity with prediction result and HTTP 200 status
+     * @param timeoutMs optional client time budget in milliseconds
+     * @param explain whether to add the per-feature explanation
+     * @return future ResponseEntity with prediction result and HTTP 200 status
      * @throws jakarta.validation.ConstraintViolationException if validation fails
      *                                                         (handled by
      *                                                         GlobalExceptionHandler)
@@ -58,6 +101,10 @@ public class PredictionController {
             - Airline company
 
             Returns a probability score from 0.0 to 1.0 indicating confidence level.
+
+            With explain=true, when the server has explanations enabled, the response also
+            carries the SHAP value of each model feature: how much it moved the probability
+            of delay away from the model's average (baseValue).
             """)
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Prediction successfully generated", content = @Content(mediaType = "application/json", schema = @Schema(implementation = FlightPredictionResponseDTO.class), examples = @ExampleObject(name = "Successful Prediction", value = """
@@ -81,6 +128,14 @@ public class PredictionController {
                       ]
                     }
                     """))),
+            @ApiResponse(responseCode = "504", description = "Prediction did not complete within the request deadline", content = @Content(mediaType = "application/json", examples = @ExampleObject(name = "Deadline Exceeded", value = """
+                    {
+                      "timestamp": "2025-12-17T14:30:00",
+                      "status": 504,
+                      "error": "Gateway Timeout",
+                      "message": "ML prediction did not complete within the request deadline."
+                    }
+                    """))),
             @ApiResponse(responseCode = "503", description = "ML service temporarily unavailable", content = @Content(mediaType = "application/json", examples = @ExampleObject(name = "Service Unavailable", value = """
                     {
                       "timestamp": "2025-12-17T14:30:00",
@@ -91,25 +146,47 @@ public class PredictionController {
                     """)))
     })
     @PostMapping("/predict")
-    public ResponseEntity<FlightPredictionResponseDTO> predictFlightDelay(
-            @Valid @RequestBody FlightPredictionRequestDTO request) {
+    public CompletableFuture<ResponseEntity<FlightPredictionResponseDTO>> predictFlightDelay(
+            @Valid @RequestBody FlightPredictionRequestDTO request,
+            @Parameter(description = "Client time budget in milliseconds, capped by the server deadline")
+            @RequestHeader(value = TIMEOUT_HEADER, required = false) Long timeoutMs,
+            @Parameter(description = "Add each feature's contribution to the probability of delay")
+            @RequestParam(value = "explain", defaultValue = "false") boolean explain) {
 
         log.info("Received prediction request for flight {} from {} to {}",
                 request.getFlightNumber(),
                 request.getFlightOrigin(),
                 request.getFlightDestination());
 
-        FlightPredictionResponseDTO response = predictionService.predictDelay(request);
+        CompletableFuture<FlightPredictionResponseDTO> prediction = timeoutMs == null
+                ? predictionService.predictDelayAsync(request)
+                : predictionService.predictDelayAsync(request, Duration.ofMillis(Math.max(1, timeoutMs)));
 
-        log.info("Prediction completed for flight {}: {} with probability {}",
-                request.getFlightNumber(),
-                response.getPrediction(),
-                response.getProbability());
+        PredictionExplainer explainer = explain ? predictionExplainer.getIfAvailable() : null;
 
-        return ResponseEntity.ok(response);
+        return prediction
+                .thenCompose(response -> {
+                    log.info("Prediction completed for flight {}: {} with probability {}",
+                            request.getFlightNumber(),
+                            response.getPrediction(),
+                            response.getProbability());
+
+                    if (explainer == null) {
+                        return CompletableFuture.completedFuture(ResponseEntity.ok(response));
+                    }
+                    // Only successful predictions are explained, off the request and I/O threads
+                    return explainer.explainAsync(request, response)
+                            .thenApply(explanation -> ResponseEntity.ok(explanation == null ? response
+                                    : response.toBuilder().explanation(explanation).build()));
+                });
     }
 
     /**
+     * Reports API status together with the ML service circuit breaker state and the
+     * latest background health probe of the ML service.
+     * Status is DEGRADED while the breaker is not CLOSED or the probe finds the ML
+     * service down: the API is running but predictions are being rejected or probed.
+     * The ML service itself is not called.
      * 
      * @return ResponseEntity with status message and HTTP 200
      */
@@ -118,17 +195,37 @@ public class PredictionController {
             {
               "status": "UP",
               "message": "FlightOnTime API is running",
-              "timestamp": "2025-12-17T14:30:00"
+              "timestamp": "2025-12-17T14:30:00",
+              "mlCircuit": "CLOSED",
+              "mlService": "UP",
+              "mlModelLoaded": true,
+              "mlProbeLatencyMs": 12
             }
             """)))
     @GetMapping("/health")
     public ResponseEntity<HealthCheckResponse> healthCheck() {
         log.debug("Health check endpoint called");
 
+        CircuitBreaker.State circuitState = mlServiceGuard.getCircuitState();
+        MLHealthSnapshot mlHealth = mlHealthProber.snapshot();
+        boolean circuitOpen = circuitState != CircuitBreaker.State.CLOSED;
+        boolean mlDown = mlHealth.status() == MLHealthSnapshot.Status.DOWN;
+
+        String message = "FlightOnTime API is running";
+        if (circuitOpen) {
+            message += "; ML service calls are short-circuited";
+        } else if (mlDown) {
+            message += "; ML service is down";
+        }
+
         HealthCheckResponse response = HealthCheckResponse.builder()
-                .status("UP")
-                .message("FlightOnTime API is running")
+                .status(circuitOpen || mlDown ? "DEGRADED" : "UP")
+                .message(message)
                 .timestamp(java.time.LocalDateTime.now())
+                .mlCircuit(circuitState)
+                .mlService(mlHealth.status())
+                .mlModelLoaded(mlHealth.modelLoaded())
+                .mlProbeLatencyMs(mlHealth.checkedAt() != null ? mlHealth.latencyMillis() : null)
                 .build();
 
         return ResponseEntity.ok(response);
@@ -143,7 +240,15 @@ public class PredictionController {
 
             @Schema(description = "Status message", example = "FlightOnTime API is running") String message,
 
-            @Schema(description = "Current timestamp", example = "2025-12-17T14:30:00") java.time.LocalDateTime timestamp) {
+            @Schema(description = "Current timestamp", example = "2025-12-17T14:30:00") java.time.LocalDateTime timestamp,
+
+            @Schema(description = "ML service circuit breaker state", example = "CLOSED") CircuitBreaker.State mlCircuit,
+
+            @Schema(description = "ML service status from the last background probe", example = "UP") MLHealthSnapshot.Status mlService,
+
+            @Schema(description = "Whether the ML model is loaded, if reported", example = "true") Boolean mlModelLoaded,
+
+            @Schema(description = "Last ML health probe round trip in milliseconds", example = "12") Long mlProbeLatencyMs) {
         /**
          */
         public static HealthCheckResponseBuilder builder() {
@@ -154,6 +259,10 @@ public class PredictionController {
             private String status;
             private String message;
             private java.time.LocalDateTime timestamp;
+            private CircuitBreaker.State mlCircuit;
+            private MLHealthSnapshot.Status mlService;
+            private Boolean mlModelLoaded;
+            private Long mlProbeLatencyMs;
 
             public HealthCheckResponseBuilder status(String status) {
                 this.status = status;
@@ -170,8 +279,29 @@ public class PredictionController {
                 return this;
             }
 
+            public HealthCheckResponseBuilder mlCircuit(CircuitBreaker.State mlCircuit) {
+                this.mlCircuit = mlCircuit;
+                return this;
+            }
+
+            public HealthCheckResponseBuilder mlService(MLHealthSnapshot.Status mlService) {
+                this.mlService = mlService;
+                return this;
+            }
+
+            public HealthCheckResponseBuilder mlModelLoaded(Boolean mlModelLoaded) {
+                this.mlModelLoaded = mlModelLoaded;
+                return this;
+            }
+
+            public HealthCheckResponseBuilder mlProbeLatencyMs(Long mlProbeLatencyMs) {
+                this.mlProbeLatencyMs = mlProbeLatencyMs;
+                return this;
+            }
+
             public HealthCheckResponse build() {
-                return new HealthCheckResponse(status, message, timestamp);
+                return new HealthCheckResponse(status, message, timestamp, mlCircuit, mlService, mlModelLoaded,
+                        mlProbeLatencyMs);
             }
         }
     }
@@ -15,10 +15,11 @@ import java.util.Locale;
 
 /**
  * Immutable DTO for flight delay prediction responses.
- * Thread-safe and includes prediction confidence metrics.
+ * Thread-safe and includes prediction confidence metrics, the model version when
+ * the model reports it, and the per-feature explanation when one was asked for.
  * 
  * @author FlightOnTime Team
- * @version 2.0
+ * @version 2.2
  */
 @Schema(
     description = "Response payload containing flight delay prediction results and confidence score",
@@ -31,7 +32,7 @@ import java.util.Locale;
         """
 )
 @Value
-@Builder
+@Builder(toBuilder = true)
 @Jacksonized
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class FlightPredictionResponseDTO {
@@ -62,6 +63,18 @@ public class FlightPredictionResponseDTO {
     )
     ConfidenceLevel confidence;
 
+    @Schema(
+        description = "Model version that computed the prediction, when the model reports it",
+        example = "2026-10-16T1200"
+    )
+    String modelVersion;
+
+    @Schema(
+        description = "Contribution of each model feature to the probability of delay; "
+                + "only with explain=true and explanations enabled"
+    )
+    PredictionExplanationDTO explanation;
+
     /**
      * Returns the probability as a percentage (0-100).
      */
@@ -0,0 +1,74 @@
+package com.backend.fot.dto;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+import com.backend.fot.constants.ValidationConstants;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * Immutable DTO in the native contract of the model service ({@code modelos-ml}).
+ * <p>
+ * Sent instead of {@link FlightPredictionRequestDTO} when the API calls the model
+ * service directly ({@code ml.service.contract=MODEL}), doing the field renaming
+ * that the ML wrapper would otherwise do.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ * @since 2026-10-16
+ */
+@Value
+@Builder
+@Jacksonized
+public class ModelPredictionRequestDTO {
+
+    /**
+     * Airline code ({@code sg_empresa_icao} in the model).
+     */
+    @JsonProperty("companhia")
+    String airline;
+
+    /**
+     * Origin airport IATA code ({@code sg_iata_origem} in the model).
+     */
+    @JsonProperty("origem")
+    String origin;
+
+    /**
+     * Destination airport IATA code ({@code sg_iata_destino} in the model).
+     */
+    @JsonProperty("destino")
+    String destination;
+
+    /**
+     * Scheduled departure ({@code dt_partida_prevista} in the model).
+     */
+    @JsonProperty("data_partida")
+    @JsonFormat(pattern = ValidationConstants.DATE_TIME_PATTERN, timezone = ValidationConstants.TIMEZONE_UTC)
+    LocalDateTime departure;
+
+    /**
+     * Maps an API request the same way the ML wrapper does, including upper-casing the codes.
+     *
+     * @param request validated API request
+     * @return request in the model service's contract
+     */
+    public static ModelPredictionRequestDTO from(FlightPredictionRequestDTO request) {
+        return ModelPredictionRequestDTO.builder()
+                .airline(upper(request.getCompanyName()))
+                .origin(upper(request.getFlightOrigin()))
+                .destination(upper(request.getFlightDestination()))
+                .departure(request.getFlightDepartureDate())
+                .build();
+    }
+
+    private static String upper(String code) {
+        return code != null ? code.toUpperCase(Locale.ROOT) : null;
+    }
+}
@@ -0,0 +1,54 @@
+package com.backend.fot.dto;
+
+import java.math.BigDecimal;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * Immutable DTO for a prediction in the native contract of the model service.
+ * <p>
+ * The model answers {@code {"prediction": 0|1, "probability": 0.85, "status": "success"}};
+ * {@link #toMLServiceResponse()} maps it to the shape the ML wrapper returns.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ * @since 2026-10-16
+ */
+@Value
+@Builder
+@Jacksonized
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ModelPredictionResponseDTO {
+
+    /**
+     * Predicted class (0=ON_TIME, 1=DELAYED).
+     */
+    Integer prediction;
+
+    /**
+     * Probability of a delay reported by the model (0.0 to 1.0).
+     */
+    BigDecimal probability;
+
+    /**
+     * "success" or "error".
+     */
+    String status;
+
+    /**
+     * Maps probability to confidence, as the ML wrapper does.
+     *
+     * @return response in the wrapper's contract
+     */
+    public MLServiceResponseDTO toMLServiceResponse() {
+        return MLServiceResponseDTO.builder()
+                .prediction(prediction)
+                .confidence(probability)
+                .build();
+    }
+}
@@ -0,0 +1,71 @@
+package com.backend.fot.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+import java.util.Map;
+
+/**
+ * Immutable DTO explaining a delay probability with SHAP values: how much each
+ * model feature moved the probability away from the model's average.
+ * <p>
+ * {@code baseValue} plus every contribution gives {@code probability}, the
+ * probability of delay of the model that computed the explanation.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ * @since 2026-10-16
+ */
+@Schema(
+    description = "Per-feature contributions (SHAP values) to the probability of delay",
+    example = """
+        {
+          "modelVersion": "modelo_atraso_voos_rf_res.pkl",
+          "baseValue": 0.41,
+          "probability": 0.85,
+          "contributions": {
+            "hora": 0.21,
+            "sg_iata_origem": 0.14,
+            "sg_empresa_icao": 0.06,
+            "dia_ano": 0.03,
+            "mes": 0.01,
+            "dia_semana": -0.004,
+            "sg_iata_destino": -0.006
+          }
+        }
+        """
+)
+@Value
+@Builder
+@Jacksonized
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PredictionExplanationDTO {
+
+    @Schema(
+        description = "Model that computed the explanation",
+        example = "modelo_atraso_voos_rf_res.pkl"
+    )
+    String modelVersion;
+
+    @Schema(
+        description = "Average probability of delay over the model's training data",
+        example = "0.41"
+    )
+    Double baseValue;
+
+    @Schema(
+        description = "Probability of delay explained: baseValue plus every contribution",
+        example = "0.85"
+    )
+    Double probability;
+
+    @Schema(
+        description = "Contribution of each model feature to the probability of delay, largest first; "
+                + "positive values push towards DELAYED"
+    )
+    Map<String, Double> contributions;
+}
@@ -0,0 +1,19 @@
+package com.backend.fot.exceptions;
+
+/**
+ * Thrown when a prediction is not ready before the request deadline.
+ * <p>
+ * Mapped to 504 GATEWAY TIMEOUT: the API gave up waiting for the ML service
+ * within the budget the client allowed (or the configured maximum).
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ * @since 2026-10-16
+ */
+public class PredictionTimeoutException extends PredictionUnavailableException {
+
+    public PredictionTimeoutException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,20 @@
+package com.backend.fot.exceptions;
+
+/**
+ * Thrown when a prediction cannot be produced because the ML service failed,
+ * timed out or was short-circuited.
+ * <p>
+ * Mapped to 503 SERVICE UNAVAILABLE, since the request itself was valid and may
+ * succeed once the ML service recovers.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ * @since 2026-10-16
+ */
+public class PredictionUnavailableException extends RuntimeException {
+
+    public PredictionUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
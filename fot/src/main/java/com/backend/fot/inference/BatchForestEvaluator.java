@@ -0,0 +1,41 @@
+package com.backend.fot.inference;
+
+/**
+ * Scores a whole {@link FeatureBatch} against a {@link RandomForestModel}.
+ * <p>
+ * Implementations walk one tree for every row before moving to the next tree, and
+ * add leaf probabilities in tree order, so their results are bit-for-bit those of
+ * {@link RandomForestModel#predictProba(double[])}.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ * @since 2026-10-16
+ */
+public interface BatchForestEvaluator {
+
+    /**
+     * Computes class probabilities for every row of the batch.
+     *
+     * @param batch         rows to score
+     * @param probabilities receives {@code numClasses} values per row, row after row;
+     *                      at least {@code batch.size() * numClasses} long
+     */
+    void predictProba(FeatureBatch batch, double[] probabilities);
+
+    /**
+     * Picks the fastest evaluator this JVM can run: {@link VectorBatchEvaluator} when
+     * the {@code jdk.incubator.vector} module was added to the boot layer
+     * ({@code --add-modules jdk.incubator.vector}), {@link ScalarBatchEvaluator} otherwise.
+     *
+     * @param model forest to evaluate
+     * @return evaluator for the model
+     */
+    static BatchForestEvaluator forModel(RandomForestModel model) {
+        // Checked before touching VectorBatchEvaluator, whose loading needs the module
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            return new VectorBatchEvaluator(model);
+        }
+        return new ScalarBatchEvaluator(model);
+    }
+}
@@ -0,0 +1,117 @@
+package com.backend.fot.inference;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps the categories of one encoded column to their position in the encoder,
+ * without hashing or copying the request's strings.
+ * <p>
+ * Airline and airport codes are one to three letters or digits, so each code packs
+ * into a base-37 number below 37<sup>3</sup> that indexes a flat {@code int[]}.
+ * Lower-case letters fold to upper case while packing, matching the API's
+ * normalization. Categories outside that alphabet (only possible in a dump, never
+ * in a validated request) fall back to a map, and a {@code null} category keeps
+ * its own slot for pipelines trained with missing values.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ * @since 2026-10-16
+ */
+public final class CategoryDictionary {
+
+    /** Returned by {@link #indexOf(String)} for categories the encoder never saw. */
+    public static final int UNKNOWN = -1;
+
+    private static final int RADIX = 37;
+    private static final int MAX_LENGTH = 3;
+    private static final int NOT_PACKABLE = -1;
+
+    private final int[] packed = new int[RADIX * RADIX * RADIX];
+    private final Map<String, Integer> others = new HashMap<>();
+    private final int nullIndex;
+    private final int size;
+
+    /**
+     * @param categories categories in encoder order; may contain {@code null}
+     */
+    public CategoryDictionary(List<String> categories) {
+        Arrays.fill(packed, UNKNOWN);
+        int nullSlot = UNKNOWN;
+        for (int i = 0; i < categories.size(); i++) {
+            String category = categories.get(i);
+            if (category == null) {
+                nullSlot = i;
+                continue;
+            }
+            int key = pack(category);
+            if (key == NOT_PACKABLE) {
+                others.put(category, i);
+            } else if (packed[key] == UNKNOWN) {
+                // Spellings differing only in case share a key; the first one wins
+                packed[key] = i;
+            }
+        }
+        this.nullIndex = nullSlot;
+        this.size = categories.size();
+    }
+
+    /**
+     * @param category request value, in any case
+     * @return position of the category in the encoder, or {@link #UNKNOWN}
+     */
+    public int indexOf(String category) {
+        if (category == null) {
+            return nullIndex;
+        }
+        int key = pack(category);
+        if (key != NOT_PACKABLE) {
+            return packed[key];
+        }
+        Integer index = others.get(category);
+        return index != null ? index : UNKNOWN;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Packs up to three characters of {@code [A-Za-z0-9]} into a base-37 number;
+     * digit 0 marks the end of a shorter code.
+     */
+    static int pack(String code) {
+        int length = code.length();
+        if (length == 0 || length > MAX_LENGTH) {
+            return NOT_PACKABLE;
+        }
+        int key = 0;
+        for (int i = 0; i < MAX_LENGTH; i++) {
+            int digit = 0;
+            if (i < length) {
+                digit = digit(code.charAt(i));
+                if (digit == NOT_PACKABLE) {
+                    return NOT_PACKABLE;
+                }
+            }
+            key = key * RADIX + digit;
+        }
+        return key;
+    }
+
+    private static int digit(char c) {
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A' + 1;
+        }
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 1;
+        }
+        if (c >= '0' && c <= '9') {
+            return c - '0' + 27;
+        }
+        return NOT_PACKABLE;
+    }
+}
@@ -0,0 +1,146 @@
+package com.backend.fot.inference;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Forest scored by JVM bytecode generated from its trees ({@link ForestCompiler}).
+ * <p>
+ * Every split is a comparison against a constant and every leaf a constant return,
+ * so the JIT compiles the trees like hand-written nested {@code if}s: no node
+ * arrays to load, and branch profiles per split. Leaf probabilities are then added
+ * in tree order from the {@link RandomForestModel} the code was generated from,
+ * so results are bit-for-bit those of {@link RandomForestModel#predictProba(double[])}.
+ * </p>
+ * <p>
+ * The generated code takes room in the code cache once compiled, roughly in
+ * proportion to the number of nodes ({@code CompiledForestBenchmark} reports it);
+ * very large forests may need a bigger {@code -XX:ReservedCodeCacheSize}.
+ * Instances are thread-safe.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ * @since 2026-10-16
+ */
+public final class CompiledForestModel implements ForestModel {
+
+    private final RandomForestModel model;
+    private final List<ForestCompiler.Trees> parts;
+    private final long classBytes;
+    private final ThreadLocal<Scratch> scratch;
+
+    private CompiledForestModel(RandomForestModel model, ForestCompiler.Compiled compiled) {
+        this.model = model;
+        this.parts = compiled.parts();
+        this.classBytes = compiled.classBytes();
+        this.scratch = ThreadLocal.withInitial(() -> new Scratch(model.numTrees(), model.numFeatures()));
+    }
+
+    /**
+     * Generates and loads the code for a forest.
+     *
+     * @param model forest to compile
+     * @return model scoring with the generated code
+     */
+    public static CompiledForestModel compile(RandomForestModel model) {
+        return new CompiledForestModel(model, ForestCompiler.compile(model));
+    }
+
+    @Override
+    public void predictProba(double[] features, double[] probabilities) {
+        if (features.length != model.numFeatures()) {
+            throw new IllegalArgumentException("Expected " + model.numFeatures() + " features, got "
+                    + features.length);
+        }
+        Arrays.fill(probabilities, 0, model.numClasses(), 0.0);
+        add(features, scratch.get().leaves, probabilities, 0);
+        for (int c = 0; c < model.numClasses(); c++) {
+            probabilities[c] /= model.numTrees();
+        }
+    }
+
+    /**
+     * @return evaluator scoring a batch row by row with the generated code
+     */
+    @Override
+    public BatchForestEvaluator batchEvaluator() {
+        return (batch, probabilities) -> {
+            int numClasses = model.numClasses();
+            int rows = batch.size();
+            int capacity = batch.capacity();
+            float[] values = batch.values();
+            Scratch buffers = scratch.get();
+            double[] row = buffers.row;
+
+            Arrays.fill(probabilities, 0, rows * numClasses, 0.0);
+            for (int r = 0; r < rows; r++) {
+                for (int f = 0; f < row.length; f++) {
+                    row[f] = values[f * capacity + r];
+                }
+                add(row, buffers.leaves, probabilities, r * numClasses);
+            }
+            for (int i = 0; i < rows * numClasses; i++) {
+                probabilities[i] /= model.numTrees();
+            }
+        };
+    }
+
+    private void add(double[] features, int[] leaves, double[] probabilities, int out) {
+        for (ForestCompiler.Trees part : parts) {
+            part.leaves(features, leaves);
+        }
+        int numClasses = model.numClasses();
+        double[] leafValues = model.leafValues();
+        for (int offset : leaves) {
+            for (int c = 0; c < numClasses; c++) {
+                probabilities[out + c] += leafValues[offset + c];
+            }
+        }
+    }
+
+    /**
+     * @return number of hidden classes generated
+     */
+    public int numGeneratedClasses() {
+        return parts.size();
+    }
+
+    /**
+     * @return size of the generated class files, in bytes
+     */
+    public long classBytes() {
+        return classBytes;
+    }
+
+    @Override
+    public int numTrees() {
+        return model.numTrees();
+    }
+
+    @Override
+    public int numNodes() {
+        return model.numNodes();
+    }
+
+    @Override
+    public int numFeatures() {
+        return model.numFeatures();
+    }
+
+    @Override
+    public int numClasses() {
+        return model.numClasses();
+    }
+
+    private static final class Scratch {
+
+        final int[] leaves;
+        final double[] row;
+
+        Scratch(int numTrees, int numFeatures) {
+            this.leaves = new int[numTrees];
+            this.row = new double[numFeatures];
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.backend.fot.inference;
+
+/**
+ * Feature rows for batch scoring, stored column by column (struct of arrays).
+ * <p>
+ * Feature {@code f} of row {@code r} lives at {@code f * capacity + r} in one flat
+ * {@code float[]}, so a batch evaluator reads the same feature for consecutive rows
+ * from consecutive memory. Values are kept as float32, the precision sklearn's trees
+ * compare at; NaN marks a missing value. A batch is reused by refilling it after
+ * {@link #clear()}, and is not thread-safe.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ * @since 2026-10-16
+ */
+public final class FeatureBatch {
+
+    private final int numFeatures;
+    private final int capacity;
+    private final float[] values;
+    private int size;
+
+    /**
+     * @param numFeatures features per row
+     * @param capacity    most rows the batch holds
+     */
+    public FeatureBatch(int numFeatures, int capacity) {
+        if (numFeatures <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("Batch needs at least one feature and one row");
+        }
+        this.numFeatures = numFeatures;
+        this.capacity = capacity;
+        this.values = new float[Math.multiplyExact(numFeatures, capacity)];
+    }
+
+    /**
+     * Appends a row.
+     *
+     * @param features feature values in model order; NaN for missing
+     * @return index of the new row
+     */
+    public int add(double[] features) {
+        if (size == capacity) {
+            throw new IllegalStateException("Batch is full (" + capacity + " rows)");
+        }
+        if (features.length != numFeatures) {
+            throw new IllegalArgumentException("Expected " + numFeatures + " features, got " + features.length);
+        }
+        int row = size++;
+        for (int f = 0; f < numFeatures; f++) {
+            values[f * capacity + row] = (float) features[f];
+        }
+        return row;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int numFeatures() {
+        return numFeatures;
+    }
+
+    float[] values() {
+        return values;
+    }
+}
@@ -0,0 +1,175 @@
+package com.backend.fot.inference;
+
+import com.backend.fot.dto.FlightPredictionRequestDTO;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turns a prediction request into the model's feature row, replaying the pipeline's
+ * preprocessing from the dump.
+ * <p>
+ * The date column becomes {@code mes}, {@code dia_semana} (Monday = 0), {@code hora}
+ * and {@code dia_ano}, as {@code ExtratorDeDatas} does, read straight from the
+ * already parsed {@link LocalDateTime}; a missing date gives NaN. Categorical
+ * columns are target encoded: a {@link CategoryDictionary} resolves the code to an
+ * int index into the encoder's values, and unseen categories get the encoder's
+ * default. Request fields map to pipeline columns the same way the model service
+ * maps {@code companhia}/{@code origem}/{@code destino}/{@code data_partida}.
+ * </p>
+ * <p>
+ * Everything is resolved when the encoder is built; {@link #encode(FlightPredictionRequestDTO, double[])}
+ * only reads the request and writes into the caller's buffer.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.2
+ * @since 2026-10-16
+ */
+public final class FlightFeatureEncoder {
+
+    static final String DATE_COLUMN = "dt_partida_prevista";
+
+    private static final int MONTH = 0;
+    private static final int DAY_OF_WEEK = 1;
+    private static final int HOUR = 2;
+    private static final int DAY_OF_YEAR = 3;
+    private static final int CARRIER = 4;
+    private static final int ORIGIN = 5;
+    private static final int DESTINATION = 6;
+
+    private final List<String> features;
+    private final int[] sources;
+    private final CategoryDictionary[] dictionaries;
+    private final double[][] encodings;
+    private final double[] defaults;
+
+    private FlightFeatureEncoder(List<String> features, int[] sources, CategoryDictionary[] dictionaries,
+                                 double[][] encodings, double[] defaults) {
+        this.features = List.copyOf(features);
+        this.sources = sources;
+        this.dictionaries = dictionaries;
+        this.encodings = encodings;
+        this.defaults = defaults;
+    }
+
+    /**
+     * Builds the encoder for a dump.
+     *
+     * @param dump exported forest
+     * @return encoder producing rows in {@link ForestDump#features()} order
+     * @throws IllegalArgumentException if a feature cannot be derived from a request
+     */
+    public static FlightFeatureEncoder from(ForestDump dump) {
+        ForestDump.Preprocessing preprocessing = dump.preprocessing();
+        if (preprocessing.passthrough() != null && !preprocessing.passthrough().isEmpty()) {
+            throw new IllegalArgumentException("Passthrough columns are not sent by the API: "
+                    + preprocessing.passthrough());
+        }
+        ForestDump.DateFeatures date = preprocessing.date();
+        if (date != null && !DATE_COLUMN.equals(date.column())) {
+            throw new IllegalArgumentException("Unsupported date column " + date.column());
+        }
+        Map<String, ForestDump.TargetEncoding> encoders = new HashMap<>();
+        if (preprocessing.targetEncoders() != null) {
+            for (ForestDump.TargetEncoding encoding : preprocessing.targetEncoders()) {
+                encoders.put(encoding.column(), encoding);
+            }
+        }
+
+        List<String> names = dump.features();
+        int[] sources = new int[names.size()];
+        CategoryDictionary[] dictionaries = new CategoryDictionary[names.size()];
+        double[][] encodings = new double[names.size()][];
+        double[] defaults = new double[names.size()];
+        for (int i = 0; i < sources.length; i++) {
+            String name = names.get(i);
+            if (date != null && date.features().contains(name)) {
+                sources[i] = dateSource(name);
+            } else if (encoders.containsKey(name)) {
+                ForestDump.TargetEncoding encoding = encoders.get(name);
+                if (encoding.categories().size() != encoding.encodings().length) {
+                    throw new IllegalArgumentException("Encoder for " + name
+                            + " has a different number of categories and encodings");
+                }
+                sources[i] = categorySource(name);
+                dictionaries[i] = new CategoryDictionary(encoding.categories());
+                encodings[i] = encoding.encodings().clone();
+                defaults[i] = encoding.defaultValue();
+            } else {
+                throw new IllegalArgumentException("Feature " + name + " cannot be derived from a prediction request");
+            }
+        }
+        return new FlightFeatureEncoder(names, sources, dictionaries, encodings, defaults);
+    }
+
+    /**
+     * Encodes one request into a new row.
+     *
+     * @param request flight information
+     * @return feature row; NaN where the value is missing
+     */
+    public double[] encode(FlightPredictionRequestDTO request) {
+        double[] row = new double[sources.length];
+        encode(request, row);
+        return row;
+    }
+
+    /**
+     * Encodes one request into a reusable buffer.
+     *
+     * @param request flight information
+     * @param row     receives the features; at least {@link #numFeatures()} long
+     */
+    public void encode(FlightPredictionRequestDTO request, double[] row) {
+        LocalDateTime departure = request.getFlightDepartureDate();
+        for (int i = 0; i < sources.length; i++) {
+            row[i] = switch (sources[i]) {
+                case MONTH -> departure == null ? Double.NaN : departure.getMonthValue();
+                case DAY_OF_WEEK -> departure == null ? Double.NaN : departure.getDayOfWeek().getValue() - 1;
+                case HOUR -> departure == null ? Double.NaN : departure.getHour();
+                case DAY_OF_YEAR -> departure == null ? Double.NaN : departure.getDayOfYear();
+                case CARRIER -> category(i, request.getCompanyName());
+                case ORIGIN -> category(i, request.getFlightOrigin());
+                default -> category(i, request.getFlightDestination());
+            };
+        }
+    }
+
+    public int numFeatures() {
+        return sources.length;
+    }
+
+    /**
+     * @return feature names, in row order
+     */
+    public List<String> features() {
+        return features;
+    }
+
+    private double category(int feature, String code) {
+        int index = dictionaries[feature].indexOf(code);
+        return index == CategoryDictionary.UNKNOWN ? defaults[feature] : encodings[feature][index];
+    }
+
+    private static int dateSource(String name) {
+        return switch (name) {
+            case "mes" -> MONTH;
+            case "dia_semana" -> DAY_OF_WEEK;
+            case "hora" -> HOUR;
+            case "dia_ano" -> DAY_OF_YEAR;
+            default -> throw new IllegalArgumentException("Unknown date feature " + name);
+        };
+    }
+
+    private static int categorySource(String column) {
+        return switch (column) {
+            case "sg_empresa_icao" -> CARRIER;
+            case "sg_iata_origem" -> ORIGIN;
+            case "sg_iata_destino" -> DESTINATION;
+            default -> throw new IllegalArgumentException("Column " + column + " is not sent by the API");
+        };
+    }
+}
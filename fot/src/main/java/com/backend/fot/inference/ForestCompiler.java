@@ -0,0 +1,216 @@
+package com.backend.fot.inference;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Generates JVM bytecode for the trees of a {@link RandomForestModel} and loads it
+ * as hidden classes, for {@link CompiledForestModel}.
+ * <p>
+ * Each tree becomes a static method of nested comparisons: a split loads its
+ * feature, narrows it to float, compares it with the float32 threshold as a
+ * constant and jumps; a leaf returns the offset of its class probabilities in
+ * {@link RandomForestModel}'s leaf values. The comparison instruction encodes the
+ * missing-value direction: {@code fcmpl} makes NaN compare below the threshold (go
+ * left), {@code fcmpg} above it (go right), so there is no separate NaN test.
+ * </p>
+ * <p>
+ * HotSpot does not JIT-compile methods above 8000 bytes of bytecode, so a tree is
+ * cut into methods of at most {@value #NODES_PER_METHOD} nodes; a subtree that does
+ * not fit becomes its own method, called from where it would have been. Classes
+ * take trees until {@value #NODES_PER_CLASS} nodes or {@value #TREES_PER_CLASS}
+ * trees, which keeps their constant pools and their {@code leaves} method within
+ * limits. Hidden classes are not strongly held by the class loader and are
+ * unloaded with the model.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ * @since 2026-10-16
+ */
+final class ForestCompiler {
+
+    static final int NODES_PER_METHOD = 500;
+    static final int NODES_PER_CLASS = 20_000;
+    static final int TREES_PER_CLASS = 400;
+
+    private static final String CLASS_NAME = "com/backend/fot/inference/CompiledTrees";
+    private static final String TREES = "com/backend/fot/inference/ForestCompiler$Trees";
+    private static final String TREE_DESCRIPTOR = "([D)I";
+
+    /**
+     * Implemented by each generated class, for a contiguous range of trees.
+     */
+    interface Trees {
+
+        /**
+         * Stores, for each tree of the class, the leaf-value offset of the leaf the
+         * row reaches, at the tree's index in {@code leaves}.
+         */
+        void leaves(double[] features, int[] leaves);
+    }
+
+    /**
+     * Generated code, with the bytes it took.
+     */
+    record Compiled(List<Trees> parts, long classBytes) {
+    }
+
+    private final RandomForestModel model;
+    private final int[] feature;
+    private final float[] threshold;
+    private final int[] left;
+    private final int[] right;
+    private final boolean[] missingGoesLeft;
+    private final int[] size;
+
+    private ForestCompiler(RandomForestModel model) {
+        this.model = model;
+        this.feature = model.features();
+        this.threshold = model.floatThresholds();
+        this.left = model.leftChildren();
+        this.right = model.rightChildren();
+        this.missingGoesLeft = model.missingGoesLeft();
+        // Subtree sizes; children come after their parent, so a backward pass sees them first
+        this.size = new int[left.length];
+        for (int node = left.length - 1; node >= 0; node--) {
+            size[node] = left[node] < 0 ? 1 : 1 + size[left[node]] + size[right[node]];
+        }
+    }
+
+    static Compiled compile(RandomForestModel model) {
+        return new ForestCompiler(model).compile();
+    }
+
+    private Compiled compile() {
+        int[] roots = model.roots();
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        List<Trees> parts = new ArrayList<>();
+        long classBytes = 0;
+        int first = 0;
+        while (first < roots.length) {
+            int end = first;
+            int nodes = 0;
+            while (end < roots.length && end - first < TREES_PER_CLASS
+                    && (end == first || nodes + size[roots[end]] <= NODES_PER_CLASS)) {
+                nodes += size[roots[end]];
+                end++;
+            }
+            byte[] bytes = generate(first, end);
+            classBytes += bytes.length;
+            parts.add(define(lookup, bytes));
+            first = end;
+        }
+        return new Compiled(List.copyOf(parts), classBytes);
+    }
+
+    private static Trees define(MethodHandles.Lookup lookup, byte[] bytes) {
+        try {
+            MethodHandles.Lookup hidden = lookup.defineHiddenClass(bytes, true);
+            return (Trees) hidden.lookupClass().getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not load compiled trees", e);
+        }
+    }
+
+    private byte[] generate(int firstTree, int endTree) {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+        writer.visit(Opcodes.V17, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, CLASS_NAME, null,
+                "java/lang/Object", new String[]{TREES});
+
+        MethodVisitor init = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        init.visitCode();
+        init.visitVarInsn(Opcodes.ALOAD, 0);
+        init.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        init.visitInsn(Opcodes.RETURN);
+        init.visitMaxs(0, 0);
+        init.visitEnd();
+
+        // leaves(features, leaves): leaves[t] = tree_t(features) for each tree of the class
+        MethodVisitor leaves = writer.visitMethod(Opcodes.ACC_PUBLIC, "leaves", "([D[I)V", null, null);
+        leaves.visitCode();
+        for (int t = firstTree; t < endTree; t++) {
+            leaves.visitVarInsn(Opcodes.ALOAD, 2);
+            pushInt(leaves, t);
+            leaves.visitVarInsn(Opcodes.ALOAD, 1);
+            leaves.visitMethodInsn(Opcodes.INVOKESTATIC, CLASS_NAME, "tree" + t, TREE_DESCRIPTOR, false);
+            leaves.visitInsn(Opcodes.IASTORE);
+        }
+        leaves.visitInsn(Opcodes.RETURN);
+        leaves.visitMaxs(0, 0);
+        leaves.visitEnd();
+
+        for (int t = firstTree; t < endTree; t++) {
+            // Subtrees that did not fit in a method wait here for their own
+            Deque<Integer> pending = new ArrayDeque<>();
+            pending.add(model.roots()[t]);
+            boolean root = true;
+            while (!pending.isEmpty()) {
+                int node = pending.poll();
+                String name = root ? "tree" + t : "tree" + t + "_" + node;
+                root = false;
+                MethodVisitor method = writer.visitMethod(Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC, name,
+                        TREE_DESCRIPTOR, null, null);
+                method.visitCode();
+                emit(method, t, node, new int[]{0}, pending);
+                method.visitMaxs(0, 0);
+                method.visitEnd();
+            }
+        }
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    private void emit(MethodVisitor method, int tree, int node, int[] emitted, Deque<Integer> pending) {
+        emitted[0]++;
+        if (left[node] < 0) {
+            pushInt(method, node * model.numClasses());
+            method.visitInsn(Opcodes.IRETURN);
+            return;
+        }
+        Label goRight = new Label();
+        method.visitVarInsn(Opcodes.ALOAD, 0);
+        pushInt(method, feature[node]);
+        method.visitInsn(Opcodes.DALOAD);
+        method.visitInsn(Opcodes.D2F);
+        method.visitLdcInsn(threshold[node]);
+        method.visitInsn(missingGoesLeft[node] ? Opcodes.FCMPL : Opcodes.FCMPG);
+        method.visitJumpInsn(Opcodes.IFGT, goRight);
+        emitChild(method, tree, left[node], emitted, pending);
+        method.visitLabel(goRight);
+        emitChild(method, tree, right[node], emitted, pending);
+    }
+
+    private void emitChild(MethodVisitor method, int tree, int child, int[] emitted, Deque<Integer> pending) {
+        if (size[child] == 1 || emitted[0] + size[child] <= NODES_PER_METHOD) {
+            emit(method, tree, child, emitted, pending);
+            return;
+        }
+        emitted[0]++;
+        pending.add(child);
+        method.visitVarInsn(Opcodes.ALOAD, 0);
+        method.visitMethodInsn(Opcodes.INVOKESTATIC, CLASS_NAME, "tree" + tree + "_" + child, TREE_DESCRIPTOR,
+                false);
+        method.visitInsn(Opcodes.IRETURN);
+    }
+
+    private static void pushInt(MethodVisitor method, int value) {
+        if (value >= -1 && value <= 5) {
+            method.visitInsn(Opcodes.ICONST_0 + value);
+        } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            method.visitIntInsn(Opcodes.BIPUSH, value);
+        } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            method.visitIntInsn(Opcodes.SIPUSH, value);
+        } else {
+            method.visitLdcInsn(value);
+        }
+    }
+}
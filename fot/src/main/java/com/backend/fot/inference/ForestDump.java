@@ -0,0 +1,105 @@
+package com.backend.fot.inference;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * JSON dump of the RandomForest pipeline, as written by
+ * {@code Modelagem/Modelos/export_forest.py}.
+ * <p>
+ * Trees keep sklearn's node layout: nodes in pre-order, {@code children_left == -1}
+ * on leaves, and {@code value} already normalized to class probabilities per node.
+ * {@code preprocessing} describes how the pipeline's input columns turn into the
+ * model's {@code features}.
+ * </p>
+ * <p>
+ * {@code weighted_n_node_samples}, the training weight reaching each node, is only
+ * read by {@link TreeShapExplainer}; dumps exported before it was added leave it out.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.1
+ * @since 2026-10-16
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record ForestDump(
+        String format,
+        int version,
+        String model,
+        @JsonProperty("sklearn_version") String sklearnVersion,
+        int[] classes,
+        List<String> features,
+        Preprocessing preprocessing,
+        List<Tree> trees) {
+
+    public static final String FORMAT = "fot-random-forest";
+    public static final int VERSION = 1;
+
+    /**
+     * Reads and checks the header of a dump.
+     *
+     * @param in           dump contents; not closed
+     * @param objectMapper mapper used to parse it
+     * @return parsed dump
+     * @throws IOException              if the stream is not valid JSON
+     * @throws IllegalArgumentException if it is not a supported dump
+     */
+    public static ForestDump read(InputStream in, ObjectMapper objectMapper) throws IOException {
+        ForestDump dump = objectMapper.readValue(in, ForestDump.class);
+        if (!FORMAT.equals(dump.format()) || dump.version() != VERSION) {
+            throw new IllegalArgumentException("Unsupported forest dump: format " + dump.format()
+                    + ", version " + dump.version());
+        }
+        return dump;
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Preprocessing(
+            DateFeatures date,
+            @JsonProperty("target_encoders") List<TargetEncoding> targetEncoders,
+            List<String> passthrough) {
+    }
+
+    /**
+     * Date column expanded by {@code ExtratorDeDatas}.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record DateFeatures(String column, List<String> features) {
+    }
+
+    /**
+     * One column of a binary {@code TargetEncoder}: {@code encodings[i]} belongs to
+     * {@code categories[i]}, unseen categories get {@code default} (the target mean).
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record TargetEncoding(
+            String column,
+            List<String> categories,
+            double[] encodings,
+            @JsonProperty("default") double defaultValue) {
+    }
+
+    /**
+     * One tree; {@code nodeSamples} is null when the dump does not carry it.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Tree(
+            @JsonProperty("children_left") int[] childrenLeft,
+            @JsonProperty("children_right") int[] childrenRight,
+            int[] feature,
+            double[] threshold,
+            @JsonProperty("missing_go_to_left") int[] missingGoToLeft,
+            double[][] value,
+            @JsonProperty("weighted_n_node_samples") double[] nodeSamples) {
+
+        public Tree(int[] childrenLeft, int[] childrenRight, int[] feature, double[] threshold,
+                    int[] missingGoToLeft, double[][] value) {
+            this(childrenLeft, childrenRight, feature, threshold, missingGoToLeft, value, null);
+        }
+    }
+}
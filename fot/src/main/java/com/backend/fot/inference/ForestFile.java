@@ -0,0 +1,245 @@
+package com.backend.fot.inference;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary model file, read in place by {@link MappedForestModel}.
+ * <p>
+ * Everything is big-endian, as written by {@link DataOutputStream}:
+ * </p>
+ * <pre>
+ *  0  magic "FOTM"
+ *  4  int format version ({@link #VERSION})
+ *  8  int numFeatures, numClasses, numTrees, numNodes, numLeaves
+ * 28  int metadata length, then the metadata (see below)
+ *     padding to 8 bytes, int root node of each tree
+ *     padding to 8 bytes, 8 bytes per node
+ *     uint16 per leaf and class
+ * </pre>
+ * <p>
+ * The metadata holds what {@link FlightFeatureEncoder} needs and the dump's
+ * identity: model name, sklearn version, classes, feature names and the
+ * preprocessing (date features, target encoder vocabularies and values,
+ * passthrough columns), with strings in {@link DataOutputStream#writeUTF} form.
+ * </p>
+ * <p>
+ * Trees are stored depth first as in {@link RandomForestModel}, so a split's left
+ * child is the next node and only the right child is recorded. A split is the
+ * float32 threshold ({@link RandomForestModel}'s {@code floatThreshold}) followed by
+ * {@code (right - node) << 8 | missingGoesLeft << 7 | feature}; a leaf is its leaf
+ * index followed by {@link #LEAF}. Leaf probabilities are quantized to
+ * {@code round(p * 65535)}, which moves each probability by at most
+ * {@code 1 / 131070}. {@code Modelagem/Modelos/convert_forest.py} writes the same
+ * bytes from the JSON dump.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ * @since 2026-10-16
+ */
+public final class ForestFile {
+
+    public static final int MAGIC = 0x464F544D;
+    public static final int VERSION = 1;
+
+    static final int HEADER_BYTES = 32;
+    static final int NODE_BYTES = 8;
+    static final int LEAF = 0x7F;
+    static final int MISSING_LEFT = 0x80;
+    static final int QUANT = 0xFFFF;
+    static final int MAX_RIGHT_OFFSET = (1 << 24) - 1;
+
+    private ForestFile() {
+    }
+
+    /**
+     * Converts a dump to the binary format.
+     *
+     * @param dump exported forest
+     * @param out  receives the file; not closed
+     * @throws IOException              if writing fails
+     * @throws IllegalArgumentException if the forest does not fit the format
+     */
+    public static void write(ForestDump dump, OutputStream out) throws IOException {
+        RandomForestModel model = RandomForestModel.from(dump);
+        if (model.numFeatures() >= LEAF) {
+            throw new IllegalArgumentException("Binary model holds at most " + (LEAF - 1) + " features, got "
+                    + model.numFeatures());
+        }
+        int[] left = model.leftChildren();
+        int numLeaves = 0;
+        for (int l : left) {
+            if (l < 0) {
+                numLeaves++;
+            }
+        }
+        byte[] metadata = metadata(dump);
+
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(model.numFeatures());
+        data.writeInt(model.numClasses());
+        data.writeInt(model.numTrees());
+        data.writeInt(model.numNodes());
+        data.writeInt(numLeaves);
+        data.writeInt(metadata.length);
+        data.write(metadata);
+        pad(data);
+        for (int root : model.roots()) {
+            data.writeInt(root);
+        }
+        pad(data);
+
+        int[] feature = model.features();
+        float[] threshold = model.floatThresholds();
+        int[] right = model.rightChildren();
+        boolean[] missingGoesLeft = model.missingGoesLeft();
+        int leaf = 0;
+        for (int node = 0; node < left.length; node++) {
+            if (left[node] < 0) {
+                data.writeInt(leaf++);
+                data.writeInt(LEAF);
+                continue;
+            }
+            int offset = right[node] - node;
+            if (offset > MAX_RIGHT_OFFSET) {
+                throw new IllegalArgumentException("Node " + node + " has its right child " + offset
+                        + " nodes away; the binary model allows " + MAX_RIGHT_OFFSET);
+            }
+            data.writeFloat(threshold[node]);
+            data.writeInt(offset << 8 | (missingGoesLeft[node] ? MISSING_LEFT : 0) | feature[node]);
+        }
+
+        int numClasses = model.numClasses();
+        double[] leafValues = model.leafValues();
+        for (int node = 0; node < left.length; node++) {
+            if (left[node] < 0) {
+                for (int c = 0; c < numClasses; c++) {
+                    data.writeChar(quantize(leafValues[node * numClasses + c]));
+                }
+            }
+        }
+        data.flush();
+    }
+
+    static int quantize(double probability) {
+        // Same expression as convert_forest.py, so both write the same bytes
+        return (int) Math.max(0, Math.min(QUANT, Math.floor(probability * QUANT + 0.5)));
+    }
+
+    static long align(long offset) {
+        return (offset + NODE_BYTES - 1) & -NODE_BYTES;
+    }
+
+    private static void pad(DataOutputStream data) throws IOException {
+        while (data.size() % NODE_BYTES != 0) {
+            data.writeByte(0);
+        }
+    }
+
+    private static byte[] metadata(ForestDump dump) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(bytes);
+        writeNullable(data, dump.model());
+        writeNullable(data, dump.sklearnVersion());
+        for (int label : dump.classes()) {
+            data.writeInt(label);
+        }
+        for (String name : dump.features()) {
+            data.writeUTF(name);
+        }
+        ForestDump.Preprocessing preprocessing = dump.preprocessing();
+        ForestDump.DateFeatures date = preprocessing == null ? null : preprocessing.date();
+        data.writeBoolean(date != null);
+        if (date != null) {
+            data.writeUTF(date.column());
+            writeStrings(data, date.features());
+        }
+        List<ForestDump.TargetEncoding> encoders = preprocessing == null || preprocessing.targetEncoders() == null
+                ? List.of()
+                : preprocessing.targetEncoders();
+        data.writeInt(encoders.size());
+        for (ForestDump.TargetEncoding encoder : encoders) {
+            data.writeUTF(encoder.column());
+            writeStrings(data, encoder.categories());
+            for (double encoding : encoder.encodings()) {
+                data.writeDouble(encoding);
+            }
+            data.writeDouble(encoder.defaultValue());
+        }
+        writeStrings(data, preprocessing == null || preprocessing.passthrough() == null
+                ? List.of()
+                : preprocessing.passthrough());
+        data.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Reads the metadata back into a dump without trees.
+     */
+    static ForestDump readMetadata(DataInputStream data, int numFeatures, int numClasses) throws IOException {
+        String model = readNullable(data);
+        String sklearnVersion = readNullable(data);
+        int[] classes = new int[numClasses];
+        for (int c = 0; c < numClasses; c++) {
+            classes[c] = data.readInt();
+        }
+        List<String> features = new ArrayList<>(numFeatures);
+        for (int f = 0; f < numFeatures; f++) {
+            features.add(data.readUTF());
+        }
+        ForestDump.DateFeatures date = data.readBoolean()
+                ? new ForestDump.DateFeatures(data.readUTF(), readStrings(data))
+                : null;
+        int numEncoders = data.readInt();
+        List<ForestDump.TargetEncoding> encoders = new ArrayList<>(numEncoders);
+        for (int e = 0; e < numEncoders; e++) {
+            String column = data.readUTF();
+            List<String> categories = readStrings(data);
+            double[] encodings = new double[categories.size()];
+            for (int i = 0; i < encodings.length; i++) {
+                encodings[i] = data.readDouble();
+            }
+            encoders.add(new ForestDump.TargetEncoding(column, categories, encodings, data.readDouble()));
+        }
+        List<String> passthrough = readStrings(data);
+        return new ForestDump(ForestDump.FORMAT, ForestDump.VERSION, model, sklearnVersion, classes, features,
+                new ForestDump.Preprocessing(date, encoders, passthrough), List.of());
+    }
+
+    private static void writeNullable(DataOutputStream data, String value) throws IOException {
+        data.writeBoolean(value != null);
+        if (value != null) {
+            data.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream data) throws IOException {
+        return data.readBoolean() ? data.readUTF() : null;
+    }
+
+    // Entries may be null: the TargetEncoder keeps NaN as a category
+    private static void writeStrings(DataOutputStream data, List<String> values) throws IOException {
+        data.writeInt(values.size());
+        for (String value : values) {
+            writeNullable(data, value);
+        }
+    }
+
+    private static List<String> readStrings(DataInputStream data) throws IOException {
+        int size = data.readInt();
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(readNullable(data));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,47 @@
+package com.backend.fot.inference;
+
+/**
+ * Forest that {@link ForestPredictor} can score, whatever its storage:
+ * {@link RandomForestModel} keeps the trees in heap arrays built from the JSON dump,
+ * {@link MappedForestModel} reads them from a memory-mapped {@link ForestFile}.
+ * Implementations are thread-safe.
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ * @since 2026-10-16
+ */
+public interface ForestModel {
+
+    /**
+     * Computes class probabilities for one row into a caller-owned array.
+     *
+     * @param features      feature values in {@link ForestDump#features()} order; NaN for missing
+     * @param probabilities receives the probability per class
+     */
+    void predictProba(double[] features, double[] probabilities);
+
+    /**
+     * Computes class probabilities for one row.
+     *
+     * @param features feature values in {@link ForestDump#features()} order; NaN for missing
+     * @return probability per class, in {@link ForestDump#classes()} order
+     */
+    default double[] predictProba(double[] features) {
+        double[] probabilities = new double[numClasses()];
+        predictProba(features, probabilities);
+        return probabilities;
+    }
+
+    /**
+     * @return evaluator scoring whole batches against this forest
+     */
+    BatchForestEvaluator batchEvaluator();
+
+    int numTrees();
+
+    int numNodes();
+
+    int numFeatures();
+
+    int numClasses();
+}
@@ -0,0 +1,314 @@
+package com.backend.fot.inference;
+
+import com.backend.fot.dto.FlightPredictionRequestDTO;
+import com.backend.fot.dto.MLServiceResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Scores prediction requests with an exported RandomForest pipeline: preprocessing
+ * by {@link FlightFeatureEncoder}, trees by a {@link ForestModel}:
+ * {@link RandomForestModel} built from the JSON dump, {@link MappedForestModel}
+ * over a binary {@link ForestFile} or {@link OnnxForestModel} running ONNX Runtime.
+ * <p>
+ * Answers in the shape the ML service does, so the rest of the API treats local and
+ * remote predictions alike: {@code prediction} is the most probable class (the
+ * first one on a tie, like sklearn's {@code predict}) and {@code confidence} the
+ * probability of class {@code 1}, as the model service's {@code probability}.
+ * The feature row and class probabilities live in per-thread buffers, so scoring
+ * allocates only the response.
+ * </p>
+ * <p>
+ * {@link #predictAll(List)} scores many flights at once through a
+ * {@link BatchForestEvaluator}, for bulk jobs such as rescoring a schedule.
+ * </p>
+ * <p>
+ * {@link Evaluator} picks how the trees are walked: node by node
+ * ({@code TRAVERSAL}), with {@link QuickScorerEvaluator} ({@code QUICKSCORER}) or
+ * by generated bytecode ({@code COMPILED}, {@link CompiledForestModel}), for both
+ * single and batch scoring. All give the same probabilities; the last two need the
+ * trees of the JSON dump.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.7
+ * @since 2026-10-16
+ */
+public final class ForestPredictor {
+
+    private static final int DELAYED = 1;
+
+    /**
+     * How the trees are evaluated.
+     */
+    public enum Evaluator {
+        /**
+         * Let the model score: follow each tree from the root, or run ONNX Runtime for
+         * {@link OnnxForestModel}; batches go through {@link ForestModel#batchEvaluator()}.
+         */
+        TRAVERSAL,
+        /** Eliminate leaves with sorted thresholds and bit masks ({@link QuickScorerEvaluator}). */
+        QUICKSCORER,
+        /** Run the trees as generated bytecode ({@link CompiledForestModel}). */
+        COMPILED
+    }
+
+    private final String modelVersion;
+    private final int[] classes;
+    private final int delayedIndex;
+    private final FlightFeatureEncoder encoder;
+    private final ForestModel model;
+    private final Evaluator evaluator;
+    private final RowEvaluator rowEvaluator;
+    private final BatchForestEvaluator batchEvaluator;
+    private final ThreadLocal<Scratch> scratch;
+
+    ForestPredictor(String modelVersion, int[] classes, FlightFeatureEncoder encoder, ForestModel model,
+                    Evaluator evaluator) {
+        this.modelVersion = modelVersion;
+        this.classes = classes.clone();
+        this.delayedIndex = indexOf(classes, DELAYED);
+        this.encoder = encoder;
+        this.model = model;
+        this.evaluator = evaluator;
+        if (evaluator != Evaluator.TRAVERSAL && !(model instanceof RandomForestModel)) {
+            throw new IllegalArgumentException(evaluator + " needs the trees of the JSON dump");
+        }
+        if (evaluator == Evaluator.QUICKSCORER) {
+            QuickScorerEvaluator quickScorer = new QuickScorerEvaluator((RandomForestModel) model);
+            this.rowEvaluator = quickScorer::predictProba;
+            this.batchEvaluator = quickScorer;
+        } else if (evaluator == Evaluator.COMPILED) {
+            CompiledForestModel compiled = CompiledForestModel.compile((RandomForestModel) model);
+            this.rowEvaluator = compiled::predictProba;
+            this.batchEvaluator = compiled.batchEvaluator();
+        } else {
+            this.rowEvaluator = model::predictProba;
+            this.batchEvaluator = model.batchEvaluator();
+        }
+        this.scratch = ThreadLocal.withInitial(() -> new Scratch(encoder.numFeatures(), model.numClasses()));
+    }
+
+    private ForestPredictor(ForestPredictor other, String modelVersion) {
+        this.modelVersion = modelVersion;
+        this.classes = other.classes;
+        this.delayedIndex = other.delayedIndex;
+        this.encoder = other.encoder;
+        this.model = other.model;
+        this.evaluator = other.evaluator;
+        this.rowEvaluator = other.rowEvaluator;
+        this.batchEvaluator = other.batchEvaluator;
+        this.scratch = other.scratch;
+    }
+
+    /**
+     * Builds a predictor that traverses the trees from a parsed dump.
+     *
+     * @param dump exported forest
+     * @return predictor
+     * @throws IllegalArgumentException if the dump cannot be served
+     */
+    public static ForestPredictor from(ForestDump dump) {
+        return from(dump, Evaluator.TRAVERSAL);
+    }
+
+    /**
+     * Builds a predictor from a parsed dump.
+     *
+     * @param dump      exported forest
+     * @param evaluator how to evaluate the trees
+     * @return predictor
+     * @throws IllegalArgumentException if the dump cannot be served
+     */
+    public static ForestPredictor from(ForestDump dump, Evaluator evaluator) {
+        FlightFeatureEncoder encoder = FlightFeatureEncoder.from(dump);
+        RandomForestModel model = RandomForestModel.from(dump);
+        return new ForestPredictor(dump.model(), dump.classes(), encoder, model, evaluator);
+    }
+
+    /**
+     * Reads a dump and builds a predictor that traverses the trees.
+     *
+     * @param in           dump contents; not closed
+     * @param objectMapper mapper used to parse it
+     * @return predictor
+     * @throws IOException              if the dump cannot be read
+     * @throws IllegalArgumentException if the dump cannot be served
+     */
+    public static ForestPredictor load(InputStream in, ObjectMapper objectMapper) throws IOException {
+        return load(in, objectMapper, Evaluator.TRAVERSAL);
+    }
+
+    /**
+     * Reads a dump and builds a predictor from it.
+     *
+     * @param in           dump contents; not closed
+     * @param objectMapper mapper used to parse it
+     * @param evaluator    how to evaluate the trees
+     * @return predictor
+     * @throws IOException              if the dump cannot be read
+     * @throws IllegalArgumentException if the dump cannot be served
+     */
+    public static ForestPredictor load(InputStream in, ObjectMapper objectMapper, Evaluator evaluator)
+            throws IOException {
+        return from(ForestDump.read(in, objectMapper), evaluator);
+    }
+
+    /**
+     * Builds a predictor over a binary model file, mapped read-only.
+     *
+     * @param path file written by {@link ForestFile#write} or {@code convert_forest.py}
+     * @return predictor traversing the mapped trees
+     * @throws IOException              if the file cannot be mapped
+     * @throws IllegalArgumentException if the file cannot be served
+     */
+    public static ForestPredictor map(Path path) throws IOException {
+        MappedForestModel model = MappedForestModel.open(path);
+        ForestDump header = model.header();
+        return new ForestPredictor(header.model(), header.classes(), FlightFeatureEncoder.from(header), model,
+                Evaluator.TRAVERSAL);
+    }
+
+    /**
+     * Builds a predictor over an ONNX model, preprocessing as described by its header.
+     *
+     * @param model model opened with {@link OnnxForestModel#open}
+     * @return predictor scoring with ONNX Runtime
+     * @throws IllegalArgumentException if the header cannot be served
+     */
+    public static ForestPredictor onnx(OnnxForestModel model) {
+        ForestDump header = model.header();
+        return new ForestPredictor(header.model(), header.classes(), FlightFeatureEncoder.from(header), model,
+                Evaluator.TRAVERSAL);
+    }
+
+    /**
+     * Scores one flight.
+     *
+     * @param request flight information
+     * @return prediction and probability of delay
+     */
+    public MLServiceResponseDTO predict(FlightPredictionRequestDTO request) {
+        Scratch buffers = scratch.get();
+        encoder.encode(request, buffers.row);
+        rowEvaluator.predictProba(buffers.row, buffers.probabilities);
+        return toResponse(buffers.probabilities, 0);
+    }
+
+    /**
+     * Scores many flights in one pass over the trees.
+     *
+     * @param requests flights to score
+     * @return one response per request, in the same order
+     */
+    public List<MLServiceResponseDTO> predictAll(List<FlightPredictionRequestDTO> requests) {
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+        Scratch buffers = scratch.get();
+        FeatureBatch batch = new FeatureBatch(encoder.numFeatures(), requests.size());
+        for (FlightPredictionRequestDTO request : requests) {
+            encoder.encode(request, buffers.row);
+            batch.add(buffers.row);
+        }
+        int numClasses = classes.length;
+        double[] probabilities = new double[requests.size() * numClasses];
+        batchEvaluator.predictProba(batch, probabilities);
+
+        List<MLServiceResponseDTO> responses = new ArrayList<>(requests.size());
+        for (int row = 0; row < requests.size(); row++) {
+            responses.add(toResponse(probabilities, row * numClasses));
+        }
+        return responses;
+    }
+
+    /**
+     * Computes class probabilities for one flight.
+     *
+     * @param request flight information
+     * @return probability per class, in {@link #classes()} order
+     */
+    public double[] predictProba(FlightPredictionRequestDTO request) {
+        double[] probabilities = new double[classes.length];
+        rowEvaluator.predictProba(encoder.encode(request), probabilities);
+        return probabilities;
+    }
+
+    private MLServiceResponseDTO toResponse(double[] probabilities, int offset) {
+        int best = 0;
+        for (int c = 1; c < classes.length; c++) {
+            if (probabilities[offset + c] > probabilities[offset + best]) {
+                best = c;
+            }
+        }
+        return MLServiceResponseDTO.builder()
+                .prediction(classes[best])
+                .confidence(BigDecimal.valueOf(probabilities[offset + delayedIndex]))
+                .modelVersion(modelVersion)
+                .build();
+    }
+
+    /**
+     * Same model and evaluator, answering with another version, as
+     * {@link ModelRegistry} names models after their directory.
+     *
+     * @param modelVersion version reported in each response
+     * @return predictor sharing this one's model
+     */
+    public ForestPredictor withModelVersion(String modelVersion) {
+        return new ForestPredictor(this, modelVersion);
+    }
+
+    public int[] classes() {
+        return classes.clone();
+    }
+
+    public String modelVersion() {
+        return modelVersion;
+    }
+
+    public FlightFeatureEncoder encoder() {
+        return encoder;
+    }
+
+    public ForestModel model() {
+        return model;
+    }
+
+    public Evaluator evaluator() {
+        return evaluator;
+    }
+
+    private static int indexOf(int[] classes, int label) {
+        for (int i = 0; i < classes.length; i++) {
+            if (classes[i] == label) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Model classes " + Arrays.toString(classes) + " do not include " + label);
+    }
+
+    @FunctionalInterface
+    private interface RowEvaluator {
+
+        void predictProba(double[] features, double[] probabilities);
+    }
+
+    private static final class Scratch {
+
+        final double[] row;
+        final double[] probabilities;
+
+        Scratch(int numFeatures, int numClasses) {
+            this.row = new double[numFeatures];
+            this.probabilities = new double[numClasses];
+        }
+    }
+}
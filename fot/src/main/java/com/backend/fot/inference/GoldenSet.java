@@ -0,0 +1,117 @@
+package com.backend.fot.inference;
+
+import com.backend.fot.dto.FlightPredictionRequestDTO;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Requests with the probabilities the Python pipeline gave them, read from the
+ * fixture {@code export_forest.py --fixture} writes, to check that a loaded model
+ * answers like the pickle it was exported from.
+ * <p>
+ * Each case's {@code input} follows the contract of {@code /predict}
+ * ({@code companhia}, {@code origem}, {@code destino}, {@code data_partida}) and
+ * {@code probabilities} the order of the model's classes.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ * @since 2026-10-16
+ */
+public final class GoldenSet {
+
+    /**
+     * One request and the class probabilities expected for it.
+     */
+    public record Case(FlightPredictionRequestDTO request, double[] probabilities) {
+    }
+
+    private final List<Case> cases;
+
+    private GoldenSet(List<Case> cases) {
+        this.cases = List.copyOf(cases);
+    }
+
+    /**
+     * Reads a fixture.
+     *
+     * @param in           fixture contents; not closed
+     * @param objectMapper mapper used to parse it
+     * @return the cases it holds
+     * @throws IOException              if the stream is not valid JSON
+     * @throws IllegalArgumentException if it holds no cases
+     */
+    public static GoldenSet read(InputStream in, ObjectMapper objectMapper) throws IOException {
+        JsonNode root = objectMapper.readTree(in);
+        List<Case> cases = new ArrayList<>();
+        for (JsonNode node : root.path("cases")) {
+            JsonNode probabilities = node.get("probabilities");
+            double[] expected = new double[probabilities.size()];
+            for (int c = 0; c < expected.length; c++) {
+                expected[c] = probabilities.get(c).asDouble();
+            }
+            cases.add(new Case(request(node.get("input")), expected));
+        }
+        if (cases.isEmpty()) {
+            throw new IllegalArgumentException("Golden set has no cases");
+        }
+        return new GoldenSet(cases);
+    }
+
+    /**
+     * Scores every case and compares it with the expected probabilities.
+     *
+     * @param predictor model to check
+     * @param tolerance largest difference accepted per probability
+     * @throws IllegalArgumentException on the first case the model gets wrong
+     */
+    public void verify(ForestPredictor predictor, double tolerance) {
+        for (int i = 0; i < cases.size(); i++) {
+            Case golden = cases.get(i);
+            double[] actual = predictor.predictProba(golden.request());
+            if (actual.length != golden.probabilities().length) {
+                throw new IllegalArgumentException("Case " + i + ": model has " + actual.length
+                        + " classes, golden set " + golden.probabilities().length);
+            }
+            for (int c = 0; c < actual.length; c++) {
+                // Also catches NaN, which compares false
+                if (!(Math.abs(actual[c] - golden.probabilities()[c]) <= tolerance)) {
+                    throw new IllegalArgumentException("Case " + i + ", class " + c + ": expected "
+                            + golden.probabilities()[c] + ", got " + actual[c]);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the golden requests, to warm a model up with
+     */
+    public List<FlightPredictionRequestDTO> requests() {
+        return cases.stream().map(Case::request).toList();
+    }
+
+    public List<Case> cases() {
+        return cases;
+    }
+
+    private static FlightPredictionRequestDTO request(JsonNode input) {
+        String departure = text(input, "data_partida");
+        return FlightPredictionRequestDTO.builder()
+                .companyName(text(input, "companhia"))
+                .flightOrigin(text(input, "origem"))
+                .flightDestination(text(input, "destino"))
+                .flightDepartureDate(departure == null ? null : LocalDateTime.parse(departure))
+                .build();
+    }
+
+    private static String text(JsonNode input, String field) {
+        JsonNode value = input.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+}
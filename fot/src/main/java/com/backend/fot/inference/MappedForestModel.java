@@ -0,0 +1,216 @@
+package com.backend.fot.inference;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Forest scored in place from a {@link ForestFile} mapped read-only with
+ * {@link FileChannel#map}.
+ * <p>
+ * Opening the file reads the fixed header and the small metadata block and checks
+ * the node links; the trees are never copied to the heap. Pages come from the
+ * page cache on first use, so replicas on one host that map the same file share a
+ * single copy of the model, and a restart finds it already cached. Scoring walks
+ * the packed nodes like {@link RandomForestModel} does its arrays, with the same
+ * float32 decisions, and sums the quantized leaf values as integers; probabilities
+ * differ from the JSON engine by at most {@code 1 / 131070}. The mapping is
+ * released when the instance is garbage collected. Instances are immutable and
+ * thread-safe.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ * @since 2026-10-16
+ */
+public final class MappedForestModel implements ForestModel, BatchForestEvaluator {
+
+    private final ByteBuffer buffer;
+    private final ForestDump header;
+    private final int numFeatures;
+    private final int numClasses;
+    private final int numTrees;
+    private final int numNodes;
+    private final int rootsOffset;
+    private final int nodesOffset;
+    private final int leavesOffset;
+
+    private MappedForestModel(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < ForestFile.HEADER_BYTES || buffer.getInt(0) != ForestFile.MAGIC) {
+            throw new IllegalArgumentException("Not a binary forest model");
+        }
+        if (buffer.getInt(4) != ForestFile.VERSION) {
+            throw new IllegalArgumentException("Unsupported binary forest model version " + buffer.getInt(4));
+        }
+        this.numFeatures = buffer.getInt(8);
+        this.numClasses = buffer.getInt(12);
+        this.numTrees = buffer.getInt(16);
+        this.numNodes = buffer.getInt(20);
+        int numLeaves = buffer.getInt(24);
+        int metadataLength = buffer.getInt(28);
+        if (numFeatures <= 0 || numFeatures >= ForestFile.LEAF || numClasses < 2 || numTrees <= 0
+                || numNodes < numTrees || numLeaves <= 0 || metadataLength < 0) {
+            throw new IllegalArgumentException("Binary forest model has an invalid header");
+        }
+        long roots = ForestFile.align(ForestFile.HEADER_BYTES + (long) metadataLength);
+        long nodes = ForestFile.align(roots + 4L * numTrees);
+        long leaves = nodes + (long) ForestFile.NODE_BYTES * numNodes;
+        long end = leaves + 2L * numLeaves * numClasses;
+        if (end != buffer.capacity()) {
+            throw new IllegalArgumentException("Binary forest model should be " + end + " bytes, is "
+                    + buffer.capacity());
+        }
+        this.rootsOffset = (int) roots;
+        this.nodesOffset = (int) nodes;
+        this.leavesOffset = (int) leaves;
+
+        byte[] metadata = new byte[metadataLength];
+        buffer.get(ForestFile.HEADER_BYTES, metadata);
+        this.header = ForestFile.readMetadata(new DataInputStream(new ByteArrayInputStream(metadata)),
+                numFeatures, numClasses);
+        checkLinks(numLeaves);
+    }
+
+    /**
+     * Maps a binary model file.
+     *
+     * @param path file written by {@link ForestFile#write}
+     * @return model reading from the mapping
+     * @throws IOException              if the file cannot be mapped
+     * @throws IllegalArgumentException if it is not a valid binary model
+     */
+    public static MappedForestModel open(Path path) throws IOException {
+        // The mapping stays valid after the channel is closed
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new MappedForestModel(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Every split must point forward inside the file, so a walk always ends on a leaf.
+     */
+    private void checkLinks(int numLeaves) {
+        for (int t = 0; t < numTrees; t++) {
+            int root = buffer.getInt(rootsOffset + 4 * t);
+            if (root < 0 || root >= numNodes) {
+                throw new IllegalArgumentException("Tree " + t + " has root " + root);
+            }
+        }
+        for (int node = 0; node < numNodes; node++) {
+            int at = nodesOffset + node * ForestFile.NODE_BYTES;
+            int link = buffer.getInt(at + 4);
+            int feature = link & ForestFile.LEAF;
+            if (feature == ForestFile.LEAF) {
+                int leaf = buffer.getInt(at);
+                if (link != ForestFile.LEAF || leaf < 0 || leaf >= numLeaves) {
+                    throw new IllegalArgumentException("Leaf " + node + " is invalid");
+                }
+                continue;
+            }
+            int offset = link >>> 8;
+            if (feature >= numFeatures || offset < 2 || node + offset >= numNodes) {
+                throw new IllegalArgumentException("Split " + node + " is invalid");
+            }
+        }
+    }
+
+    @Override
+    public void predictProba(double[] features, double[] probabilities) {
+        if (features.length != numFeatures) {
+            throw new IllegalArgumentException("Expected " + numFeatures + " features, got " + features.length);
+        }
+        Arrays.fill(probabilities, 0, numClasses, 0.0);
+        for (int t = 0; t < numTrees; t++) {
+            int node = buffer.getInt(rootsOffset + 4 * t);
+            int at = nodesOffset + node * ForestFile.NODE_BYTES;
+            int link = buffer.getInt(at + 4);
+            while ((link & ForestFile.LEAF) != ForestFile.LEAF) {
+                float x = (float) features[link & ForestFile.LEAF];
+                boolean goLeft = x != x
+                        ? (link & ForestFile.MISSING_LEFT) != 0
+                        : x <= buffer.getFloat(at);
+                at += goLeft ? ForestFile.NODE_BYTES : (link >>> 8) * ForestFile.NODE_BYTES;
+                link = buffer.getInt(at + 4);
+            }
+            addLeaf(buffer.getInt(at), probabilities, 0);
+        }
+        for (int c = 0; c < numClasses; c++) {
+            probabilities[c] /= (double) ForestFile.QUANT * numTrees;
+        }
+    }
+
+    @Override
+    public void predictProba(FeatureBatch batch, double[] probabilities) {
+        int rows = batch.size();
+        int capacity = batch.capacity();
+        float[] values = batch.values();
+        Arrays.fill(probabilities, 0, rows * numClasses, 0.0);
+        for (int t = 0; t < numTrees; t++) {
+            int root = nodesOffset + buffer.getInt(rootsOffset + 4 * t) * ForestFile.NODE_BYTES;
+            for (int row = 0; row < rows; row++) {
+                int at = root;
+                int link = buffer.getInt(at + 4);
+                while ((link & ForestFile.LEAF) != ForestFile.LEAF) {
+                    float x = values[(link & ForestFile.LEAF) * capacity + row];
+                    boolean goLeft = x != x
+                            ? (link & ForestFile.MISSING_LEFT) != 0
+                            : x <= buffer.getFloat(at);
+                    at += goLeft ? ForestFile.NODE_BYTES : (link >>> 8) * ForestFile.NODE_BYTES;
+                    link = buffer.getInt(at + 4);
+                }
+                addLeaf(buffer.getInt(at), probabilities, row * numClasses);
+            }
+        }
+        for (int i = 0; i < rows * numClasses; i++) {
+            probabilities[i] /= (double) ForestFile.QUANT * numTrees;
+        }
+    }
+
+    private void addLeaf(int leaf, double[] probabilities, int out) {
+        int at = leavesOffset + leaf * numClasses * 2;
+        for (int c = 0; c < numClasses; c++) {
+            probabilities[out + c] += buffer.getChar(at + 2 * c);
+        }
+    }
+
+    /**
+     * @return the dump's identity, classes, features and preprocessing, without trees
+     */
+    public ForestDump header() {
+        return header;
+    }
+
+    /**
+     * @return this model, which scores batches straight from the mapping
+     */
+    @Override
+    public BatchForestEvaluator batchEvaluator() {
+        return this;
+    }
+
+    @Override
+    public int numTrees() {
+        return numTrees;
+    }
+
+    @Override
+    public int numNodes() {
+        return numNodes;
+    }
+
+    @Override
+    public int numFeatures() {
+        return numFeatures;
+    }
+
+    @Override
+    public int numClasses() {
+        return numClasses;
+    }
+}
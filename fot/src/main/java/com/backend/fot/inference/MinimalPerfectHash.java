@@ -0,0 +1,162 @@
+package com.backend.fot.inference;
+
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * Minimal perfect hash over distinct 64-bit keys, after BBHash (Limasset et al.,
+ * 2017): each of {@code n} keys gets its own index in {@code [0, n)}, in about 5.5
+ * bits per key with the rank table.
+ * <p>
+ * Level 0 is a bit array twice as long as the number of keys; every key hashes to
+ * one bit, and the bits hit by exactly one key are set. The keys that collided
+ * move on to level 1, sized for them and hashed with another seed, and so on
+ * until none is left. A lookup walks the levels until its bit is set; the key's
+ * index is the number of bits set before that one over all levels, from a
+ * cumulative count per 64-bit word plus a popcount. Most keys stop at level 0.
+ * </p>
+ * <p>
+ * A key outside the set lands on some index or on none ({@code -1}), so callers
+ * store the keys and compare. The bit and rank words are buffers so
+ * {@link PredictionTable} can look up straight from its mapping.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ * @since 2026-10-16
+ */
+final class MinimalPerfectHash {
+
+    static final int MAX_LEVELS = 32;
+
+    private static final double GAMMA = 2.0;
+
+    private final LongBuffer words;
+    private final IntBuffer ranks;
+    private final int[] levelStarts;
+
+    /**
+     * @param words       bit arrays of all levels, one after the other
+     * @param ranks       bits set in the words before each word
+     * @param levelStarts first word of each level, then the total number of words
+     */
+    MinimalPerfectHash(LongBuffer words, IntBuffer ranks, int[] levelStarts) {
+        this.words = words;
+        this.ranks = ranks;
+        this.levelStarts = levelStarts;
+    }
+
+    /**
+     * Builds the hash of a set of keys.
+     *
+     * @param keys distinct keys; not modified
+     * @return hash mapping them onto {@code [0, keys.length)}
+     * @throws IllegalArgumentException if keys repeat
+     */
+    static MinimalPerfectHash build(long[] keys) {
+        long[] remaining = keys.clone();
+        int count = remaining.length;
+        long[][] levels = new long[MAX_LEVELS][];
+        int numLevels = 0;
+        while (count > 0) {
+            if (numLevels == MAX_LEVELS) {
+                // Distinct keys all collide this often with negligible probability
+                throw new IllegalArgumentException(count + " keys still collide after " + MAX_LEVELS
+                        + " levels; keys must be distinct");
+            }
+            int numWords = (int) Math.max(1, (long) Math.ceil(GAMMA * count / Long.SIZE));
+            long[] hit = new long[numWords];
+            long[] collided = new long[numWords];
+            for (int i = 0; i < count; i++) {
+                long position = position(remaining[i], numLevels, numWords);
+                int word = (int) (position >>> 6);
+                long bit = 1L << position;
+                if ((hit[word] & bit) != 0) {
+                    collided[word] |= bit;
+                } else {
+                    hit[word] |= bit;
+                }
+            }
+            int next = 0;
+            for (int i = 0; i < count; i++) {
+                long position = position(remaining[i], numLevels, numWords);
+                if ((collided[(int) (position >>> 6)] & 1L << position) != 0) {
+                    remaining[next++] = remaining[i];
+                }
+            }
+            for (int w = 0; w < numWords; w++) {
+                hit[w] &= ~collided[w];
+            }
+            levels[numLevels++] = hit;
+            count = next;
+        }
+
+        int[] levelStarts = new int[numLevels + 1];
+        for (int level = 0; level < numLevels; level++) {
+            levelStarts[level + 1] = levelStarts[level] + levels[level].length;
+        }
+        long[] words = new long[levelStarts[numLevels]];
+        int[] ranks = new int[words.length];
+        int rank = 0;
+        for (int level = 0; level < numLevels; level++) {
+            System.arraycopy(levels[level], 0, words, levelStarts[level], levels[level].length);
+        }
+        for (int w = 0; w < words.length; w++) {
+            ranks[w] = rank;
+            rank += Long.bitCount(words[w]);
+        }
+        return new MinimalPerfectHash(LongBuffer.wrap(words), IntBuffer.wrap(ranks), levelStarts);
+    }
+
+    /**
+     * @param key key to look up
+     * @return its index if it was in the built set; otherwise an arbitrary index or -1
+     */
+    int indexOf(long key) {
+        for (int level = 0; level < levelStarts.length - 1; level++) {
+            int start = levelStarts[level];
+            long position = position(key, level, levelStarts[level + 1] - start);
+            int word = start + (int) (position >>> 6);
+            long bits = words.get(word);
+            long bit = 1L << position;
+            if ((bits & bit) != 0) {
+                return ranks.get(word) + Long.bitCount(bits & (bit - 1));
+            }
+        }
+        return -1;
+    }
+
+    int numLevels() {
+        return levelStarts.length - 1;
+    }
+
+    int[] levelStarts() {
+        return levelStarts.clone();
+    }
+
+    /**
+     * @return bit words of all levels; a duplicate, positioned at 0
+     */
+    LongBuffer words() {
+        return words.duplicate().rewind();
+    }
+
+    /**
+     * @return rank of each word; a duplicate, positioned at 0
+     */
+    IntBuffer ranks() {
+        return ranks.duplicate().rewind();
+    }
+
+    /**
+     * Bit of a key in a level of {@code numWords} words: a SplitMix64 finalizer
+     * seeded by the level, its high half scaled onto the bit range.
+     */
+    private static long position(long key, int level, int numWords) {
+        long h = key + (level + 1) * 0x9E3779B97F4A7C15L;
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        h ^= h >>> 31;
+        return ((h >>> 32) * ((long) numWords * Long.SIZE)) >>> 32;
+    }
+}
@@ -0,0 +1,330 @@
+package com.backend.fot.inference;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Versioned local models, swapped without a restart.
+ * <p>
+ * Each subdirectory of the registry directory is a version, named after it: the
+ * model file ({@code forest.json}, {@code forest.fotm} or {@code forest.onnx}, as
+ * the deployment's model format reads) and {@code golden.json}, the fixture
+ * {@code export_forest.py --fixture} writes for the same pickle. Versions are
+ * ordered by name, so name them to sort (e.g. {@code 2026-10-16T1200}), and publish
+ * one by writing it elsewhere and renaming the directory in. A version missing
+ * either file is taken for one still being written and looked at again later.
+ * </p>
+ * <p>
+ * Every {@code pollInterval} a background thread looks for a version newer than the
+ * active one, loads it, checks it reproduces its golden set, scores the golden
+ * requests {@code warmupRounds} times so the JIT compiles its paths, and only then
+ * publishes it with a single reference swap. Requests read the reference once, so
+ * each one is served and labelled ({@code modelVersion}) by one version from start
+ * to end, and none waits for a swap. A version that fails to load or validate is
+ * rejected and not retried.
+ * </p>
+ * <p>
+ * The version it replaced stays loaded: {@link #rollback()} swaps it back at once
+ * and rejects the rolled-back one so the poller does not reinstall it. A model
+ * replaced twice is released after {@value #RETIRE_DELAY_SECONDS} seconds, long
+ * after any request that picked it up has finished. A rejected version is released
+ * at once, and {@link #close()} releases every model still held.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.1
+ * @since 2026-10-16
+ */
+@Slf4j
+public final class ModelRegistry implements AutoCloseable {
+
+    /** File in each version directory with the expected answers. */
+    public static final String GOLDEN_FILE = "golden.json";
+
+    static final long RETIRE_DELAY_SECONDS = 60;
+
+    /**
+     * Loads the model file of a version.
+     */
+    @FunctionalInterface
+    public interface Loader {
+
+        ForestPredictor load(Path file) throws IOException;
+    }
+
+    /**
+     * What the registry serves and has turned down.
+     *
+     * @param active    version serving requests
+     * @param previous  version {@link #rollback()} returns to; null if none
+     * @param swappedAt when {@code active} took over
+     * @param swaps     versions published since startup, rollbacks included
+     * @param rejected  versions turned down, with the reason
+     */
+    public record Status(String active, String previous, Instant swappedAt, long swaps,
+                         Map<String, String> rejected) {
+    }
+
+    private record Versions(ForestPredictor active, ForestPredictor previous, Instant swappedAt, long swaps) {
+    }
+
+    private final Path directory;
+    private final String modelFile;
+    private final Loader loader;
+    private final ObjectMapper objectMapper;
+    private final double tolerance;
+    private final int warmupRounds;
+    private final AtomicReference<Versions> versions;
+    private final Map<String, String> rejected = new ConcurrentHashMap<>();
+    private final Set<ForestPredictor> retiring = ConcurrentHashMap.newKeySet();
+
+    private ScheduledExecutorService scheduler;
+
+    private ModelRegistry(Path directory, String modelFile, Loader loader, ObjectMapper objectMapper,
+                          double tolerance, int warmupRounds, ForestPredictor initial) {
+        this.directory = directory;
+        this.modelFile = modelFile;
+        this.loader = loader;
+        this.objectMapper = objectMapper;
+        this.tolerance = tolerance;
+        this.warmupRounds = warmupRounds;
+        this.versions = new AtomicReference<>(new Versions(initial, null, Instant.now(), 0));
+    }
+
+    /**
+     * Registry serving one model for good, when no registry directory is configured.
+     *
+     * @param predictor model to serve
+     * @return registry that never swaps
+     */
+    public static ModelRegistry of(ForestPredictor predictor) {
+        return new ModelRegistry(null, null, null, null, 0, 0, predictor);
+    }
+
+    /**
+     * Opens a registry directory and activates its newest valid version.
+     *
+     * @param directory    directory holding one subdirectory per version
+     * @param modelFile    name of the model file inside each version
+     * @param loader       reads a model file
+     * @param objectMapper mapper used to parse the golden sets
+     * @param tolerance    largest difference from a golden probability accepted
+     * @param warmupRounds passes over the golden requests before a version goes live
+     * @return registry serving that version; call {@link #start(long)} to follow new ones
+     * @throws IllegalStateException if no version in the directory is valid
+     */
+    public static ModelRegistry open(Path directory, String modelFile, Loader loader, ObjectMapper objectMapper,
+                                     double tolerance, int warmupRounds) {
+        ModelRegistry registry = new ModelRegistry(directory, modelFile, loader, objectMapper, tolerance,
+                warmupRounds, null);
+        if (!registry.refresh()) {
+            throw new IllegalStateException("No valid model version in " + directory + ": " + registry.rejected);
+        }
+        return registry;
+    }
+
+    /**
+     * Starts looking for new versions in the background.
+     *
+     * @param pollIntervalMs time between two looks at the directory
+     */
+    public synchronized void start(long pollIntervalMs) {
+        if (directory == null || scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "model-registry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::refreshQuietly, pollIntervalMs, pollIntervalMs,
+                TimeUnit.MILLISECONDS);
+        log.info("Watching {} for model versions every {}ms", directory, pollIntervalMs);
+    }
+
+    /**
+     * Stops the poller and releases the active, previous and retiring models.
+     */
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        Versions current = versions.get();
+        release(current.active());
+        release(current.previous());
+        for (ForestPredictor predictor : retiring) {
+            if (retiring.remove(predictor)) {
+                release(predictor);
+            }
+        }
+    }
+
+    /**
+     * @return model serving requests now; read it once per request
+     */
+    public ForestPredictor active() {
+        return versions.get().active();
+    }
+
+    public Status status() {
+        Versions current = versions.get();
+        ForestPredictor previous = current.previous();
+        return new Status(current.active().modelVersion(), previous == null ? null : previous.modelVersion(),
+                current.swappedAt(), current.swaps(), Map.copyOf(rejected));
+    }
+
+    /**
+     * Puts the previous version back in service.
+     *
+     * @return whether there was a previous version to return to
+     */
+    public synchronized boolean rollback() {
+        Versions current = versions.get();
+        if (current.previous() == null) {
+            return false;
+        }
+        String rolledBack = current.active().modelVersion();
+        rejected.put(rolledBack, "rolled back");
+        versions.set(new Versions(current.previous(), null, Instant.now(), current.swaps() + 1));
+        retire(current.active());
+        log.warn("Rolled model {} back to {}", rolledBack, current.previous().modelVersion());
+        return true;
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.warn("Model registry refresh failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Activates the newest version if it is newer than the active one and valid.
+     * Runs on one thread at a time (startup, then the poller) and holds no lock while
+     * loading, so {@link #rollback()} never waits for a load.
+     *
+     * @return whether a version was activated
+     */
+    boolean refresh() {
+        Versions current = versions.get();
+        String activeVersion = current.active() == null ? null : current.active().modelVersion();
+        for (Path candidate : candidates()) {
+            String version = candidate.getFileName().toString();
+            if (rejected.containsKey(version)) {
+                continue;
+            }
+            if (activeVersion != null && version.compareTo(activeVersion) <= 0) {
+                return false;
+            }
+            Path model = candidate.resolve(modelFile);
+            Path golden = candidate.resolve(GOLDEN_FILE);
+            if (!Files.isRegularFile(model) || !Files.isRegularFile(golden)) {
+                // Still being written; older versions are not worth activating meanwhile
+                return false;
+            }
+            try {
+                activate(version, prepare(version, model, golden));
+                return true;
+            } catch (IOException | RuntimeException e) {
+                rejected.put(version, String.valueOf(e.getMessage()));
+                log.warn("Rejected model version {}: {}", version, e.getMessage());
+            }
+        }
+        return false;
+    }
+
+    private List<Path> candidates() {
+        try (Stream<Path> entries = Files.list(directory)) {
+            return entries.filter(Files::isDirectory)
+                    .sorted(Comparator.comparing((Path path) -> path.getFileName().toString()).reversed())
+                    .toList();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot list model versions in " + directory, e);
+        }
+    }
+
+    private ForestPredictor prepare(String version, Path model, Path goldenFile) throws IOException {
+        long start = System.nanoTime();
+        ForestPredictor loaded = loader.load(model);
+        ForestPredictor predictor;
+        GoldenSet goldenSet;
+        try {
+            predictor = loaded.withModelVersion(version);
+            try (InputStream in = Files.newInputStream(goldenFile)) {
+                goldenSet = GoldenSet.read(in, objectMapper);
+            }
+            goldenSet.verify(predictor, tolerance);
+            for (int round = 0; round < warmupRounds; round++) {
+                for (GoldenSet.Case goldenCase : goldenSet.cases()) {
+                    predictor.predict(goldenCase.request());
+                }
+                predictor.predictAll(goldenSet.requests());
+            }
+        } catch (IOException | RuntimeException e) {
+            // Never published, so no request holds it
+            release(loaded);
+            throw e;
+        }
+        log.info("Model version {} loaded, validated on {} golden cases and warmed up in {} ms", version,
+                goldenSet.cases().size(), (System.nanoTime() - start) / 1_000_000);
+        return predictor;
+    }
+
+    private synchronized void activate(String version, ForestPredictor predictor) {
+        Versions current = versions.get();
+        versions.set(new Versions(predictor, current.active(), Instant.now(),
+                current.active() == null ? 0 : current.swaps() + 1));
+        retire(current.previous());
+        log.info("Model version {} is now active{}", version,
+                current.active() == null ? "" : ", replacing " + current.active().modelVersion());
+    }
+
+    /**
+     * Releases a model no request can still be using once the delay has passed, or
+     * on {@link #close()} if that comes first.
+     */
+    private void retire(ForestPredictor predictor) {
+        if (predictor == null || !(predictor.model() instanceof AutoCloseable)) {
+            return;
+        }
+        retiring.add(predictor);
+        synchronized (this) {
+            if (scheduler != null && !scheduler.isShutdown()) {
+                scheduler.schedule(() -> {
+                    if (retiring.remove(predictor)) {
+                        release(predictor);
+                    }
+                }, RETIRE_DELAY_SECONDS, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    private static void release(ForestPredictor predictor) {
+        if (predictor == null || !(predictor.model() instanceof AutoCloseable closeable)) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            log.warn("Could not release model {}: {}", predictor.modelVersion(), e.getMessage());
+        }
+    }
+}
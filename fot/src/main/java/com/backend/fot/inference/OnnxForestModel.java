@@ -0,0 +1,250 @@
+package com.backend.fot.inference;
+
+import ai.onnxruntime.OnnxTensor;
+import ai.onnxruntime.OrtEnvironment;
+import ai.onnxruntime.OrtException;
+import ai.onnxruntime.OrtSession;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Forest scored by ONNX Runtime on the CPU, from the model written by
+ * {@code Modelagem/Modelos/export_onnx.py}.
+ * <p>
+ * The ONNX graph holds only the classifier (a {@code TreeEnsembleClassifier} with
+ * input {@code input}, float {@code [N, features]}, and output {@code probabilities});
+ * preprocessing stays in {@link FlightFeatureEncoder}, configured from the dump header
+ * the exporter stores in the model's metadata under {@value #HEADER}. ONNX Runtime
+ * adds the tree outputs in float32, so probabilities differ from
+ * {@link RandomForestModel} in the last bits.
+ * </p>
+ * <p>
+ * One session serves every thread. Each thread owns a direct buffer with room for
+ * {@code maxBatch} rows and a {@code [1, features]} tensor backed by its start, so a
+ * single-row call writes the features in place and runs without creating a tensor;
+ * a batch gets a tensor over the rows it fills, larger batches run in chunks.
+ * {@link #close()} releases the session and those tensors.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ * @since 2026-10-16
+ */
+public final class OnnxForestModel implements ForestModel, AutoCloseable {
+
+    /** Metadata key holding the dump JSON without its trees. */
+    public static final String HEADER = "fot.header";
+    /** Metadata key holding the number of trees. */
+    public static final String NUM_TREES = "fot.num_trees";
+    /** Metadata key holding the number of nodes over all trees. */
+    public static final String NUM_NODES = "fot.num_nodes";
+
+    static final String INPUT = "input";
+    static final String PROBABILITIES = "probabilities";
+    private static final Set<String> OUTPUTS = Set.of(PROBABILITIES);
+
+    private final OrtEnvironment environment;
+    private final OrtSession session;
+    private final ForestDump header;
+    private final int numTrees;
+    private final int numNodes;
+    private final int numFeatures;
+    private final int numClasses;
+    private final int maxBatch;
+    private final Queue<Buffers> allBuffers = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Buffers> buffers;
+
+    private OnnxForestModel(OrtEnvironment environment, OrtSession session, ForestDump header, int numTrees,
+                            int numNodes, int maxBatch) {
+        this.environment = environment;
+        this.session = session;
+        this.header = header;
+        this.numTrees = numTrees;
+        this.numNodes = numNodes;
+        this.numFeatures = header.features().size();
+        this.numClasses = header.classes().length;
+        this.maxBatch = maxBatch;
+        this.buffers = ThreadLocal.withInitial(this::newBuffers);
+    }
+
+    /**
+     * Opens an ONNX model and creates its session.
+     *
+     * @param path           file written by {@code export_onnx.py}
+     * @param objectMapper   mapper used to parse the header in the metadata
+     * @param intraOpThreads threads ONNX Runtime may use inside one run; 0 for its default
+     * @param maxBatch       most rows scored by one run
+     * @return model scoring through the session
+     * @throws IOException              if the model cannot be loaded
+     * @throws IllegalArgumentException if it lacks the metadata or does not fit the header
+     */
+    public static OnnxForestModel open(Path path, ObjectMapper objectMapper, int intraOpThreads, int maxBatch)
+            throws IOException {
+        if (maxBatch < 1) {
+            throw new IllegalArgumentException("maxBatch must be positive: " + maxBatch);
+        }
+        OrtEnvironment environment = OrtEnvironment.getEnvironment();
+        OrtSession session = null;
+        try (OrtSession.SessionOptions options = new OrtSession.SessionOptions()) {
+            options.setOptimizationLevel(OrtSession.SessionOptions.OptLevel.ALL_OPT);
+            options.setIntraOpNumThreads(intraOpThreads);
+            session = environment.createSession(path.toString(), options);
+            Map<String, String> metadata = session.getMetadata().getCustomMetadata();
+            if (!metadata.containsKey(HEADER) || !session.getInputNames().contains(INPUT)
+                    || !session.getOutputNames().contains(PROBABILITIES)) {
+                throw new IllegalArgumentException(path + " is not an ONNX model from export_onnx.py");
+            }
+            ForestDump header = objectMapper.readValue(metadata.get(HEADER), ForestDump.class);
+            if (!ForestDump.FORMAT.equals(header.format()) || header.version() != ForestDump.VERSION) {
+                throw new IllegalArgumentException("Unsupported model header: format " + header.format()
+                        + ", version " + header.version());
+            }
+            return new OnnxForestModel(environment, session, header,
+                    Integer.parseInt(metadata.getOrDefault(NUM_TREES, "0")),
+                    Integer.parseInt(metadata.getOrDefault(NUM_NODES, "0")), maxBatch);
+        } catch (OrtException e) {
+            close(session);
+            throw new IOException("Could not load ONNX model " + path, e);
+        } catch (RuntimeException | IOException e) {
+            close(session);
+            throw e;
+        }
+    }
+
+    private static void close(OrtSession session) {
+        if (session != null) {
+            try {
+                session.close();
+            } catch (OrtException ignored) {
+                // Already failing; the original error is the one to report
+            }
+        }
+    }
+
+    /**
+     * @return dump header from the model metadata: names, classes and preprocessing, no trees
+     */
+    public ForestDump header() {
+        return header;
+    }
+
+    @Override
+    public void predictProba(double[] features, double[] probabilities) {
+        if (features.length != numFeatures) {
+            throw new IllegalArgumentException("Expected " + numFeatures + " features, got " + features.length);
+        }
+        Buffers own = buffers.get();
+        FloatBuffer input = own.input;
+        for (int f = 0; f < numFeatures; f++) {
+            input.put(f, (float) features[f]);
+        }
+        run(own.rowInputs, probabilities, 0, 1);
+    }
+
+    /**
+     * @return evaluator scoring up to {@code maxBatch} rows per run
+     */
+    @Override
+    public BatchForestEvaluator batchEvaluator() {
+        return (batch, probabilities) -> {
+            int rows = batch.size();
+            int capacity = batch.capacity();
+            float[] values = batch.values();
+            FloatBuffer input = buffers.get().input;
+            for (int first = 0; first < rows; first += maxBatch) {
+                int count = Math.min(maxBatch, rows - first);
+                // FeatureBatch is column-major, the tensor row-major
+                for (int r = 0; r < count; r++) {
+                    for (int f = 0; f < numFeatures; f++) {
+                        input.put(r * numFeatures + f, values[f * capacity + first + r]);
+                    }
+                }
+                try (OnnxTensor tensor = OnnxTensor.createTensor(environment, input.slice(0, count * numFeatures),
+                        new long[]{count, numFeatures})) {
+                    run(Map.of(INPUT, tensor), probabilities, first * numClasses, count);
+                } catch (OrtException e) {
+                    throw new IllegalStateException("ONNX Runtime could not score the batch", e);
+                }
+            }
+        };
+    }
+
+    private void run(Map<String, OnnxTensor> inputs, double[] probabilities, int offset, int rows) {
+        try (OrtSession.Result result = session.run(inputs, OUTPUTS)) {
+            OnnxTensor output = (OnnxTensor) result.get(PROBABILITIES).orElseThrow();
+            FloatBuffer scores = output.getFloatBuffer();
+            for (int i = 0; i < rows * numClasses; i++) {
+                probabilities[offset + i] = scores.get(i);
+            }
+        } catch (OrtException e) {
+            throw new IllegalStateException("ONNX Runtime could not score the row", e);
+        }
+    }
+
+    private Buffers newBuffers() {
+        FloatBuffer input = ByteBuffer.allocateDirect(Float.BYTES * maxBatch * numFeatures)
+                .order(ByteOrder.nativeOrder())
+                .asFloatBuffer();
+        try {
+            // A direct buffer backs the tensor, no copy: writes to it change the next run's input.
+            // Tensors need a buffer of exactly their size, hence the slices.
+            Buffers created = new Buffers(input, OnnxTensor.createTensor(environment, input.slice(0, numFeatures),
+                    new long[]{1, numFeatures}));
+            allBuffers.add(created);
+            return created;
+        } catch (OrtException e) {
+            throw new IllegalStateException("Could not allocate the ONNX input tensor", e);
+        }
+    }
+
+    @Override
+    public void close() throws OrtException {
+        for (Buffers own : allBuffers) {
+            own.row.close();
+        }
+        allBuffers.clear();
+        session.close();
+    }
+
+    @Override
+    public int numTrees() {
+        return numTrees;
+    }
+
+    @Override
+    public int numNodes() {
+        return numNodes;
+    }
+
+    @Override
+    public int numFeatures() {
+        return numFeatures;
+    }
+
+    @Override
+    public int numClasses() {
+        return numClasses;
+    }
+
+    private static final class Buffers {
+
+        final FloatBuffer input;
+        final OnnxTensor row;
+        final Map<String, OnnxTensor> rowInputs;
+
+        Buffers(FloatBuffer input, OnnxTensor row) {
+            this.input = input;
+            this.row = row;
+            this.rowInputs = Map.of(INPUT, row);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.backend.fot.inference;
+
+import com.backend.fot.dto.FlightPredictionRequestDTO;
+import com.backend.fot.dto.FlightPredictionResponseDTO;
+import com.backend.fot.dto.PredictionExplanationDTO;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Explains predictions with the model that served them.
+ * <p>
+ * With the LOCAL engine the explainer is built from {@link ModelRegistry#active()},
+ * once per version and on first use, when that model holds the trees of a JSON
+ * dump. Otherwise (REMOTE engine, binary or ONNX models) the explainer of a fixed
+ * dump is used. Either way an explanation is only attached to a response it agrees
+ * with: same {@code modelVersion} when the response reports one, and the same
+ * probability of delay within {@code tolerance}. A swap between the prediction and
+ * its explanation, a remote or precomputed answer from another model, or a table
+ * built by another version all drop the explanation instead of returning one that
+ * contradicts the prediction.
+ * </p>
+ * <p>
+ * Explanations are computed on a small pool of their own, only after the prediction
+ * succeeded, so request and I/O threads never walk trees. When the pool's queue is
+ * full the response goes out without an explanation.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ * @since 2026-10-16
+ */
+@Slf4j
+public final class PredictionExplainer implements AutoCloseable {
+
+    private final ModelRegistry modelRegistry;
+    private final TreeShapExplainer fixed;
+    private final int cacheSize;
+    private final double tolerance;
+    private final ThreadPoolExecutor workers;
+
+    private volatile Bound bound;
+    private final LongAdder retiredHits = new LongAdder();
+    private final LongAdder retiredMisses = new LongAdder();
+    private final LongAdder mismatches = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    /**
+     * Explainer built for one registry version.
+     */
+    private record Bound(ForestPredictor predictor, TreeShapExplainer explainer) {
+    }
+
+    /**
+     * @param modelRegistry  registry serving LOCAL predictions; null with the REMOTE engine
+     * @param fixed          explainer of a fixed dump, used when the served model cannot be explained; may be null
+     * @param cacheSize      explanations kept per registry version
+     * @param tolerance      largest difference from the response's probability accepted
+     * @param threads        threads computing explanations
+     * @param queueCapacity  explanations waiting for a thread before new ones are dropped
+     */
+    public PredictionExplainer(ModelRegistry modelRegistry, TreeShapExplainer fixed, int cacheSize,
+                               double tolerance, int threads, int queueCapacity) {
+        this.modelRegistry = modelRegistry;
+        this.fixed = fixed;
+        this.cacheSize = cacheSize;
+        this.tolerance = tolerance;
+        AtomicInteger counter = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "ml-explain-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        workers.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Explains a successful prediction on the explanation pool.
+     *
+     * @param request  flight information
+     * @param response prediction to explain
+     * @return future with the explanation, or null if none agrees with the response;
+     *         never completes exceptionally
+     */
+    public CompletableFuture<PredictionExplanationDTO> explainAsync(FlightPredictionRequestDTO request,
+                                                                    FlightPredictionResponseDTO response) {
+        try {
+            return CompletableFuture.supplyAsync(() -> explain(request, response), workers)
+                    .exceptionally(error -> {
+                        log.warn("Could not explain flight {}: {}", request.getFlightNumber(), error.getMessage());
+                        return null;
+                    });
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            log.debug("Explanation queue full, answering flight {} without one", request.getFlightNumber());
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    /**
+     * Explains a prediction on the calling thread.
+     *
+     * @param request  flight information
+     * @param response prediction to explain
+     * @return explanation, or null if none agrees with the response
+     */
+    public PredictionExplanationDTO explain(FlightPredictionRequestDTO request, FlightPredictionResponseDTO response) {
+        TreeShapExplainer explainer = served(response.getModelVersion());
+        if (explainer == null) {
+            explainer = fixed;
+        }
+        if (explainer == null) {
+            return null;
+        }
+        PredictionExplanationDTO explanation = explainer.explain(request);
+        if (!agrees(explanation, response)) {
+            mismatches.increment();
+            log.debug("Dropping explanation of flight {} by model {}: response came from {} with probability {}",
+                    request.getFlightNumber(), explanation.getModelVersion(), response.getModelVersion(),
+                    response.getProbability());
+            return null;
+        }
+        return explanation;
+    }
+
+    /**
+     * @return explainer of the registry's active version if it served {@code modelVersion}, else null
+     */
+    private TreeShapExplainer served(String modelVersion) {
+        if (modelRegistry == null || modelVersion == null) {
+            return null;
+        }
+        ForestPredictor active = modelRegistry.active();
+        if (!modelVersion.equals(active.modelVersion()) || !(active.model() instanceof RandomForestModel)) {
+            return null;
+        }
+        Bound current = bound;
+        if (current != null && current.predictor() == active) {
+            return current.explainer();
+        }
+        synchronized (this) {
+            current = bound;
+            if (current != null && current.predictor() == active) {
+                return current.explainer();
+            }
+            long start = System.nanoTime();
+            TreeShapExplainer explainer = TreeShapExplainer.from(active, cacheSize);
+            if (current != null) {
+                retiredHits.add(current.explainer().cacheHits());
+                retiredMisses.add(current.explainer().cacheMisses());
+            }
+            bound = new Bound(active, explainer);
+            log.info("Built explanations for model version {} in {} ms: base value {}{}", active.modelVersion(),
+                    (System.nanoTime() - start) / 1_000_000, explainer.baseValue(),
+                    explainer.hasNodeSamples() ? "" : ", splits weighted evenly (no weighted_n_node_samples)");
+            return explainer;
+        }
+    }
+
+    private boolean agrees(PredictionExplanationDTO explanation, FlightPredictionResponseDTO response) {
+        if (response.getModelVersion() != null
+                && !Objects.equals(response.getModelVersion(), explanation.getModelVersion())) {
+            return false;
+        }
+        return response.getProbability() != null
+                && Math.abs(explanation.getProbability() - response.getProbability()) <= tolerance;
+    }
+
+    /**
+     * @return whether any model can be explained at all
+     */
+    public boolean canExplain() {
+        return fixed != null
+                || (modelRegistry != null && modelRegistry.active().model() instanceof RandomForestModel);
+    }
+
+    public long cacheHits() {
+        Bound current = bound;
+        return retiredHits.sum() + (current == null ? 0 : current.explainer().cacheHits())
+                + (fixed == null ? 0 : fixed.cacheHits());
+    }
+
+    public long cacheMisses() {
+        Bound current = bound;
+        return retiredMisses.sum() + (current == null ? 0 : current.explainer().cacheMisses())
+                + (fixed == null ? 0 : fixed.cacheMisses());
+    }
+
+    /**
+     * @return explanations dropped because they did not agree with the prediction
+     */
+    public long mismatches() {
+        return mismatches.sum();
+    }
+
+    /**
+     * @return explanations skipped because the explanation queue was full
+     */
+    public long rejections() {
+        return rejections.sum();
+    }
+
+    @Override
+    public void close() {
+        workers.shutdownNow();
+    }
+}
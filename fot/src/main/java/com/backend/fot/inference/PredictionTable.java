@@ -0,0 +1,397 @@
+package com.backend.fot.inference;
+
+import com.backend.fot.dto.FlightPredictionRequestDTO;
+import com.backend.fot.dto.MLServiceResponseDTO;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Predictions for every scheduled departure in a date range, computed ahead of
+ * time and looked up in constant time from a file mapped read-only.
+ * <p>
+ * The model reads a departure's airline, origin, destination, date and hour
+ * ({@link FlightFeatureEncoder}), so every request for a scheduled flight within
+ * the horizon, whatever its minute, flight number or distance, has the answer
+ * stored for that (airline, route, date, hour). The key packs the three codes as
+ * {@link CategoryDictionary} does (16 bits each, case folded), the day since the
+ * first date (9 bits) and the hour (5 bits) into one {@code long}; a
+ * {@link MinimalPerfectHash} maps it to a slot that stores the key, the probability
+ * of delay and the predicted class exactly as {@link ForestPredictor#predict} gave
+ * them. Requests outside the schedule or the horizon are misses.
+ * </p>
+ * <p>
+ * Everything is big-endian, as written by {@link DataOutputStream}:
+ * </p>
+ * <pre>
+ *  0  magic "FOTP"
+ *  4  int format version ({@link #VERSION})
+ *  8  int entries, first date (epoch day), days, hash levels, hash words
+ * 28  int metadata length, then the model version in {@link DataOutputStream#writeUTF} form
+ *     int first hash word of each level, then the number of words
+ *     padding to 8 bytes, long per hash word
+ *     int rank per hash word
+ *     padding to 8 bytes, long key per slot
+ *     double probability of delay per slot
+ *     int predicted class per slot
+ * </pre>
+ * <p>
+ * Instances are immutable and thread-safe; the mapping is released when the
+ * instance is garbage collected.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ * @since 2026-10-16
+ */
+public final class PredictionTable {
+
+    public static final int MAGIC = 0x464F5450;
+    public static final int VERSION = 1;
+
+    /** Longest horizon a table covers, as the day takes 9 bits of the key. */
+    public static final int MAX_DAYS = 1 << 9;
+    /** Most slots in one table, which keeps the file mappable at once (under 2 GiB). */
+    public static final int MAX_ENTRIES = 1 << 26;
+
+    static final int HEADER_BYTES = 32;
+    static final long NO_KEY = -1;
+
+    private static final int SCORING_BATCH = 4096;
+    private static final PredictionTable EMPTY = new PredictionTable();
+
+    /**
+     * One departure in the schedule: scored for every date of the horizon.
+     *
+     * @param airline     airline code, as in {@code companhia}
+     * @param origin      origin airport code
+     * @param destination destination airport code
+     * @param hour        scheduled departure hour, 0 to 23
+     */
+    public record Departure(String airline, String origin, String destination, int hour) {
+
+        public Departure {
+            if (hour < 0 || hour > 23) {
+                throw new IllegalArgumentException("Departure hour must be 0 to 23, got " + hour);
+            }
+            if (key(airline, origin, destination, 0, hour) == NO_KEY) {
+                throw new IllegalArgumentException("Codes must be 1 to 3 letters or digits: " + airline + ", "
+                        + origin + ", " + destination);
+            }
+            airline = airline.toUpperCase(Locale.ROOT);
+            origin = origin.toUpperCase(Locale.ROOT);
+            destination = destination.toUpperCase(Locale.ROOT);
+        }
+    }
+
+    private final ByteBuffer buffer;
+    private final MinimalPerfectHash hash;
+    private final int entries;
+    private final long firstDay;
+    private final int days;
+    private final String modelVersion;
+    private final int keysOffset;
+    private final int probabilitiesOffset;
+    private final int predictionsOffset;
+
+    private PredictionTable() {
+        this.buffer = null;
+        this.hash = null;
+        this.entries = 0;
+        this.firstDay = 0;
+        this.days = 0;
+        this.modelVersion = null;
+        this.keysOffset = 0;
+        this.probabilitiesOffset = 0;
+        this.predictionsOffset = 0;
+    }
+
+    private PredictionTable(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a prediction table");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Unsupported prediction table version " + buffer.getInt(4));
+        }
+        this.entries = buffer.getInt(8);
+        this.firstDay = buffer.getInt(12);
+        this.days = buffer.getInt(16);
+        int numLevels = buffer.getInt(20);
+        int numWords = buffer.getInt(24);
+        int metadataLength = buffer.getInt(28);
+        if (entries < 0 || entries > MAX_ENTRIES || days < 1 || days > MAX_DAYS || numLevels < 0
+                || numLevels > MinimalPerfectHash.MAX_LEVELS || numWords < 0 || metadataLength < 0) {
+            throw new IllegalArgumentException("Prediction table has an invalid header");
+        }
+        long levels = HEADER_BYTES + (long) metadataLength;
+        long words = ForestFile.align(levels + 4L * (numLevels + 1));
+        long ranks = words + 8L * numWords;
+        long keys = ForestFile.align(ranks + 4L * numWords);
+        long probabilities = keys + 8L * entries;
+        long predictions = probabilities + 8L * entries;
+        long end = predictions + 4L * entries;
+        if (end != buffer.capacity()) {
+            throw new IllegalArgumentException("Prediction table should be " + end + " bytes, is "
+                    + buffer.capacity());
+        }
+        this.keysOffset = (int) keys;
+        this.probabilitiesOffset = (int) probabilities;
+        this.predictionsOffset = (int) predictions;
+
+        byte[] metadata = new byte[metadataLength];
+        buffer.get(HEADER_BYTES, metadata);
+        this.modelVersion = new DataInputStream(new ByteArrayInputStream(metadata)).readUTF();
+
+        int[] levelStarts = new int[numLevels + 1];
+        for (int level = 0; level <= numLevels; level++) {
+            levelStarts[level] = buffer.getInt((int) levels + 4 * level);
+            boolean valid = level == 0 ? levelStarts[level] == 0 : levelStarts[level] > levelStarts[level - 1];
+            if (!valid) {
+                throw new IllegalArgumentException("Prediction table has invalid hash levels");
+            }
+        }
+        if (levelStarts[numLevels] != numWords) {
+            throw new IllegalArgumentException("Prediction table has invalid hash levels");
+        }
+        LongBuffer wordBuffer = buffer.slice((int) words, 8 * numWords).order(buffer.order()).asLongBuffer();
+        IntBuffer rankBuffer = buffer.slice((int) ranks, 4 * numWords).order(buffer.order()).asIntBuffer();
+        for (int w = 0; w < numWords; w++) {
+            // Every index the hash returns must fall inside the slots
+            if (rankBuffer.get(w) < 0 || rankBuffer.get(w) + Long.bitCount(wordBuffer.get(w)) > entries) {
+                throw new IllegalArgumentException("Prediction table has an invalid rank at word " + w);
+            }
+        }
+        this.hash = new MinimalPerfectHash(wordBuffer, rankBuffer, levelStarts);
+    }
+
+    /**
+     * Maps a table file.
+     *
+     * @param path file written by {@link #write}
+     * @return table reading from the mapping
+     * @throws IOException              if the file cannot be mapped
+     * @throws IllegalArgumentException if it is not a valid prediction table
+     */
+    public static PredictionTable open(Path path) throws IOException {
+        // The mapping stays valid after the channel is closed
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new PredictionTable(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * @return table without entries, for when none is configured; every lookup misses
+     */
+    public static PredictionTable empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Scores every departure of a schedule on every date of a horizon and writes the table.
+     *
+     * @param predictor model to score with
+     * @param schedule  departures; repeats are scored once
+     * @param firstDate first date of the horizon
+     * @param days      dates in the horizon, at most {@link #MAX_DAYS}
+     * @param out       receives the file; not closed
+     * @return number of entries written
+     * @throws IOException              if writing fails
+     * @throws IllegalArgumentException if the horizon or the schedule is too large
+     */
+    public static int write(ForestPredictor predictor, List<Departure> schedule, LocalDate firstDate, int days,
+                            OutputStream out) throws IOException {
+        if (days < 1 || days > MAX_DAYS) {
+            throw new IllegalArgumentException("Horizon must be 1 to " + MAX_DAYS + " days, got " + days);
+        }
+        Set<Departure> departures = new LinkedHashSet<>(schedule);
+        long total = (long) departures.size() * days;
+        if (total > MAX_ENTRIES) {
+            throw new IllegalArgumentException(total + " entries; a table holds at most " + MAX_ENTRIES);
+        }
+        int entries = (int) total;
+        long[] keys = new long[entries];
+        double[] probabilities = new double[entries];
+        int[] predictions = new int[entries];
+
+        List<FlightPredictionRequestDTO> requests = new ArrayList<>(SCORING_BATCH);
+        int scored = 0;
+        int entry = 0;
+        for (Departure departure : departures) {
+            for (int day = 0; day < days; day++) {
+                keys[entry++] = key(departure.airline(), departure.origin(), departure.destination(), day,
+                        departure.hour());
+                requests.add(FlightPredictionRequestDTO.builder()
+                        .companyName(departure.airline())
+                        .flightOrigin(departure.origin())
+                        .flightDestination(departure.destination())
+                        .flightDepartureDate(firstDate.plusDays(day).atTime(departure.hour(), 0))
+                        .build());
+                if (requests.size() == SCORING_BATCH) {
+                    scored = score(predictor, requests, probabilities, predictions, scored);
+                }
+            }
+        }
+        score(predictor, requests, probabilities, predictions, scored);
+
+        MinimalPerfectHash hash = MinimalPerfectHash.build(keys);
+        long[] slotKeys = new long[entries];
+        double[] slotProbabilities = new double[entries];
+        int[] slotPredictions = new int[entries];
+        for (int i = 0; i < entries; i++) {
+            int slot = hash.indexOf(keys[i]);
+            slotKeys[slot] = keys[i];
+            slotProbabilities[slot] = probabilities[i];
+            slotPredictions[slot] = predictions[i];
+        }
+
+        ByteArrayOutputStream metadata = new ByteArrayOutputStream();
+        new DataOutputStream(metadata).writeUTF(String.valueOf(predictor.modelVersion()));
+        LongBuffer words = hash.words();
+        IntBuffer ranks = hash.ranks();
+
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(entries);
+        data.writeInt(Math.toIntExact(firstDate.toEpochDay()));
+        data.writeInt(days);
+        data.writeInt(hash.numLevels());
+        data.writeInt(words.remaining());
+        data.writeInt(metadata.size());
+        metadata.writeTo(data);
+        for (int start : hash.levelStarts()) {
+            data.writeInt(start);
+        }
+        pad(data);
+        while (words.hasRemaining()) {
+            data.writeLong(words.get());
+        }
+        while (ranks.hasRemaining()) {
+            data.writeInt(ranks.get());
+        }
+        pad(data);
+        for (long key : slotKeys) {
+            data.writeLong(key);
+        }
+        for (double probability : slotProbabilities) {
+            data.writeDouble(probability);
+        }
+        for (int prediction : slotPredictions) {
+            data.writeInt(prediction);
+        }
+        data.flush();
+        return entries;
+    }
+
+    private static int score(ForestPredictor predictor, List<FlightPredictionRequestDTO> requests,
+                             double[] probabilities, int[] predictions, int first) {
+        List<MLServiceResponseDTO> responses = predictor.predictAll(requests);
+        for (int i = 0; i < responses.size(); i++) {
+            probabilities[first + i] = responses.get(i).getConfidence().doubleValue();
+            predictions[first + i] = responses.get(i).getPrediction();
+        }
+        requests.clear();
+        return first + responses.size();
+    }
+
+    /**
+     * Looks up the stored prediction for a request.
+     *
+     * @param request flight information, in any case
+     * @return the prediction, as {@link ForestPredictor#predict} gave it; null if the
+     *         departure is not in the schedule or the horizon
+     */
+    public MLServiceResponseDTO lookup(FlightPredictionRequestDTO request) {
+        LocalDateTime departure = request.getFlightDepartureDate();
+        if (entries == 0 || departure == null) {
+            return null;
+        }
+        long day = departure.toLocalDate().toEpochDay() - firstDay;
+        if (day < 0 || day >= days) {
+            return null;
+        }
+        long key = key(request.getCompanyName(), request.getFlightOrigin(), request.getFlightDestination(),
+                (int) day, departure.getHour());
+        if (key == NO_KEY) {
+            return null;
+        }
+        int slot = hash.indexOf(key);
+        if (slot < 0 || buffer.getLong(keysOffset + 8 * slot) != key) {
+            return null;
+        }
+        return MLServiceResponseDTO.builder()
+                .prediction(buffer.getInt(predictionsOffset + 4 * slot))
+                .confidence(BigDecimal.valueOf(buffer.getDouble(probabilitiesOffset + 8 * slot)))
+                .modelVersion(modelVersion)
+                .build();
+    }
+
+    /**
+     * Packs a departure into a table key.
+     *
+     * @return the key, or {@link #NO_KEY} if a code is missing or not 1 to 3 letters or digits
+     */
+    static long key(String airline, String origin, String destination, int day, int hour) {
+        if (airline == null || origin == null || destination == null) {
+            return NO_KEY;
+        }
+        int a = CategoryDictionary.pack(airline);
+        int o = CategoryDictionary.pack(origin);
+        int d = CategoryDictionary.pack(destination);
+        if (a < 0 || o < 0 || d < 0) {
+            return NO_KEY;
+        }
+        return ((((long) a << 16 | o) << 16 | d) << 9 | day) << 5 | hour;
+    }
+
+    private static void pad(DataOutputStream data) throws IOException {
+        while (data.size() % Long.BYTES != 0) {
+            data.writeByte(0);
+        }
+    }
+
+    public int size() {
+        return entries;
+    }
+
+    /**
+     * @return first date of the horizon; null for {@link #empty()}
+     */
+    public LocalDate firstDate() {
+        return buffer == null ? null : LocalDate.ofEpochDay(firstDay);
+    }
+
+    /**
+     * @return last date of the horizon; null for {@link #empty()}
+     */
+    public LocalDate lastDate() {
+        return buffer == null ? null : LocalDate.ofEpochDay(firstDay + days - 1);
+    }
+
+    /**
+     * @return version of the model that scored the table
+     */
+    public String modelVersion() {
+        return modelVersion;
+    }
+}
@@ -0,0 +1,133 @@
+package com.backend.fot.inference;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Offline job writing the {@link PredictionTable} for a published schedule.
+ * <p>
+ * Reads the JSON dump from {@code export_forest.py} (the same pickle the ML
+ * service serves) and a CSV schedule with one departure per line,
+ * {@code companhia,origem,destino,hora}, where {@code hora} is {@code HH} or
+ * {@code HH:MM}; a header line, blank lines and lines starting with {@code #} are
+ * skipped. Each departure is scored on every date of the horizon. The table is
+ * written next to its destination and renamed over it, so a server mapping the
+ * previous one never reads a partial file. Run it from the application jar, e.g.
+ * daily before the horizon runs out:
+ * </p>
+ * <pre>
+ * java --add-modules jdk.incubator.vector -cp fot.jar \
+ *     -Dloader.main=com.backend.fot.inference.PredictionTableJob \
+ *     org.springframework.boot.loader.launch.PropertiesLauncher \
+ *     --model forest.json --schedule schedule.csv --from 2026-10-17 --days 90 --out predictions.fotp
+ * </pre>
+ * <p>
+ * {@code --from} defaults to today and {@code --days} to 90.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ * @since 2026-10-16
+ */
+public final class PredictionTableJob {
+
+    static final int DEFAULT_DAYS = 90;
+
+    private PredictionTableJob() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        if (args.length % 2 != 0 || !options.containsKey("model") || !options.containsKey("schedule")
+                || !options.containsKey("out")) {
+            System.err.println("Usage: PredictionTableJob --model forest.json --schedule schedule.csv"
+                    + " [--from yyyy-MM-dd] [--days " + DEFAULT_DAYS + "] --out predictions.fotp");
+            System.exit(2);
+        }
+        LocalDate firstDate = options.containsKey("from") ? LocalDate.parse(options.get("from")) : LocalDate.now();
+        int days = options.containsKey("days") ? Integer.parseInt(options.get("days")) : DEFAULT_DAYS;
+
+        long start = System.nanoTime();
+        ForestPredictor predictor;
+        try (InputStream in = Files.newInputStream(Path.of(options.get("model")))) {
+            predictor = ForestPredictor.load(in, new ObjectMapper());
+        }
+        List<PredictionTable.Departure> schedule = readSchedule(Path.of(options.get("schedule")));
+        int entries = run(predictor, schedule, firstDate, days, Path.of(options.get("out")));
+        System.out.printf("%d departures x %d days from %s: %d predictions written to %s in %d ms%n",
+                schedule.size(), days, firstDate, entries, options.get("out"),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Writes the table for a schedule, replacing {@code out} in one rename.
+     *
+     * @return number of entries written
+     */
+    static int run(ForestPredictor predictor, List<PredictionTable.Departure> schedule, LocalDate firstDate,
+                   int days, Path out) throws IOException {
+        Path absolute = out.toAbsolutePath();
+        Path partial = absolute.resolveSibling(absolute.getFileName() + ".partial");
+        int entries;
+        try (OutputStream stream = Files.newOutputStream(partial)) {
+            entries = PredictionTable.write(predictor, schedule, firstDate, days, stream);
+        }
+        Files.move(partial, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return entries;
+    }
+
+    /**
+     * Reads a schedule CSV.
+     *
+     * @param path {@code companhia,origem,destino,hora} per line
+     * @return departures in file order
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if a line is not a valid departure
+     */
+    static List<PredictionTable.Departure> readSchedule(Path path) throws IOException {
+        List<PredictionTable.Departure> schedule = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            int number = 0;
+            while ((line = reader.readLine()) != null) {
+                number++;
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#") || line.toLowerCase().startsWith("companhia")) {
+                    continue;
+                }
+                String[] fields = line.split(",", -1);
+                try {
+                    if (fields.length != 4) {
+                        throw new IllegalArgumentException("expected 4 fields, got " + fields.length);
+                    }
+                    String hour = fields[3].strip();
+                    int colon = hour.indexOf(':');
+                    schedule.add(new PredictionTable.Departure(fields[0].strip(), fields[1].strip(),
+                            fields[2].strip(), Integer.parseInt(colon < 0 ? hour : hour.substring(0, colon))));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException(path + ", line " + number + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        return schedule;
+    }
+}
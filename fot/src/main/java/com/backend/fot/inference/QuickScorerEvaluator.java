@@ -0,0 +1,262 @@
+package com.backend.fot.inference;
+
+import java.util.Arrays;
+
+/**
+ * Forest evaluator based on QuickScorer (Lucchese et al., SIGIR 2015): instead of
+ * following each tree from the root, it visits the splits feature by feature and
+ * eliminates leaves with bit masks.
+ * <p>
+ * Every tree keeps one bit per leaf, leaves numbered left to right, all set at the
+ * start of a row. A split that sends the row right rules out the leaves of its left
+ * subtree, so their bits are cleared; the exit leaf is then the lowest bit left in
+ * each tree. The splits of each feature are sorted by threshold, so for a value
+ * {@code x} the splits it sends right ({@code threshold < x} in float32) are a
+ * prefix of that list and the scan stops at the first threshold not below
+ * {@code x}. A missing value instead clears the splits whose
+ * {@code missing_go_to_left} is false, kept in a second list per feature.
+ * </p>
+ * <p>
+ * The loops run over sorted primitive arrays with one data-dependent exit, which
+ * avoids the mispredicted branches and scattered node loads of tree traversal. The
+ * price is visiting every split a value passes, about half of all splits per row,
+ * where traversal visits one node per level of each tree; trees with more than 64
+ * leaves also need several words, and clearing a subtree touches every word it
+ * covers. With the few features of this model, it only beats traversal on shallow
+ * trees ({@code QuickScorerBenchmark}). Leaf probabilities are added in tree order,
+ * so results are bit-for-bit those of {@link RandomForestModel#predictProba(double[])}.
+ * The leaf bits live in a per-thread buffer; instances are thread-safe.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ * @since 2026-10-16
+ */
+public final class QuickScorerEvaluator implements BatchForestEvaluator {
+
+    private final RandomForestModel model;
+    private final int numTrees;
+
+    // First word of each tree in the leaf bits; treeWord[numTrees] is the total
+    private final int[] treeWord;
+    // Global node of each leaf, numbered left to right within a tree from treeLeaf[t]
+    private final int[] treeLeaf;
+    private final int[] leafNode;
+
+    // Splits sorted by threshold per feature: entries thresholdStart[f] until thresholdStart[f + 1]
+    private final int[] thresholdStart;
+    private final float[] thresholds;
+    // Splits that send NaN right, per feature: entries missingStart[f] until missingStart[f + 1]
+    private final int[] missingStart;
+
+    // Per entry, the words to clear and the bits kept in the first and last of them
+    private final int[] firstWord;
+    private final int[] lastWord;
+    private final long[] keepFirst;
+    private final long[] keepLast;
+
+    private final ThreadLocal<long[]> leafBits;
+
+    public QuickScorerEvaluator(RandomForestModel model) {
+        this.model = model;
+        this.numTrees = model.numTrees();
+        int[] roots = model.roots();
+        int[] feature = model.features();
+        int[] left = model.leftChildren();
+        int[] right = model.rightChildren();
+        boolean[] missingGoesLeft = model.missingGoesLeft();
+        float[] threshold = model.floatThresholds();
+        int numNodes = feature.length;
+        int numFeatures = model.numFeatures();
+
+        // Number the leaves left to right and record, for each split, the leaves of its left subtree
+        int[] leafIndex = new int[numNodes];
+        int[] subtreeFirst = new int[numNodes];
+        int[] subtreeLast = new int[numNodes];
+        this.treeWord = new int[numTrees + 1];
+        this.treeLeaf = new int[numTrees + 1];
+        int[] leaves = new int[numNodes];
+        int totalLeaves = 0;
+        for (int t = 0; t < numTrees; t++) {
+            int end = t + 1 < numTrees ? roots[t + 1] : numNodes;
+            int count = 0;
+            // Trees are stored depth first, left subtree first: leaves already come left to right
+            for (int node = roots[t]; node < end; node++) {
+                if (left[node] < 0) {
+                    leafIndex[node] = count++;
+                    leaves[totalLeaves++] = node;
+                }
+            }
+            // Children come after their parent, so a backward pass sees them first
+            for (int node = end - 1; node >= roots[t]; node--) {
+                if (left[node] < 0) {
+                    subtreeFirst[node] = leafIndex[node];
+                    subtreeLast[node] = leafIndex[node];
+                } else {
+                    subtreeFirst[node] = subtreeFirst[left[node]];
+                    subtreeLast[node] = subtreeLast[right[node]];
+                }
+            }
+            treeLeaf[t + 1] = treeLeaf[t] + count;
+            treeWord[t + 1] = treeWord[t] + (count + 63) / 64;
+        }
+        this.leafNode = Arrays.copyOf(leaves, totalLeaves);
+
+        // Group the splits by feature, thresholds ascending
+        int[] perFeature = new int[numFeatures + 1];
+        int[] missingPerFeature = new int[numFeatures + 1];
+        int numSplits = 0;
+        for (int node = 0; node < numNodes; node++) {
+            if (left[node] >= 0) {
+                perFeature[feature[node] + 1]++;
+                if (!missingGoesLeft[node]) {
+                    missingPerFeature[feature[node] + 1]++;
+                }
+                numSplits++;
+            }
+        }
+        for (int f = 0; f < numFeatures; f++) {
+            perFeature[f + 1] += perFeature[f];
+            missingPerFeature[f + 1] += missingPerFeature[f];
+        }
+        this.thresholdStart = perFeature.clone();
+        this.missingStart = new int[numFeatures + 1];
+        for (int f = 0; f <= numFeatures; f++) {
+            missingStart[f] = numSplits + missingPerFeature[f];
+        }
+        int numEntries = numSplits + missingPerFeature[numFeatures];
+        Integer[] splits = new Integer[numSplits];
+        int[] filled = perFeature.clone();
+        int[] missingFilled = missingStart.clone();
+        int[] entryNode = new int[numEntries];
+        for (int node = 0; node < numNodes; node++) {
+            if (left[node] >= 0) {
+                splits[filled[feature[node]]++] = node;
+                if (!missingGoesLeft[node]) {
+                    entryNode[missingFilled[feature[node]]++] = node;
+                }
+            }
+        }
+        this.thresholds = new float[numSplits];
+        for (int f = 0; f < numFeatures; f++) {
+            Arrays.sort(splits, thresholdStart[f], thresholdStart[f + 1],
+                    (a, b) -> Float.compare(threshold[a], threshold[b]));
+        }
+        for (int e = 0; e < numSplits; e++) {
+            entryNode[e] = splits[e];
+            thresholds[e] = threshold[splits[e]];
+        }
+
+        // Precompute the words each entry clears
+        int[] treeOf = new int[numNodes];
+        for (int t = 0; t < numTrees; t++) {
+            int end = t + 1 < numTrees ? roots[t + 1] : numNodes;
+            Arrays.fill(treeOf, roots[t], end, t);
+        }
+        this.firstWord = new int[numEntries];
+        this.lastWord = new int[numEntries];
+        this.keepFirst = new long[numEntries];
+        this.keepLast = new long[numEntries];
+        for (int e = 0; e < numEntries; e++) {
+            int node = entryNode[e];
+            int base = treeWord[treeOf[node]];
+            int from = subtreeFirst[left[node]];
+            int to = subtreeLast[left[node]];
+            firstWord[e] = base + (from >>> 6);
+            lastWord[e] = base + (to >>> 6);
+            keepFirst[e] = ~(-1L << from);
+            keepLast[e] = (to & 63) == 63 ? 0L : -1L << to + 1;
+        }
+
+        int words = treeWord[numTrees];
+        this.leafBits = ThreadLocal.withInitial(() -> new long[words]);
+    }
+
+    /**
+     * Computes class probabilities for one row into a caller-owned array.
+     *
+     * @param features      feature values in {@link ForestDump#features()} order; NaN for missing
+     * @param probabilities receives the probability per class
+     */
+    public void predictProba(double[] features, double[] probabilities) {
+        if (features.length != model.numFeatures()) {
+            throw new IllegalArgumentException("Expected " + model.numFeatures() + " features, got "
+                    + features.length);
+        }
+        long[] bits = leafBits.get();
+        Arrays.fill(bits, -1L);
+        for (int f = 0; f < features.length; f++) {
+            clear(bits, f, (float) features[f]);
+        }
+        Arrays.fill(probabilities, 0, model.numClasses(), 0.0);
+        addLeaves(bits, probabilities, 0);
+        for (int c = 0; c < model.numClasses(); c++) {
+            probabilities[c] /= numTrees;
+        }
+    }
+
+    @Override
+    public void predictProba(FeatureBatch batch, double[] probabilities) {
+        int numClasses = model.numClasses();
+        int numFeatures = model.numFeatures();
+        int rows = batch.size();
+        int capacity = batch.capacity();
+        float[] values = batch.values();
+        long[] bits = leafBits.get();
+
+        Arrays.fill(probabilities, 0, rows * numClasses, 0.0);
+        for (int row = 0; row < rows; row++) {
+            Arrays.fill(bits, -1L);
+            for (int f = 0; f < numFeatures; f++) {
+                clear(bits, f, values[f * capacity + row]);
+            }
+            addLeaves(bits, probabilities, row * numClasses);
+        }
+        for (int i = 0; i < rows * numClasses; i++) {
+            probabilities[i] /= numTrees;
+        }
+    }
+
+    private void clear(long[] bits, int f, float x) {
+        if (x != x) {
+            for (int e = missingStart[f], end = missingStart[f + 1]; e < end; e++) {
+                clearEntry(bits, e);
+            }
+            return;
+        }
+        for (int e = thresholdStart[f], end = thresholdStart[f + 1]; e < end && thresholds[e] < x; e++) {
+            clearEntry(bits, e);
+        }
+    }
+
+    private void clearEntry(long[] bits, int e) {
+        int word = firstWord[e];
+        int last = lastWord[e];
+        if (word == last) {
+            bits[word] &= keepFirst[e] | keepLast[e];
+            return;
+        }
+        bits[word] &= keepFirst[e];
+        for (word++; word < last; word++) {
+            bits[word] = 0L;
+        }
+        bits[last] &= keepLast[e];
+    }
+
+    private void addLeaves(long[] bits, double[] probabilities, int out) {
+        int numClasses = model.numClasses();
+        double[] leafValues = model.leafValues();
+        for (int t = 0; t < numTrees; t++) {
+            // The exit leaf is never cleared, so some word of the tree is non-zero
+            int word = treeWord[t];
+            while (bits[word] == 0L) {
+                word++;
+            }
+            int leaf = (word - treeWord[t]) * 64 + Long.numberOfTrailingZeros(bits[word]);
+            int offset = leafNode[treeLeaf[t] + leaf] * numClasses;
+            for (int c = 0; c < numClasses; c++) {
+                probabilities[out + c] += leafValues[offset + c];
+            }
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.backend.fot.inference;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * RandomForest classifier evaluated in the JVM, with the semantics of sklearn's
+ * {@code predict_proba}.
+ * <p>
+ * All trees share flat primitive arrays indexed by a global node number: split
+ * feature, threshold, left and right child, missing-value direction and, per leaf,
+ * the class probabilities at {@code node * numClasses}. A node is a leaf when its
+ * left child is negative. Each tree is stored depth first, so a split's left child
+ * is always the next node. Like sklearn, features are compared as float32
+ * ({@code (float) x <= threshold} goes left) and NaN follows
+ * {@code missing_go_to_left}. Instances are immutable and thread-safe.
+ * </p>
+ * <p>
+ * Batch evaluators in this package read the arrays directly; they compare float32
+ * features against {@code floatThreshold}, the largest float not above each
+ * threshold, which decides every split exactly as the float64 comparison does.
+ * </p>
+ * <p>
+ * When the dump has {@code weighted_n_node_samples}, the training weight of every
+ * node is kept in the same order for {@link TreeShapExplainer}.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.3
+ * @since 2026-10-16
+ */
+public final class RandomForestModel implements ForestModel {
+
+    private final int numFeatures;
+    private final int numClasses;
+    private final int[] roots;
+    private final int[] feature;
+    private final double[] threshold;
+    private final float[] floatThreshold;
+    private final int[] left;
+    private final int[] right;
+    private final boolean[] missingGoesLeft;
+    private final double[] leafValues;
+    private final double[] nodeSamples;
+
+    private RandomForestModel(int numFeatures, int numClasses, int[] roots, int[] feature, double[] threshold,
+                              int[] left, int[] right, boolean[] missingGoesLeft, double[] leafValues,
+                              double[] nodeSamples) {
+        this.numFeatures = numFeatures;
+        this.numClasses = numClasses;
+        this.roots = roots;
+        this.feature = feature;
+        this.threshold = threshold;
+        this.floatThreshold = new float[threshold.length];
+        for (int node = 0; node < threshold.length; node++) {
+            floatThreshold[node] = floorToFloat(threshold[node]);
+        }
+        this.left = left;
+        this.right = right;
+        this.missingGoesLeft = missingGoesLeft;
+        this.leafValues = leafValues;
+        this.nodeSamples = nodeSamples;
+    }
+
+    /**
+     * Flattens the trees of a dump.
+     *
+     * @param dump exported forest
+     * @return model ready to evaluate
+     * @throws IllegalArgumentException if the trees are inconsistent
+     */
+    public static RandomForestModel from(ForestDump dump) {
+        int numFeatures = dump.features().size();
+        int numClasses = dump.classes().length;
+        List<ForestDump.Tree> trees = dump.trees();
+        if (trees == null || trees.isEmpty()) {
+            throw new IllegalArgumentException("Forest dump has no trees");
+        }
+        if (numClasses < 2) {
+            throw new IllegalArgumentException("Forest dump needs at least two classes");
+        }
+
+        int totalNodes = 0;
+        for (ForestDump.Tree tree : trees) {
+            totalNodes += tree.childrenLeft().length;
+        }
+        int[] roots = new int[trees.size()];
+        int[] feature = new int[totalNodes];
+        double[] threshold = new double[totalNodes];
+        int[] left = new int[totalNodes];
+        int[] right = new int[totalNodes];
+        boolean[] missingGoesLeft = new boolean[totalNodes];
+        double[] leafValues = new double[totalNodes * numClasses];
+        double[] nodeSamples = trees.stream().allMatch(tree -> tree.nodeSamples() != null)
+                ? new double[totalNodes]
+                : null;
+
+        int base = 0;
+        for (int t = 0; t < trees.size(); t++) {
+            ForestDump.Tree tree = trees.get(t);
+            int nodes = tree.childrenLeft().length;
+            if (nodes == 0 || tree.childrenRight().length != nodes || tree.feature().length != nodes
+                    || tree.threshold().length != nodes || tree.missingGoToLeft().length != nodes
+                    || tree.value().length != nodes) {
+                throw new IllegalArgumentException("Tree " + t + " has arrays of different lengths");
+            }
+            if (nodeSamples != null && tree.nodeSamples().length != nodes) {
+                throw new IllegalArgumentException("Tree " + t + " has " + tree.nodeSamples().length
+                        + " node weights for " + nodes + " nodes");
+            }
+            roots[t] = base;
+            int[] order = preOrder(tree, t);
+            int[] position = new int[nodes];
+            for (int k = 0; k < nodes; k++) {
+                position[order[k]] = k;
+            }
+            for (int k = 0; k < nodes; k++) {
+                int n = order[k];
+                int node = base + k;
+                if (nodeSamples != null) {
+                    nodeSamples[node] = tree.nodeSamples()[n];
+                }
+                if (tree.childrenLeft()[n] < 0) {
+                    left[node] = -1;
+                    right[node] = -1;
+                    double[] value = tree.value()[n];
+                    if (value.length != numClasses) {
+                        throw new IllegalArgumentException("Tree " + t + " leaf " + n + " has "
+                                + value.length + " class values, expected " + numClasses);
+                    }
+                    System.arraycopy(value, 0, leafValues, node * numClasses, numClasses);
+                    continue;
+                }
+                int f = tree.feature()[n];
+                if (f < 0 || f >= numFeatures) {
+                    throw new IllegalArgumentException("Tree " + t + " node " + n + " splits on feature " + f);
+                }
+                feature[node] = f;
+                threshold[node] = tree.threshold()[n];
+                left[node] = base + position[tree.childrenLeft()[n]];
+                right[node] = base + position[tree.childrenRight()[n]];
+                missingGoesLeft[node] = tree.missingGoToLeft()[n] != 0;
+            }
+            base += nodes;
+        }
+        return new RandomForestModel(numFeatures, numClasses, roots, feature, threshold, left, right,
+                missingGoesLeft, leafValues, nodeSamples);
+    }
+
+    /**
+     * Orders a tree's nodes depth first, left subtree first, so every split's left
+     * child comes right after it. sklearn's depth-first builder already stores trees
+     * this way; best-first trees ({@code max_leaf_nodes}) get renumbered.
+     */
+    private static int[] preOrder(ForestDump.Tree tree, int t) {
+        int nodes = tree.childrenLeft().length;
+        int[] order = new int[nodes];
+        boolean[] seen = new boolean[nodes];
+        int[] stack = new int[nodes];
+        int top = 0;
+        int count = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int n = stack[--top];
+            if (n < 0 || n >= nodes || seen[n]) {
+                throw new IllegalArgumentException("Tree " + t + " has invalid children at node " + n);
+            }
+            seen[n] = true;
+            order[count++] = n;
+            if (tree.childrenLeft()[n] >= 0) {
+                if (top + 2 > nodes) {
+                    throw new IllegalArgumentException("Tree " + t + " has invalid children at node " + n);
+                }
+                stack[top++] = tree.childrenRight()[n];
+                stack[top++] = tree.childrenLeft()[n];
+            }
+        }
+        if (count != nodes) {
+            throw new IllegalArgumentException("Tree " + t + " has " + (nodes - count) + " unreachable nodes");
+        }
+        return order;
+    }
+
+    /**
+     * Computes class probabilities for one row.
+     *
+     * @param features feature values in {@link ForestDump#features()} order; NaN for missing
+     * @return probability per class, in {@link ForestDump#classes()} order
+     */
+    @Override
+    public double[] predictProba(double[] features) {
+        double[] probabilities = new double[numClasses];
+        predictProba(features, probabilities);
+        return probabilities;
+    }
+
+    /**
+     * Computes class probabilities for one row into a caller-owned array.
+     *
+     * @param features      feature values in {@link ForestDump#features()} order; NaN for missing
+     * @param probabilities receives the probability per class
+     */
+    @Override
+    public void predictProba(double[] features, double[] probabilities) {
+        if (features.length != numFeatures) {
+            throw new IllegalArgumentException("Expected " + numFeatures + " features, got " + features.length);
+        }
+        Arrays.fill(probabilities, 0, numClasses, 0.0);
+        for (int root : roots) {
+            int leaf = leaf(root, features);
+            int offset = leaf * numClasses;
+            for (int c = 0; c < numClasses; c++) {
+                probabilities[c] += leafValues[offset + c];
+            }
+        }
+        for (int c = 0; c < numClasses; c++) {
+            probabilities[c] /= roots.length;
+        }
+    }
+
+    private int leaf(int node, double[] features) {
+        while (left[node] >= 0) {
+            double x = features[feature[node]];
+            boolean goLeft = Double.isNaN(x) ? missingGoesLeft[node] : (float) x <= threshold[node];
+            node = goLeft ? left[node] : right[node];
+        }
+        return node;
+    }
+
+    /**
+     * Largest float not above {@code value}: for any float {@code f},
+     * {@code f <= value} exactly when {@code f <= floorToFloat(value)}.
+     */
+    static float floorToFloat(double value) {
+        float rounded = (float) value;
+        return (double) rounded > value ? Math.nextDown(rounded) : rounded;
+    }
+
+    /**
+     * @return the fastest batch evaluator this JVM can run, see {@link BatchForestEvaluator#forModel}
+     */
+    @Override
+    public BatchForestEvaluator batchEvaluator() {
+        return BatchForestEvaluator.forModel(this);
+    }
+
+    int[] roots() {
+        return roots;
+    }
+
+    int[] features() {
+        return feature;
+    }
+
+    float[] floatThresholds() {
+        return floatThreshold;
+    }
+
+    int[] leftChildren() {
+        return left;
+    }
+
+    int[] rightChildren() {
+        return right;
+    }
+
+    boolean[] missingGoesLeft() {
+        return missingGoesLeft;
+    }
+
+    double[] leafValues() {
+        return leafValues;
+    }
+
+    /**
+     * @return training weight of every node, or null if the dump did not carry them
+     */
+    double[] nodeSamples() {
+        return nodeSamples;
+    }
+
+    @Override
+    public int numTrees() {
+        return roots.length;
+    }
+
+    @Override
+    public int numNodes() {
+        return left.length;
+    }
+
+    @Override
+    public int numFeatures() {
+        return numFeatures;
+    }
+
+    @Override
+    public int numClasses() {
+        return numClasses;
+    }
+}
@@ -0,0 +1,59 @@
+package com.backend.fot.inference;
+
+import java.util.Arrays;
+
+/**
+ * Plain-Java batch evaluator: one tree at a time over all rows of the batch, reading
+ * the column-major features of {@link FeatureBatch}.
+ * <p>
+ * Used when the Vector API is not available and as the baseline it is measured
+ * against.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ * @since 2026-10-16
+ */
+public final class ScalarBatchEvaluator implements BatchForestEvaluator {
+
+    private final RandomForestModel model;
+
+    public ScalarBatchEvaluator(RandomForestModel model) {
+        this.model = model;
+    }
+
+    @Override
+    public void predictProba(FeatureBatch batch, double[] probabilities) {
+        int numClasses = model.numClasses();
+        int rows = batch.size();
+        int capacity = batch.capacity();
+        float[] values = batch.values();
+        int[] feature = model.features();
+        float[] threshold = model.floatThresholds();
+        int[] left = model.leftChildren();
+        int[] right = model.rightChildren();
+        boolean[] missingGoesLeft = model.missingGoesLeft();
+        double[] leafValues = model.leafValues();
+
+        Arrays.fill(probabilities, 0, rows * numClasses, 0.0);
+        for (int root : model.roots()) {
+            for (int row = 0; row < rows; row++) {
+                int node = root;
+                while (left[node] >= 0) {
+                    float x = values[feature[node] * capacity + row];
+                    boolean goLeft = x != x ? missingGoesLeft[node] : x <= threshold[node];
+                    node = goLeft ? left[node] : right[node];
+                }
+                int offset = node * numClasses;
+                int out = row * numClasses;
+                for (int c = 0; c < numClasses; c++) {
+                    probabilities[out + c] += leafValues[offset + c];
+                }
+            }
+        }
+        int numTrees = model.numTrees();
+        for (int i = 0; i < rows * numClasses; i++) {
+            probabilities[i] /= numTrees;
+        }
+    }
+}
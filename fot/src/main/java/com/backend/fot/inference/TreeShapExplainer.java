@@ -0,0 +1,440 @@
+package com.backend.fot.inference;
+
+import com.backend.fot.dto.FlightPredictionRequestDTO;
+import com.backend.fot.dto.PredictionExplanationDTO;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Explains the probability of delay of a RandomForest with exact SHAP values,
+ * computed in the JVM by the polynomial-time TreeSHAP algorithm (Lundberg et al.,
+ * "Consistent Individualized Feature Attribution for Tree Ensembles", Algorithm 2).
+ * <p>
+ * Each tree is walked once per row while the algorithm keeps, for the features met
+ * on the path so far, the share of subsets in which they follow the row
+ * ({@code one}) or are marginalized out by the training weight of each branch
+ * ({@code zero}), so a tree costs {@code O(leaves * depth^2)} instead of a pass
+ * per feature subset. Values are SHAP values of the forest's probability of
+ * class {@code 1} (delayed): {@link #baseValue()}, the average probability over
+ * the training data, plus every feature's contribution gives the forest's
+ * probability for the row. Splits are decided exactly as {@link RandomForestModel}
+ * decides them, float32 comparison and {@code missing_go_to_left} included.
+ * </p>
+ * <p>
+ * The training weights are the dump's {@code weighted_n_node_samples}. Dumps
+ * exported before {@code export_forest.py} wrote them are explained as if every
+ * split sent half its weight each way: still exact Shapley values that add up to
+ * the prediction, but of a uniform reference instead of the training data
+ * ({@link #hasNodeSamples()}).
+ * </p>
+ * <p>
+ * An explainer is built from a {@link ForestPredictor} that holds the trees of the
+ * JSON dump, so it explains that predictor's model under its {@code modelVersion}.
+ * </p>
+ * <p>
+ * Explanations are cached by feature row in a fixed number of slots picked by the
+ * row's hash, replaced on collision, so repeated flights (same route, day and hour)
+ * are answered without walking the trees, and the cache neither locks nor grows.
+ * Instances are thread-safe.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.1
+ * @since 2026-10-16
+ */
+public final class TreeShapExplainer {
+
+    private static final int DELAYED = 1;
+    private static final int MAX_SLOTS = 1 << 24;
+
+    private final String modelVersion;
+    private final List<String> features;
+    private final FlightFeatureEncoder encoder;
+    private final RandomForestModel model;
+    private final int delayedIndex;
+    private final double[] cover;
+    private final boolean hasNodeSamples;
+    private final int pathCapacity;
+    private final double[] inverse;
+    private final double baseValue;
+    private final AtomicReferenceArray<CacheEntry> cache;
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+
+    private TreeShapExplainer(ForestPredictor predictor, RandomForestModel model, int cacheSize) {
+        this.modelVersion = predictor.modelVersion();
+        this.encoder = predictor.encoder();
+        this.features = encoder.features();
+        this.model = model;
+        this.delayedIndex = indexOf(predictor.classes(), DELAYED);
+        this.hasNodeSamples = model.nodeSamples() != null;
+        this.cover = covers(model);
+        int maxDepth = 0;
+        double expected = 0;
+        for (int root : model.roots()) {
+            maxDepth = Math.max(maxDepth, depth(root));
+            expected += expectedValue(root);
+        }
+        // Paths of every level down to the deepest leaf share one buffer
+        this.pathCapacity = (maxDepth + 2) * (maxDepth + 3) / 2;
+        this.inverse = new double[maxDepth + 3];
+        for (int i = 1; i < inverse.length; i++) {
+            inverse[i] = 1.0 / i;
+        }
+        this.baseValue = expected / model.numTrees();
+        this.cache = cacheSize > 0 ? new AtomicReferenceArray<>(slots(cacheSize)) : null;
+    }
+
+    /**
+     * Builds the explainer for a dump.
+     *
+     * @param dump      exported forest
+     * @param cacheSize explanations kept, rounded up to a power of two; 0 disables the cache
+     * @return explainer
+     * @throws IllegalArgumentException if the trees are inconsistent or a node has no training weight
+     */
+    public static TreeShapExplainer from(ForestDump dump, int cacheSize) {
+        return from(ForestPredictor.from(dump), cacheSize);
+    }
+
+    /**
+     * Builds the explainer for the model a predictor serves.
+     *
+     * @param predictor predictor holding the trees of a JSON dump
+     * @param cacheSize explanations kept, rounded up to a power of two; 0 disables the cache
+     * @return explainer labelled with the predictor's model version
+     * @throws IllegalArgumentException if the predictor has no trees to walk (binary or ONNX model)
+     *                                  or a node has no training weight
+     */
+    public static TreeShapExplainer from(ForestPredictor predictor, int cacheSize) {
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("Cache size must not be negative: " + cacheSize);
+        }
+        if (!(predictor.model() instanceof RandomForestModel model)) {
+            throw new IllegalArgumentException("Explanations need the trees of the JSON model, not "
+                    + predictor.model().getClass().getSimpleName());
+        }
+        return new TreeShapExplainer(predictor, model, cacheSize);
+    }
+
+    /**
+     * Explains the probability of delay of one flight.
+     *
+     * @param request flight information
+     * @return contributions of each model feature, largest first
+     */
+    public PredictionExplanationDTO explain(FlightPredictionRequestDTO request) {
+        double[] row = encoder.encode(request);
+        if (cache == null) {
+            return toExplanation(row);
+        }
+        int slot = (int) (mix(Arrays.hashCode(row)) & (cache.length() - 1));
+        CacheEntry entry = cache.get(slot);
+        if (entry != null && Arrays.equals(entry.row(), row)) {
+            cacheHits.increment();
+            return entry.explanation();
+        }
+        cacheMisses.increment();
+        PredictionExplanationDTO explanation = toExplanation(row);
+        cache.set(slot, new CacheEntry(row, explanation));
+        return explanation;
+    }
+
+    /**
+     * Computes the SHAP values of one feature row, without the cache.
+     *
+     * @param row feature values in {@link ForestDump#features()} order; NaN for missing
+     * @return contribution of each feature to the probability of delay
+     */
+    public double[] shapValues(double[] row) {
+        if (row.length != model.numFeatures()) {
+            throw new IllegalArgumentException("Expected " + model.numFeatures() + " features, got " + row.length);
+        }
+        double[] phi = new double[row.length];
+        Path path = new Path(pathCapacity, inverse);
+        for (int root : model.roots()) {
+            recurse(root, row, phi, path, 0, 0, 1, 1, -1);
+        }
+        for (int f = 0; f < phi.length; f++) {
+            phi[f] /= model.numTrees();
+        }
+        return phi;
+    }
+
+    private PredictionExplanationDTO toExplanation(double[] row) {
+        double[] phi = shapValues(row);
+        Integer[] order = new Integer[phi.length];
+        for (int f = 0; f < order.length; f++) {
+            order[f] = f;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(Math.abs(phi[b]), Math.abs(phi[a])));
+        Map<String, Double> contributions = new LinkedHashMap<>();
+        for (int f : order) {
+            contributions.put(features.get(f), phi[f]);
+        }
+        return PredictionExplanationDTO.builder()
+                .modelVersion(modelVersion)
+                .baseValue(baseValue)
+                .probability(model.predictProba(row)[delayedIndex])
+                .contributions(contributions)
+                .build();
+    }
+
+    /**
+     * Walks the subtree under {@code node}, extending the parent's path (at
+     * {@code parentStart}) with the split that led here. Every level copies the
+     * path into its own region of the buffer, so the sibling walked next still
+     * sees the parent's.
+     */
+    private void recurse(int node, double[] row, double[] phi, Path path, int parentStart, int depth,
+                         double zeroFraction, double oneFraction, int splitFeature) {
+        int start = parentStart + depth + 1;
+        path.copy(parentStart, start, depth);
+        path.extend(start, depth, zeroFraction, oneFraction, splitFeature);
+
+        int[] left = model.leftChildren();
+        if (left[node] < 0) {
+            double value = model.leafValues()[node * model.numClasses() + delayedIndex];
+            for (int i = 1; i <= depth; i++) {
+                int at = start + i;
+                phi[path.feature(at)] += path.unwoundSum(start, depth, i) * (path.one(at) - path.zero(at)) * value;
+            }
+            return;
+        }
+
+        int feature = model.features()[node];
+        double x = row[feature];
+        boolean goLeft = Double.isNaN(x) ? model.missingGoesLeft()[node] : (float) x <= model.floatThresholds()[node];
+        int hot = goLeft ? left[node] : model.rightChildren()[node];
+        int cold = goLeft ? model.rightChildren()[node] : left[node];
+
+        // A feature split on again further down is taken off the path and re-added with the product of both splits
+        double incomingZero = 1;
+        double incomingOne = 1;
+        int childDepth = depth + 1;
+        for (int i = 1; i <= depth; i++) {
+            if (path.feature(start + i) == feature) {
+                incomingZero = path.zero(start + i);
+                incomingOne = path.one(start + i);
+                path.unwind(start, depth, i);
+                childDepth = depth;
+                break;
+            }
+        }
+        recurse(hot, row, phi, path, start, childDepth, cover[hot] / cover[node] * incomingZero, incomingOne,
+                feature);
+        recurse(cold, row, phi, path, start, childDepth, cover[cold] / cover[node] * incomingZero, 0, feature);
+    }
+
+    private int depth(int node) {
+        int[] left = model.leftChildren();
+        if (left[node] < 0) {
+            return 0;
+        }
+        return 1 + Math.max(depth(left[node]), depth(model.rightChildren()[node]));
+    }
+
+    /** Probability of delay under {@code node}, averaged over its leaves by training weight. */
+    private double expectedValue(int node) {
+        int[] left = model.leftChildren();
+        if (left[node] < 0) {
+            return model.leafValues()[node * model.numClasses() + delayedIndex];
+        }
+        int right = model.rightChildren()[node];
+        return (cover[left[node]] * expectedValue(left[node]) + cover[right] * expectedValue(right)) / cover[node];
+    }
+
+    /**
+     * Training weight of every node in the model's order, or, without weights, the
+     * share of its tree's root weight an even split would give it.
+     */
+    private static double[] covers(RandomForestModel model) {
+        double[] samples = model.nodeSamples();
+        if (samples != null) {
+            for (int node = 0; node < samples.length; node++) {
+                if (!(samples[node] > 0)) {
+                    throw new IllegalArgumentException("Node " + node + " has no training weight");
+                }
+            }
+            return samples;
+        }
+        double[] cover = new double[model.numNodes()];
+        int[] left = model.leftChildren();
+        int[] right = model.rightChildren();
+        for (int root : model.roots()) {
+            cover[root] = 1;
+        }
+        // Depth first, so every parent comes before its children
+        for (int node = 0; node < cover.length; node++) {
+            if (left[node] >= 0) {
+                cover[left[node]] = cover[node] / 2;
+                cover[right[node]] = cover[node] / 2;
+            }
+        }
+        return cover;
+    }
+
+    private static int indexOf(int[] classes, int label) {
+        for (int i = 0; i < classes.length; i++) {
+            if (classes[i] == label) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Model classes " + Arrays.toString(classes) + " do not include " + label);
+    }
+
+    private static int slots(int cacheSize) {
+        return cacheSize == 1 ? 1 : Integer.highestOneBit(Math.min(cacheSize - 1, MAX_SLOTS / 2)) << 1;
+    }
+
+    private static long mix(long hash) {
+        hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+        return hash ^ (hash >>> 33);
+    }
+
+    /**
+     * @return average probability of delay over the training data, the value explained from
+     */
+    public double baseValue() {
+        return baseValue;
+    }
+
+    /**
+     * @return whether the dump carried training weights; without them splits are weighted evenly
+     */
+    public boolean hasNodeSamples() {
+        return hasNodeSamples;
+    }
+
+    public String modelVersion() {
+        return modelVersion;
+    }
+
+    public List<String> features() {
+        return features;
+    }
+
+    public long cacheHits() {
+        return cacheHits.sum();
+    }
+
+    public long cacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    private record CacheEntry(double[] row, PredictionExplanationDTO explanation) {
+    }
+
+    /**
+     * Path elements of every level of one walk, four doubles each, side by side so a
+     * level copies its parent's path in one pass: feature split on, fraction of the
+     * weight that follows it when the feature is left out ({@code zero}) or kept
+     * ({@code one}), and the subset-size weight of the element's position.
+     */
+    private static final class Path {
+
+        static final int STRIDE = 4;
+        static final int ZERO = 1;
+        static final int ONE = 2;
+        static final int WEIGHT = 3;
+
+        final double[] elements;
+        final double[] inverse;
+
+        Path(int capacity, double[] inverse) {
+            this.elements = new double[capacity * STRIDE];
+            this.inverse = inverse;
+        }
+
+        int feature(int at) {
+            return (int) elements[at * STRIDE];
+        }
+
+        double zero(int at) {
+            return elements[at * STRIDE + ZERO];
+        }
+
+        double one(int at) {
+            return elements[at * STRIDE + ONE];
+        }
+
+        void copy(int from, int to, int length) {
+            int source = from * STRIDE;
+            int target = to * STRIDE;
+            for (int i = 0; i < length * STRIDE; i++) {
+                elements[target + i] = elements[source + i];
+            }
+        }
+
+        void extend(int start, int depth, double zeroFraction, double oneFraction, int splitFeature) {
+            double[] e = elements;
+            int at = (start + depth) * STRIDE;
+            e[at] = splitFeature;
+            e[at + ZERO] = zeroFraction;
+            e[at + ONE] = oneFraction;
+            e[at + WEIGHT] = depth == 0 ? 1 : 0;
+            double scale = inverse[depth + 1];
+            for (int i = depth - 1; i >= 0; i--) {
+                int w = (start + i) * STRIDE + WEIGHT;
+                e[w + STRIDE] += oneFraction * e[w] * (i + 1) * scale;
+                e[w] = zeroFraction * e[w] * (depth - i) * scale;
+            }
+        }
+
+        void unwind(int start, int depth, int index) {
+            double[] e = elements;
+            double oneFraction = one(start + index);
+            double zeroFraction = zero(start + index);
+            double next = e[(start + depth) * STRIDE + WEIGHT];
+            for (int i = depth - 1; i >= 0; i--) {
+                int w = (start + i) * STRIDE + WEIGHT;
+                if (oneFraction != 0) {
+                    double previous = e[w];
+                    e[w] = next * (depth + 1) / ((i + 1) * oneFraction);
+                    next = previous - e[w] * zeroFraction * (depth - i) / (depth + 1);
+                } else {
+                    e[w] = e[w] * (depth + 1) / (zeroFraction * (depth - i));
+                }
+            }
+            for (int i = index; i < depth; i++) {
+                int at = (start + i) * STRIDE;
+                e[at] = e[at + STRIDE];
+                e[at + ZERO] = e[at + STRIDE + ZERO];
+                e[at + ONE] = e[at + STRIDE + ONE];
+            }
+        }
+
+        /**
+         * Total weight of the path with element {@code index} unwound, leaving the path
+         * as it is. Runs for every element at every leaf, so divisions are hoisted out
+         * of the loop or read from {@code inverse}.
+         */
+        double unwoundSum(int start, int depth, int index) {
+            double[] e = elements;
+            double oneFraction = one(start + index);
+            double zeroFraction = zero(start + index);
+            double next = e[(start + depth) * STRIDE + WEIGHT];
+            double total = 0;
+            if (oneFraction != 0) {
+                double shareScale = (depth + 1) / oneFraction;
+                double nextScale = zeroFraction * inverse[depth + 1];
+                for (int i = depth - 1; i >= 0; i--) {
+                    double share = next * shareScale * inverse[i + 1];
+                    total += share;
+                    next = e[(start + i) * STRIDE + WEIGHT] - share * nextScale * (depth - i);
+                }
+            } else {
+                double scale = (depth + 1) / zeroFraction;
+                for (int i = depth - 1; i >= 0; i--) {
+                    total += e[(start + i) * STRIDE + WEIGHT] * scale * inverse[depth - i];
+                }
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.backend.fot.inference;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.Arrays;
+
+/**
+ * Batch evaluator built on the JDK Vector API ({@code jdk.incubator.vector}).
+ * <p>
+ * Each SIMD lane follows one row through the current tree. Per level, the lanes'
+ * node indexes gather the split (feature and missing-value direction packed in one
+ * int), the float32 threshold and the right child; the left child is the next node,
+ * since {@link RandomForestModel} stores trees depth first. The row values are
+ * gathered from the column-major {@link FeatureBatch}, one vector comparison decides
+ * every lane and a blend moves them on. Lanes that reached a leaf stay put until the whole vector is done. Leaf
+ * probabilities are then added per row in tree order, as
+ * {@link RandomForestModel#predictProba(double[])} does.
+ * </p>
+ * <p>
+ * Only load this class when the module is in the boot layer; go through
+ * {@link BatchForestEvaluator#forModel(RandomForestModel)}.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ * @since 2026-10-16
+ */
+public final class VectorBatchEvaluator implements BatchForestEvaluator {
+
+    // 256-bit shape: on JDK 17, C2 crashed compiling these gathers for 512-bit vectors
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_256;
+    private static final VectorSpecies<Float> FLOATS = FloatVector.SPECIES_256;
+
+    private final RandomForestModel model;
+    private final int[] splitMeta;
+
+    public VectorBatchEvaluator(RandomForestModel model) {
+        if (INTS.length() != FLOATS.length()) {
+            throw new IllegalStateException("Int and float vectors have different lane counts");
+        }
+        this.model = model;
+        // Split feature and missing-value direction share one int, saving a gather per level
+        int[] feature = model.features();
+        boolean[] missing = model.missingGoesLeft();
+        this.splitMeta = new int[feature.length];
+        for (int node = 0; node < feature.length; node++) {
+            splitMeta[node] = feature[node] << 1 | (missing[node] ? 1 : 0);
+        }
+    }
+
+    /**
+     * @return rows walked together (eight 32-bit lanes)
+     */
+    public static int lanes() {
+        return INTS.length();
+    }
+
+    @Override
+    public void predictProba(FeatureBatch batch, double[] probabilities) {
+        int numClasses = model.numClasses();
+        int rows = batch.size();
+        int capacity = batch.capacity();
+        float[] values = batch.values();
+        float[] threshold = model.floatThresholds();
+        int[] right = model.rightChildren();
+        double[] leafValues = model.leafValues();
+
+        int lanes = INTS.length();
+        int[] nodes = new int[lanes];
+        int[] offsets = new int[lanes];
+        IntVector laneIndex = IntVector.zero(INTS).addIndex(1);
+
+        Arrays.fill(probabilities, 0, rows * numClasses, 0.0);
+        for (int first = 0; first < rows; first += lanes) {
+            int active = Math.min(lanes, rows - first);
+            // Lanes past the last row repeat it; their leaves are not added
+            IntVector row = laneIndex.add(first).min(rows - 1);
+            for (int root : model.roots()) {
+                IntVector node = IntVector.broadcast(INTS, root);
+                node.intoArray(nodes, 0);
+                IntVector rightChild = IntVector.fromArray(INTS, right, 0, nodes, 0);
+                VectorMask<Integer> internal = rightChild.compare(VectorOperators.GE, 0);
+                while (internal.anyTrue()) {
+                    IntVector meta = IntVector.fromArray(INTS, splitMeta, 0, nodes, 0);
+                    meta.lanewise(VectorOperators.LSHR, 1).mul(capacity).add(row).intoArray(offsets, 0);
+                    FloatVector x = FloatVector.fromArray(FLOATS, values, 0, offsets, 0);
+                    FloatVector limit = FloatVector.fromArray(FLOATS, threshold, 0, nodes, 0);
+                    VectorMask<Integer> missingLeft = meta.and(1).compare(VectorOperators.NE, 0);
+                    VectorMask<Integer> goLeft = x.compare(VectorOperators.LE, limit).cast(INTS)
+                            .or(x.test(VectorOperators.IS_NAN).cast(INTS).and(missingLeft));
+                    // Trees are stored depth first: the left child is the next node
+                    IntVector next = rightChild.blend(node.add(1), goLeft);
+                    node = node.blend(next, internal);
+
+                    node.intoArray(nodes, 0);
+                    rightChild = IntVector.fromArray(INTS, right, 0, nodes, 0);
+                    internal = rightChild.compare(VectorOperators.GE, 0);
+                }
+                for (int lane = 0; lane < active; lane++) {
+                    int offset = nodes[lane] * numClasses;
+                    int out = (first + lane) * numClasses;
+                    for (int c = 0; c < numClasses; c++) {
+                        probabilities[out + c] += leafValues[offset + c];
+                    }
+                }
+            }
+        }
+        int numTrees = model.numTrees();
+        for (int i = 0; i < rows * numClasses; i++) {
+            probabilities[i] /= numTrees;
+        }
+    }
+}
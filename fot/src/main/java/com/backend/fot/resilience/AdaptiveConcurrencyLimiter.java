@@ -0,0 +1,317 @@
+package com.backend.fot.resilience;
+
+import com.backend.fot.client.MLServiceClient;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Adaptive cap on concurrent HTTP calls to the ML service.
+ * <p>
+ * The Flask model server handles few requests at a time and queues the rest
+ * internally, where they only add latency. This limiter keeps the number of calls
+ * in flight at a {@link GradientLimit} driven by round-trip time inflation, so it
+ * settles near the server's real capacity; calls the service fails (5xx, connect
+ * errors, read timeouts) shrink it right away. Calls cut short by the caller's own
+ * deadline or answered with 4xx leave it alone, so clients sending tiny deadlines
+ * cannot throttle everyone. Calls over the limit wait in a bounded
+ * FIFO queue for at most {@code ml.service.limiter.max-queue-wait}; if the queue is
+ * full or the wait expires they fail with {@link CallNotPermittedException}, which
+ * the API reports as 503.
+ * </p>
+ * <p>
+ * The fixed bulkhead in {@link MLServiceGuard} stays in place as a hard ceiling.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.2
+ * @since 2026-10-16
+ */
+@Slf4j
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    static final String REJECTED_COUNTER = "ml.client.limiter.rejected";
+
+    /**
+     * Number of samples averaged into the baseline RTT.
+     */
+    private static final int LONG_WINDOW = 600;
+
+    private final boolean enabled;
+    private final GradientLimit limit;
+    private final int queueCapacity;
+    private final long maxQueueWaitMs;
+
+    private final Object lock = new Object();
+    private final ArrayDeque<CompletableFuture<Integer>> waiters = new ArrayDeque<>();
+    private int inFlight;
+
+    private final Counter queueFullCounter;
+    private final Counter queueTimeoutCounter;
+
+    public AdaptiveConcurrencyLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${ml.service.limiter.enabled:true}") boolean enabled,
+            @Value("${ml.service.limiter.initial-limit:20}") int initialLimit,
+            @Value("${ml.service.limiter.min-limit:2}") int minLimit,
+            @Value("${ml.service.limiter.max-limit:100}") int maxLimit,
+            @Value("${ml.service.limiter.rtt-tolerance:1.5}") double rttTolerance,
+            @Value("${ml.service.limiter.queue-capacity:50}") int queueCapacity,
+            @Value("${ml.service.limiter.max-queue-wait:50}") long maxQueueWaitMs) {
+        this.enabled = enabled;
+        this.limit = new GradientLimit(initialLimit, minLimit, maxLimit, rttTolerance, LONG_WINDOW);
+        this.queueCapacity = queueCapacity;
+        this.maxQueueWaitMs = maxQueueWaitMs;
+
+        this.queueFullCounter = rejectedCounter(meterRegistry, "queue_full");
+        this.queueTimeoutCounter = rejectedCounter(meterRegistry, "queue_timeout");
+
+        Gauge.builder("ml.client.limiter.limit", limit, GradientLimit::getLimit)
+                .description("Current adaptive concurrency limit towards the ML service")
+                .register(meterRegistry);
+        Gauge.builder("ml.client.limiter.inflight", this, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("ML service calls holding a concurrency permit")
+                .register(meterRegistry);
+        Gauge.builder("ml.client.limiter.queue", this, AdaptiveConcurrencyLimiter::getQueueDepth)
+                .description("ML service calls waiting for a concurrency permit")
+                .register(meterRegistry);
+
+        if (enabled) {
+            log.info("Adaptive ML concurrency limit enabled: initial={}, bounds={}..{}, queue={}, maxWait={}ms",
+                    limit.getLimit(), minLimit, maxLimit, queueCapacity, maxQueueWaitMs);
+        }
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder(REJECTED_COUNTER)
+                .description("ML service calls rejected by the concurrency limiter")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs a blocking call once a permit is available.
+     *
+     * @param call outbound call
+     * @return call result
+     * @throws CallNotPermittedException if no permit was obtained in time
+     */
+    public <T> T execute(Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+
+        int inFlightAtStart;
+        try {
+            inFlightAtStart = acquire().join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof CallNotPermittedException rejected ? rejected : e;
+        }
+
+        long start = System.nanoTime();
+        Outcome outcome = Outcome.DROPPED;
+        try {
+            T result = call.get();
+            outcome = Outcome.SUCCESS;
+            return result;
+        } catch (RuntimeException e) {
+            outcome = outcome(e);
+            throw e;
+        } finally {
+            onCallComplete(start, inFlightAtStart, outcome);
+        }
+    }
+
+    /**
+     * Runs a non-blocking call once a permit is available. The permit is held until
+     * the call's future completes. Cancelling the returned future while it is queued
+     * gives up its place; cancelling it later cancels the call.
+     *
+     * @param call outbound call
+     * @return future with the call result, failed with {@link CallNotPermittedException} if rejected
+     */
+    public <T> CompletableFuture<T> executeAsync(Supplier<CompletableFuture<T>> call) {
+        if (!enabled) {
+            return call.get();
+        }
+
+        CompletableFuture<Integer> permit = acquire();
+        CompletableFuture<T> result = new CompletableFuture<>();
+
+        permit.whenComplete((inFlightAtStart, rejection) -> {
+            if (rejection != null) {
+                result.completeExceptionally(rejection);
+                return;
+            }
+            if (result.isDone()) {
+                // Cancelled by the caller just as the permit was granted
+                onCallComplete(System.nanoTime(), inFlightAtStart, Outcome.CANCELLED);
+                return;
+            }
+
+            long start = System.nanoTime();
+            CompletableFuture<T> running;
+            try {
+                running = call.get();
+            } catch (RuntimeException e) {
+                running = CompletableFuture.failedFuture(e);
+            }
+            CompletableFuture<T> attempt = running;
+            attempt.whenComplete((value, error) -> {
+                onCallComplete(start, inFlightAtStart, outcome(error));
+                if (error == null) {
+                    result.complete(value);
+                } else {
+                    result.completeExceptionally(error);
+                }
+            });
+            result.whenComplete((value, error) -> {
+                if (result.isCancelled()) {
+                    attempt.cancel(true);
+                }
+            });
+        });
+
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                permit.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * @return current concurrency limit
+     */
+    public int getLimit() {
+        return limit.getLimit();
+    }
+
+    /**
+     * @return calls currently holding a permit
+     */
+    public int getInFlight() {
+        synchronized (lock) {
+            return inFlight;
+        }
+    }
+
+    /**
+     * @return calls currently waiting for a permit
+     */
+    public int getQueueDepth() {
+        synchronized (lock) {
+            return waiters.size();
+        }
+    }
+
+    /**
+     * @return future completed with the in-flight count once a permit is held,
+     *         or failed with {@link CallNotPermittedException}
+     */
+    private CompletableFuture<Integer> acquire() {
+        CompletableFuture<Integer> waiter;
+        synchronized (lock) {
+            if (waiters.isEmpty() && inFlight < limit.getLimit()) {
+                return CompletableFuture.completedFuture(++inFlight);
+            }
+            if (waiters.size() >= queueCapacity) {
+                queueFullCounter.increment();
+                return CompletableFuture.failedFuture(
+                        new CallNotPermittedException("ML service concurrency limit reached"));
+            }
+            waiter = new CompletableFuture<>();
+            waiters.addLast(waiter);
+        }
+
+        CompletableFuture<Integer> granted = new CompletableFuture<>();
+        waiter.orTimeout(maxQueueWaitMs, TimeUnit.MILLISECONDS).whenComplete((inFlightAtStart, error) -> {
+            if (error == null) {
+                granted.complete(inFlightAtStart);
+                return;
+            }
+            synchronized (lock) {
+                waiters.remove(waiter);
+            }
+            if (error instanceof TimeoutException) {
+                queueTimeoutCounter.increment();
+                granted.completeExceptionally(
+                        new CallNotPermittedException("ML service concurrency limit reached, queue wait expired"));
+            } else {
+                granted.completeExceptionally(error);
+            }
+        });
+        granted.whenComplete((value, error) -> {
+            if (error instanceof CancellationException) {
+                waiter.cancel(false);
+            }
+        });
+        return granted;
+    }
+
+    /**
+     * Only failures {@link MLServiceClient#isServiceFault} holds against the service
+     * are drops. A cancelled call, such as the losing attempt of a hedged request, a
+     * call cut short by the caller's deadline or a 4xx answer says nothing about it.
+     */
+    private static Outcome outcome(Throwable error) {
+        if (error == null) {
+            return Outcome.SUCCESS;
+        }
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return MLServiceClient.isServiceFault(cause) ? Outcome.DROPPED : Outcome.CANCELLED;
+    }
+
+    private void onCallComplete(long start, int inFlightAtStart, Outcome outcome) {
+        if (outcome == Outcome.SUCCESS) {
+            limit.onSample(System.nanoTime() - start, inFlightAtStart);
+        } else if (outcome == Outcome.DROPPED) {
+            limit.onDrop();
+        }
+        synchronized (lock) {
+            inFlight--;
+        }
+        grantWaiters();
+    }
+
+    private void grantWaiters() {
+        while (true) {
+            CompletableFuture<Integer> next;
+            int inFlightAtStart;
+            synchronized (lock) {
+                if (waiters.isEmpty() || inFlight >= limit.getLimit()) {
+                    return;
+                }
+                next = waiters.pollFirst();
+                inFlightAtStart = ++inFlight;
+            }
+            if (!next.complete(inFlightAtStart)) {
+                // Timed out or cancelled in the meantime: hand the permit to the next waiter
+                synchronized (lock) {
+                    inFlight--;
+                }
+            }
+        }
+    }
+
+    /**
+     * CANCELLED covers every call that neither samples the RTT nor shrinks the limit.
+     */
+    private enum Outcome {
+        SUCCESS,
+        DROPPED,
+        CANCELLED
+    }
+}
@@ -0,0 +1,35 @@
+package com.backend.fot.resilience;
+
+import com.backend.fot.client.MLServiceClient;
+
+/**
+ * Thrown when a call to the ML service is refused locally, without touching the
+ * network, because the circuit breaker is open, the bulkhead is full or the
+ * adaptive concurrency limit is reached.
+ * <p>
+ * It extends {@link MLServiceClient.MLServiceException} so callers that already
+ * handle ML service failures treat a fast rejection the same way.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.1
+ * @since 2026-10-16
+ */
+public class CallNotPermittedException extends MLServiceClient.MLServiceException {
+
+    public CallNotPermittedException(String message) {
+        super(message);
+    }
+
+    public CallNotPermittedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    /**
+     * Rejections are expected under load and thrown on the hot path, so no stack trace is captured.
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,201 @@
+package com.backend.fot.resilience;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker with failure-rate and slow-call-rate thresholds.
+ * <p>
+ * While CLOSED, the outcome of the last {@code windowSize} calls is kept in a ring
+ * buffer. Once at least {@code minimumCalls} are recorded, the breaker OPENs if
+ * either the failure rate or the slow-call rate reaches its threshold. While OPEN
+ * every permission request is refused without locking until {@code openDuration}
+ * elapses; the breaker then moves to HALF_OPEN and lets {@code halfOpenCalls}
+ * probes through. All probes must succeed within the slow-call duration to CLOSE
+ * it again; any failed or slow probe re-opens it.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ * @since 2026-10-16
+ */
+public class CircuitBreaker {
+
+    /**
+     * Breaker states.
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private static final byte FAILED = 1;
+    private static final byte SLOW = 2;
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final float failureRateThreshold;
+    private final float slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier nanoClock;
+
+    private final byte[] window;
+    private int windowIndex;
+    private int recordedCalls;
+    private int failedCalls;
+    private int slowCalls;
+
+    private int halfOpenIssued;
+    private int halfOpenSucceeded;
+
+    private volatile State state = State.CLOSED;
+    private volatile long openUntilNanos;
+
+    /**
+     * @param windowSize            number of most recent calls evaluated
+     * @param minimumCalls          calls required before rates are evaluated
+     * @param failureRateThreshold  failure percentage (0-100) that opens the breaker
+     * @param slowCallRateThreshold slow-call percentage (0-100) that opens the breaker
+     * @param slowCallDuration      duration from which a call counts as slow
+     * @param openDuration          time spent OPEN before probing
+     * @param halfOpenCalls         probes allowed while HALF_OPEN
+     * @param nanoClock             monotonic clock, {@code System::nanoTime} outside tests
+     */
+    public CircuitBreaker(int windowSize, int minimumCalls,
+                          float failureRateThreshold, float slowCallRateThreshold,
+                          Duration slowCallDuration, Duration openDuration,
+                          int halfOpenCalls, LongSupplier nanoClock) {
+        if (windowSize < 1 || minimumCalls < 1 || minimumCalls > windowSize || halfOpenCalls < 1) {
+            throw new IllegalArgumentException("Invalid circuit breaker window configuration");
+        }
+        this.windowSize = windowSize;
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallNanos = slowCallDuration.toNanos();
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+        this.nanoClock = nanoClock;
+        this.window = new byte[windowSize];
+    }
+
+    /**
+     * Asks whether a call may proceed. A granted permission must be followed by exactly
+     * one of {@link #onSuccess}, {@link #onError} or {@link #releasePermission}.
+     *
+     * @return true if the call may proceed
+     */
+    public boolean tryAcquirePermission() {
+        State current = state;
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.OPEN && nanoClock.getAsLong() - openUntilNanos < 0) {
+            return false;
+        }
+        return tryAcquireSlow();
+    }
+
+    private synchronized boolean tryAcquireSlow() {
+        if (state == State.OPEN) {
+            if (nanoClock.getAsLong() - openUntilNanos < 0) {
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (halfOpenIssued < halfOpenCalls) {
+            halfOpenIssued++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns a permission that was granted but not used (e.g. the bulkhead refused the call).
+     */
+    public synchronized void releasePermission() {
+        if (state == State.HALF_OPEN && halfOpenIssued > 0) {
+            halfOpenIssued--;
+        }
+    }
+
+    /**
+     * Records a successful call.
+     *
+     * @param durationNanos call duration
+     */
+    public void onSuccess(long durationNanos) {
+        record(durationNanos >= slowCallNanos ? SLOW : 0);
+    }
+
+    /**
+     * Records a failed call.
+     *
+     * @param durationNanos call duration
+     */
+    public void onError(long durationNanos) {
+        record((byte) (FAILED | (durationNanos >= slowCallNanos ? SLOW : 0)));
+    }
+
+    /**
+     * @return current state; an expired OPEN state is reported as OPEN until the next permission request
+     */
+    public State getState() {
+        return state;
+    }
+
+    private synchronized void record(byte outcome) {
+        switch (state) {
+            case HALF_OPEN -> {
+                if (outcome != 0) {
+                    transitionTo(State.OPEN);
+                } else if (++halfOpenSucceeded >= halfOpenCalls) {
+                    transitionTo(State.CLOSED);
+                }
+            }
+            case CLOSED -> {
+                byte evicted = window[windowIndex];
+                if (recordedCalls == windowSize) {
+                    failedCalls -= evicted & FAILED;
+                    slowCalls -= (evicted & SLOW) >> 1;
+                } else {
+                    recordedCalls++;
+                }
+                window[windowIndex] = outcome;
+                windowIndex = (windowIndex + 1) % windowSize;
+                failedCalls += outcome & FAILED;
+                slowCalls += (outcome & SLOW) >> 1;
+
+                if (recordedCalls >= minimumCalls
+                        && (failedCalls * 100f / recordedCalls >= failureRateThreshold
+                        || slowCalls * 100f / recordedCalls >= slowCallRateThreshold)) {
+                    transitionTo(State.OPEN);
+                }
+            }
+            case OPEN -> {
+                // Late results from calls issued before the breaker opened are ignored
+            }
+        }
+    }
+
+    private void transitionTo(State next) {
+        if (next == State.OPEN) {
+            openUntilNanos = nanoClock.getAsLong() + openNanos;
+        }
+        if (next == State.CLOSED) {
+            Arrays.fill(window, (byte) 0);
+            windowIndex = 0;
+            recordedCalls = 0;
+            failedCalls = 0;
+            slowCalls = 0;
+        }
+        halfOpenIssued = 0;
+        halfOpenSucceeded = 0;
+        state = next;
+    }
+}
@@ -0,0 +1,90 @@
+package com.backend.fot.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point in time by which a prediction must be answered.
+ * <p>
+ * Created once per API request from the client's budget (or the configured
+ * default) and passed down to every ML call, whose timeouts are derived from the
+ * time remaining. The remaining time is measured on the monotonic clock; the
+ * wall-clock instant is only used for {@link #HEADER}, which tells downstream
+ * services when the caller stops waiting so they can drop expired work.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.1
+ * @since 2026-10-16
+ */
+public final class Deadline {
+
+    /**
+     * Downstream header carrying the deadline as epoch milliseconds.
+     */
+    public static final String HEADER = "X-Request-Deadline";
+
+    private final long expiresAtNanos;
+    private final long expiresAtEpochMillis;
+
+    private Deadline(long budgetNanos) {
+        this.expiresAtNanos = System.nanoTime() + budgetNanos;
+        this.expiresAtEpochMillis = System.currentTimeMillis() + TimeUnit.NANOSECONDS.toMillis(budgetNanos);
+    }
+
+    /**
+     * @param budget time allowed from now
+     * @return deadline {@code budget} from now
+     */
+    public static Deadline after(Duration budget) {
+        return new Deadline(budget.toNanos());
+    }
+
+    /**
+     * @return time left, zero or negative once expired
+     */
+    public long remainingNanos() {
+        return expiresAtNanos - System.nanoTime();
+    }
+
+    /**
+     * @return whole milliseconds left, zero or negative once expired
+     */
+    public long remainingMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(remainingNanos());
+    }
+
+    /**
+     * Caps a configured timeout to the time left.
+     *
+     * @param timeoutMs configured timeout in milliseconds
+     * @return the smaller of {@code timeoutMs} and the remaining time, at least 1ms
+     */
+    public long capMillis(long timeoutMs) {
+        return Math.max(1, Math.min(timeoutMs, remainingMillis()));
+    }
+
+    public boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+
+    /**
+     * @param other another deadline
+     * @return whether this deadline expires strictly before {@code other}
+     */
+    public boolean isBefore(Deadline other) {
+        return expiresAtNanos - other.expiresAtNanos < 0;
+    }
+
+    /**
+     * @return deadline as epoch milliseconds, for {@link #HEADER}
+     */
+    public long epochMillis() {
+        return expiresAtEpochMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "Deadline[" + remainingMillis() + "ms left]";
+    }
+}
@@ -0,0 +1,27 @@
+package com.backend.fot.resilience;
+
+/**
+ * Thrown when an ML call is not sent because its {@link Deadline} has already
+ * expired, e.g. after waiting for a concurrency permit or a batch, or when a sent
+ * call times out because the caller's deadline, not {@code ml.service.read-timeout},
+ * set its timeout.
+ * <p>
+ * Like other local rejections it does not count against the circuit breaker, the
+ * replica balancer or the concurrency limit: a client sending tiny deadlines says
+ * nothing about the ML service's health.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.1
+ * @since 2026-10-16
+ */
+public class DeadlineExceededException extends CallNotPermittedException {
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+
+    public DeadlineExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
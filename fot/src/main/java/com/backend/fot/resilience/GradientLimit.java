@@ -0,0 +1,125 @@
+package com.backend.fot.resilience;
+
+/**
+ * Concurrency limit that follows round-trip time inflation (gradient algorithm).
+ * <p>
+ * Two moving averages of the RTT are kept: a long one that tracks the service's
+ * unloaded latency and a short one that tracks current latency. Their ratio is the
+ * gradient: when the short RTT rises above {@code rttTolerance} times the long one,
+ * requests are queueing inside the service and the limit shrinks; otherwise it grows
+ * by roughly the square root of itself. Samples taken while fewer than half of the
+ * permits are in use are ignored, since an idle client says nothing about capacity.
+ * </p>
+ * <p>
+ * A failed or timed-out call has no meaningful RTT; it is a drop and cuts the limit
+ * multiplicatively, so a service that stops answering sheds load at once instead of
+ * waiting for the few calls that still succeed to show the inflation.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.1
+ * @since 2026-10-16
+ */
+public class GradientLimit {
+
+    /**
+     * Weight of a new target in the smoothed limit.
+     */
+    private static final double SMOOTHING = 0.2;
+
+    /**
+     * Number of samples averaged into the short RTT.
+     */
+    private static final int SHORT_WINDOW = 10;
+
+    /**
+     * Factor applied to the limit on every dropped call.
+     */
+    private static final double DROP_BACKOFF = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double rttTolerance;
+    private final double longAlpha;
+    private final double shortAlpha;
+
+    private double estimatedLimit;
+    private double longRttNanos;
+    private double shortRttNanos;
+
+    private volatile int limit;
+
+    /**
+     * @param initialLimit starting limit
+     * @param minLimit     lowest limit ever used
+     * @param maxLimit     highest limit ever used
+     * @param rttTolerance short/long RTT ratio tolerated before the limit shrinks, at least 1
+     * @param longWindow   number of samples averaged into the long (baseline) RTT
+     */
+    public GradientLimit(int initialLimit, int minLimit, int maxLimit, double rttTolerance, int longWindow) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Invalid limit bounds: " + minLimit + ".." + maxLimit);
+        }
+        if (rttTolerance < 1) {
+            throw new IllegalArgumentException("RTT tolerance must be at least 1: " + rttTolerance);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.rttTolerance = rttTolerance;
+        this.longAlpha = 2.0 / (longWindow + 1);
+        this.shortAlpha = 2.0 / (SHORT_WINDOW + 1);
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.limit = (int) estimatedLimit;
+    }
+
+    /**
+     * @return current concurrency limit
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Feeds one successful call into the limit.
+     *
+     * @param rttNanos round-trip time of the call
+     * @param inFlight calls in flight when it started, including itself
+     * @return updated limit
+     */
+    public synchronized int onSample(long rttNanos, int inFlight) {
+        if (longRttNanos == 0) {
+            longRttNanos = rttNanos;
+            shortRttNanos = rttNanos;
+        } else {
+            longRttNanos += longAlpha * (rttNanos - longRttNanos);
+            shortRttNanos += shortAlpha * (rttNanos - shortRttNanos);
+        }
+
+        // Latency went back to normal after a long overload: let the baseline catch up
+        if (longRttNanos > 2 * shortRttNanos) {
+            longRttNanos *= 0.95;
+        }
+
+        if (inFlight < estimatedLimit / 2) {
+            return limit;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRttNanos / shortRttNanos));
+        double target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        double smoothed = estimatedLimit * (1 - SMOOTHING) + target * SMOOTHING;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, smoothed));
+        limit = (int) estimatedLimit;
+        return limit;
+    }
+
+    /**
+     * Feeds one failed or timed-out call into the limit.
+     *
+     * @return updated limit
+     */
+    public synchronized int onDrop() {
+        estimatedLimit = Math.max(minLimit, estimatedLimit * DROP_BACKOFF);
+        limit = (int) estimatedLimit;
+        return limit;
+    }
+}
@@ -0,0 +1,72 @@
+package com.backend.fot.resilience;
+
+import java.util.Arrays;
+
+/**
+ * Rolling latency percentile over the most recent samples.
+ * <p>
+ * Samples go into a fixed ring buffer; the requested percentile is recomputed
+ * every {@code recomputeEvery} samples and cached in between, so reading it on
+ * the request path costs a volatile read.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ * @since 2026-10-16
+ */
+public class LatencyTracker {
+
+    private final long[] samples;
+    private final double percentile;
+    private final int minimumSamples;
+    private final int recomputeEvery;
+
+    private int index;
+    private int count;
+    private int sinceRecompute;
+
+    private volatile long cachedNanos = -1;
+
+    /**
+     * @param windowSize     number of most recent samples kept
+     * @param percentile     percentile to track, in (0, 100]
+     * @param minimumSamples samples required before a value is reported
+     * @param recomputeEvery number of samples between recomputations
+     */
+    public LatencyTracker(int windowSize, double percentile, int minimumSamples, int recomputeEvery) {
+        if (percentile <= 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be in (0, 100]: " + percentile);
+        }
+        this.samples = new long[windowSize];
+        this.percentile = percentile;
+        this.minimumSamples = Math.min(minimumSamples, windowSize);
+        this.recomputeEvery = Math.max(1, recomputeEvery);
+    }
+
+    /**
+     * Records one observed latency.
+     *
+     * @param nanos latency in nanoseconds
+     */
+    public synchronized void record(long nanos) {
+        samples[index] = nanos;
+        index = (index + 1) % samples.length;
+        if (count < samples.length) {
+            count++;
+        }
+        if (count >= minimumSamples && ++sinceRecompute >= recomputeEvery) {
+            sinceRecompute = 0;
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            int rank = (int) Math.ceil(percentile / 100.0 * count) - 1;
+            cachedNanos = sorted[Math.max(0, rank)];
+        }
+    }
+
+    /**
+     * @return tracked percentile in nanoseconds, or -1 until enough samples were recorded
+     */
+    public long percentileNanos() {
+        return cachedNanos;
+    }
+}
@@ -0,0 +1,190 @@
+package com.backend.fot.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker and concurrency bulkhead around outbound ML service calls.
+ * <p>
+ * A call first asks the {@link CircuitBreaker} for permission and then takes a
+ * bulkhead slot; if either is refused it fails immediately with
+ * {@link CallNotPermittedException}. Bulkhead rejections do not count as failures,
+ * and neither do rejections by {@link AdaptiveConcurrencyLimiter}, so local saturation
+ * alone never opens the breaker. Calls cut short by the caller's own deadline
+ * ({@link DeadlineExceededException}, also when the client's read timeout was capped
+ * by it) release their permission too, so clients sending tiny deadlines cannot
+ * open the breaker for everyone.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.1
+ * @since 2026-10-16
+ */
+@Slf4j
+@Component
+public class MLServiceGuard {
+
+    static final String CALLS_COUNTER = "ml.client.guard.calls";
+
+    private final CircuitBreaker circuitBreaker;
+    private final Semaphore bulkhead;
+    private final Counter successCounter;
+    private final Counter failureCounter;
+    private final Counter circuitOpenCounter;
+    private final Counter bulkheadFullCounter;
+
+    @Autowired
+    public MLServiceGuard(
+            MeterRegistry meterRegistry,
+            @Value("${ml.service.circuit-breaker.window-size:50}") int windowSize,
+            @Value("${ml.service.circuit-breaker.minimum-calls:20}") int minimumCalls,
+            @Value("${ml.service.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+            @Value("${ml.service.circuit-breaker.slow-call-rate-threshold:80}") float slowCallRateThreshold,
+            @Value("${ml.service.circuit-breaker.slow-call-duration:2000}") long slowCallDurationMs,
+            @Value("${ml.service.circuit-breaker.open-duration:10000}") long openDurationMs,
+            @Value("${ml.service.circuit-breaker.half-open-calls:5}") int halfOpenCalls,
+            @Value("${ml.service.bulkhead.max-concurrent:100}") int maxConcurrentCalls) {
+        this(meterRegistry,
+                new CircuitBreaker(windowSize, minimumCalls, failureRateThreshold, slowCallRateThreshold,
+                        Duration.ofMillis(slowCallDurationMs), Duration.ofMillis(openDurationMs),
+                        halfOpenCalls, System::nanoTime),
+                maxConcurrentCalls);
+    }
+
+    MLServiceGuard(MeterRegistry meterRegistry, CircuitBreaker circuitBreaker, int maxConcurrentCalls) {
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+
+        this.successCounter = callCounter(meterRegistry, "success");
+        this.failureCounter = callCounter(meterRegistry, "failure");
+        this.circuitOpenCounter = callCounter(meterRegistry, "circuit_open");
+        this.bulkheadFullCounter = callCounter(meterRegistry, "bulkhead_full");
+
+        for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+            Gauge.builder("ml.client.circuit.state", circuitBreaker, cb -> cb.getState() == state ? 1 : 0)
+                    .description("1 for the current circuit breaker state, 0 otherwise")
+                    .tag("state", state.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+        Gauge.builder("ml.client.bulkhead.available", bulkhead, Semaphore::availablePermits)
+                .description("Free concurrent call slots towards the ML service")
+                .register(meterRegistry);
+    }
+
+    private static Counter callCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder(CALLS_COUNTER)
+                .description("ML service calls by guard outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs a blocking call under the breaker and bulkhead.
+     *
+     * @param call outbound call
+     * @return call result
+     * @throws CallNotPermittedException if the call is rejected locally
+     */
+    public <T> T execute(Supplier<T> call) {
+        acquire();
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            onSuccess(start);
+            return result;
+        } catch (RuntimeException e) {
+            onError(start, e);
+            throw e;
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    /**
+     * Runs a non-blocking call under the breaker and bulkhead. The bulkhead slot is
+     * held until the returned future completes.
+     *
+     * @param call outbound call
+     * @return future with the call result, failed with {@link CallNotPermittedException} if rejected
+     */
+    public <T> CompletableFuture<T> executeAsync(Supplier<CompletableFuture<T>> call) {
+        try {
+            acquire();
+        } catch (CallNotPermittedException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        long start = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+
+        return future.whenComplete((result, error) -> {
+            bulkhead.release();
+            if (error == null) {
+                onSuccess(start);
+            } else {
+                onError(start, error);
+            }
+        });
+    }
+
+    /**
+     * @return current circuit breaker state
+     */
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    private void acquire() {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            circuitOpenCounter.increment();
+            throw new CallNotPermittedException("ML service circuit breaker is open");
+        }
+        if (!bulkhead.tryAcquire()) {
+            circuitBreaker.releasePermission();
+            bulkheadFullCounter.increment();
+            throw new CallNotPermittedException("ML service bulkhead is full");
+        }
+    }
+
+    private void onSuccess(long start) {
+        successCounter.increment();
+        circuitBreaker.onSuccess(System.nanoTime() - start);
+    }
+
+    private void onError(long start, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause()
+                : error;
+        if (cause instanceof CancellationException || cause instanceof CallNotPermittedException) {
+            // The caller gave up, its deadline ran out (DeadlineExceededException) or the
+            // concurrency limiter refused the call locally; none of them says anything
+            // about the ML service's health
+            circuitBreaker.releasePermission();
+            return;
+        }
+        failureCounter.increment();
+        CircuitBreaker.State before = circuitBreaker.getState();
+        circuitBreaker.onError(System.nanoTime() - start);
+        CircuitBreaker.State after = circuitBreaker.getState();
+        if (before != after) {
+            log.warn("ML service circuit breaker {} -> {} after: {}", before, after, cause.getMessage());
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.backend.fot.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Sends a backup ("hedge") request to a second replica when the first one is slow.
+ * <p>
+ * The hedge delay is the configured latency percentile of recent successful calls,
+ * never lower than {@code ml.service.hedge.min-delay}. The first successful reply
+ * wins and the other attempt is cancelled. Hedges are paid from a
+ * {@link TrafficBudget}, so they never exceed {@code ml.service.hedge.budget-percent}
+ * of regular traffic even when every replica is slow.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ * @since 2026-10-16
+ */
+@Slf4j
+@Component
+public class RequestHedger {
+
+    static final String HEDGE_COUNTER = "ml.client.hedge.requests";
+
+    private final boolean enabled;
+    private final long minDelayNanos;
+    private final long initialDelayNanos;
+    private final LatencyTracker latencyTracker;
+    private final TrafficBudget budget;
+    private final ScheduledExecutorService timer;
+    private final Counter sentCounter;
+    private final Counter wonCounter;
+    private final Counter budgetExhaustedCounter;
+
+    public RequestHedger(
+            MeterRegistry meterRegistry,
+            @Value("${ml.service.hedge.enabled:true}") boolean enabled,
+            @Value("${ml.service.hedge.percentile:95}") double percentile,
+            @Value("${ml.service.hedge.min-delay:5}") long minDelayMs,
+            @Value("${ml.service.hedge.initial-delay:100}") long initialDelayMs,
+            @Value("${ml.service.hedge.budget-percent:10}") double budgetPercent) {
+        this.enabled = enabled;
+        this.minDelayNanos = TimeUnit.MILLISECONDS.toNanos(minDelayMs);
+        this.initialDelayNanos = TimeUnit.MILLISECONDS.toNanos(initialDelayMs);
+        this.latencyTracker = new LatencyTracker(1000, percentile, 100, 50);
+        this.budget = new TrafficBudget(budgetPercent / 100.0, 20);
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ml-hedge-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.sentCounter = hedgeCounter(meterRegistry, "sent");
+        this.wonCounter = hedgeCounter(meterRegistry, "won");
+        this.budgetExhaustedCounter = hedgeCounter(meterRegistry, "budget_exhausted");
+        Gauge.builder("ml.client.hedge.delay", this, hedger -> hedger.hedgeDelayNanos() / 1_000_000.0)
+                .description("Current hedge delay in milliseconds")
+                .register(meterRegistry);
+    }
+
+    private static Counter hedgeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder(HEDGE_COUNTER)
+                .description("Hedged ML service requests by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        timer.shutdownNow();
+    }
+
+    /**
+     * Calls {@code primary} and, if it has not answered within the hedge delay,
+     * {@code secondary} as well.
+     *
+     * @param primary   first replica to call
+     * @param secondary replica for the hedge, or null if there is none
+     * @param call      performs the call against a replica; cancelling its future must abort it
+     * @return future with the first successful reply, or the last failure if every attempt failed
+     */
+    public <R, T> CompletableFuture<T> execute(R primary, R secondary,
+                                               Function<R, CompletableFuture<T>> call) {
+        if (!enabled || secondary == null) {
+            return timed(call, primary);
+        }
+
+        budget.deposit();
+        HedgedCall<T> hedged = new HedgedCall<>();
+        hedged.launch(timed(call, primary), false);
+
+        ScheduledFuture<?> hedgeTimer = timer.schedule(() -> {
+            if (hedged.result.isDone()) {
+                return;
+            }
+            if (!budget.tryWithdraw()) {
+                budgetExhaustedCounter.increment();
+                return;
+            }
+            sentCounter.increment();
+            log.debug("Hedging ML request to {} after {}ms", secondary, hedgeDelayNanos() / 1_000_000);
+            hedged.launch(timed(call, secondary), true);
+        }, hedgeDelayNanos(), TimeUnit.NANOSECONDS);
+
+        hedged.result.whenComplete((value, error) -> {
+            hedgeTimer.cancel(false);
+            if (hedged.result.isCancelled()) {
+                hedged.cancelAttempts();
+            }
+        });
+        return hedged.result;
+    }
+
+    /**
+     * @return delay after which a hedge is sent, in nanoseconds
+     */
+    long hedgeDelayNanos() {
+        long observed = latencyTracker.percentileNanos();
+        return Math.max(minDelayNanos, observed < 0 ? initialDelayNanos : observed);
+    }
+
+    private <R, T> CompletableFuture<T> timed(Function<R, CompletableFuture<T>> call, R replica) {
+        long start = System.nanoTime();
+        CompletableFuture<T> attempt;
+        try {
+            attempt = call.apply(replica);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        attempt.thenRun(() -> latencyTracker.record(System.nanoTime() - start));
+        return attempt;
+    }
+
+    /**
+     * Up to two racing attempts feeding one result.
+     */
+    private final class HedgedCall<T> {
+
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private CompletableFuture<T> primaryAttempt;
+        private CompletableFuture<T> hedgeAttempt;
+        private int running;
+
+        synchronized void launch(CompletableFuture<T> attempt, boolean hedge) {
+            if (result.isDone()) {
+                // Settled while the hedge was being sent
+                attempt.cancel(true);
+                return;
+            }
+            if (hedge) {
+                hedgeAttempt = attempt;
+            } else {
+                primaryAttempt = attempt;
+            }
+            running++;
+            attempt.whenComplete((value, error) -> settle(value, error, hedge));
+        }
+
+        void cancelAttempts() {
+            CompletableFuture<T> primary;
+            CompletableFuture<T> hedge;
+            synchronized (this) {
+                primary = primaryAttempt;
+                hedge = hedgeAttempt;
+            }
+            if (primary != null) {
+                primary.cancel(true);
+            }
+            if (hedge != null) {
+                hedge.cancel(true);
+            }
+        }
+
+        private void settle(T value, Throwable error, boolean hedge) {
+            CompletableFuture<T> loser;
+            synchronized (this) {
+                running--;
+                if (result.isDone()) {
+                    return;
+                }
+                if (error != null) {
+                    // Wait for the other attempt if one is still running; without a hedge
+                    // yet, a failed primary fails the call rather than turning into a retry
+                    if (running == 0) {
+                        result.completeExceptionally(error);
+                    }
+                    return;
+                }
+                loser = hedge ? primaryAttempt : hedgeAttempt;
+            }
+            if (hedge) {
+                wonCounter.increment();
+            }
+            result.complete(value);
+            if (loser != null) {
+                loser.cancel(true);
+            }
+        }
+    }
+}
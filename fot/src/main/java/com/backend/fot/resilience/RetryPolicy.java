@@ -0,0 +1,265 @@
+package com.backend.fot.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Retries failed ML calls with decorrelated jitter, within a retry budget.
+ * <p>
+ * Only failures the caller marks as retryable are retried (for the ML service:
+ * connection failures and HTTP 503), so a request that may have reached the model
+ * is never sent twice. The pause before each retry is drawn between
+ * {@code ml.service.retry.base-delay} and three times the previous pause, capped at
+ * {@code ml.service.retry.max-delay}, which spreads retries from concurrent callers
+ * instead of synchronizing them.
+ * </p>
+ * <p>
+ * Retries are paid from a {@link TrafficBudget}: each call earns
+ * {@code ml.service.retry.budget-percent} of a token and each retry spends one. An
+ * isolated blip is absorbed, but when most calls fail the budget runs dry and
+ * failures surface right away rather than multiplying the load on a struggling
+ * service. No retry is scheduled if its pause would outlast the caller's
+ * {@link Deadline}.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ * @since 2026-10-16
+ */
+@Slf4j
+@Component
+public class RetryPolicy {
+
+    static final String RETRY_COUNTER = "ml.client.retry.requests";
+
+    /**
+     * Retries that can be saved up; the budget starts full so a blip right after
+     * startup is absorbed too.
+     */
+    private static final int MAX_TOKENS = 10;
+
+    private final boolean enabled;
+    private final int maxAttempts;
+    private final long baseDelayNanos;
+    private final long maxDelayNanos;
+    private final TrafficBudget budget;
+    private final ScheduledExecutorService timer;
+
+    private final Counter sentCounter;
+    private final Counter recoveredCounter;
+    private final Counter budgetExhaustedCounter;
+    private final Counter deadlineCounter;
+
+    public RetryPolicy(
+            MeterRegistry meterRegistry,
+            @Value("${ml.service.retry.enabled:true}") boolean enabled,
+            @Value("${ml.service.retry.max-attempts:3}") int maxAttempts,
+            @Value("${ml.service.retry.base-delay:10}") long baseDelayMs,
+            @Value("${ml.service.retry.max-delay:200}") long maxDelayMs,
+            @Value("${ml.service.retry.budget-percent:10}") double budgetPercent) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Max attempts must be at least 1: " + maxAttempts);
+        }
+        this.enabled = enabled;
+        this.maxAttempts = maxAttempts;
+        this.baseDelayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, baseDelayMs));
+        this.maxDelayNanos = Math.max(baseDelayNanos, TimeUnit.MILLISECONDS.toNanos(maxDelayMs));
+        this.budget = new TrafficBudget(budgetPercent / 100.0, MAX_TOKENS, MAX_TOKENS);
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ml-retry-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.sentCounter = retryCounter(meterRegistry, "sent");
+        this.recoveredCounter = retryCounter(meterRegistry, "recovered");
+        this.budgetExhaustedCounter = retryCounter(meterRegistry, "budget_exhausted");
+        this.deadlineCounter = retryCounter(meterRegistry, "deadline_exceeded");
+        Gauge.builder("ml.client.retry.budget", budget, TrafficBudget::available)
+                .description("Retries currently available in the ML retry budget")
+                .register(meterRegistry);
+
+        if (enabled) {
+            log.info("ML call retries enabled: maxAttempts={}, backoff={}..{}ms, budget={}%",
+                    maxAttempts, baseDelayMs, maxDelayMs, budgetPercent);
+        }
+    }
+
+    private static Counter retryCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder(RETRY_COUNTER)
+                .description("ML service call retries by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        timer.shutdownNow();
+    }
+
+    /**
+     * Runs a blocking call, retrying retryable failures. The calling thread sleeps
+     * between attempts.
+     *
+     * @param deadline  time by which the answer is needed
+     * @param retryable tells which failures may be retried
+     * @param call      one attempt
+     * @return result of the first successful attempt
+     */
+    public <T> T execute(Deadline deadline, Predicate<Throwable> retryable, Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+
+        budget.deposit();
+        long delayNanos = baseDelayNanos;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                T result = call.get();
+                if (attempt > 1) {
+                    recoveredCounter.increment();
+                }
+                return result;
+            } catch (RuntimeException e) {
+                delayNanos = nextDelayNanos(delayNanos);
+                if (!shouldRetry(attempt, e, deadline, delayNanos, retryable)) {
+                    throw e;
+                }
+                log.debug("Retrying ML call in {}ms after: {}", delayNanos / 1_000_000, e.getMessage());
+                try {
+                    TimeUnit.NANOSECONDS.sleep(delayNanos);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs a non-blocking call, retrying retryable failures after a timer-driven pause.
+     * Cancelling the returned future cancels the running attempt or the pending retry.
+     *
+     * @param deadline  time by which the answer is needed
+     * @param retryable tells which failures may be retried
+     * @param call      starts one attempt; cancelling its future must abort it
+     * @return future with the result of the first successful attempt, or the last failure
+     */
+    public <T> CompletableFuture<T> executeAsync(Deadline deadline, Predicate<Throwable> retryable,
+                                                 Supplier<CompletableFuture<T>> call) {
+        if (!enabled) {
+            return call.get();
+        }
+
+        budget.deposit();
+        RetriedCall<T> retried = new RetriedCall<>(deadline, retryable, call);
+        retried.attempt(1, baseDelayNanos);
+        return retried.result;
+    }
+
+    /**
+     * Decorrelated jitter: a random pause between the base delay and three times the
+     * previous one, capped at the maximum delay.
+     *
+     * @param previousNanos previous pause, or the base delay before the first retry
+     * @return next pause in nanoseconds
+     */
+    long nextDelayNanos(long previousNanos) {
+        long upper = Math.max(baseDelayNanos + 1, Math.min(maxDelayNanos, previousNanos * 3));
+        return Math.min(maxDelayNanos, ThreadLocalRandom.current().nextLong(baseDelayNanos, upper + 1));
+    }
+
+    private boolean shouldRetry(int attempt, Throwable error, Deadline deadline, long delayNanos,
+                                Predicate<Throwable> retryable) {
+        if (attempt >= maxAttempts || !retryable.test(error)) {
+            return false;
+        }
+        if (deadline.remainingNanos() <= delayNanos) {
+            deadlineCounter.increment();
+            return false;
+        }
+        if (!budget.tryWithdraw()) {
+            budgetExhaustedCounter.increment();
+            return false;
+        }
+        sentCounter.increment();
+        return true;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    /**
+     * One logical call and its successive attempts.
+     */
+    private final class RetriedCall<T> {
+
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final Deadline deadline;
+        private final Predicate<Throwable> retryable;
+        private final Supplier<CompletableFuture<T>> call;
+        private volatile Future<?> current;
+
+        RetriedCall(Deadline deadline, Predicate<Throwable> retryable, Supplier<CompletableFuture<T>> call) {
+            this.deadline = deadline;
+            this.retryable = retryable;
+            this.call = call;
+            result.whenComplete((value, error) -> {
+                Future<?> running = current;
+                if (result.isCancelled() && running != null) {
+                    running.cancel(true);
+                }
+            });
+        }
+
+        void attempt(int attempt, long previousDelayNanos) {
+            if (result.isDone()) {
+                return;
+            }
+            CompletableFuture<T> running;
+            try {
+                running = call.get();
+            } catch (RuntimeException e) {
+                running = CompletableFuture.failedFuture(e);
+            }
+            current = running;
+            if (result.isCancelled()) {
+                running.cancel(true);
+                return;
+            }
+
+            running.whenComplete((value, error) -> {
+                if (error == null) {
+                    if (attempt > 1) {
+                        recoveredCounter.increment();
+                    }
+                    result.complete(value);
+                    return;
+                }
+                long delayNanos = nextDelayNanos(previousDelayNanos);
+                if (result.isDone() || !shouldRetry(attempt, unwrap(error), deadline, delayNanos, retryable)) {
+                    result.completeExceptionally(error);
+                    return;
+                }
+                log.debug("Retrying ML call in {}ms after: {}", delayNanos / 1_000_000, unwrap(error).getMessage());
+                current = timer.schedule(() -> attempt(attempt + 1, delayNanos), delayNanos, TimeUnit.NANOSECONDS);
+            });
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.backend.fot.resilience;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket that caps extra traffic (hedges, retries) to a share of regular traffic.
+ * <p>
+ * Every regular request deposits {@code ratio} of a token and every extra request
+ * withdraws a whole one, so over time extra requests stay below {@code ratio} of
+ * regular ones. The balance is capped at {@code maxTokens} so a quiet period does
+ * not allow an unbounded burst afterwards. The bucket starts empty unless an
+ * initial balance is given.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.1
+ * @since 2026-10-16
+ */
+public class TrafficBudget {
+
+    private static final long SCALE = 1000;
+
+    private final long depositPerRequest;
+    private final long maxBalance;
+    private final AtomicLong balance;
+
+    /**
+     * @param ratio     extra requests allowed per regular request, e.g. 0.1 for 10%
+     * @param maxTokens maximum number of extra requests that can be saved up
+     */
+    public TrafficBudget(double ratio, int maxTokens) {
+        this(ratio, maxTokens, 0);
+    }
+
+    /**
+     * @param ratio         extra requests allowed per regular request, e.g. 0.1 for 10%
+     * @param maxTokens     maximum number of extra requests that can be saved up
+     * @param initialTokens extra requests available before any regular traffic
+     */
+    public TrafficBudget(double ratio, int maxTokens, int initialTokens) {
+        this.depositPerRequest = Math.round(ratio * SCALE);
+        this.maxBalance = maxTokens * SCALE;
+        this.balance = new AtomicLong(Math.min(maxTokens, initialTokens) * SCALE);
+    }
+
+    /**
+     * Credits the budget for one regular request.
+     */
+    public void deposit() {
+        balance.accumulateAndGet(depositPerRequest, (current, delta) -> Math.min(maxBalance, current + delta));
+    }
+
+    /**
+     * Takes one token for an extra request.
+     *
+     * @return true if the extra request fits within the budget
+     */
+    public boolean tryWithdraw() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - SCALE));
+        return true;
+    }
+
+    /**
+     * @return whole tokens currently available
+     */
+    public double available() {
+        return (double) balance.get() / SCALE;
+    }
+}
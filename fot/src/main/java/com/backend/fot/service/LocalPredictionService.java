@@ -0,0 +1,81 @@
+package com.backend.fot.service;
+
+import com.backend.fot.dto.FlightPredictionRequestDTO;
+import com.backend.fot.dto.FlightPredictionResponseDTO;
+import com.backend.fot.dto.MLServiceResponseDTO;
+import com.backend.fot.inference.ForestPredictor;
+import com.backend.fot.inference.ModelRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * PredictionService that scores flights with the RandomForest loaded in the JVM
+ * ({@code ml.inference.engine=LOCAL}), without calling the ML wrapper or the model
+ * service.
+ * <p>
+ * Scoring takes microseconds, so the async variants complete before returning and
+ * the time budget is never the limiting factor. Latency is recorded in
+ * {@code ml.inference.local}, tagged with the model version.
+ * </p>
+ * <p>
+ * The model comes from {@link ModelRegistry#active()}, read once per request, so a
+ * version swapped in mid-request does not affect it and the response's
+ * {@code modelVersion} is the version that scored it.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.1
+ * @since 2026-10-16
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "ml.inference.engine", havingValue = "LOCAL")
+public class LocalPredictionService implements PredictionService {
+
+    private final ModelRegistry modelRegistry;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> latencies = new ConcurrentHashMap<>();
+
+    public LocalPredictionService(ModelRegistry modelRegistry, MeterRegistry meterRegistry) {
+        this.modelRegistry = modelRegistry;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public FlightPredictionResponseDTO predictDelay(FlightPredictionRequestDTO request) {
+        log.info("Processing local prediction for flight {}", request.getFlightNumber());
+        ForestPredictor predictor = modelRegistry.active();
+        MLServiceResponseDTO mlResponse = latency(predictor.modelVersion()).record(() -> predictor.predict(request));
+        return PredictionServiceImpl.toResponse(mlResponse);
+    }
+
+    private Timer latency(String modelVersion) {
+        return latencies.computeIfAbsent(String.valueOf(modelVersion), version -> Timer.builder("ml.inference.local")
+                .description("Time to score one prediction with the in-JVM model")
+                .tag("model", version)
+                .register(meterRegistry));
+    }
+
+    @Override
+    public CompletableFuture<FlightPredictionResponseDTO> predictDelayAsync(FlightPredictionRequestDTO request) {
+        try {
+            return CompletableFuture.completedFuture(predictDelay(request));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<FlightPredictionResponseDTO> predictDelayAsync(FlightPredictionRequestDTO request,
+                                                                           Duration budget) {
+        return predictDelayAsync(request);
+    }
+}
@@ -3,6 +3,9 @@ package com.backend.fot.service;
 import com.backend.fot.dto.FlightPredictionRequestDTO;
 import com.backend.fot.dto.FlightPredictionResponseDTO;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Service interface for flight delay predictions.
  * 
@@ -23,4 +26,26 @@ public interface PredictionService {
      * 
      */
     FlightPredictionResponseDTO predictDelay(FlightPredictionRequestDTO request);
+
+    /**
+     * Predicts flight delay without blocking the calling thread.
+     * 
+     * @param request Flight information
+     * @return future completed with the prediction, or exceptionally if the
+     *         prediction could not be obtained
+     */
+    CompletableFuture<FlightPredictionResponseDTO> predictDelayAsync(FlightPredictionRequestDTO request);
+
+    /**
+     * Predicts flight delay without blocking the calling thread, within a
+     * caller-supplied time budget.
+     * 
+     * @param request Flight information
+     * @param budget  time the caller is willing to wait; never more than the
+     *                configured deadline
+     * @return future completed with the prediction, or exceptionally if the
+     *         prediction could not be obtained in time
+     */
+    CompletableFuture<FlightPredictionResponseDTO> predictDelayAsync(FlightPredictionRequestDTO request,
+                                                                    Duration budget);
 }
@@ -1,30 +1,74 @@
 package com.backend.fot.service;
 
 import com.backend.fot.client.MLServiceClient;
+import com.backend.fot.client.SingleFlightMLClient;
 import com.backend.fot.dto.FlightPredictionRequestDTO;
 import com.backend.fot.dto.FlightPredictionResponseDTO;
 import com.backend.fot.dto.MLServiceResponseDTO;
 import com.backend.fot.enums.FlightPrediction;
-import lombok.RequiredArgsConstructor;
+import com.backend.fot.exceptions.PredictionTimeoutException;
+import com.backend.fot.exceptions.PredictionUnavailableException;
+import com.backend.fot.inference.PredictionTable;
+import com.backend.fot.resilience.CallNotPermittedException;
+import com.backend.fot.resilience.Deadline;
+import com.backend.fot.resilience.DeadlineExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Implementation of PredictionService for flight delay predictions.
  * Integrates with Flask ML Wrapper service for ML-based predictions.
+ * Identical concurrent requests are coalesced by {@link SingleFlightMLClient}.
+ * Every prediction runs under a {@link Deadline} of at most {@code ml.service.deadline};
+ * once it passes the caller gets {@link PredictionTimeoutException}.
+ * Flights found in the {@link PredictionTable} of scheduled departures are answered
+ * from it without calling the ML service; hits and misses are counted in
+ * {@code ml.prediction.table}.
+ * Active unless {@code ml.inference.engine=LOCAL} selects {@link LocalPredictionService}.
  * 
  * @author FlightOnTime Team
- * @version 2.0
+ * @version 2.5
  * @since 2025-12-17
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
+@ConditionalOnProperty(name = "ml.inference.engine", havingValue = "REMOTE", matchIfMissing = true)
 public class PredictionServiceImpl implements PredictionService {
 
-    private final MLServiceClient mlServiceClient;
+    private final SingleFlightMLClient mlServiceClient;
+    private final PredictionTable predictionTable;
+    private final Duration maxBudget;
+    private final Counter tableHits;
+    private final Counter tableMisses;
+
+    public PredictionServiceImpl(SingleFlightMLClient mlServiceClient,
+                                 PredictionTable predictionTable,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${ml.service.deadline:5000}") long deadlineMs) {
+        this.mlServiceClient = mlServiceClient;
+        this.predictionTable = predictionTable;
+        this.maxBudget = Duration.ofMillis(deadlineMs);
+        this.tableHits = tableCounter(meterRegistry, "hit");
+        this.tableMisses = tableCounter(meterRegistry, "miss");
+    }
+
+    private static Counter tableCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("ml.prediction.table")
+                .description("Predictions looked up in the precomputed table of scheduled flights")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
 
     /**
      * Predicts flight delay using ML service.
@@ -36,28 +80,126 @@ public class PredictionServiceImpl implements PredictionService {
     public FlightPredictionResponseDTO predictDelay(FlightPredictionRequestDTO request) {
         log.info("Processing prediction for flight {}", request.getFlightNumber());
 
+        MLServiceResponseDTO precomputed = lookup(request);
+        if (precomputed != null) {
+            return toResponse(precomputed);
+        }
+
+        Deadline deadline = Deadline.after(maxBudget);
         try {
             // Call Flask ML Wrapper
-            MLServiceResponseDTO mlResponse = mlServiceClient.predict(request);
+            MLServiceResponseDTO mlResponse = mlServiceClient.predict(request, deadline);
             
-            // Convert ML service response to API response
-            FlightPrediction prediction = mlResponse.getPredictionEnum();
-            BigDecimal probability = mlResponse.getConfidence();
-            
-            log.info("Prediction result from ML service: {} with probability {}", 
-                    prediction, probability);
-
-            return FlightPredictionResponseDTO.builder()
-                    .prediction(prediction)
-                    .probability(probability.doubleValue())
-                    .confidence(determineConfidenceLevel(probability.doubleValue()))
-                    .build();
+            return toResponse(mlResponse);
                     
         } catch (MLServiceClient.MLServiceException e) {
+            throw predictionFailure(request, deadline, e);
+        }
+    }
+
+    /**
+     * Predicts flight delay using ML service without blocking the caller.
+     * 
+     * @param request Flight information
+     * @return future with delay status and probability
+     */
+    @Override
+    public CompletableFuture<FlightPredictionResponseDTO> predictDelayAsync(FlightPredictionRequestDTO request) {
+        return predictDelayAsync(request, maxBudget);
+    }
+
+    /**
+     * Predicts flight delay using ML service within the caller's time budget.
+     * 
+     * @param request Flight information
+     * @param budget  time the caller is willing to wait, capped at {@code ml.service.deadline}
+     * @return future with delay status and probability
+     */
+    @Override
+    public CompletableFuture<FlightPredictionResponseDTO> predictDelayAsync(FlightPredictionRequestDTO request,
+                                                                           Duration budget) {
+        log.info("Processing async prediction for flight {}", request.getFlightNumber());
+
+        MLServiceResponseDTO precomputed = lookup(request);
+        if (precomputed != null) {
+            return CompletableFuture.completedFuture(toResponse(precomputed));
+        }
+
+        Deadline deadline = Deadline.after(budget.compareTo(maxBudget) < 0 ? budget : maxBudget);
+        return mlServiceClient.predictAsync(request, deadline)
+                .orTimeout(deadline.remainingNanos(), TimeUnit.NANOSECONDS)
+                .handle((mlResponse, error) -> {
+                    if (error == null) {
+                        return toResponse(mlResponse);
+                    }
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause()
+                            : error;
+                    if (cause instanceof TimeoutException) {
+                        throw predictionTimeout(request, deadline, cause);
+                    }
+                    if (cause instanceof MLServiceClient.MLServiceException mlError) {
+                        throw predictionFailure(request, deadline, mlError);
+                    }
+                    throw new CompletionException(cause);
+                });
+    }
+
+    /**
+     * Looks the flight up in the precomputed table.
+     *
+     * @param request Flight information
+     * @return stored prediction, or null if the flight is not in the table
+     */
+    private MLServiceResponseDTO lookup(FlightPredictionRequestDTO request) {
+        if (predictionTable.size() == 0) {
+            return null;
+        }
+        MLServiceResponseDTO precomputed = predictionTable.lookup(request);
+        (precomputed != null ? tableHits : tableMisses).increment();
+        return precomputed;
+    }
+
+    /**
+     * Converts ML service response to API response.
+     * 
+     * @param mlResponse ML service response
+     * @return API response
+     */
+    static FlightPredictionResponseDTO toResponse(MLServiceResponseDTO mlResponse) {
+        FlightPrediction prediction = mlResponse.getPredictionEnum();
+        BigDecimal probability = mlResponse.getConfidence();
+        
+        log.info("Prediction result from ML service: {} with probability {}", 
+                prediction, probability);
+
+        return FlightPredictionResponseDTO.builder()
+                .prediction(prediction)
+                .probability(probability.doubleValue())
+                .confidence(determineConfidenceLevel(probability.doubleValue()))
+                .modelVersion(mlResponse.getModelVersion())
+                .build();
+    }
+
+    private PredictionUnavailableException predictionFailure(FlightPredictionRequestDTO request, Deadline deadline,
+                                                             MLServiceClient.MLServiceException e) {
+        if (deadline.isExpired() || e instanceof DeadlineExceededException) {
+            return predictionTimeout(request, deadline, e);
+        }
+        if (e instanceof CallNotPermittedException) {
+            log.warn("ML call rejected for flight {}: {}", request.getFlightNumber(), e.getMessage());
+        } else {
             log.error("ML service error for flight {}: {}", 
                     request.getFlightNumber(), e.getMessage());
-            throw new RuntimeException("Failed to get prediction from ML service", e);
         }
+        return new PredictionUnavailableException("Failed to get prediction from ML service", e);
+    }
+
+    private PredictionTimeoutException predictionTimeout(FlightPredictionRequestDTO request, Deadline deadline,
+                                                         Throwable cause) {
+        log.warn("Prediction deadline exceeded for flight {} ({}): {}",
+                request.getFlightNumber(), deadline, cause.getMessage());
+        return new PredictionTimeoutException("Prediction did not complete within the request deadline", cause);
     }
 
     /**
@@ -66,7 +208,7 @@ public class PredictionServiceImpl implements PredictionService {
      * @param probability Prediction probability
      * @return Confidence level enum
      */
-    private FlightPredictionResponseDTO.ConfidenceLevel determineConfidenceLevel(Double probability) {
+    static FlightPredictionResponseDTO.ConfidenceLevel determineConfidenceLevel(Double probability) {
         if (probability >= 0.90) {
             return FlightPredictionResponseDTO.ConfidenceLevel.VERY_HIGH;
         } else if (probability >= 0.75) {
@@ -0,0 +1,104 @@
+package com.backend.fot.benchmark;
+
+import com.backend.fot.inference.CompiledForestModel;
+import com.backend.fot.inference.RandomForestModel;
+import com.backend.fot.support.ForestFixture;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows scored per second, one row at a time, by tree traversal
+ * ({@link RandomForestModel#predictProba(double[], double[])}) and by the
+ * generated bytecode of {@link CompiledForestModel}.
+ * <p>
+ * {@code trees} and {@code depth} size a forest drawn by
+ * {@link ForestFixture#synthetic(int, int, long)}. At setup the benchmark prints
+ * the size of the generated classes, and at teardown how much of the code cache
+ * is in use, so runs with growing {@code trees} show how the JIT-compiled trees
+ * scale. Once the generated code no longer fits the instruction caches the
+ * compiled forest loses its lead over the arrays.
+ * </p>
+ * <p>
+ * Run with {@code mvn -Pbenchmark test -DskipTests -Dbenchmark=CompiledForest}.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CompiledForestBenchmark {
+
+    private static final int ROWS = 1024;
+
+    @Param({"traversal", "compiled"})
+    public String evaluator;
+
+    @Param({"20", "100", "500"})
+    public int trees;
+
+    @Param({"8", "12"})
+    public int depth;
+
+    private RandomForestModel model;
+    private CompiledForestModel compiled;
+    private double[][] rows;
+    private double[] probabilities;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        model = RandomForestModel.from(ForestFixture.synthetic(trees, depth, 42));
+        compiled = CompiledForestModel.compile(model);
+        rows = ForestFixture.randomRows(ROWS, 7);
+        probabilities = new double[model.numClasses()];
+        System.out.printf("%n%d trees of depth %d: %d nodes, %d generated classes, %d KiB of bytecode%n", trees,
+                depth, model.numNodes(), compiled.numGeneratedClasses(), compiled.classBytes() / 1024);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            // "CodeHeap '...'" with a segmented code cache, "Code Cache" without
+            if (pool.getName().startsWith("CodeHeap") || pool.getName().equals("Code Cache")) {
+                used += pool.getUsage().getUsed();
+            }
+        }
+        System.out.printf("%nCode cache in use after %s: %d KiB%n", evaluator, used / 1024);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void score(Blackhole blackhole) {
+        boolean traversal = "traversal".equals(evaluator);
+        for (double[] row : rows) {
+            if (traversal) {
+                model.predictProba(row, probabilities);
+            } else {
+                compiled.predictProba(row, probabilities);
+            }
+            blackhole.consume(probabilities[1]);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.backend.fot.benchmark;
+
+import com.backend.fot.inference.BatchForestEvaluator;
+import com.backend.fot.inference.FeatureBatch;
+import com.backend.fot.inference.RandomForestModel;
+import com.backend.fot.inference.ScalarBatchEvaluator;
+import com.backend.fot.inference.VectorBatchEvaluator;
+import com.backend.fot.support.ForestFixture;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows scored per second by the forest evaluators, on one thread.
+ * <p>
+ * {@code row} calls {@link RandomForestModel#predictProba(double[], double[])} once
+ * per row; {@code scalar} and {@code vector} score the same rows as one
+ * {@link FeatureBatch} with {@link ScalarBatchEvaluator} and
+ * {@link VectorBatchEvaluator}. Rows are the fixture's recorded feature rows in
+ * random order, against the fixture forest.
+ * </p>
+ * <p>
+ * Run with {@code mvn -Pbenchmark test -DskipTests -Dbenchmark=ForestBatch}.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ForestBatchBenchmark {
+
+    private static final int ROWS = 4096;
+
+    @Param({"row", "scalar", "vector"})
+    public String evaluator;
+
+    private RandomForestModel model;
+    private BatchForestEvaluator batchEvaluator;
+    private double[][] rows;
+    private FeatureBatch batch;
+    private double[] probabilities;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        model = RandomForestModel.from(ForestFixture.dump());
+        batchEvaluator = "vector".equals(evaluator) ? new VectorBatchEvaluator(model) : new ScalarBatchEvaluator(model);
+
+        List<ForestFixture.Case> cases = ForestFixture.cases();
+        Random random = new Random(42);
+        rows = new double[ROWS][];
+        batch = new FeatureBatch(model.numFeatures(), ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            rows[i] = cases.get(random.nextInt(cases.size())).features();
+            batch.add(rows[i]);
+        }
+        probabilities = new double[ROWS * model.numClasses()];
+        if ("vector".equals(evaluator)) {
+            System.out.printf("%nvector lanes: %d%n", VectorBatchEvaluator.lanes());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void score(Blackhole blackhole) {
+        if ("row".equals(evaluator)) {
+            double[] row = new double[model.numClasses()];
+            for (double[] features : rows) {
+                model.predictProba(features, row);
+                blackhole.consume(row[1]);
+            }
+        } else {
+            batchEvaluator.predictProba(batch, probabilities);
+            blackhole.consume(probabilities);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.backend.fot.benchmark;
+
+import com.backend.fot.client.MLServiceClient;
+import com.backend.fot.client.MLWireCodec;
+import com.backend.fot.client.ReplicaBalancer;
+import com.backend.fot.client.UnixSocketHttpClient;
+import com.backend.fot.dto.FlightPredictionRequestDTO;
+import com.backend.fot.dto.MLServiceResponseDTO;
+import com.backend.fot.resilience.AdaptiveConcurrencyLimiter;
+import com.backend.fot.resilience.Deadline;
+import com.backend.fot.resilience.RequestHedger;
+import com.backend.fot.resilience.RetryPolicy;
+import com.backend.fot.support.H2MLServiceStandIn;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.http2.config.H2Config;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares pooled HTTP/1.1 with multiplexed h2c for bursts of concurrent predictions.
+ * <p>
+ * Each operation fires {@code inFlight} predictions through the non-blocking client
+ * path and waits for all of them, against {@link H2MLServiceStandIn} running the same
+ * handlers for both protocols. The HTTP/1.1 pool is sized like the production
+ * defaults; h2c uses the stand-in's default stream limit. The connections the
+ * stand-in accepted, and how many were open at once, are printed after each trial.
+ * </p>
+ * <p>
+ * Run with {@code mvn -Pbenchmark test -DskipTests -Dbenchmark=Http2Multiplexing}.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class Http2MultiplexingBenchmark {
+
+    @Param({"http1", "h2c"})
+    public String protocol;
+
+    @Param({"1", "16", "128"})
+    public int inFlight;
+
+    private H2MLServiceStandIn standIn;
+    private CloseableHttpAsyncClient asyncHttpClient;
+    private MLServiceClient client;
+
+    private final FlightPredictionRequestDTO request = FlightPredictionRequestDTO.builder()
+            .flightNumber("AZ1234")
+            .companyName("AZ")
+            .flightOrigin("GIG")
+            .flightDestination("GRU")
+            .flightDepartureDate(LocalDateTime.now().plusDays(1).withNano(0))
+            .flightDistance(350)
+            .build();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        // The client logs every call at INFO; keep the console out of the measurement
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME))
+                .setLevel(ch.qos.logback.classic.Level.WARN);
+
+        IOReactorConfig ioReactorConfig = IOReactorConfig.custom().setIoThreadCount(2).build();
+        if ("h2c".equals(protocol)) {
+            standIn = H2MLServiceStandIn.startH2c(H2Config.DEFAULT.getMaxConcurrentStreams());
+            asyncHttpClient = HttpAsyncClients.customHttp2()
+                    .setH2Config(H2Config.custom().setPushEnabled(false).setInitialWindowSize(1048576).build())
+                    .setIOReactorConfig(ioReactorConfig)
+                    .disableAutomaticRetries()
+                    .build();
+        } else {
+            standIn = H2MLServiceStandIn.startHttp1();
+            asyncHttpClient = HttpAsyncClients.custom()
+                    .setConnectionManager(PoolingAsyncClientConnectionManagerBuilder.create()
+                            .setMaxConnTotal(200)
+                            .setMaxConnPerRoute(200)
+                            .build())
+                    .setIOReactorConfig(ioReactorConfig)
+                    .disableAutomaticRetries()
+                    .build();
+        }
+        asyncHttpClient.start();
+        UnixSocketHttpClient unixSocketHttpClient = new UnixSocketHttpClient(1, 1);
+
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        client = new MLServiceClient(
+                null,
+                asyncHttpClient,
+                unixSocketHttpClient,
+                new RequestHedger(meterRegistry, false, 95, 5, 100, 10),
+                new ReplicaBalancer(asyncHttpClient, unixSocketHttpClient, meterRegistry, standIn.predictUrl(),
+                        ReplicaBalancer.Strategy.LEAST_OUTSTANDING, 5, 5000, 2),
+                new AdaptiveConcurrencyLimiter(meterRegistry, false, 20, 1, 100, 1.5, 50, 50),
+                new RetryPolicy(meterRegistry, false, 3, 10, 200, 10),
+                2000,
+                new MLWireCodec(MLWireCodec.Contract.WRAPPER, MLWireCodec.Encoding.JSON));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        System.out.printf("%n%s x%d: %d connections accepted, at most %d open at once%n",
+                protocol, inFlight, standIn.connections(), standIn.peakOpenConnections());
+        asyncHttpClient.close();
+        standIn.close();
+    }
+
+    @Benchmark
+    public List<MLServiceResponseDTO> burst() {
+        Deadline deadline = Deadline.after(Duration.ofSeconds(5));
+        List<CompletableFuture<MLServiceResponseDTO>> calls = new ArrayList<>(inFlight);
+        for (int i = 0; i < inFlight; i++) {
+            calls.add(client.predictAsync(request, deadline));
+        }
+        return calls.stream().map(CompletableFuture::join).toList();
+    }
+}
@@ -0,0 +1,101 @@
+package com.backend.fot.benchmark;
+
+import com.backend.fot.inference.ForestDump;
+import com.backend.fot.inference.ForestFile;
+import com.backend.fot.inference.ForestPredictor;
+import com.backend.fot.support.ForestFixture;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to load the local model until it can score, from the JSON dump
+ * ({@link ForestPredictor#load}) and from the binary file ({@link ForestPredictor#map}).
+ * <p>
+ * Both files are written to a temporary directory from a forest drawn by
+ * {@link ForestFixture#synthetic(int, int, long)}; each operation loads the model
+ * and scores one row, so the binary case includes touching the mapped pages it
+ * needs. The file is in the page cache after the first load, as it is for a
+ * second replica on the same host. File sizes are printed at setup.
+ * </p>
+ * <p>
+ * Run with {@code mvn -Pbenchmark test -DskipTests -Dbenchmark=ModelLoad}.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ModelLoadBenchmark {
+
+    @Param({"json", "binary"})
+    public String format;
+
+    @Param({"20", "100", "500"})
+    public int trees;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Path directory;
+    private Path json;
+    private Path binary;
+    private double[] row;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("fot-model-load");
+        json = directory.resolve("forest.json");
+        binary = directory.resolve("forest.fotm");
+        ForestDump dump = ForestFixture.synthetic(trees, 12, 42);
+        objectMapper.writeValue(json.toFile(), dump);
+        try (OutputStream out = Files.newOutputStream(binary)) {
+            ForestFile.write(dump, out);
+        }
+        row = ForestFixture.randomRows(1, 7)[0];
+        System.out.printf("%n%d trees: JSON %d KiB, binary %d KiB%n", trees, Files.size(json) / 1024,
+                Files.size(binary) / 1024);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(json);
+        // The last mapping may still be open; the file goes away when it is released
+        Files.deleteIfExists(binary);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public double load() throws IOException {
+        ForestPredictor predictor;
+        if ("binary".equals(format)) {
+            predictor = ForestPredictor.map(binary);
+        } else {
+            try (InputStream in = Files.newInputStream(json)) {
+                predictor = ForestPredictor.load(in, objectMapper);
+            }
+        }
+        return predictor.model().predictProba(row)[1];
+    }
+}
@@ -0,0 +1,120 @@
+package com.backend.fot.benchmark;
+
+import ai.onnxruntime.OrtException;
+import com.backend.fot.dto.FlightPredictionRequestDTO;
+import com.backend.fot.inference.CompiledForestModel;
+import com.backend.fot.inference.ForestDump;
+import com.backend.fot.inference.ForestPredictor;
+import com.backend.fot.inference.OnnxForestModel;
+import com.backend.fot.support.ForestFixture;
+import com.backend.fot.support.OnnxFixture;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Flights scored per second by the in-JVM engines, from request to response:
+ * tree traversal, the generated bytecode of {@link CompiledForestModel} and ONNX
+ * Runtime through {@link OnnxForestModel}.
+ * <p>
+ * {@code row} calls {@link ForestPredictor#predict} once per flight; {@code batch}
+ * scores all of them with {@link ForestPredictor#predictAll}, one ONNX Runtime run
+ * per 256 rows. The forest is drawn by {@link ForestFixture#synthetic(int, int, long)}
+ * and written as ONNX by {@link OnnxFixture}; requests are the fixture's recorded
+ * ones. The remote path over HTTP is measured by {@code UnixSocketTransportBenchmark}
+ * ({@code tcp}).
+ * </p>
+ * <p>
+ * Run with {@code mvn -Pbenchmark test -DskipTests -Dbenchmark=OnnxInference}.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class OnnxInferenceBenchmark {
+
+    private static final int REQUESTS = 1024;
+
+    @Param({"traversal", "compiled", "onnx"})
+    public String engine;
+
+    @Param({"row", "batch"})
+    public String mode;
+
+    @Param({"100", "500"})
+    public int trees;
+
+    private Path directory;
+    private OnnxForestModel onnxModel;
+    private ForestPredictor predictor;
+    private List<FlightPredictionRequestDTO> requests;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ForestDump dump = ForestFixture.synthetic(trees, 12, 42);
+        if ("onnx".equals(engine)) {
+            directory = Files.createTempDirectory("fot-onnx");
+            onnxModel = OnnxForestModel.open(OnnxFixture.write(dump, directory.resolve("forest.onnx")),
+                    new ObjectMapper(), 1, 256);
+            predictor = ForestPredictor.onnx(onnxModel);
+        } else {
+            predictor = ForestPredictor.from(dump, "compiled".equals(engine)
+                    ? ForestPredictor.Evaluator.COMPILED : ForestPredictor.Evaluator.TRAVERSAL);
+        }
+
+        List<ForestFixture.Case> cases = ForestFixture.cases();
+        Random random = new Random(42);
+        requests = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            requests.add(cases.get(random.nextInt(cases.size())).request());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException, OrtException {
+        if (onnxModel != null) {
+            onnxModel.close();
+            Files.deleteIfExists(directory.resolve("forest.onnx"));
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public void score(Blackhole blackhole) {
+        if ("batch".equals(mode)) {
+            blackhole.consume(predictor.predictAll(requests));
+            return;
+        }
+        for (FlightPredictionRequestDTO request : requests) {
+            blackhole.consume(predictor.predict(request));
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.backend.fot.benchmark;
+
+import com.backend.fot.dto.FlightPredictionRequestDTO;
+import com.backend.fot.inference.ForestPredictor;
+import com.backend.fot.inference.PredictionTable;
+import com.backend.fot.support.ForestFixture;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to answer a scheduled flight from the {@link PredictionTable} against
+ * scoring it with the in-JVM forest ({@link ForestPredictor#predict}).
+ * <p>
+ * The schedule holds {@code departures} random (airline, route, hour) among the
+ * fixture's codes, scored for 90 days by a forest drawn by
+ * {@link ForestFixture#synthetic(int, int, long)}; requests are scheduled
+ * departures at random dates and minutes, so every lookup hits. The table's size
+ * and build time are printed at setup. The remote path over HTTP, which a hit
+ * replaces, is measured by {@code UnixSocketTransportBenchmark} ({@code tcp}).
+ * </p>
+ * <p>
+ * Run with {@code mvn -Pbenchmark test -DskipTests -Dbenchmark=PredictionTable}.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PredictionTableBenchmark {
+
+    private static final int REQUESTS = 1024;
+    private static final int DAYS = 90;
+    private static final LocalDate FIRST_DATE = LocalDate.of(2026, 10, 17);
+    private static final String[] AIRLINES = {"GLO", "TAM", "AZU", "PTB", "ABJ", "TTL"};
+    private static final String[] AIRPORTS = {"GIG", "GRU", "CGH", "SDU", "BSB", "CNF", "SSA", "REC", "FOR",
+            "POA", "CWB", "FLN", "MAO", "BEL", "VCP", "JPA"};
+
+    @Param({"table", "live"})
+    public String source;
+
+    @Param({"100", "500"})
+    public int trees;
+
+    @Param({"2000", "20000"})
+    public int departures;
+
+    private Path file;
+    private PredictionTable table;
+    private ForestPredictor predictor;
+    private List<FlightPredictionRequestDTO> requests;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        predictor = ForestPredictor.from(ForestFixture.synthetic(trees, 12, 42));
+        Random random = new Random(42);
+        Set<PredictionTable.Departure> drawn = new LinkedHashSet<>();
+        while (drawn.size() < departures) {
+            String origin = AIRPORTS[random.nextInt(AIRPORTS.length)];
+            String destination = AIRPORTS[random.nextInt(AIRPORTS.length)];
+            if (!origin.equals(destination)) {
+                drawn.add(new PredictionTable.Departure(AIRLINES[random.nextInt(AIRLINES.length)], origin,
+                        destination, random.nextInt(24)));
+            }
+        }
+        List<PredictionTable.Departure> schedule = new ArrayList<>(drawn);
+
+        if ("table".equals(source)) {
+            file = Files.createTempFile("fot-predictions", ".fotp");
+            long start = System.nanoTime();
+            try (OutputStream out = Files.newOutputStream(file)) {
+                PredictionTable.write(predictor, schedule, FIRST_DATE, DAYS, out);
+            }
+            table = PredictionTable.open(file);
+            System.out.printf("%n%d entries, %d KiB, built in %d ms%n", table.size(), Files.size(file) / 1024,
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+
+        requests = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            PredictionTable.Departure departure = schedule.get(random.nextInt(schedule.size()));
+            requests.add(FlightPredictionRequestDTO.builder()
+                    .flightNumber("FT1234")
+                    .companyName(departure.airline())
+                    .flightOrigin(departure.origin())
+                    .flightDestination(departure.destination())
+                    .flightDepartureDate(FIRST_DATE.plusDays(random.nextInt(DAYS))
+                            .atTime(departure.hour(), random.nextInt(60)))
+                    .flightDistance(500)
+                    .build());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (file != null) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public void predict(Blackhole blackhole) {
+        if ("table".equals(source)) {
+            for (FlightPredictionRequestDTO request : requests) {
+                blackhole.consume(table.lookup(request));
+            }
+            return;
+        }
+        for (FlightPredictionRequestDTO request : requests) {
+            blackhole.consume(predictor.predict(request));
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.backend.fot.benchmark;
+
+import com.backend.fot.inference.QuickScorerEvaluator;
+import com.backend.fot.inference.RandomForestModel;
+import com.backend.fot.support.ForestFixture;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows scored per second, one row at a time, by tree traversal
+ * ({@link RandomForestModel#predictProba(double[], double[])}) and by
+ * {@link QuickScorerEvaluator}.
+ * <p>
+ * {@code trees} and {@code depth} size a forest drawn by
+ * {@link ForestFixture#synthetic(int, int, long)} over the features of the
+ * {@code export_forest.py} dump; depth 8 is the recorded fixture's. Past depth 6 a
+ * tree may need more than one 64-bit word of leaf bits, which is where QuickScorer
+ * starts losing ground.
+ * </p>
+ * <p>
+ * Run with {@code mvn -Pbenchmark test -DskipTests -Dbenchmark=QuickScorer}.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class QuickScorerBenchmark {
+
+    private static final int ROWS = 1024;
+
+    @Param({"traversal", "quickscorer"})
+    public String evaluator;
+
+    @Param({"20", "100", "500"})
+    public int trees;
+
+    @Param({"4", "8", "12", "16"})
+    public int depth;
+
+    private RandomForestModel model;
+    private QuickScorerEvaluator quickScorer;
+    private double[][] rows;
+    private double[] probabilities;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        model = RandomForestModel.from(ForestFixture.synthetic(trees, depth, 42));
+        quickScorer = new QuickScorerEvaluator(model);
+        rows = ForestFixture.randomRows(ROWS, 7);
+        probabilities = new double[model.numClasses()];
+        System.out.printf("%n%d trees of depth %d: %d nodes%n", trees, depth, model.numNodes());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void score(Blackhole blackhole) {
+        boolean traversal = "traversal".equals(evaluator);
+        for (double[] row : rows) {
+            if (traversal) {
+                model.predictProba(row, probabilities);
+            } else {
+                quickScorer.predictProba(row, probabilities);
+            }
+            blackhole.consume(probabilities[1]);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.backend.fot.benchmark;
+
+import com.backend.fot.dto.FlightPredictionRequestDTO;
+import com.backend.fot.inference.ForestDump;
+import com.backend.fot.inference.ForestPredictor;
+import com.backend.fot.inference.TreeShapExplainer;
+import com.backend.fot.support.ForestFixture;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to explain one flight with {@link TreeShapExplainer}, against scoring it
+ * with {@link ForestPredictor#predict}.
+ * <p>
+ * Forests come from {@link ForestFixture#synthetic(int, int, long)}; requests are
+ * random fixture routes and hours over 90 days. {@code uncached} walks the trees
+ * for every request; {@code cached} keeps explanations by feature row, and after
+ * the first iteration every request is a hit, the cost of a repeated flight.
+ * </p>
+ * <p>
+ * Run with {@code mvn -Pbenchmark test -DskipTests -Dbenchmark=TreeShap}.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TreeShapBenchmark {
+
+    private static final int REQUESTS = 1024;
+    private static final LocalDate FIRST_DATE = LocalDate.of(2026, 10, 17);
+    private static final String[] AIRLINES = {"GLO", "TAM", "AZU", "PTB", "ABJ", "TTL"};
+    private static final String[] AIRPORTS = {"GIG", "GRU", "CGH", "SDU", "BSB", "CNF", "SSA", "REC", "FOR",
+            "POA", "CWB", "FLN", "MAO", "BEL", "VCP", "JPA"};
+
+    @Param({"predict", "uncached", "cached"})
+    public String mode;
+
+    @Param({"100", "500"})
+    public int trees;
+
+    @Param({"8", "12"})
+    public int depth;
+
+    private ForestPredictor predictor;
+    private TreeShapExplainer explainer;
+    private List<FlightPredictionRequestDTO> requests;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ForestDump dump = ForestFixture.synthetic(trees, depth, 42);
+        predictor = ForestPredictor.from(dump);
+        explainer = TreeShapExplainer.from(dump, "cached".equals(mode) ? 4 * REQUESTS : 0);
+        Random random = new Random(42);
+        requests = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            requests.add(FlightPredictionRequestDTO.builder()
+                    .flightNumber("FT1234")
+                    .companyName(AIRLINES[random.nextInt(AIRLINES.length)])
+                    .flightOrigin(AIRPORTS[random.nextInt(AIRPORTS.length)])
+                    .flightDestination(AIRPORTS[random.nextInt(AIRPORTS.length)])
+                    .flightDepartureDate(FIRST_DATE.plusDays(random.nextInt(90))
+                            .atTime(random.nextInt(24), random.nextInt(60)))
+                    .flightDistance(500)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public void score(Blackhole blackhole) {
+        if ("predict".equals(mode)) {
+            for (FlightPredictionRequestDTO request : requests) {
+                blackhole.consume(predictor.predict(request));
+            }
+            return;
+        }
+        for (FlightPredictionRequestDTO request : requests) {
+            blackhole.consume(explainer.explain(request));
+        }
+    }
+}
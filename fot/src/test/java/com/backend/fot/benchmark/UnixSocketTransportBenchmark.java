@@ -0,0 +1,162 @@
+package com.backend.fot.benchmark;
+
+import com.backend.fot.client.MLServiceClient;
+import com.backend.fot.client.MLWireCodec;
+import com.backend.fot.client.ReplicaBalancer;
+import com.backend.fot.client.UnixSocketHttpClient;
+import com.backend.fot.dto.FlightPredictionRequestDTO;
+import com.backend.fot.dto.MLServiceResponseDTO;
+import com.backend.fot.resilience.AdaptiveConcurrencyLimiter;
+import com.backend.fot.resilience.Deadline;
+import com.backend.fot.resilience.RequestHedger;
+import com.backend.fot.resilience.RetryPolicy;
+import com.backend.fot.support.SocketMLServiceStandIn;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares predict calls to a co-located model service over loopback TCP and over
+ * a Unix domain socket.
+ * <p>
+ * Both transports hit {@link SocketMLServiceStandIn}, which runs the same server
+ * code on either address family, through a fully wired {@link MLServiceClient} with
+ * hedging, the concurrency limit and retries switched off. {@code latency} reports
+ * the single-caller round trip distribution; {@code throughput} drives eight callers
+ * at once. {@code path} selects the blocking or the non-blocking client path.
+ * </p>
+ * <p>
+ * Run with {@code mvn -Pbenchmark test -DskipTests -Dbenchmark=UnixSocketTransport}.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UnixSocketTransportBenchmark {
+
+    @Param({"tcp", "uds"})
+    public String transport;
+
+    @Param({"async", "blocking"})
+    public String path;
+
+    private Path socketDir;
+    private SocketMLServiceStandIn standIn;
+    private CloseableHttpClient httpClient;
+    private CloseableHttpAsyncClient asyncHttpClient;
+    private MLServiceClient client;
+
+    private final FlightPredictionRequestDTO request = FlightPredictionRequestDTO.builder()
+            .flightNumber("AZ1234")
+            .companyName("AZ")
+            .flightOrigin("GIG")
+            .flightDestination("GRU")
+            .flightDepartureDate(LocalDateTime.now().plusDays(1).withNano(0))
+            .flightDistance(350)
+            .build();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        // The client logs every call at INFO; keep the console out of the measurement
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME))
+                .setLevel(ch.qos.logback.classic.Level.WARN);
+        socketDir = Files.createTempDirectory("fot-bench");
+        standIn = "uds".equals(transport)
+                ? SocketMLServiceStandIn.startUnix(socketDir.resolve("ml.sock"))
+                : SocketMLServiceStandIn.startTcp();
+
+        // Pools sized like the production defaults so neither transport waits for a connection
+        httpClient = HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(32)
+                        .setMaxConnPerRoute(32)
+                        .build())
+                .disableAutomaticRetries()
+                .build();
+        asyncHttpClient = HttpAsyncClients.custom()
+                .setConnectionManager(PoolingAsyncClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(32)
+                        .setMaxConnPerRoute(32)
+                        .build())
+                .disableAutomaticRetries()
+                .build();
+        asyncHttpClient.start();
+        UnixSocketHttpClient unixSocketHttpClient = new UnixSocketHttpClient(32, 32);
+
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        client = new MLServiceClient(
+                new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient)),
+                asyncHttpClient,
+                unixSocketHttpClient,
+                new RequestHedger(meterRegistry, false, 95, 5, 100, 10),
+                new ReplicaBalancer(asyncHttpClient, unixSocketHttpClient, meterRegistry, standIn.predictUrl(),
+                        ReplicaBalancer.Strategy.LEAST_OUTSTANDING, 5, 5000, 2),
+                new AdaptiveConcurrencyLimiter(meterRegistry, false, 20, 1, 100, 1.5, 50, 50),
+                new RetryPolicy(meterRegistry, false, 3, 10, 200, 10),
+                2000,
+                new MLWireCodec(MLWireCodec.Contract.WRAPPER, MLWireCodec.Encoding.JSON));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        asyncHttpClient.close();
+        httpClient.close();
+        standIn.close();
+        Files.deleteIfExists(socketDir);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Threads(1)
+    public MLServiceResponseDTO latency() {
+        return predict();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Threads(8)
+    public MLServiceResponseDTO throughput() {
+        return predict();
+    }
+
+    private MLServiceResponseDTO predict() {
+        Deadline deadline = Deadline.after(Duration.ofSeconds(2));
+        return "blocking".equals(path)
+                ? client.predict(request, deadline)
+                : client.predictAsync(request, deadline).join();
+    }
+}
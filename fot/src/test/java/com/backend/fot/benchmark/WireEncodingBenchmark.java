@@ -0,0 +1,101 @@
+package com.backend.fot.benchmark;
+
+import com.backend.fot.client.MLWireCodec;
+import com.backend.fot.dto.FlightPredictionRequestDTO;
+import com.backend.fot.dto.MLServiceResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the CPU cost of encoding one ML request and decoding its response.
+ * <p>
+ * {@code jackson} is the data-binding path the client used before
+ * {@link MLWireCodec}: it serializes the whole DTO, derived getters included.
+ * {@code json} is the codec's hand-written JSON and {@code frame} the binary frame.
+ * The body sizes per call are printed once per trial; run with {@code -prof gc} to
+ * compare allocation as well.
+ * </p>
+ * <p>
+ * Run with {@code mvn -Pbenchmark test -DskipTests -Dbenchmark=WireEncoding}.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WireEncodingBenchmark {
+
+    @Param({"jackson", "json", "frame"})
+    public String encoding;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private final FlightPredictionRequestDTO request = FlightPredictionRequestDTO.builder()
+            .flightNumber("AZ1234")
+            .companyName("AZ")
+            .flightOrigin("GIG")
+            .flightDestination("GRU")
+            .flightDepartureDate(LocalDateTime.of(2026, 3, 7, 9, 5, 0))
+            .flightDistance(350)
+            .build();
+
+    private MLWireCodec codec;
+    private byte[] responseBody;
+    private String responseContentType;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        codec = new MLWireCodec(MLWireCodec.Contract.WRAPPER,
+                "frame".equals(encoding) ? MLWireCodec.Encoding.FRAME : MLWireCodec.Encoding.JSON);
+        MLServiceResponseDTO response = MLServiceResponseDTO.builder()
+                .prediction(1)
+                .confidence(new BigDecimal("0.87"))
+                .build();
+        if ("frame".equals(encoding)) {
+            responseBody = MLWireCodec.encodeFrameResponses(List.of(response));
+            responseContentType = MLWireCodec.FRAME_CONTENT_TYPE;
+        } else {
+            // What the wrapper answers, rather than the DTO's own larger serialization
+            responseBody = "{\"prediction\":1,\"confidence\":0.87}".getBytes(StandardCharsets.UTF_8);
+            responseContentType = MLWireCodec.JSON_CONTENT_TYPE;
+        }
+        System.out.printf("%n%s: request %d bytes, response %d bytes%n",
+                encoding, encode().length, responseBody.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return "jackson".equals(encoding) ? objectMapper.writeValueAsBytes(request) : codec.encode(request);
+    }
+
+    @Benchmark
+    public MLServiceResponseDTO decode() throws IOException {
+        return "jackson".equals(encoding)
+                ? objectMapper.readValue(responseBody, MLServiceResponseDTO.class)
+                : codec.decode(responseBody, responseContentType);
+    }
+}
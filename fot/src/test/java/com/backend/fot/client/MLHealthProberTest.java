@@ -0,0 +1,218 @@
+package com.backend.fot.client;
+
+import com.backend.fot.dto.FlightPredictionRequestDTO;
+import com.backend.fot.resilience.AdaptiveConcurrencyLimiter;
+import com.backend.fot.resilience.CallNotPermittedException;
+import com.backend.fot.resilience.Deadline;
+import com.backend.fot.resilience.RequestHedger;
+import com.backend.fot.resilience.RetryPolicy;
+import com.backend.fot.support.MLServiceStandIn;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MLHealthProber against in-process ML service stand-ins.
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ */
+@DisplayName("MLHealthProber Tests")
+class MLHealthProberTest {
+
+    private CloseableHttpAsyncClient asyncHttpClient;
+    private final UnixSocketHttpClient unixSocketHttpClient = new UnixSocketHttpClient(4, 4);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() {
+        asyncHttpClient = HttpAsyncClients.custom().disableAutomaticRetries().build();
+        asyncHttpClient.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        asyncHttpClient.close();
+    }
+
+    private ReplicaBalancer balancer(String urls) {
+        return new ReplicaBalancer(asyncHttpClient, unixSocketHttpClient, new SimpleMeterRegistry(), urls,
+                ReplicaBalancer.Strategy.LEAST_OUTSTANDING, 5, 5000, 2);
+    }
+
+    private MLHealthProber prober(ReplicaBalancer balancer) {
+        // Probes are driven by the tests, not by the scheduler
+        return new MLHealthProber(asyncHttpClient, unixSocketHttpClient, balancer, objectMapper, new SimpleMeterRegistry(), false, 5000, 500);
+    }
+
+    private static String unreachableUrl() throws Exception {
+        try (ServerSocket socket = new ServerSocket()) {
+            socket.bind(new InetSocketAddress("127.0.0.1", 0));
+            return "http://127.0.0.1:" + socket.getLocalPort() + "/predict";
+        }
+    }
+
+    @Nested
+    @DisplayName("Snapshot")
+    class SnapshotTests {
+
+        @Test
+        @DisplayName("Should be UNKNOWN before the first probe")
+        void shouldStartUnknown() throws Exception {
+            try (MLServiceStandIn standIn = MLServiceStandIn.start()) {
+                // Act
+                MLHealthProber prober = prober(balancer(standIn.predictUrl()));
+
+                // Assert
+                assertSame(MLHealthSnapshot.UNKNOWN, prober.snapshot());
+                assertEquals(0, standIn.healthCalls());
+            }
+        }
+
+        @Test
+        @DisplayName("Should publish status, latency and model_loaded from the health endpoint")
+        void shouldPublishProbeResult() throws Exception {
+            try (MLServiceStandIn standIn = MLServiceStandIn.start()) {
+                // Arrange
+                MLHealthProber prober = prober(balancer(standIn.predictUrl()));
+
+                // Act
+                prober.probe().join();
+                MLHealthSnapshot snapshot = prober.snapshot();
+
+                // Assert
+                assertEquals(MLHealthSnapshot.Status.UP, snapshot.status());
+                assertEquals(Boolean.TRUE, snapshot.modelLoaded());
+                assertTrue(snapshot.latencyMillis() >= 0);
+                assertNotNull(snapshot.checkedAt());
+                assertEquals(1, snapshot.replicas().size());
+            }
+        }
+
+        @Test
+        @DisplayName("Should report DOWN when the model is not loaded or the replica is unreachable")
+        void shouldReportDown() throws Exception {
+            try (MLServiceStandIn standIn = MLServiceStandIn.start()) {
+                // Arrange
+                standIn.setModelLoaded(false);
+                MLHealthProber prober = prober(balancer(standIn.predictUrl() + "," + unreachableUrl()));
+
+                // Act
+                MLHealthSnapshot snapshot = prober.probe().join();
+
+                // Assert
+                assertEquals(MLHealthSnapshot.Status.DOWN, snapshot.status());
+                assertEquals(Boolean.FALSE, snapshot.modelLoaded());
+                assertTrue(snapshot.replicas().stream().allMatch(replica -> replica.detail() != null));
+            }
+        }
+
+        @Test
+        @DisplayName("Should serve reads from the snapshot without calling the service")
+        void shouldReadWithoutNetwork() throws Exception {
+            try (MLServiceStandIn standIn = MLServiceStandIn.start()) {
+                // Arrange
+                MLHealthProber prober = prober(balancer(standIn.predictUrl()));
+                MLServiceHealthIndicator indicator = new MLServiceHealthIndicator(prober);
+                prober.probe().join();
+
+                // Act
+                for (int i = 0; i < 1000; i++) {
+                    prober.snapshot();
+                    indicator.health();
+                }
+
+                // Assert
+                assertEquals(Status.UP, indicator.health().getStatus());
+                assertEquals(true, indicator.health().getDetails().get("modelLoaded"));
+                assertEquals(1, standIn.healthCalls());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Routing and failure decisions")
+    class DecisionTests {
+
+        @Test
+        @DisplayName("Should route around a replica found down")
+        void shouldSkipReplicaFoundDown() throws Exception {
+            try (MLServiceStandIn up = MLServiceStandIn.start(); MLServiceStandIn down = MLServiceStandIn.start()) {
+                // Arrange
+                down.setModelLoaded(false);
+                ReplicaBalancer balancer = balancer(up.predictUrl() + "," + down.predictUrl());
+                MLHealthProber prober = prober(balancer);
+
+                // Act
+                prober.probe().join();
+
+                // Assert
+                assertFalse(balancer.allProbedDown());
+                for (int i = 0; i < 20; i++) {
+                    assertEquals(up.predictUrl(), balancer.choose().url());
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("Should fail predictions fast while every replica is down")
+        void shouldFailFastWhenEveryReplicaIsDown() throws Exception {
+            try (MLServiceStandIn standIn = MLServiceStandIn.start()) {
+                // Arrange
+                standIn.setModelLoaded(false);
+                ReplicaBalancer balancer = balancer(standIn.predictUrl());
+                MLHealthProber prober = prober(balancer);
+                MLServiceClient client = new MLServiceClient(
+                        new RestTemplate(),
+                        asyncHttpClient,
+                        unixSocketHttpClient,
+                        new RequestHedger(new SimpleMeterRegistry(), false, 95, 5, 100, 10),
+                        balancer,
+                        new AdaptiveConcurrencyLimiter(new SimpleMeterRegistry(), false, 20, 1, 100, 1.5, 50, 50),
+                        new RetryPolicy(new SimpleMeterRegistry(), false, 3, 10, 200, 10),
+                        2000,
+                        new MLWireCodec(MLWireCodec.Contract.WRAPPER, MLWireCodec.Encoding.JSON));
+                FlightPredictionRequestDTO request = FlightPredictionRequestDTO.builder()
+                        .flightNumber("AZ1234")
+                        .companyName("AZ")
+                        .flightOrigin("GIG")
+                        .flightDestination("GRU")
+                        .flightDepartureDate(LocalDateTime.now().plusDays(1))
+                        .flightDistance(350)
+                        .build();
+
+                // Act
+                prober.probe().join();
+                CompletionException error = assertThrows(CompletionException.class,
+                        () -> client.predictAsync(request, Deadline.after(Duration.ofSeconds(5))).join());
+
+                // Assert
+                assertInstanceOf(CallNotPermittedException.class, error.getCause());
+                assertFalse(client.isServiceAvailable());
+                assertEquals(0, standIn.singleCalls());
+
+                // Recovery: the next probe puts the replica back
+                standIn.setModelLoaded(true);
+                prober.probe().join();
+                assertTrue(client.isServiceAvailable());
+                assertNotNull(client.predictAsync(request, Deadline.after(Duration.ofSeconds(5))).join());
+            }
+        }
+    }
+}
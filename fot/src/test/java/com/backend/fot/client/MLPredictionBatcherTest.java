@@ -0,0 +1,195 @@
+package com.backend.fot.client;
+
+import com.backend.fot.dto.FlightPredictionRequestDTO;
+import com.backend.fot.dto.MLServiceResponseDTO;
+import com.backend.fot.resilience.AdaptiveConcurrencyLimiter;
+import com.backend.fot.resilience.Deadline;
+import com.backend.fot.resilience.DeadlineExceededException;
+import com.backend.fot.resilience.RequestHedger;
+import com.backend.fot.resilience.RetryPolicy;
+import com.backend.fot.support.MLServiceStandIn;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MLPredictionBatcher against the in-process ML service stand-in.
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ */
+@DisplayName("MLPredictionBatcher Tests")
+class MLPredictionBatcherTest {
+
+    private static final LocalDateTime DEPARTURE = LocalDateTime.now().plusDays(3).withNano(0);
+
+    private MLServiceStandIn standIn;
+    private CloseableHttpAsyncClient asyncHttpClient;
+    private final UnixSocketHttpClient unixSocketHttpClient = new UnixSocketHttpClient(4, 4);
+    private MLServiceClient client;
+    private SimpleMeterRegistry meterRegistry;
+    private MLPredictionBatcher batcher;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        standIn = MLServiceStandIn.start();
+        meterRegistry = new SimpleMeterRegistry();
+        asyncHttpClient = HttpAsyncClients.createDefault();
+        asyncHttpClient.start();
+        client = new MLServiceClient(
+                new RestTemplate(),
+                asyncHttpClient,
+                unixSocketHttpClient,
+                new RequestHedger(meterRegistry, false, 95, 5, 100, 10),
+                new ReplicaBalancer(asyncHttpClient, unixSocketHttpClient, meterRegistry, standIn.predictUrl(),
+                        ReplicaBalancer.Strategy.LEAST_OUTSTANDING, 5, 5000, 2),
+                new AdaptiveConcurrencyLimiter(meterRegistry, false, 20, 1, 100, 1.5, 50, 50),
+                new RetryPolicy(meterRegistry, false, 3, 10, 200, 10),
+                2000,
+                new MLWireCodec(MLWireCodec.Contract.WRAPPER, MLWireCodec.Encoding.JSON));
+    }
+
+    private static Deadline deadline() {
+        return Deadline.after(Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (batcher != null) {
+            batcher.stop();
+        }
+        asyncHttpClient.close();
+        standIn.close();
+    }
+
+    private MLPredictionBatcher startBatcher(int maxSize, long maxWaitMicros) {
+        MLPredictionBatcher started = new MLPredictionBatcher(client, meterRegistry, true, maxSize, maxWaitMicros, 1000);
+        started.start();
+        return started;
+    }
+
+    private FlightPredictionRequestDTO request(int distance) {
+        return FlightPredictionRequestDTO.builder()
+                .flightNumber("AZ" + distance)
+                .companyName("AZ")
+                .flightOrigin("GIG")
+                .flightDestination("GRU")
+                .flightDepartureDate(DEPARTURE)
+                .flightDistance(distance)
+                .build();
+    }
+
+    @Nested
+    @DisplayName("Batch dispatch")
+    class DispatchTests {
+
+        @Test
+        @DisplayName("Should return the same answers as individual calls, in request order")
+        void shouldMatchIndividualPredictions() {
+            // Arrange
+            batcher = startBatcher(8, 50_000);
+            List<FlightPredictionRequestDTO> requests = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                requests.add(request(100 + i));
+            }
+
+            // Act
+            List<CompletableFuture<MLServiceResponseDTO>> batched = requests.stream().map(r -> batcher.submit(r, deadline())).toList();
+            List<MLServiceResponseDTO> individual = requests.stream().map(r -> client.predictAsync(r, deadline()).join()).toList();
+
+            // Assert
+            for (int i = 0; i < requests.size(); i++) {
+                MLServiceResponseDTO expected = individual.get(i);
+                MLServiceResponseDTO actual = batched.get(i).join();
+                assertEquals(expected.getPrediction(), actual.getPrediction());
+                assertEquals(0, expected.getConfidence().compareTo(actual.getConfidence()));
+            }
+            assertEquals(8, standIn.batchedItems());
+        }
+
+        @Test
+        @DisplayName("Should dispatch as soon as the batch is full")
+        void shouldDispatchFullBatches() {
+            // Arrange - wait window long enough that only the size trigger can fire
+            batcher = startBatcher(4, 10_000_000);
+
+            // Act
+            List<CompletableFuture<MLServiceResponseDTO>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(batcher.submit(request(200 + i), deadline()));
+            }
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+            // Assert
+            assertEquals(2, standIn.batchCalls());
+            assertEquals(0, standIn.singleCalls());
+            assertEquals(2, meterRegistry.get("ml.client.batch.size").summary().count());
+            assertEquals(8, meterRegistry.get("ml.client.batch.size").summary().totalAmount());
+        }
+
+        @Test
+        @DisplayName("Should dispatch a partial batch once the wait window expires")
+        void shouldDispatchPartialBatchOnTimeout() {
+            // Arrange
+            batcher = startBatcher(32, 1_000);
+
+            // Act
+            MLServiceResponseDTO response = batcher.submit(request(300), deadline()).join();
+
+            // Assert
+            assertNotNull(response.getPrediction());
+            assertEquals(1, standIn.batchCalls());
+            assertEquals(1, meterRegistry.get("ml.client.batch.wait").timer().count());
+        }
+
+        @Test
+        @DisplayName("Should drop items whose deadline expired while queued")
+        void shouldDropExpiredItems() {
+            // Arrange
+            batcher = startBatcher(2, 10_000_000);
+
+            // Act
+            CompletableFuture<MLServiceResponseDTO> expired = batcher.submit(request(500), Deadline.after(Duration.ZERO));
+            CompletableFuture<MLServiceResponseDTO> live = batcher.submit(request(501), deadline());
+
+            // Assert
+            CompletionException error = assertThrows(CompletionException.class, expired::join);
+            assertInstanceOf(DeadlineExceededException.class, error.getCause());
+            assertNotNull(live.join().getPrediction());
+            assertEquals(1, standIn.batchedItems());
+        }
+    }
+
+    @Nested
+    @DisplayName("Lifecycle")
+    class LifecycleTests {
+
+        @Test
+        @DisplayName("Should reject submissions when batching is not running")
+        void shouldRejectWhenNotRunning() {
+            // Arrange
+            batcher = new MLPredictionBatcher(client, meterRegistry, false, 32, 2000, 10);
+
+            // Act & Assert
+            assertFalse(batcher.isEnabled());
+            CompletionException error = assertThrows(CompletionException.class,
+                    () -> batcher.submit(request(400), deadline()).join());
+            assertInstanceOf(MLServiceClient.MLServiceException.class, error.getCause());
+        }
+    }
+}
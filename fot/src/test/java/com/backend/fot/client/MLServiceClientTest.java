@@ -0,0 +1,850 @@
+package com.backend.fot.client;
+
+import com.backend.fot.dto.FlightPredictionRequestDTO;
+import com.backend.fot.dto.MLServiceResponseDTO;
+import com.backend.fot.resilience.AdaptiveConcurrencyLimiter;
+import com.backend.fot.resilience.Deadline;
+import com.backend.fot.resilience.DeadlineExceededException;
+import com.backend.fot.resilience.CallNotPermittedException;
+import com.backend.fot.resilience.CircuitBreaker;
+import com.backend.fot.resilience.MLServiceGuard;
+import com.backend.fot.resilience.RequestHedger;
+import com.backend.fot.resilience.RetryPolicy;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.backend.fot.support.H2MLServiceStandIn;
+import com.backend.fot.support.MLServiceStandIn;
+import com.backend.fot.support.SocketMLServiceStandIn;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MLServiceClient against a local HTTP stand-in for the ML service.
+ *
+ * @author FlightOnTime Team
+ * @version 1.2
+ */
+@DisplayName("MLServiceClient Tests")
+class MLServiceClientTest {
+
+    private HttpServer server;
+    private CloseableHttpAsyncClient asyncHttpClient;
+    private final UnixSocketHttpClient unixSocketHttpClient = new UnixSocketHttpClient(4, 4);
+    private MLServiceClient client;
+
+    private final AtomicInteger responseStatus = new AtomicInteger(200);
+    private final AtomicReference<String> responseBody =
+            new AtomicReference<>("{\"prediction\":1,\"confidence\":0.87}");
+    private final AtomicReference<String> receivedBody = new AtomicReference<>();
+    private final AtomicReference<String> receivedDeadline = new AtomicReference<>();
+    private final AtomicInteger receivedCalls = new AtomicInteger();
+    private final AtomicInteger unavailableResponses = new AtomicInteger();
+
+    private final FlightPredictionRequestDTO request = FlightPredictionRequestDTO.builder()
+            .flightNumber("AZ1234")
+            .companyName("AZ")
+            .flightOrigin("GIG")
+            .flightDestination("GRU")
+            .flightDepartureDate(LocalDateTime.now().plusDays(1).withNano(0))
+            .flightDistance(350)
+            .build();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/predict", exchange -> {
+            receivedBody.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            receivedDeadline.set(exchange.getRequestHeaders().getFirst(Deadline.HEADER));
+            receivedCalls.incrementAndGet();
+            if (unavailableResponses.getAndDecrement() > 0) {
+                exchange.sendResponseHeaders(503, -1);
+                exchange.close();
+                return;
+            }
+            byte[] body = responseBody.get().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(responseStatus.get(), body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        asyncHttpClient = HttpAsyncClients.custom().disableAutomaticRetries().build();
+        asyncHttpClient.start();
+
+        client = new MLServiceClient(
+                new RestTemplate(),
+                asyncHttpClient,
+                unixSocketHttpClient,
+                new RequestHedger(new SimpleMeterRegistry(), false, 95, 5, 100, 10),
+                balancer("http://127.0.0.1:" + server.getAddress().getPort() + "/predict"),
+                limiter(20, 50),
+                retries(),
+                2000,
+                new MLWireCodec(MLWireCodec.Contract.WRAPPER, MLWireCodec.Encoding.JSON));
+    }
+
+    private ReplicaBalancer balancer(String mlServiceUrl) {
+        return new ReplicaBalancer(asyncHttpClient, unixSocketHttpClient, new SimpleMeterRegistry(), mlServiceUrl,
+                ReplicaBalancer.Strategy.LEAST_OUTSTANDING, 5, 5000, 2);
+    }
+
+    private static AdaptiveConcurrencyLimiter limiter(int limit, int queueCapacity) {
+        return new AdaptiveConcurrencyLimiter(new SimpleMeterRegistry(), true, limit, 1, limit, 1.5, queueCapacity, 50);
+    }
+
+    private static RetryPolicy retries() {
+        return new RetryPolicy(new SimpleMeterRegistry(), true, 3, 1, 5, 10);
+    }
+
+    private static Deadline deadline() {
+        return Deadline.after(Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        asyncHttpClient.close();
+        server.stop(0);
+    }
+
+    @Nested
+    @DisplayName("predictAsync")
+    class PredictAsyncTests {
+
+        @Test
+        @DisplayName("Should post the flight as JSON and parse the ML response")
+        void shouldPostRequestAndParseResponse() {
+            // Act
+            MLServiceResponseDTO result = client.predictAsync(request, deadline()).join();
+
+            // Assert
+            assertEquals(1, result.getPrediction());
+            assertEquals(0, new BigDecimal("0.87").compareTo(result.getConfidence()));
+            assertTrue(receivedBody.get().contains("\"flightNumber\":\"AZ1234\""));
+            assertTrue(receivedBody.get().contains("\"flightOrigin\":\"GIG\""));
+        }
+
+        @Test
+        @DisplayName("Should complete exceptionally with MLServiceException on HTTP 500")
+        void shouldFailOnServerError() {
+            // Arrange
+            responseStatus.set(500);
+            responseBody.set("{\"error\":\"boom\"}");
+
+            // Act & Assert
+            CompletionException exception = assertThrows(CompletionException.class,
+                    () -> client.predictAsync(request, deadline()).join());
+            assertInstanceOf(MLServiceClient.MLServiceException.class, exception.getCause());
+            assertTrue(exception.getCause().getMessage().contains("500"));
+        }
+
+        @Test
+        @DisplayName("Should fail promptly with MLServiceException on a malformed confidence")
+        void shouldFailOnMalformedConfidence() {
+            // Arrange
+            responseBody.set("{\"prediction\":1,\"confidence\":\"n/a\"}");
+
+            // Act & Assert - the future completes instead of hanging until an outer timeout
+            ExecutionException exception = assertThrows(ExecutionException.class,
+                    () -> client.predictAsync(request, deadline()).get(2, TimeUnit.SECONDS));
+            assertInstanceOf(MLServiceClient.MLServiceException.class, exception.getCause());
+            assertTrue(exception.getCause().getMessage().startsWith("Failed to parse ML service response"));
+            assertThrows(MLServiceClient.MLServiceException.class, () -> client.predict(request, deadline()));
+        }
+    }
+
+    @Nested
+    @DisplayName("Deadlines")
+    class DeadlineTests {
+
+        @Test
+        @DisplayName("Should forward the deadline downstream on async and blocking calls")
+        void shouldForwardDeadlineHeader() {
+            // Arrange
+            Deadline deadline = deadline();
+
+            // Act
+            client.predictAsync(request, deadline).join();
+            String asyncHeader = receivedDeadline.get();
+            client.predict(request, deadline);
+
+            // Assert
+            assertEquals(Long.toString(deadline.epochMillis()), asyncHeader);
+            assertEquals(Long.toString(deadline.epochMillis()), receivedDeadline.get());
+        }
+
+        @Test
+        @DisplayName("Should not send a call whose deadline has already expired")
+        void shouldNotSendExpiredCall() {
+            // Arrange
+            Deadline expired = Deadline.after(Duration.ZERO);
+
+            // Act & Assert
+            CompletionException error = assertThrows(CompletionException.class,
+                    () -> client.predictAsync(request, expired).join());
+            assertInstanceOf(DeadlineExceededException.class, error.getCause());
+            assertThrows(DeadlineExceededException.class, () -> client.predict(request, expired));
+            assertNull(receivedBody.get());
+        }
+
+        @Test
+        @DisplayName("Should cut the read timeout down to the time left")
+        void shouldBoundReadTimeoutByDeadline() throws Exception {
+            // Arrange - the stand-in answers after 1s, the read timeout is 2s
+            server.createContext("/slow/predict", exchange -> {
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                exchange.sendResponseHeaders(200, -1);
+                exchange.close();
+            });
+            // Same select interval as the application's async client, so timeouts fire promptly
+            CloseableHttpAsyncClient fineGrainedClient = HttpAsyncClients.custom()
+                    .setIOReactorConfig(IOReactorConfig.custom().setSelectInterval(TimeValue.ofMilliseconds(50)).build())
+                    .build();
+            fineGrainedClient.start();
+            MLServiceClient slowClient = new MLServiceClient(
+                    new RestTemplate(),
+                    fineGrainedClient,
+                    unixSocketHttpClient,
+                    new RequestHedger(new SimpleMeterRegistry(), false, 95, 5, 100, 10),
+                    balancer("http://127.0.0.1:" + server.getAddress().getPort() + "/slow/predict"),
+                    limiter(20, 50),
+                    retries(),
+                    2000,
+                    new MLWireCodec(MLWireCodec.Contract.WRAPPER, MLWireCodec.Encoding.JSON));
+
+            // Act
+            long start = System.nanoTime();
+            CompletionException error = assertThrows(CompletionException.class,
+                    () -> slowClient.predictAsync(request, Deadline.after(Duration.ofMillis(200))).join());
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+            fineGrainedClient.close();
+
+            // Assert
+            assertInstanceOf(DeadlineExceededException.class, error.getCause());
+            assertTrue(elapsedMs < 900, "call took " + elapsedMs + "ms");
+        }
+
+        @Test
+        @DisplayName("Should keep read timeouts as service failures when the deadline is further away")
+        void shouldReportReadTimeoutAsServiceFailure() throws Exception {
+            // Arrange - the read timeout (100ms) is shorter than the deadline (5s)
+            HttpServer slowServer = slowServer(1000);
+            CloseableHttpAsyncClient fineGrainedClient = fineGrainedClient();
+            MLServiceClient slowClient = client(fineGrainedClient, slowServer, 100);
+
+            // Act
+            CompletionException error = assertThrows(CompletionException.class,
+                    () -> slowClient.predictAsync(request, deadline()).join());
+
+            fineGrainedClient.close();
+            slowServer.stop(0);
+
+            // Assert
+            assertInstanceOf(MLServiceClient.MLServiceException.class, error.getCause());
+            assertFalse(error.getCause() instanceof DeadlineExceededException);
+            assertTrue(MLServiceClient.isServiceFault(error.getCause()));
+        }
+
+        @Test
+        @DisplayName("Should leave the circuit breaker closed under repeated 1ms deadlines")
+        void shouldNotOpenBreakerOnCallerDeadlines() throws Exception {
+            // Arrange - 20 failures would open a breaker that needs 5 calls at 50%
+            HttpServer slowServer = slowServer(500);
+            CloseableHttpAsyncClient fineGrainedClient = fineGrainedClient();
+            MLServiceClient slowClient = client(fineGrainedClient, slowServer, 2000);
+            MLServiceGuard guard = new MLServiceGuard(new SimpleMeterRegistry(), 10, 5, 50, 80, 2000, 10000, 5, 100);
+
+            // Act
+            for (int i = 0; i < 20; i++) {
+                CompletionException error = assertThrows(CompletionException.class, () -> guard.executeAsync(
+                        () -> slowClient.predictAsync(request, Deadline.after(Duration.ofMillis(1)))).join());
+                assertInstanceOf(DeadlineExceededException.class, error.getCause());
+            }
+            CompletionException cutShort = assertThrows(CompletionException.class, () -> guard.executeAsync(
+                    () -> slowClient.predictAsync(request, Deadline.after(Duration.ofMillis(100)))).join());
+
+            fineGrainedClient.close();
+            slowServer.stop(0);
+
+            // Assert
+            assertInstanceOf(DeadlineExceededException.class, cutShort.getCause());
+            assertEquals(CircuitBreaker.State.CLOSED, guard.getCircuitState());
+        }
+
+        /** Stand-in that answers after {@code delayMs}, on a thread per exchange. */
+        private HttpServer slowServer(long delayMs) throws Exception {
+            HttpServer slowServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            slowServer.setExecutor(Executors.newCachedThreadPool());
+            slowServer.createContext("/predict", exchange -> {
+                try {
+                    Thread.sleep(delayMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                exchange.sendResponseHeaders(200, -1);
+                exchange.close();
+            });
+            slowServer.start();
+            return slowServer;
+        }
+
+        /** Same select interval as the application's async client, so timeouts fire promptly. */
+        private CloseableHttpAsyncClient fineGrainedClient() {
+            CloseableHttpAsyncClient fineGrainedClient = HttpAsyncClients.custom()
+                    .setIOReactorConfig(IOReactorConfig.custom().setSelectInterval(TimeValue.ofMilliseconds(50)).build())
+                    .build();
+            fineGrainedClient.start();
+            return fineGrainedClient;
+        }
+
+        private MLServiceClient client(CloseableHttpAsyncClient httpClient, HttpServer target, long readTimeoutMs) {
+            return new MLServiceClient(
+                    new RestTemplate(),
+                    httpClient,
+                    unixSocketHttpClient,
+                    new RequestHedger(new SimpleMeterRegistry(), false, 95, 5, 100, 10),
+                    balancer("http://127.0.0.1:" + target.getAddress().getPort() + "/predict"),
+                    limiter(20, 50),
+                    retries(),
+                    readTimeoutMs,
+                    new MLWireCodec(MLWireCodec.Contract.WRAPPER, MLWireCodec.Encoding.JSON));
+        }
+    }
+
+    @Nested
+    @DisplayName("Retries")
+    class RetryTests {
+
+        @Test
+        @DisplayName("Should retry a 503 and return the next answer")
+        void shouldRetryServiceUnavailable() {
+            // Arrange
+            unavailableResponses.set(1);
+
+            // Act
+            MLServiceResponseDTO async = client.predictAsync(request, deadline()).join();
+            unavailableResponses.set(1);
+            MLServiceResponseDTO blocking = client.predict(request, deadline());
+
+            // Assert
+            assertEquals(1, async.getPrediction());
+            assertEquals(1, blocking.getPrediction());
+            assertEquals(4, receivedCalls.get());
+        }
+
+        @Test
+        @DisplayName("Should not retry other server errors")
+        void shouldNotRetryServerError() {
+            // Arrange
+            responseStatus.set(500);
+            responseBody.set("{\"error\":\"boom\"}");
+
+            // Act & Assert
+            assertThrows(CompletionException.class, () -> client.predictAsync(request, deadline()).join());
+            assertThrows(MLServiceClient.MLServiceException.class, () -> client.predict(request, deadline()));
+            assertEquals(2, receivedCalls.get());
+        }
+
+        @Test
+        @DisplayName("Should give up after the maximum number of attempts")
+        void shouldStopAfterMaxAttempts() {
+            // Arrange
+            unavailableResponses.set(10);
+
+            // Act
+            CompletionException error = assertThrows(CompletionException.class,
+                    () -> client.predictAsync(request, deadline()).join());
+
+            // Assert
+            assertEquals(503, ((MLServiceClient.MLServiceException) error.getCause()).getStatusCode());
+            assertEquals(3, receivedCalls.get());
+        }
+
+        @Test
+        @DisplayName("Should only treat connection failures and 503 as retryable")
+        void shouldClassifyRetryableFailures() {
+            assertTrue(MLServiceClient.isRetryable(new MLServiceClient.MLServiceException(
+                    "Failed to communicate with ML service", new ConnectException("Connection refused"))));
+            assertTrue(MLServiceClient.isRetryable(new MLServiceClient.MLServiceException("HTTP 503", 503)));
+            assertFalse(MLServiceClient.isRetryable(new MLServiceClient.MLServiceException("HTTP 500", 500)));
+            assertFalse(MLServiceClient.isRetryable(new MLServiceClient.MLServiceException(
+                    "Failed to communicate with ML service", new SocketTimeoutException("Read timed out"))));
+            assertFalse(MLServiceClient.isRetryable(new CallNotPermittedException("ML service concurrency limit reached")));
+        }
+    }
+
+    @Nested
+    @DisplayName("Replicas and hedging")
+    class HedgingTests {
+
+        @Test
+        @DisplayName("Should answer from the fast replica when the other one is slow")
+        void shouldHedgeToFastReplica() throws Exception {
+            try (MLServiceStandIn slow = MLServiceStandIn.start(); MLServiceStandIn fast = MLServiceStandIn.start()) {
+                // Arrange
+                slow.setDelayMillis(1000);
+                SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+                MLServiceClient hedgedClient = new MLServiceClient(
+                        new RestTemplate(),
+                        asyncHttpClient,
+                        unixSocketHttpClient,
+                        new RequestHedger(meterRegistry, true, 95, 5, 100, 100),
+                        balancer(slow.predictUrl() + ", " + fast.predictUrl()),
+                        limiter(20, 50),
+                        retries(),
+                        2000,
+                        new MLWireCodec(MLWireCodec.Contract.WRAPPER, MLWireCodec.Encoding.JSON));
+
+                // Act - the balancer picks the first replica at random, so send several calls
+                for (int i = 0; i < 4; i++) {
+                    long start = System.nanoTime();
+                    MLServiceResponseDTO result = hedgedClient.predictAsync(request, deadline()).join();
+                    long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+                    // Assert
+                    assertNotNull(result.getPrediction());
+                    assertTrue(elapsedMs < 800, "hedged call took " + elapsedMs + "ms");
+                }
+                assertEquals(4, fast.singleCalls());
+                // A hedge can only win when the slow replica was picked first
+                double hedgesWon = meterRegistry.get("ml.client.hedge.requests").tag("outcome", "won").counter().count();
+                assertTrue(hedgesWon <= slow.singleCalls());
+            }
+        }
+
+        @Test
+        @DisplayName("Should spread calls across replicas")
+        void shouldSpreadAcrossReplicas() throws Exception {
+            try (MLServiceStandIn first = MLServiceStandIn.start(); MLServiceStandIn second = MLServiceStandIn.start()) {
+                // Arrange
+                MLServiceClient replicatedClient = new MLServiceClient(
+                        new RestTemplate(),
+                        asyncHttpClient,
+                        unixSocketHttpClient,
+                        new RequestHedger(new SimpleMeterRegistry(), false, 95, 5, 100, 10),
+                        balancer(first.predictUrl() + "," + second.predictUrl()),
+                        limiter(20, 50),
+                        retries(),
+                        2000,
+                        new MLWireCodec(MLWireCodec.Contract.WRAPPER, MLWireCodec.Encoding.JSON));
+
+                // Act
+                for (int i = 0; i < 40; i++) {
+                    replicatedClient.predictAsync(request, deadline()).join();
+                }
+
+                // Assert
+                assertEquals(40, first.singleCalls() + second.singleCalls());
+                assertTrue(first.singleCalls() > 0 && second.singleCalls() > 0);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Concurrency limit")
+    class ConcurrencyLimitTests {
+
+        @Test
+        @DisplayName("Should reject calls over the limit once the wait queue is full")
+        void shouldRejectOverLimit() throws Exception {
+            try (MLServiceStandIn standIn = MLServiceStandIn.start()) {
+                // Arrange - one permit, no queue and no retries
+                standIn.setDelayMillis(200);
+                MLServiceClient limitedClient = new MLServiceClient(
+                        new RestTemplate(),
+                        asyncHttpClient,
+                        unixSocketHttpClient,
+                        new RequestHedger(new SimpleMeterRegistry(), false, 95, 5, 100, 10),
+                        balancer(standIn.predictUrl()),
+                        limiter(1, 0),
+                        new RetryPolicy(new SimpleMeterRegistry(), false, 3, 1, 5, 10),
+                        2000,
+                        new MLWireCodec(MLWireCodec.Contract.WRAPPER, MLWireCodec.Encoding.JSON));
+
+                // Act
+                CompletableFuture<MLServiceResponseDTO> first = limitedClient.predictAsync(request, deadline());
+                CompletionException rejected = assertThrows(CompletionException.class,
+                        () -> limitedClient.predictAsync(request, deadline()).join());
+
+                // Assert
+                assertInstanceOf(CallNotPermittedException.class, rejected.getCause());
+                assertNotNull(first.join().getPrediction());
+                assertEquals(1, standIn.singleCalls());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Unix domain socket")
+    class UnixSocketTests {
+
+        @TempDir
+        Path socketDir;
+
+        private MLServiceClient clientFor(String mlServiceUrl) {
+            return clientFor(mlServiceUrl, retries());
+        }
+
+        private MLServiceClient clientFor(String mlServiceUrl, RetryPolicy retryPolicy) {
+            return new MLServiceClient(
+                    new RestTemplate(),
+                    asyncHttpClient,
+                    unixSocketHttpClient,
+                    new RequestHedger(new SimpleMeterRegistry(), false, 95, 5, 100, 10),
+                    balancer(mlServiceUrl),
+                    limiter(20, 50),
+                    retryPolicy,
+                    2000,
+                    new MLWireCodec(MLWireCodec.Contract.WRAPPER, MLWireCodec.Encoding.JSON));
+        }
+
+        @Test
+        @DisplayName("Should predict over the socket on the blocking, async and batch paths")
+        void shouldPredictOverSocket() throws Exception {
+            try (SocketMLServiceStandIn standIn = SocketMLServiceStandIn.startUnix(socketDir.resolve("ml.sock"))) {
+                // Arrange
+                MLServiceClient unixClient = clientFor(standIn.predictUrl());
+
+                // Act
+                MLServiceResponseDTO blocking = unixClient.predict(request, deadline());
+                MLServiceResponseDTO async = unixClient.predictAsync(request, deadline()).join();
+                List<MLServiceResponseDTO> batch = unixClient.predictBatchAsync(List.of(request, request), deadline()).join();
+
+                // Assert
+                assertEquals(blocking.getPrediction(), async.getPrediction());
+                assertEquals(blocking.getConfidence(), async.getConfidence());
+                assertEquals(2, batch.size());
+                assertEquals(2, standIn.singleCalls());
+                assertEquals(1, standIn.batchCalls());
+            }
+        }
+
+        @Test
+        @DisplayName("Should reuse one connection for sequential calls")
+        void shouldReuseConnection() throws Exception {
+            try (SocketMLServiceStandIn standIn = SocketMLServiceStandIn.startUnix(socketDir.resolve("ml.sock"))) {
+                // Arrange
+                MLServiceClient unixClient = clientFor(standIn.predictUrl());
+
+                // Act
+                for (int i = 0; i < 20; i++) {
+                    unixClient.predictAsync(request, deadline()).join();
+                }
+
+                // Assert
+                assertEquals(20, standIn.singleCalls());
+                assertEquals(1, standIn.connections());
+            }
+        }
+
+        @Test
+        @DisplayName("Should treat a missing socket as a retryable connect failure")
+        void shouldRetryMissingSocket() throws Exception {
+            try (SocketMLServiceStandIn standIn = SocketMLServiceStandIn.startUnix(socketDir.resolve("ml.sock"))) {
+                // Arrange - the first replica's socket does not exist
+                String missing = standIn.predictUrl().replace("ml.sock", "missing.sock");
+                MLServiceClient missingClient = clientFor(missing);
+                MLServiceClient failoverClient = clientFor(missing + "," + standIn.predictUrl(),
+                        new RetryPolicy(new SimpleMeterRegistry(), true, 10, 1, 5, 100));
+
+                // Act
+                CompletionException error = assertThrows(CompletionException.class,
+                        () -> missingClient.predictAsync(request, deadline()).join());
+                for (int i = 0; i < 10; i++) {
+                    failoverClient.predict(request, deadline());
+                }
+
+                // Assert
+                assertInstanceOf(MLServiceClient.MLServiceException.class, error.getCause());
+                assertTrue(MLServiceClient.isRetryable(error.getCause()));
+                assertEquals(10, standIn.singleCalls());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Model service contract")
+    class ModelContractTests {
+
+        private MLServiceClient modelClient;
+
+        @BeforeEach
+        void setUpModelClient() {
+            responseBody.set("{\"prediction\":1,\"probability\":0.73,\"status\":\"success\"}");
+            modelClient = new MLServiceClient(
+                    new RestTemplate(),
+                    asyncHttpClient,
+                    unixSocketHttpClient,
+                    new RequestHedger(new SimpleMeterRegistry(), false, 95, 5, 100, 10),
+                    balancer("http://127.0.0.1:" + server.getAddress().getPort() + "/predict"),
+                    limiter(20, 50),
+                    retries(),
+                    2000,
+                    new MLWireCodec(MLWireCodec.Contract.MODEL, MLWireCodec.Encoding.JSON));
+        }
+
+        @Test
+        @DisplayName("Should send the model's field names and map probability to confidence")
+        void shouldSpeakModelContract() throws Exception {
+            // Act
+            MLServiceResponseDTO async = modelClient.predictAsync(request, deadline()).join();
+            String asyncBody = receivedBody.get();
+            MLServiceResponseDTO blocking = modelClient.predict(request, deadline());
+            String blockingBody = receivedBody.get();
+
+            // Assert
+            for (MLServiceResponseDTO response : List.of(async, blocking)) {
+                assertEquals(1, response.getPrediction());
+                assertEquals(0, new BigDecimal("0.73").compareTo(response.getConfidence()));
+            }
+            for (String body : List.of(asyncBody, blockingBody)) {
+                JsonNode json = new ObjectMapper().readTree(body);
+                assertEquals("AZ", json.get("companhia").asText());
+                assertEquals("GIG", json.get("origem").asText());
+                assertEquals("GRU", json.get("destino").asText());
+                assertEquals(request.getFlightDepartureDate().toString(), json.get("data_partida").asText());
+                assertNull(json.get("flightNumber"));
+            }
+        }
+
+        @Test
+        @DisplayName("Should map batch answers from the model's /predict/batch")
+        void shouldSpeakModelBatchContract() throws Exception {
+            // Arrange
+            responseBody.set("[{\"prediction\":0,\"probability\":0.2,\"status\":\"success\"},"
+                    + "{\"prediction\":1,\"probability\":0.9,\"status\":\"success\"}]");
+
+            // Act
+            List<MLServiceResponseDTO> results =
+                    modelClient.predictBatchAsync(List.of(request, request), deadline()).join();
+
+            // Assert
+            assertEquals(2, results.size());
+            assertEquals(0, results.get(0).getPrediction());
+            assertEquals(0, new BigDecimal("0.9").compareTo(results.get(1).getConfidence()));
+            JsonNode sent = new ObjectMapper().readTree(receivedBody.get());
+            assertTrue(sent.isArray());
+            assertEquals("GIG", sent.get(1).get("origem").asText());
+        }
+    }
+
+    @Nested
+    @DisplayName("Frame encoding")
+    class FrameEncodingTests {
+
+        @TempDir
+        Path socketDir;
+
+        private MLServiceClient frameClient(String mlServiceUrl) {
+            return new MLServiceClient(
+                    new RestTemplate(),
+                    asyncHttpClient,
+                    unixSocketHttpClient,
+                    new RequestHedger(new SimpleMeterRegistry(), false, 95, 5, 100, 10),
+                    balancer(mlServiceUrl),
+                    limiter(20, 50),
+                    retries(),
+                    2000,
+                    new MLWireCodec(MLWireCodec.Contract.WRAPPER, MLWireCodec.Encoding.FRAME));
+        }
+
+        @Test
+        @DisplayName("Should get the same predictions as JSON over TCP and Unix sockets")
+        void shouldMatchJsonPredictions() throws Exception {
+            try (SocketMLServiceStandIn tcp = SocketMLServiceStandIn.startTcp();
+                 SocketMLServiceStandIn unix = SocketMLServiceStandIn.startUnix(socketDir.resolve("ml.sock"))) {
+                for (SocketMLServiceStandIn standIn : List.of(tcp, unix)) {
+                    // Arrange
+                    MLServiceClient jsonClient = new MLServiceClient(
+                            new RestTemplate(),
+                            asyncHttpClient,
+                            unixSocketHttpClient,
+                            new RequestHedger(new SimpleMeterRegistry(), false, 95, 5, 100, 10),
+                            balancer(standIn.predictUrl()),
+                            limiter(20, 50),
+                            retries(),
+                            2000,
+                            new MLWireCodec(MLWireCodec.Contract.WRAPPER, MLWireCodec.Encoding.JSON));
+                    MLServiceClient frameClient = frameClient(standIn.predictUrl());
+
+                    // Act
+                    MLServiceResponseDTO json = jsonClient.predictAsync(request, deadline()).join();
+                    MLServiceResponseDTO blocking = frameClient.predict(request, deadline());
+                    MLServiceResponseDTO async = frameClient.predictAsync(request, deadline()).join();
+                    List<MLServiceResponseDTO> batch =
+                            frameClient.predictBatchAsync(List.of(request, request), deadline()).join();
+
+                    // Assert
+                    assertEquals(json, blocking);
+                    assertEquals(json, async);
+                    assertEquals(List.of(json, json), batch);
+                    assertEquals(3, standIn.frameCalls());
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("Should fall back to JSON when the service answers 415")
+        void shouldFallBackWhenFramesAreRejected() throws Exception {
+            try (SocketMLServiceStandIn standIn = SocketMLServiceStandIn.startTcp()) {
+                // Arrange
+                standIn.setFrameSupported(false);
+                MLServiceClient frameClient = frameClient(standIn.predictUrl());
+
+                // Act
+                MLServiceResponseDTO first = frameClient.predictAsync(request, deadline()).join();
+                MLServiceResponseDTO second = frameClient.predict(request, deadline());
+
+                // Assert
+                assertNotNull(first.getPrediction());
+                assertEquals(first, second);
+                assertEquals(0, standIn.frameCalls());
+                assertEquals(2, standIn.singleCalls());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("HTTP/2 multiplexing")
+    class Http2Tests {
+
+        private CloseableHttpAsyncClient h2Client;
+
+        @BeforeEach
+        void setUpH2Client() {
+            h2Client = HttpAsyncClients.customHttp2().disableAutomaticRetries().build();
+            h2Client.start();
+        }
+
+        @AfterEach
+        void tearDownH2Client() throws Exception {
+            h2Client.close();
+        }
+
+        private MLServiceClient clientFor(CloseableHttpAsyncClient httpClient, String mlServiceUrl) {
+            return new MLServiceClient(
+                    new RestTemplate(),
+                    httpClient,
+                    unixSocketHttpClient,
+                    new RequestHedger(new SimpleMeterRegistry(), false, 95, 5, 100, 10),
+                    new ReplicaBalancer(httpClient, unixSocketHttpClient, new SimpleMeterRegistry(), mlServiceUrl,
+                            ReplicaBalancer.Strategy.LEAST_OUTSTANDING, 5, 5000, 2),
+                    limiter(100, 100),
+                    retries(),
+                    2000,
+                    new MLWireCodec(MLWireCodec.Contract.WRAPPER, MLWireCodec.Encoding.JSON));
+        }
+
+        private static List<MLServiceResponseDTO> burst(MLServiceClient client, FlightPredictionRequestDTO request,
+                                                        int calls) {
+            List<CompletableFuture<MLServiceResponseDTO>> futures = new ArrayList<>();
+            for (int i = 0; i < calls; i++) {
+                futures.add(client.predictAsync(request, deadline()));
+            }
+            return futures.stream().map(CompletableFuture::join).toList();
+        }
+
+        @Test
+        @DisplayName("Should carry concurrent calls as streams on a single connection")
+        void shouldMultiplexOverOneConnection() throws Exception {
+            try (H2MLServiceStandIn standIn = H2MLServiceStandIn.startH2c(100)) {
+                // Arrange
+                standIn.setDelayMs(50);
+                MLServiceClient multiplexed = clientFor(h2Client, standIn.predictUrl());
+
+                // Act
+                List<MLServiceResponseDTO> results = burst(multiplexed, request, 40);
+
+                // Assert
+                assertEquals(40, results.size());
+                assertEquals(40, standIn.calls());
+                assertEquals(1, standIn.connections());
+            }
+        }
+
+        @Test
+        @DisplayName("Should open a connection per in-flight call over HTTP/1.1")
+        void shouldOpenManyConnectionsOverHttp1() throws Exception {
+            try (H2MLServiceStandIn standIn = H2MLServiceStandIn.startHttp1()) {
+                // Arrange
+                standIn.setDelayMs(200);
+                try (CloseableHttpAsyncClient pooledClient = HttpAsyncClients.custom()
+                        .setConnectionManager(PoolingAsyncClientConnectionManagerBuilder.create()
+                                .setMaxConnTotal(50)
+                                .setMaxConnPerRoute(50)
+                                .build())
+                        .disableAutomaticRetries()
+                        .build()) {
+                    pooledClient.start();
+                    MLServiceClient pooled = clientFor(pooledClient, standIn.predictUrl());
+
+                    // Act
+                    burst(pooled, request, 40);
+
+                    // Assert
+                    assertTrue(standIn.peakOpenConnections() > 10, "peak " + standIn.peakOpenConnections());
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("Should queue streams above the server's concurrent stream limit instead of connecting")
+        void shouldRespectStreamLimit() throws Exception {
+            try (H2MLServiceStandIn standIn = H2MLServiceStandIn.startH2c(8)) {
+                // Arrange
+                standIn.setDelayMs(100);
+                MLServiceClient multiplexed = clientFor(h2Client, standIn.predictUrl());
+                multiplexed.predictAsync(request, deadline()).join();
+
+                // Act - 32 calls through 8 streams take at least four rounds
+                long start = System.nanoTime();
+                List<MLServiceResponseDTO> results = burst(multiplexed, request, 32);
+                long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+                // Assert
+                assertEquals(32, results.size());
+                assertEquals(1, standIn.connections());
+                assertTrue(elapsedMs >= 350, "elapsed " + elapsedMs + " ms");
+            }
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package com.backend.fot.client;
+
+import com.backend.fot.dto.FlightPredictionRequestDTO;
+import com.backend.fot.dto.MLServiceResponseDTO;
+import com.backend.fot.dto.ModelPredictionRequestDTO;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MLWireCodec, checked against the Jackson data binding it replaces.
+ *
+ * @author FlightOnTime Team
+ * @version 1.1
+ */
+@DisplayName("MLWireCodec Tests")
+class MLWireCodecTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private final MLWireCodec wrapperCodec =
+            new MLWireCodec(MLWireCodec.Contract.WRAPPER, MLWireCodec.Encoding.JSON);
+
+    private final MLWireCodec modelCodec =
+            new MLWireCodec(MLWireCodec.Contract.MODEL, MLWireCodec.Encoding.JSON);
+
+    private final MLWireCodec frameCodec =
+            new MLWireCodec(MLWireCodec.Contract.WRAPPER, MLWireCodec.Encoding.FRAME);
+
+    private static FlightPredictionRequestDTO request() {
+        return FlightPredictionRequestDTO.builder()
+                .flightNumber("AZ1234")
+                .companyName("az")
+                .flightOrigin("gig")
+                .flightDestination("GRU")
+                .flightDepartureDate(LocalDateTime.of(2026, 3, 7, 9, 5, 0))
+                .flightDistance(350)
+                .build();
+    }
+
+    @Nested
+    @DisplayName("JSON requests")
+    class JsonRequestTests {
+
+        @Test
+        @DisplayName("Should match Jackson output without the derived getters")
+        void shouldMatchJacksonWithoutDerivedFields() throws Exception {
+            // Arrange
+            ObjectNode expected = objectMapper.valueToTree(request());
+            expected.remove(List.of("flightCategory", "domesticFlight"));
+
+            // Act
+            JsonNode actual = objectMapper.readTree(wrapperCodec.encode(request()));
+
+            // Assert
+            assertEquals(expected, actual);
+            assertEquals("2026-03-07T09:05:00", actual.get("flightDepartureDate").asText());
+        }
+
+        @Test
+        @DisplayName("Should be smaller than the Jackson body")
+        void shouldBeSmallerThanJackson() throws Exception {
+            // Act
+            int jacksonBytes = objectMapper.writeValueAsBytes(request()).length;
+            int codecBytes = wrapperCodec.encode(request()).length;
+
+            // Assert
+            assertTrue(codecBytes < jacksonBytes, codecBytes + " >= " + jacksonBytes);
+        }
+
+        @Test
+        @DisplayName("Should write nulls and escape strings")
+        void shouldEscapeAndWriteNulls() throws Exception {
+            // Arrange
+            FlightPredictionRequestDTO request = FlightPredictionRequestDTO.builder()
+                    .flightNumber("A\"B\\C\n")
+                    .companyName("Aéreo 🛫")
+                    .build();
+
+            // Act
+            JsonNode actual = objectMapper.readTree(wrapperCodec.encode(request));
+
+            // Assert
+            assertEquals("A\"B\\C\n", actual.get("flightNumber").asText());
+            assertEquals("Aéreo 🛫", actual.get("companyName").asText());
+            assertTrue(actual.get("flightDepartureDate").isNull());
+            assertTrue(actual.get("flightDistance").isNull());
+        }
+
+        @Test
+        @DisplayName("Should match ModelPredictionRequestDTO for the model contract")
+        void shouldMatchModelContract() throws Exception {
+            // Arrange
+            JsonNode expected = objectMapper.valueToTree(ModelPredictionRequestDTO.from(request()));
+
+            // Act
+            JsonNode actual = objectMapper.readTree(modelCodec.encode(request()));
+
+            // Assert
+            assertEquals(expected, actual);
+        }
+
+        @Test
+        @DisplayName("Should encode a batch as a JSON array in order")
+        void shouldEncodeBatch() throws Exception {
+            // Arrange
+            FlightPredictionRequestDTO other = request().toBuilder().flightNumber("LA9999").build();
+
+            // Act
+            JsonNode actual = objectMapper.readTree(wrapperCodec.encodeBatch(List.of(request(), other)));
+
+            // Assert
+            assertEquals(2, actual.size());
+            assertEquals("AZ1234", actual.get(0).get("flightNumber").asText());
+            assertEquals("LA9999", actual.get(1).get("flightNumber").asText());
+        }
+    }
+
+    @Nested
+    @DisplayName("JSON responses")
+    class JsonResponseTests {
+
+        @Test
+        @DisplayName("Should decode like Jackson and skip unknown fields")
+        void shouldDecodeLikeJackson() throws Exception {
+            // Arrange
+            byte[] body = ("{\"prediction\":1,\"extra\":{\"a\":[1,2]},\"confidence\":0.87,"
+                    + "\"modelVersion\":\"v2\",\"processingTimeMs\":12}").getBytes(StandardCharsets.UTF_8);
+
+            // Act
+            MLServiceResponseDTO actual = wrapperCodec.decode(body, "application/json");
+
+            // Assert
+            assertEquals(1, actual.getPrediction());
+            assertEquals(new BigDecimal("0.87"), actual.getConfidence());
+            assertEquals("v2", actual.getModelVersion());
+            assertEquals(12L, actual.getProcessingTimeMs());
+        }
+
+        @Test
+        @DisplayName("Should read probability for the model contract")
+        void shouldReadProbability() throws Exception {
+            // Arrange
+            byte[] body = "{\"prediction\":0,\"probability\":0.31,\"status\":\"ok\"}".getBytes(StandardCharsets.UTF_8);
+
+            // Act
+            MLServiceResponseDTO actual = modelCodec.decode(body, null);
+
+            // Assert
+            assertEquals(0, actual.getPrediction());
+            assertEquals(new BigDecimal("0.31"), actual.getConfidence());
+        }
+
+        @Test
+        @DisplayName("Should decode a batch and reject a body that is not an array")
+        void shouldDecodeBatch() throws Exception {
+            // Arrange
+            byte[] body = "[{\"prediction\":1,\"confidence\":0.9},{\"prediction\":0,\"confidence\":0.6}]"
+                    .getBytes(StandardCharsets.UTF_8);
+
+            // Act
+            List<MLServiceResponseDTO> actual = wrapperCodec.decodeBatch(body, "application/json");
+
+            // Assert
+            assertEquals(2, actual.size());
+            assertEquals(0, actual.get(1).getPrediction());
+            assertThrows(IOException.class,
+                    () -> wrapperCodec.decodeBatch("{}".getBytes(StandardCharsets.UTF_8), null));
+        }
+
+        @Test
+        @DisplayName("Should reject a malformed or missing confidence as a parse failure")
+        void shouldRejectBadConfidence() {
+            // Arrange
+            byte[] malformed = "{\"prediction\":1,\"confidence\":\"n/a\"}".getBytes(StandardCharsets.UTF_8);
+            byte[] missing = "{\"prediction\":1}".getBytes(StandardCharsets.UTF_8);
+            byte[] nullValue = "[{\"prediction\":1,\"confidence\":null}]".getBytes(StandardCharsets.UTF_8);
+
+            // Act & Assert
+            IOException error = assertThrows(IOException.class, () -> wrapperCodec.decode(malformed, null));
+            assertTrue(error.getMessage().startsWith("Malformed confidence"), error.getMessage());
+            assertThrows(IOException.class, () -> wrapperCodec.decode(missing, null));
+            assertThrows(IOException.class, () -> wrapperCodec.decodeBatch(nullValue, null));
+        }
+    }
+
+    @Nested
+    @DisplayName("Frames")
+    class FrameTests {
+
+        @Test
+        @DisplayName("Should round-trip requests including nulls")
+        void shouldRoundTripRequests() throws Exception {
+            // Arrange
+            FlightPredictionRequestDTO sparse = FlightPredictionRequestDTO.builder().companyName("Aéreo").build();
+
+            // Act
+            List<FlightPredictionRequestDTO> actual =
+                    MLWireCodec.decodeFrameRequests(frameCodec.encodeBatch(List.of(request(), sparse)));
+
+            // Assert
+            assertEquals(List.of(request(), sparse), actual);
+        }
+
+        @Test
+        @DisplayName("Should round-trip responses")
+        void shouldRoundTripResponses() throws Exception {
+            // Arrange
+            List<MLServiceResponseDTO> results = List.of(
+                    MLServiceResponseDTO.builder().prediction(1).confidence(new BigDecimal("0.87")).build(),
+                    MLServiceResponseDTO.builder().prediction(0).confidence(new BigDecimal("0.12")).build());
+
+            // Act
+            byte[] frame = MLWireCodec.encodeFrameResponses(results);
+            List<MLServiceResponseDTO> actual = frameCodec.decodeBatch(frame, MLWireCodec.FRAME_CONTENT_TYPE);
+
+            // Assert
+            assertEquals(results, actual);
+            assertEquals(3 + 2 * 9, frame.length);
+        }
+
+        @Test
+        @DisplayName("Should be a fraction of the Jackson body")
+        void shouldBeSmallerThanJson() throws Exception {
+            // Act
+            int frameBytes = frameCodec.encode(request()).length;
+            int jacksonBytes = objectMapper.writeValueAsBytes(request()).length;
+
+            // Assert
+            assertTrue(frameBytes * 3 < jacksonBytes, frameBytes + " vs " + jacksonBytes);
+        }
+
+        @Test
+        @DisplayName("Should reject truncated frames and unknown versions")
+        void shouldRejectMalformedFrames() {
+            // Arrange
+            byte[] frame = frameCodec.encode(request());
+            byte[] truncated = Arrays.copyOf(frame, frame.length - 3);
+            byte[] future = frame.clone();
+            future[0] = 9;
+
+            // Assert
+            assertThrows(IOException.class, () -> MLWireCodec.decodeFrameRequests(truncated));
+            assertThrows(IOException.class, () -> MLWireCodec.decodeFrameRequests(future));
+            assertThrows(IOException.class, () -> frameCodec.decode(
+                    MLWireCodec.encodeFrameResponses(List.of()), MLWireCodec.FRAME_CONTENT_TYPE));
+        }
+
+        @Test
+        @DisplayName("Should report a frame cut inside a string as truncated")
+        void shouldRejectTruncatedString() {
+            // Arrange - version, count, then the flight number's length and two of its bytes
+            byte[] frame = frameCodec.encode(request());
+            byte[] truncated = Arrays.copyOf(frame, 6);
+
+            // Act & Assert
+            IOException error = assertThrows(IOException.class, () -> MLWireCodec.decodeFrameRequests(truncated));
+            assertEquals("Truncated request frame", error.getMessage());
+        }
+
+        @Test
+        @DisplayName("Should reject a response frame without a confidence")
+        void shouldRejectMissingFrameConfidence() {
+            // Arrange - NaN encodes a missing confidence
+            byte[] frame = MLWireCodec.encodeFrameResponses(List.of(MLServiceResponseDTO.builder().prediction(1).build()));
+
+            // Act & Assert
+            IOException error = assertThrows(IOException.class,
+                    () -> frameCodec.decode(frame, MLWireCodec.FRAME_CONTENT_TYPE));
+            assertEquals("Missing confidence", error.getMessage());
+        }
+
+        @Test
+        @DisplayName("Should fall back to JSON once the service rejects frames")
+        void shouldFallBackToJson() {
+            // Arrange
+            MLWireCodec codec = new MLWireCodec(MLWireCodec.Contract.WRAPPER, MLWireCodec.Encoding.FRAME);
+            assertEquals(MLWireCodec.FRAME_CONTENT_TYPE, codec.contentType());
+
+            // Act
+            codec.frameRejected();
+
+            // Assert
+            assertEquals(MLWireCodec.Encoding.JSON, codec.encoding());
+            assertEquals(MLWireCodec.JSON_CONTENT_TYPE, codec.contentType());
+            assertEquals('{', codec.encode(request())[0]);
+        }
+    }
+}
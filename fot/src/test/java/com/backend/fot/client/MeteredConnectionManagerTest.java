@@ -0,0 +1,93 @@
+package com.backend.fot.client;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.socket.ConnectionSocketFactory;
+import org.apache.hc.client5.http.socket.PlainConnectionSocketFactory;
+import org.apache.hc.core5.http.config.RegistryBuilder;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MeteredConnectionManager.
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ */
+@DisplayName("MeteredConnectionManager Tests")
+class MeteredConnectionManagerTest {
+
+    private HttpServer server;
+    private final AtomicInteger connections = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+    private MeteredConnectionManager connectionManager;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/health", exchange -> {
+            byte[] body = "{\"status\":\"UP\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        meterRegistry = new SimpleMeterRegistry();
+        connectionManager = new MeteredConnectionManager(
+                RegistryBuilder.<ConnectionSocketFactory>create()
+                        .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                        .build(),
+                meterRegistry);
+        connectionManager.setMaxTotal(4);
+        connectionManager.setDefaultMaxPerRoute(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionManager.close();
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Should record one lease per request and reuse the keep-alive connection")
+    void shouldRecordLeasesAndReuseConnection() throws Exception {
+        // Arrange
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/health";
+
+        try (CloseableHttpClient client = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setConnectionManagerShared(true)
+                .build()) {
+
+            // Act
+            for (int i = 0; i < 5; i++) {
+                client.execute(new HttpGet(url), response -> EntityUtils.toString(response.getEntity()));
+            }
+        }
+
+        // Assert
+        Timer acquired = meterRegistry.get(MeteredConnectionManager.LEASE_TIMER)
+                .tag("outcome", "acquired")
+                .timer();
+        assertEquals(5, acquired.count(), "Every request should lease a pooled connection");
+        assertEquals(1, connectionManager.getTotalStats().getAvailable(),
+                "Sequential requests should reuse a single keep-alive connection");
+        assertEquals(0, connectionManager.getTotalStats().getPending());
+    }
+}
@@ -0,0 +1,196 @@
+package com.backend.fot.client;
+
+import com.backend.fot.resilience.DeadlineExceededException;
+import com.backend.fot.support.MLServiceStandIn;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ReplicaBalancer.
+ *
+ * @author FlightOnTime Team
+ * @version 1.1
+ */
+@DisplayName("ReplicaBalancer Tests")
+class ReplicaBalancerTest {
+
+    private CloseableHttpAsyncClient asyncHttpClient;
+    private final UnixSocketHttpClient unixSocketHttpClient = new UnixSocketHttpClient(4, 4);
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        asyncHttpClient = HttpAsyncClients.createDefault();
+        asyncHttpClient.start();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        asyncHttpClient.close();
+    }
+
+    private ReplicaBalancer balancer(String urls, ReplicaBalancer.Strategy strategy) {
+        return new ReplicaBalancer(asyncHttpClient, unixSocketHttpClient, meterRegistry, urls, strategy, 3, 5000, 2);
+    }
+
+    private static void failCalls(ReplicaBalancer balancer, ReplicaBalancer.Replica replica, int times) {
+        for (int i = 0; i < times; i++) {
+            balancer.track(replica, () -> CompletableFuture.failedFuture(
+                    new MLServiceClient.MLServiceException("Failed to communicate with ML service: refused")));
+        }
+    }
+
+    @Nested
+    @DisplayName("Replica choice")
+    class ChoiceTests {
+
+        @Test
+        @DisplayName("Should prefer the replica with fewer outstanding requests")
+        void shouldPreferLeastOutstanding() {
+            // Arrange
+            ReplicaBalancer balancer = balancer("http://a/predict,http://b/predict", ReplicaBalancer.Strategy.LEAST_OUTSTANDING);
+            ReplicaBalancer.Replica busy = balancer.replicas().get(0);
+            balancer.track(busy, CompletableFuture::new);
+
+            // Act & Assert - with two replicas both are always sampled
+            for (int i = 0; i < 20; i++) {
+                assertEquals("http://b/predict", balancer.choose().url());
+            }
+        }
+
+        @Test
+        @DisplayName("Should prefer the replica with lower EWMA latency")
+        void shouldPreferLowerLatency() throws Exception {
+            // Arrange
+            ReplicaBalancer balancer = balancer("http://a/predict,http://b/predict", ReplicaBalancer.Strategy.EWMA);
+            CompletableFuture<String> slowCall = new CompletableFuture<>();
+            balancer.track(balancer.replicas().get(0), () -> slowCall);
+            TimeUnit.MILLISECONDS.sleep(20);
+            slowCall.complete("done");
+            balancer.track(balancer.replicas().get(1), () -> CompletableFuture.completedFuture("done"));
+
+            // Act & Assert
+            for (int i = 0; i < 20; i++) {
+                assertEquals("http://b/predict", balancer.choose().url());
+            }
+        }
+
+        @Test
+        @DisplayName("Should offer a different replica for hedging")
+        void shouldChooseOther() {
+            // Arrange
+            ReplicaBalancer balancer = balancer("http://a/predict,http://b/predict", ReplicaBalancer.Strategy.LEAST_OUTSTANDING);
+            ReplicaBalancer.Replica first = balancer.replicas().get(0);
+
+            // Act & Assert
+            assertSame(balancer.replicas().get(1), balancer.chooseOther(first));
+            assertNull(balancer("http://a/predict", ReplicaBalancer.Strategy.LEAST_OUTSTANDING)
+                    .chooseOther(first));
+        }
+    }
+
+    @Nested
+    @DisplayName("Passive ejection")
+    class EjectionTests {
+
+        @Test
+        @DisplayName("Should eject a replica after consecutive failures")
+        void shouldEjectFailingReplica() {
+            // Arrange
+            ReplicaBalancer balancer = balancer("http://a/predict,http://b/predict", ReplicaBalancer.Strategy.LEAST_OUTSTANDING);
+            ReplicaBalancer.Replica failing = balancer.replicas().get(1);
+
+            // Act
+            failCalls(balancer, failing, 3);
+
+            // Assert
+            assertTrue(failing.isEjected());
+            for (int i = 0; i < 20; i++) {
+                assertEquals("http://a/predict", balancer.choose().url());
+            }
+            assertEquals(1, meterRegistry.get("ml.client.balancer.ejections").counter().count());
+        }
+
+        @Test
+        @DisplayName("Should not eject a replica whose failures are interleaved with successes")
+        void shouldResetOnSuccess() {
+            // Arrange
+            ReplicaBalancer balancer = balancer("http://a/predict,http://b/predict", ReplicaBalancer.Strategy.LEAST_OUTSTANDING);
+            ReplicaBalancer.Replica flaky = balancer.replicas().get(0);
+
+            // Act
+            failCalls(balancer, flaky, 2);
+            balancer.track(flaky, () -> CompletableFuture.completedFuture("ok"));
+            failCalls(balancer, flaky, 2);
+
+            // Assert
+            assertFalse(flaky.isEjected());
+        }
+
+        @Test
+        @DisplayName("Should not count caller deadlines or 4xx answers as replica failures")
+        void shouldIgnoreCallerCausedFailures() {
+            // Arrange
+            ReplicaBalancer balancer = balancer("http://a/predict,http://b/predict", ReplicaBalancer.Strategy.LEAST_OUTSTANDING);
+            ReplicaBalancer.Replica healthy = balancer.replicas().get(0);
+
+            // Act
+            for (int i = 0; i < 5; i++) {
+                balancer.track(healthy, () -> CompletableFuture.failedFuture(
+                        new DeadlineExceededException("ML call did not complete within the caller's deadline (1ms)")));
+                balancer.track(healthy, () -> CompletableFuture.failedFuture(
+                        new MLServiceClient.MLServiceException("ML service responded with HTTP 400", 400)));
+            }
+
+            // Assert
+            assertFalse(healthy.isEjected());
+            failCalls(balancer, healthy, 3);
+            assertTrue(healthy.isEjected(), "service failures still eject");
+        }
+
+        @Test
+        @DisplayName("Should use every replica when all of them are ejected")
+        void shouldFallBackWhenAllEjected() {
+            // Arrange
+            ReplicaBalancer balancer = balancer("http://a/predict,http://b/predict", ReplicaBalancer.Strategy.LEAST_OUTSTANDING);
+            balancer.replicas().forEach(replica -> failCalls(balancer, replica, 3));
+
+            // Act & Assert
+            assertNotNull(balancer.choose());
+        }
+
+        @Test
+        @DisplayName("Should return an ejected replica after enough passing health probes")
+        void shouldReinstateAfterProbes() throws Exception {
+            try (MLServiceStandIn healthy = MLServiceStandIn.start()) {
+                // Arrange
+                ReplicaBalancer balancer = balancer(
+                        "http://127.0.0.1:1/predict," + healthy.predictUrl(), ReplicaBalancer.Strategy.LEAST_OUTSTANDING);
+                ReplicaBalancer.Replica recovering = balancer.replicas().get(1);
+                failCalls(balancer, recovering, 3);
+                assertTrue(recovering.isEjected());
+
+                // Act
+                balancer.probeEjected().get(2, TimeUnit.SECONDS);
+                boolean ejectedAfterOneProbe = recovering.isEjected();
+                balancer.probeEjected().get(2, TimeUnit.SECONDS);
+
+                // Assert
+                assertTrue(ejectedAfterOneProbe, "one probe is not enough");
+                assertFalse(recovering.isEjected());
+            }
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.backend.fot.client;
+
+import com.backend.fot.dto.FlightPredictionRequestDTO;
+import com.backend.fot.dto.MLServiceResponseDTO;
+import com.backend.fot.resilience.Deadline;
+import com.backend.fot.resilience.DeadlineExceededException;
+import com.backend.fot.resilience.MLServiceGuard;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SingleFlightMLClient.
+ *
+ * @author FlightOnTime Team
+ * @version 1.1
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SingleFlightMLClient Tests")
+class SingleFlightMLClientTest {
+
+    private static final LocalDateTime DEPARTURE = LocalDateTime.now().plusDays(2).withNano(0);
+    private static final Deadline DEADLINE = Deadline.after(Duration.ofMinutes(5));
+
+    @Mock
+    private MLServiceClient mlServiceClient;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SingleFlightMLClient singleFlight;
+
+    private final MLServiceResponseDTO mlResponse = MLServiceResponseDTO.builder()
+            .prediction(1)
+            .confidence(new BigDecimal("0.81"))
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        MLPredictionBatcher disabledBatcher =
+                new MLPredictionBatcher(mlServiceClient, meterRegistry, false, 32, 2000, 100);
+        MLServiceGuard guard = new MLServiceGuard(meterRegistry, 50, 20, 50, 80, 2000, 10000, 5, 100);
+        singleFlight = new SingleFlightMLClient(mlServiceClient, disabledBatcher, guard, meterRegistry);
+    }
+
+    private FlightPredictionRequestDTO request(String flightNumber, String company, String origin) {
+        return FlightPredictionRequestDTO.builder()
+                .flightNumber(flightNumber)
+                .companyName(company)
+                .flightOrigin(origin)
+                .flightDestination("GRU")
+                .flightDepartureDate(DEPARTURE)
+                .flightDistance(350)
+                .build();
+    }
+
+    private double count(String result) {
+        return meterRegistry.get(SingleFlightMLClient.CALLS_COUNTER).tag("result", result).counter().count();
+    }
+
+    @Nested
+    @DisplayName("Async coalescing")
+    class AsyncCoalescingTests {
+
+        @Test
+        @DisplayName("Should share one outbound call between identical in-flight requests")
+        void shouldShareOneCallForIdenticalRequests() {
+            // Arrange
+            CompletableFuture<MLServiceResponseDTO> outbound = new CompletableFuture<>();
+            when(mlServiceClient.predictAsync(any(), any())).thenReturn(outbound);
+
+            // Act - same model features, different casing and flight numbers
+            List<CompletableFuture<MLServiceResponseDTO>> callers = new ArrayList<>();
+            callers.add(singleFlight.predictAsync(request("AZ1234", "AZ", "GIG"), DEADLINE));
+            callers.add(singleFlight.predictAsync(request("az1234", "az", "gig"), DEADLINE));
+            callers.add(singleFlight.predictAsync(request("AZ9999", "Az", "Gig"), DEADLINE));
+            outbound.complete(mlResponse);
+
+            // Assert
+            verify(mlServiceClient, times(1)).predictAsync(any(), any());
+            callers.forEach(caller -> assertSame(mlResponse, caller.join()));
+            assertEquals(1, count("issued"));
+            assertEquals(2, count("coalesced"));
+        }
+
+        @Test
+        @DisplayName("Should issue separate calls for different model features")
+        void shouldNotCoalesceDifferentRequests() {
+            // Arrange
+            when(mlServiceClient.predictAsync(any(), any())).thenReturn(new CompletableFuture<>());
+
+            // Act
+            singleFlight.predictAsync(request("AZ1234", "AZ", "GIG"), DEADLINE);
+            singleFlight.predictAsync(request("AZ1234", "AZ", "CNF"), DEADLINE);
+
+            // Assert
+            verify(mlServiceClient, times(2)).predictAsync(any(), any());
+            assertEquals(2, count("issued"));
+            assertEquals(0, count("coalesced"));
+        }
+
+        @Test
+        @DisplayName("Should start a fresh call once the previous one completed")
+        void shouldNotReuseCompletedCalls() {
+            // Arrange
+            when(mlServiceClient.predictAsync(any(), any()))
+                    .thenReturn(CompletableFuture.completedFuture(mlResponse));
+
+            // Act
+            singleFlight.predictAsync(request("AZ1234", "AZ", "GIG"), DEADLINE).join();
+            singleFlight.predictAsync(request("AZ1234", "AZ", "GIG"), DEADLINE).join();
+
+            // Assert
+            verify(mlServiceClient, times(2)).predictAsync(any(), any());
+        }
+
+        @Test
+        @DisplayName("Should propagate a shared failure to every caller")
+        void shouldPropagateFailureToAllCallers() {
+            // Arrange
+            CompletableFuture<MLServiceResponseDTO> outbound = new CompletableFuture<>();
+            when(mlServiceClient.predictAsync(any(), any())).thenReturn(outbound);
+
+            CompletableFuture<MLServiceResponseDTO> first = singleFlight.predictAsync(request("AZ1", "AZ", "GIG"), DEADLINE);
+            CompletableFuture<MLServiceResponseDTO> second = singleFlight.predictAsync(request("AZ2", "AZ", "GIG"), DEADLINE);
+
+            // Act
+            outbound.completeExceptionally(new MLServiceClient.MLServiceException("ML service unavailable"));
+
+            // Assert
+            for (CompletableFuture<MLServiceResponseDTO> caller : List.of(first, second)) {
+                CompletionException error = assertThrows(CompletionException.class, caller::join);
+                assertInstanceOf(MLServiceClient.MLServiceException.class, error.getCause());
+            }
+        }
+
+        @Test
+        @DisplayName("Should not make a long-deadline caller join a call with a shorter deadline")
+        void shouldNotJoinShorterDeadline() {
+            // Arrange
+            Deadline shortDeadline = Deadline.after(Duration.ofMillis(100));
+            Deadline longDeadline = Deadline.after(Duration.ofMinutes(10));
+            CompletableFuture<MLServiceResponseDTO> shortCall = new CompletableFuture<>();
+            CompletableFuture<MLServiceResponseDTO> longCall = new CompletableFuture<>();
+            when(mlServiceClient.predictAsync(any(), eq(shortDeadline))).thenReturn(shortCall);
+            when(mlServiceClient.predictAsync(any(), eq(longDeadline))).thenReturn(longCall);
+
+            CompletableFuture<MLServiceResponseDTO> leader = singleFlight.predictAsync(request("AZ1", "AZ", "GIG"), shortDeadline);
+            CompletableFuture<MLServiceResponseDTO> joiner = singleFlight.predictAsync(request("AZ2", "AZ", "GIG"), longDeadline);
+            CompletableFuture<MLServiceResponseDTO> late = singleFlight.predictAsync(request("AZ3", "AZ", "GIG"), shortDeadline);
+
+            // Act
+            shortCall.completeExceptionally(new DeadlineExceededException("ML call deadline expired"));
+            longCall.complete(mlResponse);
+
+            // Assert
+            CompletionException error = assertThrows(CompletionException.class, leader::join);
+            assertInstanceOf(DeadlineExceededException.class, error.getCause());
+            assertSame(mlResponse, joiner.join());
+            assertSame(mlResponse, late.join());
+            assertEquals(2, count("issued"));
+            assertEquals(1, count("coalesced"));
+        }
+
+        @Test
+        @DisplayName("Should send the normalized request to the ML service")
+        void shouldSendNormalizedRequest() {
+            // Arrange
+            when(mlServiceClient.predictAsync(any(), any()))
+                    .thenReturn(CompletableFuture.completedFuture(mlResponse));
+
+            // Act
+            singleFlight.predictAsync(request("az1234", "az", "gig"), DEADLINE).join();
+
+            // Assert
+            verify(mlServiceClient).predictAsync(argThat(sent ->
+                    sent.getCompanyName().equals("AZ") && sent.getFlightOrigin().equals("GIG")), eq(DEADLINE));
+        }
+    }
+
+    @Nested
+    @DisplayName("Blocking calls")
+    class BlockingTests {
+
+        @Test
+        @DisplayName("Should delegate blocking predictions and rethrow failures")
+        void shouldDelegateAndRethrow() {
+            // Arrange
+            when(mlServiceClient.predict(any(), any()))
+                    .thenReturn(mlResponse)
+                    .thenThrow(new MLServiceClient.MLServiceException("ML service unavailable"));
+
+            // Act & Assert
+            assertSame(mlResponse, singleFlight.predict(request("AZ1234", "AZ", "GIG"), DEADLINE));
+            assertThrows(MLServiceClient.MLServiceException.class,
+                    () -> singleFlight.predict(request("AZ1234", "AZ", "GIG"), DEADLINE));
+            assertEquals(2, count("issued"));
+        }
+
+        @Test
+        @DisplayName("Should stop waiting for a longer shared call at the caller's own deadline")
+        void shouldBoundJoinedWaitByOwnDeadline() {
+            // Arrange
+            when(mlServiceClient.predictAsync(any(), any())).thenReturn(new CompletableFuture<>());
+            singleFlight.predictAsync(request("AZ1", "AZ", "GIG"), DEADLINE);
+
+            // Act & Assert
+            assertThrows(DeadlineExceededException.class,
+                    () -> singleFlight.predict(request("AZ2", "AZ", "GIG"), Deadline.after(Duration.ofMillis(50))));
+            assertEquals(1, count("coalesced"));
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.backend.fot.client;
+
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ConnectException;
+import java.net.StandardProtocolFamily;
+import java.net.URLEncoder;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for UnixSocketHttpClient against scripted Unix socket servers.
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ */
+@DisplayName("UnixSocketHttpClient Tests")
+class UnixSocketHttpClientTest {
+
+    @TempDir
+    Path socketDir;
+
+    private final UnixSocketHttpClient client = new UnixSocketHttpClient(4, 4);
+    private ServerSocketChannel server;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        client.close();
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    /**
+     * Starts a server that answers every request with {@code response} and closes
+     * the connection afterwards if {@code closeAfterResponse} is set.
+     */
+    private String serve(String response, boolean closeAfterResponse, AtomicReference<String> lastRequest,
+                         AtomicInteger accepted) throws IOException {
+        Path socketPath = socketDir.resolve("ml.sock");
+        server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        server.bind(UnixDomainSocketAddress.of(socketPath));
+        Thread acceptor = new Thread(() -> {
+            while (server.isOpen()) {
+                try {
+                    SocketChannel channel = server.accept();
+                    accepted.incrementAndGet();
+                    Thread handler = new Thread(() -> handle(channel, response, closeAfterResponse, lastRequest));
+                    handler.setDaemon(true);
+                    handler.start();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        });
+        acceptor.setDaemon(true);
+        acceptor.start();
+        return "http+unix://" + URLEncoder.encode(socketPath.toString(), StandardCharsets.UTF_8) + "/predict";
+    }
+
+    private static void handle(SocketChannel channel, String response, boolean closeAfterResponse,
+                               AtomicReference<String> lastRequest) {
+        try (channel) {
+            InputStream in = new BufferedInputStream(Channels.newInputStream(channel));
+            while (true) {
+                StringBuilder head = new StringBuilder();
+                int contentLength = 0;
+                String line;
+                while ((line = readLine(in)) != null && !line.isEmpty()) {
+                    head.append(line).append('\n');
+                    if (line.toLowerCase().startsWith("content-length:")) {
+                        contentLength = Integer.parseInt(line.substring(15).trim());
+                    }
+                }
+                if (line == null) {
+                    return;
+                }
+                String body = new String(in.readNBytes(contentLength), StandardCharsets.UTF_8);
+                lastRequest.set(head + body);
+                if (response != null) {
+                    channel.write(ByteBuffer.wrap(response.getBytes(StandardCharsets.ISO_8859_1)));
+                }
+                if (closeAfterResponse) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            // Client went away
+        }
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int b;
+        while ((b = in.read()) != -1 && b != '\n') {
+            if (b != '\r') {
+                line.append((char) b);
+            }
+        }
+        return b == -1 && line.length() == 0 ? null : line.toString();
+    }
+
+    private static <T> FutureCallback<T> ignore() {
+        return new FutureCallback<>() {
+            @Override
+            public void completed(T result) {
+            }
+
+            @Override
+            public void failed(Exception ex) {
+            }
+
+            @Override
+            public void cancelled() {
+            }
+        };
+    }
+
+    @Nested
+    @DisplayName("URLs")
+    class UrlTests {
+
+        @Test
+        @DisplayName("Should decode the socket path and keep the request path and query")
+        void shouldParseTarget() {
+            // Act
+            UnixSocketHttpClient.Target target =
+                    UnixSocketHttpClient.Target.parse("http+unix://%2Frun%2Fml%2Fml.sock/predict/batch?v=2");
+
+            // Assert
+            assertEquals(Path.of("/run/ml/ml.sock"), target.socketPath());
+            assertEquals("/predict/batch?v=2", target.requestPath());
+        }
+
+        @Test
+        @DisplayName("Should recognise only http+unix URLs")
+        void shouldRecogniseScheme() {
+            // Assert
+            assertTrue(UnixSocketHttpClient.isUnixUrl("http+unix://%2Ftmp%2Fml.sock/predict"));
+            assertFalse(UnixSocketHttpClient.isUnixUrl("http://localhost:5000/predict"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Exchanges")
+    class ExchangeTests {
+
+        @Test
+        @DisplayName("Should send headers and body and read a Content-Length response")
+        void shouldPostAndReadResponse() throws Exception {
+            // Arrange
+            AtomicReference<String> lastRequest = new AtomicReference<>();
+            String url = serve("HTTP/1.1 200 OK\r\nContent-Type: application/json\r\nContent-Length: 16\r\n\r\n"
+                    + "{\"prediction\":1}", false, lastRequest, new AtomicInteger());
+
+            // Act
+            SimpleHttpResponse response = client.post(url, "{\"a\":1}".getBytes(StandardCharsets.UTF_8),
+                    Map.of("X-Request-Deadline", "123"), 2000, ignore()).join();
+
+            // Assert
+            assertEquals(200, response.getCode());
+            assertEquals("{\"prediction\":1}", response.getBodyText());
+            assertTrue(lastRequest.get().startsWith("POST /predict HTTP/1.1"));
+            assertTrue(lastRequest.get().contains("X-Request-Deadline: 123"));
+            assertTrue(lastRequest.get().endsWith("{\"a\":1}"));
+        }
+
+        @Test
+        @DisplayName("Should decode chunked responses")
+        void shouldReadChunkedResponse() throws Exception {
+            // Arrange
+            String url = serve("HTTP/1.1 200 OK\r\nTransfer-Encoding: chunked\r\n\r\n"
+                    + "5\r\n{\"ok\"\r\n6\r\n:true}\r\n0\r\n\r\n", false, new AtomicReference<>(), new AtomicInteger());
+
+            // Act
+            SimpleHttpResponse response = client.get(url.replace("/predict", "/health"), 2000, ignore()).join();
+
+            // Assert
+            assertEquals("{\"ok\":true}", response.getBodyText());
+        }
+
+        @Test
+        @DisplayName("Should reconnect when the server closed a pooled connection")
+        void shouldReplaceStaleConnection() throws Exception {
+            // Arrange - the server drops every connection after one response without saying so
+            AtomicInteger accepted = new AtomicInteger();
+            String url = serve("HTTP/1.1 200 OK\r\nContent-Length: 2\r\n\r\n{}", true,
+                    new AtomicReference<>(), accepted);
+
+            // Act
+            for (int i = 0; i < 3; i++) {
+                assertEquals(200, client.get(url, 2000, ignore()).join().getCode());
+                Thread.sleep(20);
+            }
+
+            // Assert
+            assertEquals(3, accepted.get());
+        }
+
+        @Test
+        @DisplayName("Should time out and notify the callback when the server does not answer")
+        void shouldTimeOut() throws Exception {
+            // Arrange
+            String url = serve(null, false, new AtomicReference<>(), new AtomicInteger());
+            CompletableFuture<Exception> failure = new CompletableFuture<>();
+            FutureCallback<SimpleHttpResponse> callback = new FutureCallback<>() {
+                @Override
+                public void completed(SimpleHttpResponse result) {
+                }
+
+                @Override
+                public void failed(Exception ex) {
+                    failure.complete(ex);
+                }
+
+                @Override
+                public void cancelled() {
+                }
+            };
+
+            // Act
+            long start = System.nanoTime();
+            CompletableFuture<SimpleHttpResponse> exchange = client.get(url, 100, callback);
+            CompletionException error = assertThrows(CompletionException.class, exchange::join);
+
+            // Assert
+            assertInstanceOf(TimeoutException.class, error.getCause());
+            assertInstanceOf(TimeoutException.class, failure.get(1, TimeUnit.SECONDS));
+            assertTrue(System.nanoTime() - start < 2_000_000_000L);
+        }
+
+        @Test
+        @DisplayName("Should report a missing socket as a connect failure")
+        void shouldFailToConnect() {
+            // Arrange
+            String url = "http+unix://" + URLEncoder.encode(socketDir.resolve("missing.sock").toString(),
+                    StandardCharsets.UTF_8) + "/predict";
+
+            // Act
+            CompletionException error = assertThrows(CompletionException.class,
+                    () -> client.get(url, 2000, ignore()).join());
+
+            // Assert
+            assertInstanceOf(ConnectException.class, error.getCause());
+        }
+    }
+}
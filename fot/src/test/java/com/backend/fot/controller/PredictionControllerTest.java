@@ -1,10 +1,20 @@
 package com.backend.fot.controller;
 
+import com.backend.fot.client.MLHealthProber;
+import com.backend.fot.client.MLHealthSnapshot;
 import com.backend.fot.dto.FlightPredictionRequestDTO;
 import com.backend.fot.dto.FlightPredictionResponseDTO;
+import com.backend.fot.dto.PredictionExplanationDTO;
 import com.backend.fot.enums.FlightPrediction;
+import com.backend.fot.exceptions.PredictionTimeoutException;
+import com.backend.fot.exceptions.PredictionUnavailableException;
+import com.backend.fot.inference.PredictionExplainer;
+import com.backend.fot.resilience.CallNotPermittedException;
+import com.backend.fot.resilience.CircuitBreaker;
+import com.backend.fot.resilience.MLServiceGuard;
 import com.backend.fot.service.PredictionService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -13,10 +23,20 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -25,7 +45,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * Unit tests for PredictionController.
  * 
  * @author FlightOnTime Team
- * @version 1.0
+ * @version 1.2
  * @since 2025-12-17
  */
 @WebMvcTest(controllers = PredictionController.class, excludeAutoConfiguration = {
@@ -44,6 +64,15 @@ class PredictionControllerTest {
     @MockBean
     private PredictionService predictionService;
 
+    @MockBean
+    private MLServiceGuard mlServiceGuard;
+
+    @MockBean
+    private MLHealthProber mlHealthProber;
+
+    @MockBean
+    private PredictionExplainer predictionExplainer;
+
     private FlightPredictionRequestDTO createValidRequest() {
         return FlightPredictionRequestDTO.builder()
                 .flightNumber("AA1234")
@@ -55,6 +84,27 @@ class PredictionControllerTest {
                 .build();
     }
 
+    private ResultActions performPrediction(FlightPredictionRequestDTO request) throws Exception {
+        MvcResult asyncResult = mockMvc.perform(post("/api/v1/predict")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        return mockMvc.perform(asyncDispatch(asyncResult));
+    }
+
+    private ResultActions performExplainedPrediction(FlightPredictionRequestDTO request) throws Exception {
+        MvcResult asyncResult = mockMvc.perform(post("/api/v1/predict")
+                .param("explain", "true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        return mockMvc.perform(asyncDispatch(asyncResult));
+    }
+
     private FlightPredictionResponseDTO createMockResponse() {
         return FlightPredictionResponseDTO.builder()
                 .prediction(FlightPrediction.ON_TIME)
@@ -73,19 +123,17 @@ class PredictionControllerTest {
             FlightPredictionRequestDTO request = createValidRequest();
             FlightPredictionResponseDTO mockResponse = createMockResponse();
 
-            when(predictionService.predictDelay(any(FlightPredictionRequestDTO.class)))
-                    .thenReturn(mockResponse);
+            when(predictionService.predictDelayAsync(any(FlightPredictionRequestDTO.class)))
+                    .thenReturn(CompletableFuture.completedFuture(mockResponse));
 
-            mockMvc.perform(post("/api/v1/predict")
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .content(objectMapper.writeValueAsString(request)))
+            performPrediction(request)
                     .andExpect(status().isOk())
                     .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                     .andExpect(jsonPath("$.prediction").value("ON_TIME"))
                     .andExpect(jsonPath("$.probability").value(0.85))
                     .andExpect(jsonPath("$.confidence").value("HIGH"));
 
-            verify(predictionService, times(1)).predictDelay(any(FlightPredictionRequestDTO.class));
+            verify(predictionService, times(1)).predictDelayAsync(any(FlightPredictionRequestDTO.class));
         }
 
         @Test
@@ -98,17 +146,83 @@ class PredictionControllerTest {
                     .confidence(FlightPredictionResponseDTO.ConfidenceLevel.VERY_HIGH)
                     .build();
 
-            when(predictionService.predictDelay(any(FlightPredictionRequestDTO.class)))
-                    .thenReturn(delayedResponse);
+            when(predictionService.predictDelayAsync(any(FlightPredictionRequestDTO.class)))
+                    .thenReturn(CompletableFuture.completedFuture(delayedResponse));
 
-            mockMvc.perform(post("/api/v1/predict")
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .content(objectMapper.writeValueAsString(request)))
+            performPrediction(request)
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.prediction").value("DELAYED"))
                     .andExpect(jsonPath("$.probability").value(0.92))
                     .andExpect(jsonPath("$.confidence").value("VERY_HIGH"));
         }
+
+        @Test
+        @DisplayName("Should return 500 when the async prediction fails")
+        void shouldReturnServerErrorWhenPredictionFails() throws Exception {
+            FlightPredictionRequestDTO request = createValidRequest();
+
+            when(predictionService.predictDelayAsync(any(FlightPredictionRequestDTO.class)))
+                    .thenReturn(CompletableFuture.failedFuture(new RuntimeException(
+                            "Failed to get prediction from ML service",
+                            new IllegalStateException("ML service unavailable"))));
+
+            performPrediction(request)
+                    .andExpect(status().isInternalServerError());
+        }
+
+        @Test
+        @DisplayName("Should return 503 when the ML service is unavailable")
+        void shouldReturnServiceUnavailableWhenMLServiceIsDown() throws Exception {
+            FlightPredictionRequestDTO request = createValidRequest();
+
+            when(predictionService.predictDelayAsync(any(FlightPredictionRequestDTO.class)))
+                    .thenReturn(CompletableFuture.failedFuture(new PredictionUnavailableException(
+                            "Failed to get prediction from ML service",
+                            new CallNotPermittedException("ML service circuit breaker is open"))));
+
+            performPrediction(request)
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(jsonPath("$.status").value(503))
+                    .andExpect(jsonPath("$.error").value("Service Unavailable"));
+        }
+
+        @Test
+        @DisplayName("Should pass the client deadline header to the service as a time budget")
+        void shouldPassClientBudget() throws Exception {
+            FlightPredictionRequestDTO request = createValidRequest();
+
+            when(predictionService.predictDelayAsync(any(FlightPredictionRequestDTO.class), any(Duration.class)))
+                    .thenReturn(CompletableFuture.completedFuture(createMockResponse()));
+
+            MvcResult asyncResult = mockMvc.perform(post("/api/v1/predict")
+                    .header(PredictionController.TIMEOUT_HEADER, "250")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(asyncResult))
+                    .andExpect(status().isOk());
+
+            verify(predictionService).predictDelayAsync(any(FlightPredictionRequestDTO.class), eq(Duration.ofMillis(250)));
+            verify(predictionService, never()).predictDelayAsync(any(FlightPredictionRequestDTO.class));
+        }
+
+        @Test
+        @DisplayName("Should return 504 when the prediction misses its deadline")
+        void shouldReturnGatewayTimeoutWhenDeadlineExceeded() throws Exception {
+            FlightPredictionRequestDTO request = createValidRequest();
+
+            when(predictionService.predictDelayAsync(any(FlightPredictionRequestDTO.class)))
+                    .thenReturn(CompletableFuture.failedFuture(new PredictionTimeoutException(
+                            "Prediction did not complete within the request deadline",
+                            new TimeoutException())));
+
+            performPrediction(request)
+                    .andExpect(status().isGatewayTimeout())
+                    .andExpect(jsonPath("$.status").value(504))
+                    .andExpect(jsonPath("$.error").value("Gateway Timeout"));
+        }
     }
 
     @Nested
@@ -126,7 +240,7 @@ class PredictionControllerTest {
                     .content(objectMapper.writeValueAsString(request)))
                     .andExpect(status().isBadRequest());
 
-            verify(predictionService, never()).predictDelay(any());
+            verify(predictionService, never()).predictDelayAsync(any());
         }
 
         @Test
@@ -140,7 +254,7 @@ class PredictionControllerTest {
                     .content(objectMapper.writeValueAsString(request)))
                     .andExpect(status().isBadRequest());
 
-            verify(predictionService, never()).predictDelay(any());
+            verify(predictionService, never()).predictDelayAsync(any());
         }
 
         @Test
@@ -154,7 +268,7 @@ class PredictionControllerTest {
                     .content(objectMapper.writeValueAsString(request)))
                     .andExpect(status().isBadRequest());
 
-            verify(predictionService, never()).predictDelay(any());
+            verify(predictionService, never()).predictDelayAsync(any());
         }
 
         @Test
@@ -172,7 +286,7 @@ class PredictionControllerTest {
                     .content(objectMapper.writeValueAsString(request)))
                     .andExpect(status().isBadRequest());
 
-            verify(predictionService, never()).predictDelay(any());
+            verify(predictionService, never()).predictDelayAsync(any());
         }
     }
 
@@ -180,16 +294,59 @@ class PredictionControllerTest {
     @DisplayName("GET /api/v1/health")
     class HealthCheckTests {
 
+        @BeforeEach
+        void setUp() {
+            when(mlHealthProber.snapshot()).thenReturn(new MLHealthSnapshot(MLHealthSnapshot.Status.UP, true, 12,
+                    Instant.now(), List.of()));
+        }
+
         @Test
         @DisplayName("Should return 200 OK with status UP")
         void shouldReturnHealthyStatus() throws Exception {
+            // Arrange
+            when(mlServiceGuard.getCircuitState()).thenReturn(CircuitBreaker.State.CLOSED);
+
             // Act & Assert
             mockMvc.perform(get("/api/v1/health"))
                     .andExpect(status().isOk())
                     .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                     .andExpect(jsonPath("$.status").value("UP"))
                     .andExpect(jsonPath("$.message").value("FlightOnTime API is running"))
-                    .andExpect(jsonPath("$.timestamp").exists());
+                    .andExpect(jsonPath("$.timestamp").exists())
+                    .andExpect(jsonPath("$.mlCircuit").value("CLOSED"))
+                    .andExpect(jsonPath("$.mlService").value("UP"))
+                    .andExpect(jsonPath("$.mlModelLoaded").value(true))
+                    .andExpect(jsonPath("$.mlProbeLatencyMs").value(12));
+        }
+
+        @Test
+        @DisplayName("Should report DEGRADED when the health probe finds the ML service down")
+        void shouldReportDegradedWhenProbeFindsServiceDown() throws Exception {
+            // Arrange
+            when(mlServiceGuard.getCircuitState()).thenReturn(CircuitBreaker.State.CLOSED);
+            when(mlHealthProber.snapshot()).thenReturn(new MLHealthSnapshot(MLHealthSnapshot.Status.DOWN, false, 3,
+                    Instant.now(), List.of()));
+
+            // Act & Assert
+            mockMvc.perform(get("/api/v1/health"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.status").value("DEGRADED"))
+                    .andExpect(jsonPath("$.message").value("FlightOnTime API is running; ML service is down"))
+                    .andExpect(jsonPath("$.mlService").value("DOWN"))
+                    .andExpect(jsonPath("$.mlModelLoaded").value(false));
+        }
+
+        @Test
+        @DisplayName("Should report DEGRADED while the ML circuit breaker is open")
+        void shouldReportDegradedWhenCircuitIsOpen() throws Exception {
+            // Arrange
+            when(mlServiceGuard.getCircuitState()).thenReturn(CircuitBreaker.State.OPEN);
+
+            // Act & Assert
+            mockMvc.perform(get("/api/v1/health"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.status").value("DEGRADED"))
+                    .andExpect(jsonPath("$.mlCircuit").value("OPEN"));
         }
 
         @Test
@@ -214,7 +371,7 @@ class PredictionControllerTest {
                     .content("{}"))
                     .andExpect(status().isBadRequest());
 
-            verify(predictionService, never()).predictDelay(any());
+            verify(predictionService, never()).predictDelayAsync(any());
         }
 
         @Test
@@ -225,7 +382,7 @@ class PredictionControllerTest {
                     .content("{invalid json}"))
                     .andExpect(status().isBadRequest());
 
-            verify(predictionService, never()).predictDelay(any());
+            verify(predictionService, never()).predictDelayAsync(any());
         }
 
         @Test
@@ -234,14 +391,91 @@ class PredictionControllerTest {
             FlightPredictionRequestDTO request = createValidRequest();
             request = request.toBuilder().flightDistance(1).build();
 
-            when(predictionService.predictDelay(any())).thenReturn(createMockResponse());
+            when(predictionService.predictDelayAsync(any()))
+                    .thenReturn(CompletableFuture.completedFuture(createMockResponse()));
 
-            mockMvc.perform(post("/api/v1/predict")
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .content(objectMapper.writeValueAsString(request)))
+            performPrediction(request)
                     .andExpect(status().isOk());
 
-            verify(predictionService, times(1)).predictDelay(any());
+            verify(predictionService, times(1)).predictDelayAsync(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("POST /api/v1/predict?explain=true - Explanations")
+    class ExplanationTests {
+
+        @Test
+        @DisplayName("Should add the explanation when asked for")
+        void shouldAddExplanation() throws Exception {
+            FlightPredictionRequestDTO request = createValidRequest();
+            Map<String, Double> contributions = new LinkedHashMap<>();
+            contributions.put("hora", 0.21);
+            contributions.put("sg_iata_origem", -0.04);
+
+            when(predictionService.predictDelayAsync(any(FlightPredictionRequestDTO.class)))
+                    .thenReturn(CompletableFuture.completedFuture(createMockResponse()));
+            when(predictionExplainer.explainAsync(any(FlightPredictionRequestDTO.class),
+                    any(FlightPredictionResponseDTO.class)))
+                    .thenReturn(CompletableFuture.completedFuture(PredictionExplanationDTO.builder()
+                            .modelVersion("RandomForest-v2.1")
+                            .baseValue(0.41)
+                            .probability(0.58)
+                            .contributions(contributions)
+                            .build()));
+
+            performExplainedPrediction(request)
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.prediction").value("ON_TIME"))
+                    .andExpect(jsonPath("$.explanation.baseValue").value(0.41))
+                    .andExpect(jsonPath("$.explanation.probability").value(0.58))
+                    .andExpect(jsonPath("$.explanation.contributions.hora").value(0.21))
+                    .andExpect(jsonPath("$.explanation.contributions.sg_iata_origem").value(-0.04));
+
+            verify(predictionExplainer, times(1)).explainAsync(any(FlightPredictionRequestDTO.class),
+                    any(FlightPredictionResponseDTO.class));
+        }
+
+        @Test
+        @DisplayName("Should answer without an explanation when none agrees with the prediction")
+        void shouldOmitDroppedExplanation() throws Exception {
+            when(predictionService.predictDelayAsync(any(FlightPredictionRequestDTO.class)))
+                    .thenReturn(CompletableFuture.completedFuture(createMockResponse()));
+            when(predictionExplainer.explainAsync(any(FlightPredictionRequestDTO.class),
+                    any(FlightPredictionResponseDTO.class)))
+                    .thenReturn(CompletableFuture.completedFuture(null));
+
+            performExplainedPrediction(createValidRequest())
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.prediction").value("ON_TIME"))
+                    .andExpect(jsonPath("$.explanation").doesNotExist());
+        }
+
+        @Test
+        @DisplayName("Should not explain a failed prediction")
+        void shouldNotExplainFailedPrediction() throws Exception {
+            when(predictionService.predictDelayAsync(any(FlightPredictionRequestDTO.class)))
+                    .thenReturn(CompletableFuture.failedFuture(new PredictionUnavailableException(
+                            "Failed to get prediction from ML service",
+                            new CallNotPermittedException("ML service circuit breaker is open"))));
+
+            performExplainedPrediction(createValidRequest())
+                    .andExpect(status().isServiceUnavailable());
+
+            verifyNoInteractions(predictionExplainer);
+        }
+
+        @Test
+        @DisplayName("Should not explain unless asked")
+        void shouldNotExplainByDefault() throws Exception {
+            when(predictionService.predictDelayAsync(any(FlightPredictionRequestDTO.class)))
+                    .thenReturn(CompletableFuture.completedFuture(createMockResponse()));
+
+            performPrediction(createValidRequest())
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.explanation").doesNotExist());
+
+            verifyNoInteractions(predictionExplainer);
         }
     }
 }
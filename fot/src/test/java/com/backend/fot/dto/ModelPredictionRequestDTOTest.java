@@ -0,0 +1,64 @@
+package com.backend.fot.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("ModelPredictionRequestDTO Tests")
+class ModelPredictionRequestDTOTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private final FlightPredictionRequestDTO request = FlightPredictionRequestDTO.builder()
+            .flightNumber("az1234")
+            .companyName("az")
+            .flightOrigin("gig")
+            .flightDestination("gru")
+            .flightDepartureDate(LocalDateTime.of(2026, 12, 20, 14, 30))
+            .flightDistance(350)
+            .build();
+
+    @Nested
+    @DisplayName("Mapping")
+    class MappingTests {
+
+        @Test
+        @DisplayName("Should map API fields and upper-case the codes like the ML wrapper")
+        void shouldMapLikeWrapper() {
+            // Act
+            ModelPredictionRequestDTO dto = ModelPredictionRequestDTO.from(request);
+
+            // Assert
+            assertThat(dto.getAirline()).isEqualTo("AZ");
+            assertThat(dto.getOrigin()).isEqualTo("GIG");
+            assertThat(dto.getDestination()).isEqualTo("GRU");
+            assertThat(dto.getDeparture()).isEqualTo(request.getFlightDepartureDate());
+        }
+    }
+
+    @Nested
+    @DisplayName("Serialization")
+    class SerializationTests {
+
+        @Test
+        @DisplayName("Should serialize to the model service's field names and date format")
+        void shouldSerializeNativeContract() throws Exception {
+            // Act
+            JsonNode json = objectMapper.readTree(objectMapper.writeValueAsBytes(ModelPredictionRequestDTO.from(request)));
+
+            // Assert
+            assertThat(json.size()).isEqualTo(4);
+            assertThat(json.get("companhia").asText()).isEqualTo("AZ");
+            assertThat(json.get("origem").asText()).isEqualTo("GIG");
+            assertThat(json.get("destino").asText()).isEqualTo("GRU");
+            assertThat(json.get("data_partida").asText()).isEqualTo("2026-12-20T14:30:00");
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.backend.fot.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("ModelPredictionResponseDTO Tests")
+class ModelPredictionResponseDTOTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Nested
+    @DisplayName("Deserialization and mapping")
+    class MappingTests {
+
+        @Test
+        @DisplayName("Should read the model service's answer and map probability to confidence")
+        void shouldMapProbabilityToConfidence() throws Exception {
+            // Arrange
+            String json = "{\"prediction\":1,\"probability\":0.8712,\"status\":\"success\"}";
+
+            // Act
+            ModelPredictionResponseDTO dto = objectMapper.readValue(json, ModelPredictionResponseDTO.class);
+            MLServiceResponseDTO mapped = dto.toMLServiceResponse();
+
+            // Assert
+            assertThat(dto.getStatus()).isEqualTo("success");
+            assertThat(mapped.getPrediction()).isEqualTo(1);
+            assertThat(mapped.getConfidence()).isEqualByComparingTo(new BigDecimal("0.8712"));
+            assertThat(mapped.isDelayPredicted()).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should ignore fields it does not know")
+        void shouldIgnoreUnknownFields() throws Exception {
+            // Arrange
+            String json = "{\"prediction\":0,\"probability\":0.1,\"status\":\"success\",\"model\":\"rf\"}";
+
+            // Act
+            ModelPredictionResponseDTO dto = new ObjectMapper().readValue(json, ModelPredictionResponseDTO.class);
+
+            // Assert
+            assertThat(dto.getPrediction()).isZero();
+            assertThat(dto.toMLServiceResponse().isOnTimePredicted()).isTrue();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.backend.fot.inference;
+
+import com.backend.fot.support.ForestFixture;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Parity tests for the batch evaluators against the row-by-row model and the
+ * recorded Python output.
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ */
+@DisplayName("BatchForestEvaluator Tests")
+class BatchForestEvaluatorTest {
+
+    private static RandomForestModel model;
+    private static List<ForestFixture.Case> cases;
+
+    @BeforeAll
+    static void loadFixture() {
+        model = RandomForestModel.from(ForestFixture.dump());
+        cases = ForestFixture.cases();
+    }
+
+    static BatchForestEvaluator evaluator(String kind) {
+        return "vector".equals(kind) ? new VectorBatchEvaluator(model) : new ScalarBatchEvaluator(model);
+    }
+
+    static FeatureBatch batchOf(List<double[]> rows, int capacity) {
+        FeatureBatch batch = new FeatureBatch(model.numFeatures(), capacity);
+        rows.forEach(batch::add);
+        return batch;
+    }
+
+    @Nested
+    @DisplayName("Parity")
+    class ParityTests {
+
+        @ParameterizedTest
+        @ValueSource(strings = {"scalar", "vector"})
+        @DisplayName("Should reproduce predict_proba for every recorded case")
+        void shouldMatchRecordedProbabilities(String kind) {
+            // Arrange
+            FeatureBatch batch = batchOf(cases.stream().map(ForestFixture.Case::features).toList(), cases.size());
+            double[] probabilities = new double[cases.size() * 2];
+
+            // Act
+            evaluator(kind).predictProba(batch, probabilities);
+
+            // Assert
+            for (int row = 0; row < cases.size(); row++) {
+                double[] expected = cases.get(row).probabilities();
+                assertEquals(expected[0], probabilities[row * 2], 1e-12);
+                assertEquals(expected[1], probabilities[row * 2 + 1], 1e-12);
+            }
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = {"scalar", "vector"})
+        @DisplayName("Should match the row-by-row model bit for bit on random rows")
+        void shouldMatchRowByRowModel(String kind) {
+            // Arrange: values around the thresholds, some missing
+            Random random = new Random(7);
+            int rows = 1000;
+            FeatureBatch batch = new FeatureBatch(model.numFeatures(), rows);
+            double[][] data = new double[rows][model.numFeatures()];
+            for (double[] row : data) {
+                for (int f = 0; f < row.length; f++) {
+                    row[f] = random.nextInt(50) == 0 ? Double.NaN
+                            : f < 4 ? random.nextInt(370) + random.nextDouble() : random.nextDouble();
+                }
+                batch.add(row);
+            }
+            double[] probabilities = new double[rows * 2];
+
+            // Act
+            evaluator(kind).predictProba(batch, probabilities);
+
+            // Assert
+            for (int row = 0; row < rows; row++) {
+                double[] expected = model.predictProba(data[row]);
+                assertEquals(expected[0], probabilities[row * 2], 0.0);
+                assertEquals(expected[1], probabilities[row * 2 + 1], 0.0);
+            }
+        }
+
+        @ParameterizedTest
+        @ValueSource(ints = {1, 3, 7, 8, 9, 17})
+        @DisplayName("Should handle batches that do not fill the last vector")
+        void shouldHandlePartialVectors(int rows) {
+            // Arrange
+            List<double[]> features = cases.subList(0, rows).stream().map(ForestFixture.Case::features).toList();
+            FeatureBatch batch = batchOf(features, 32);
+            double[] probabilities = new double[rows * 2 + 2];
+            probabilities[rows * 2] = -1;
+
+            // Act
+            new VectorBatchEvaluator(model).predictProba(batch, probabilities);
+
+            // Assert
+            for (int row = 0; row < rows; row++) {
+                assertEquals(cases.get(row).probabilities()[1], probabilities[row * 2 + 1], 1e-12);
+            }
+            assertEquals(-1, probabilities[rows * 2], "wrote past the last row");
+        }
+    }
+
+    @Nested
+    @DisplayName("Float32 thresholds")
+    class FloatThresholdTests {
+
+        @Test
+        @DisplayName("Should decide like the float64 comparison for floats around the threshold")
+        void shouldMatchDoubleComparison() {
+            // Arrange
+            Random random = new Random(11);
+            for (int i = 0; i < 10_000; i++) {
+                double threshold = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(6));
+                float floor = RandomForestModel.floorToFloat(threshold);
+                float candidate = (float) threshold;
+
+                // Act & Assert
+                for (float f : new float[]{Math.nextDown(candidate), candidate, Math.nextUp(candidate)}) {
+                    assertEquals(f <= threshold, f <= floor, () -> f + " vs " + threshold);
+                }
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Batches and selection")
+    class BatchSetupTests {
+
+        @Test
+        @DisplayName("Should reject rows past capacity and rows of the wrong width")
+        void shouldRejectInvalidRows() {
+            // Arrange
+            FeatureBatch batch = new FeatureBatch(2, 1);
+            batch.add(new double[]{1, 2});
+
+            // Act & Assert
+            assertThrows(IllegalStateException.class, () -> batch.add(new double[]{1, 2}));
+            batch.clear();
+            assertThrows(IllegalArgumentException.class, () -> batch.add(new double[]{1}));
+        }
+
+        @Test
+        @DisplayName("Should pick the vector evaluator when the module is present")
+        void shouldPickVectorEvaluator() {
+            // Act & Assert: surefire runs with --add-modules jdk.incubator.vector
+            assertInstanceOf(VectorBatchEvaluator.class, BatchForestEvaluator.forModel(model));
+        }
+    }
+}
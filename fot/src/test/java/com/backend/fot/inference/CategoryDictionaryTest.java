@@ -0,0 +1,94 @@
+package com.backend.fot.inference;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CategoryDictionary.
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ */
+@DisplayName("CategoryDictionary Unit Tests")
+class CategoryDictionaryTest {
+
+    @Nested
+    @DisplayName("Lookups")
+    class LookupTests {
+
+        @Test
+        @DisplayName("Should resolve codes to their encoder position")
+        void shouldResolveCodes() {
+            // Arrange
+            CategoryDictionary dictionary = new CategoryDictionary(List.of("AZU", "G3", "GLO", "TAM"));
+
+            // Act & Assert
+            assertEquals(0, dictionary.indexOf("AZU"));
+            assertEquals(1, dictionary.indexOf("G3"));
+            assertEquals(2, dictionary.indexOf("GLO"));
+            assertEquals(3, dictionary.indexOf("TAM"));
+            assertEquals(4, dictionary.size());
+        }
+
+        @Test
+        @DisplayName("Should fold lower case like the API normalization")
+        void shouldFoldLowerCase() {
+            // Arrange
+            CategoryDictionary dictionary = new CategoryDictionary(List.of("GRU", "SDU"));
+
+            // Act & Assert
+            assertEquals(1, dictionary.indexOf("sdu"));
+            assertEquals(0, dictionary.indexOf("gRu"));
+        }
+
+        @Test
+        @DisplayName("Should report unknown codes, prefixes and longer strings")
+        void shouldReportUnknownCodes() {
+            // Arrange
+            CategoryDictionary dictionary = new CategoryDictionary(List.of("GRU", "G3"));
+
+            // Act & Assert
+            assertEquals(CategoryDictionary.UNKNOWN, dictionary.indexOf("JPA"));
+            assertEquals(CategoryDictionary.UNKNOWN, dictionary.indexOf("GR"));
+            assertEquals(CategoryDictionary.UNKNOWN, dictionary.indexOf("G"));
+            assertEquals(CategoryDictionary.UNKNOWN, dictionary.indexOf("G3X"));
+            assertEquals(CategoryDictionary.UNKNOWN, dictionary.indexOf("GRUX"));
+            assertEquals(CategoryDictionary.UNKNOWN, dictionary.indexOf(""));
+            assertEquals(CategoryDictionary.UNKNOWN, dictionary.indexOf(null));
+        }
+
+        @Test
+        @DisplayName("Should keep categories outside the code alphabet and a null category")
+        void shouldKeepOtherCategories() {
+            // Arrange
+            CategoryDictionary dictionary = new CategoryDictionary(Arrays.asList("GRU", "São Paulo", null));
+
+            // Act & Assert
+            assertEquals(1, dictionary.indexOf("São Paulo"));
+            assertEquals(2, dictionary.indexOf(null));
+            assertEquals(CategoryDictionary.UNKNOWN, dictionary.indexOf("G-U"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Packing")
+    class PackingTests {
+
+        @Test
+        @DisplayName("Should give every code of up to three characters its own key")
+        void shouldGiveDistinctKeys() {
+            // Act & Assert
+            assertNotEquals(CategoryDictionary.pack("A"), CategoryDictionary.pack("A0"));
+            assertNotEquals(CategoryDictionary.pack("AB"), CategoryDictionary.pack("ABA"));
+            assertNotEquals(CategoryDictionary.pack("AB"), CategoryDictionary.pack("BA"));
+            assertEquals(CategoryDictionary.pack("GIG"), CategoryDictionary.pack("gig"));
+            assertTrue(CategoryDictionary.pack("999") < 37 * 37 * 37);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.backend.fot.inference;
+
+import com.backend.fot.support.ForestFixture;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Parity tests for {@link CompiledForestModel} against tree traversal
+ * ({@link RandomForestModel#predictProba(double[])}) and the recorded Python output.
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ */
+@DisplayName("CompiledForestModel Tests")
+class CompiledForestModelTest {
+
+    private static void assertMatchesTraversal(RandomForestModel model, double[][] rows) {
+        CompiledForestModel compiled = CompiledForestModel.compile(model);
+        FeatureBatch batch = new FeatureBatch(model.numFeatures(), rows.length);
+        for (double[] row : rows) {
+            batch.add(row);
+        }
+        double[] batchProbabilities = new double[rows.length * 2];
+        compiled.batchEvaluator().predictProba(batch, batchProbabilities);
+
+        double[] probabilities = new double[2];
+        for (int row = 0; row < rows.length; row++) {
+            double[] expected = model.predictProba(rows[row]);
+            compiled.predictProba(rows[row], probabilities);
+            assertArrayEquals(expected, probabilities, 0.0, "row " + row);
+            assertEquals(expected[0], batchProbabilities[row * 2], 0.0, "batch row " + row);
+            assertEquals(expected[1], batchProbabilities[row * 2 + 1], 0.0, "batch row " + row);
+        }
+    }
+
+    @Nested
+    @DisplayName("Parity")
+    class ParityTests {
+
+        @Test
+        @DisplayName("Should reproduce predict_proba for every recorded case")
+        void shouldMatchRecordedProbabilities() {
+            // Arrange
+            CompiledForestModel model = CompiledForestModel.compile(RandomForestModel.from(ForestFixture.dump()));
+            double[] probabilities = new double[2];
+
+            for (ForestFixture.Case fixtureCase : ForestFixture.cases()) {
+                // Act
+                model.predictProba(fixtureCase.features(), probabilities);
+
+                // Assert
+                assertArrayEquals(fixtureCase.probabilities(), probabilities, 1e-12);
+            }
+        }
+
+        @ParameterizedTest(name = "{0} trees of depth {1}")
+        @CsvSource({"20, 4", "50, 8", "10, 14", "3, 20"})
+        @DisplayName("Should match traversal bit for bit, including trees split across methods")
+        void shouldMatchTraversal(int trees, int depth) {
+            // Arrange
+            RandomForestModel model = RandomForestModel.from(ForestFixture.synthetic(trees, depth, depth));
+
+            // Act & Assert
+            assertMatchesTraversal(model, ForestFixture.randomRows(500, 7));
+        }
+
+        @Test
+        @DisplayName("Should send values equal to the threshold left and missing values by missing_go_to_left")
+        void shouldHandleThresholdsAndMissingValues() {
+            // Arrange
+            RandomForestModel model = RandomForestModel.from(RandomForestModelTest.dump(List.of(
+                    RandomForestModelTest.stump(0.5, false), RandomForestModelTest.stump(0.1, true))));
+
+            // Act & Assert
+            assertMatchesTraversal(model, new double[][]{
+                    {0.5, 0}, {0.5000001, 0}, {0.1, 0}, {0.1000001, 0}, {Double.NaN, 0},
+                    {Double.NEGATIVE_INFINITY, 0}, {Double.POSITIVE_INFINITY, 0}});
+        }
+
+        @Test
+        @DisplayName("Should score a tree that is a single leaf")
+        void shouldScoreSingleLeafTree() {
+            // Arrange
+            ForestDump.Tree leaf = new ForestDump.Tree(new int[]{-1}, new int[]{-1}, new int[]{-2},
+                    new double[]{-2}, new int[]{0}, new double[][]{{0.3, 0.7}});
+            RandomForestModel model = RandomForestModel.from(RandomForestModelTest.dump(
+                    List.of(leaf, RandomForestModelTest.stump(0.5, false))));
+
+            // Act & Assert
+            assertMatchesTraversal(model, new double[][]{{0.2, 0}, {0.8, 0}, {Double.NaN, 0}});
+        }
+    }
+
+    @Nested
+    @DisplayName("Code generation")
+    class CodeGenerationTests {
+
+        @Test
+        @DisplayName("Should spread large forests over several classes")
+        void shouldSplitLargeForests() {
+            // Arrange
+            RandomForestModel model = RandomForestModel.from(ForestFixture.synthetic(30, 14, 1));
+
+            // Act
+            CompiledForestModel compiled = CompiledForestModel.compile(model);
+
+            // Assert
+            assertTrue(compiled.numGeneratedClasses() > 1);
+            assertTrue(compiled.classBytes() > model.numNodes());
+            assertEquals(model.numNodes(), compiled.numNodes());
+        }
+
+        @Test
+        @DisplayName("Should reject rows with the wrong number of features")
+        void shouldRejectWrongFeatureCount() {
+            // Arrange
+            CompiledForestModel compiled = CompiledForestModel.compile(RandomForestModel.from(ForestFixture.dump()));
+
+            // Act & Assert
+            assertThrows(IllegalArgumentException.class, () -> compiled.predictProba(new double[]{1.0}));
+        }
+    }
+
+    @Nested
+    @DisplayName("Predictor")
+    class PredictorTests {
+
+        @Test
+        @DisplayName("Should score requests like the traversing predictor when configured")
+        void shouldMatchTraversingPredictor() {
+            // Arrange
+            ForestPredictor traversal = ForestPredictor.from(ForestFixture.dump());
+            ForestPredictor compiled = ForestPredictor.from(ForestFixture.dump(), ForestPredictor.Evaluator.COMPILED);
+
+            for (ForestFixture.Case fixtureCase : ForestFixture.cases()) {
+                // Act & Assert
+                assertArrayEquals(traversal.predictProba(fixtureCase.request()),
+                        compiled.predictProba(fixtureCase.request()), 0.0);
+                assertEquals(traversal.predict(fixtureCase.request()), compiled.predict(fixtureCase.request()));
+            }
+            assertEquals(ForestPredictor.Evaluator.COMPILED, compiled.evaluator());
+        }
+    }
+}
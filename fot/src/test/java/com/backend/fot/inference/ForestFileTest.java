@@ -0,0 +1,190 @@
+package com.backend.fot.inference;
+
+import com.backend.fot.dto.MLServiceResponseDTO;
+import com.backend.fot.support.ForestFixture;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the binary model file: {@link ForestFile} writing and
+ * {@link MappedForestModel} scoring from the mapping.
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ */
+@DisplayName("ForestFile Tests")
+class ForestFileTest {
+
+    /** Largest change quantization makes to a probability. */
+    private static final double QUANTIZATION = 1.0 / 131070;
+
+    @TempDir
+    Path directory;
+
+    private Path write(ForestDump dump) throws IOException {
+        Path file = directory.resolve("forest.fotm");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            ForestFile.write(dump, out);
+        }
+        return file;
+    }
+
+    @Nested
+    @DisplayName("Round trip")
+    class RoundTripTests {
+
+        @Test
+        @DisplayName("Should keep the header and preprocessing of the dump")
+        void shouldKeepHeader() throws IOException {
+            // Arrange
+            ForestDump dump = ForestFixture.dump();
+
+            // Act
+            MappedForestModel model = MappedForestModel.open(write(dump));
+
+            // Assert
+            ForestDump header = model.header();
+            assertEquals(dump.model(), header.model());
+            assertArrayEquals(dump.classes(), header.classes());
+            assertEquals(dump.features(), header.features());
+            assertEquals(dump.preprocessing().date(), header.preprocessing().date());
+            assertEquals(dump.preprocessing().targetEncoders().size(), header.preprocessing().targetEncoders().size());
+            for (int i = 0; i < header.preprocessing().targetEncoders().size(); i++) {
+                ForestDump.TargetEncoding expected = dump.preprocessing().targetEncoders().get(i);
+                ForestDump.TargetEncoding actual = header.preprocessing().targetEncoders().get(i);
+                assertEquals(expected.categories(), actual.categories());
+                assertArrayEquals(expected.encodings(), actual.encodings());
+                assertEquals(expected.defaultValue(), actual.defaultValue());
+            }
+            assertEquals(dump.trees().size(), model.numTrees());
+            assertEquals(RandomForestModel.from(dump).numNodes(), model.numNodes());
+        }
+
+        @Test
+        @DisplayName("Should reproduce predict_proba within the quantization step")
+        void shouldMatchRecordedProbabilities() throws IOException {
+            // Arrange
+            MappedForestModel model = MappedForestModel.open(write(ForestFixture.dump()));
+
+            for (ForestFixture.Case fixtureCase : ForestFixture.cases()) {
+                // Act
+                double[] probabilities = model.predictProba(fixtureCase.features());
+
+                // Assert
+                assertArrayEquals(fixtureCase.probabilities(), probabilities, QUANTIZATION);
+            }
+        }
+
+        @Test
+        @DisplayName("Should take the same paths as the array model on deep trees")
+        void shouldMatchArrayModel() throws IOException {
+            // Arrange
+            ForestDump dump = ForestFixture.synthetic(10, 14, 3);
+            RandomForestModel arrays = RandomForestModel.from(dump);
+            MappedForestModel mapped = MappedForestModel.open(write(dump));
+            double[][] rows = ForestFixture.randomRows(1000, 5);
+            FeatureBatch batch = new FeatureBatch(arrays.numFeatures(), rows.length);
+            Arrays.stream(rows).forEach(batch::add);
+            double[] batchProbabilities = new double[rows.length * 2];
+
+            // Act
+            mapped.predictProba(batch, batchProbabilities);
+
+            // Assert
+            for (int row = 0; row < rows.length; row++) {
+                double[] probabilities = mapped.predictProba(rows[row]);
+                assertArrayEquals(arrays.predictProba(rows[row]), probabilities, QUANTIZATION);
+                assertEquals(probabilities[1], batchProbabilities[row * 2 + 1], 0.0);
+            }
+        }
+
+        @Test
+        @DisplayName("Should serve predictions from a mapped file")
+        void shouldPredictFromMappedFile() throws IOException {
+            // Arrange
+            ForestPredictor predictor = ForestPredictor.map(write(ForestFixture.dump()));
+
+            for (ForestFixture.Case fixtureCase : ForestFixture.cases()) {
+                // Act
+                MLServiceResponseDTO response = predictor.predict(fixtureCase.request());
+
+                // Assert
+                assertEquals(fixtureCase.probabilities()[1], response.getConfidence().doubleValue(), QUANTIZATION);
+                if (Math.abs(fixtureCase.probabilities()[1] - 0.5) > QUANTIZATION) {
+                    assertEquals(fixtureCase.prediction(), response.getPrediction());
+                }
+            }
+            assertInstanceOf(MappedForestModel.class, predictor.model());
+        }
+    }
+
+    @Nested
+    @DisplayName("Invalid files")
+    class InvalidFileTests {
+
+        @Test
+        @DisplayName("Should reject files that are not binary models")
+        void shouldRejectOtherFiles() throws IOException {
+            // Arrange
+            Path file = directory.resolve("forest.json");
+            try (InputStream in = ForestFixture.open(ForestFixture.DUMP)) {
+                Files.copy(in, file);
+            }
+
+            // Act & Assert
+            assertThrows(IllegalArgumentException.class, () -> MappedForestModel.open(file));
+        }
+
+        @Test
+        @DisplayName("Should reject truncated files")
+        void shouldRejectTruncatedFiles() throws IOException {
+            // Arrange
+            Path file = write(ForestFixture.dump());
+            byte[] bytes = Files.readAllBytes(file);
+            Files.write(file, Arrays.copyOf(bytes, bytes.length - 2));
+
+            // Act & Assert
+            assertThrows(IllegalArgumentException.class, () -> MappedForestModel.open(file));
+        }
+
+        @Test
+        @DisplayName("Should reject splits that do not point forward")
+        void shouldRejectBackwardLinks() throws IOException {
+            // Arrange: a stump has three nodes and two leaves of two classes; point its split at itself
+            Path file = write(RandomForestModelTest.dump(List.of(RandomForestModelTest.stump(0.5, false))));
+            byte[] bytes = Files.readAllBytes(file);
+            int link = bytes.length - 2 * 2 * 2 - 3 * ForestFile.NODE_BYTES + 4;
+            bytes[link] = 0;
+            bytes[link + 1] = 0;
+            bytes[link + 2] = 0;
+            Files.write(file, bytes);
+
+            // Act & Assert
+            assertThrows(IllegalArgumentException.class, () -> MappedForestModel.open(file));
+        }
+
+        @Test
+        @DisplayName("Should refuse QuickScorer over a mapped file")
+        void shouldRefuseQuickScorer() throws IOException {
+            // Arrange
+            MappedForestModel model = MappedForestModel.open(write(ForestFixture.dump()));
+            ForestDump header = model.header();
+
+            // Act & Assert
+            assertThrows(IllegalArgumentException.class, () -> new ForestPredictor(header.model(), header.classes(),
+                    FlightFeatureEncoder.from(header), model, ForestPredictor.Evaluator.QUICKSCORER));
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.backend.fot.inference;
+
+import com.backend.fot.dto.FlightPredictionRequestDTO;
+import com.backend.fot.dto.MLServiceResponseDTO;
+import com.backend.fot.support.ForestFixture;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Parity tests: the Java engine against probabilities recorded from the Python
+ * pipeline ({@link ForestFixture}).
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ */
+@DisplayName("Forest Parity Tests")
+class ForestParityTest {
+
+    private static final double TOLERANCE = 1e-12;
+
+    private static ForestPredictor predictor;
+    private static List<ForestFixture.Case> cases;
+
+    @BeforeAll
+    static void loadFixture() throws Exception {
+        try (InputStream in = ForestFixture.open(ForestFixture.DUMP)) {
+            predictor = ForestPredictor.load(in, new ObjectMapper());
+        }
+        cases = ForestFixture.cases();
+    }
+
+    @Nested
+    @DisplayName("Against recorded Python output")
+    class RecordedOutputTests {
+
+        @Test
+        @DisplayName("Should reproduce predict_proba from the recorded feature rows")
+        void shouldMatchProbabilitiesFromFeatures() {
+            // Arrange
+            ForestModel model = predictor.model();
+
+            for (ForestFixture.Case fixtureCase : cases) {
+                // Act
+                double[] probabilities = model.predictProba(fixtureCase.features());
+
+                // Assert
+                assertArrayEquals(fixtureCase.probabilities(), probabilities, TOLERANCE);
+            }
+        }
+
+        @Test
+        @DisplayName("Should reproduce the preprocessing feature rows")
+        void shouldMatchFeatureRows() {
+            for (ForestFixture.Case fixtureCase : cases) {
+                // Act
+                double[] features = predictor.encoder().encode(fixtureCase.request());
+
+                // Assert
+                assertArrayEquals(fixtureCase.features(), features, 0.0,
+                        () -> "features for " + fixtureCase.request());
+            }
+        }
+
+        @Test
+        @DisplayName("Should reproduce the feature rows into one reused buffer")
+        void shouldMatchFeatureRowsInReusedBuffer() {
+            // Arrange
+            double[] row = new double[predictor.encoder().numFeatures()];
+
+            for (ForestFixture.Case fixtureCase : cases) {
+                // Act
+                predictor.encoder().encode(fixtureCase.request(), row);
+
+                // Assert: nothing left over from the previous case
+                assertArrayEquals(fixtureCase.features(), row, 0.0,
+                        () -> "features for " + fixtureCase.request());
+            }
+        }
+
+        @Test
+        @DisplayName("Should reproduce predict and predict_proba end to end")
+        void shouldMatchPredictionsFromRequests() {
+            for (ForestFixture.Case fixtureCase : cases) {
+                // Act
+                MLServiceResponseDTO response = predictor.predict(fixtureCase.request());
+
+                // Assert
+                assertEquals(fixtureCase.prediction(), response.getPrediction());
+                assertEquals(fixtureCase.probabilities()[1], response.getConfidence().doubleValue(), TOLERANCE);
+                assertEquals("synthetic", response.getModelVersion());
+            }
+        }
+
+        @Test
+        @DisplayName("Should reproduce the recorded predictions in one batch")
+        void shouldMatchPredictionsInBatch() {
+            // Act
+            List<MLServiceResponseDTO> responses =
+                    predictor.predictAll(cases.stream().map(ForestFixture.Case::request).toList());
+
+            // Assert
+            assertEquals(cases.size(), responses.size());
+            for (int i = 0; i < cases.size(); i++) {
+                assertEquals(cases.get(i).prediction(), responses.get(i).getPrediction());
+                assertEquals(cases.get(i).probabilities()[1], responses.get(i).getConfidence().doubleValue(),
+                        TOLERANCE);
+            }
+        }
+
+        @Test
+        @DisplayName("Should cover unknown categories and missing dates")
+        void shouldCoverUnknownCategories() {
+            // Assert: the fixture exercises the encoder default
+            assertTrue(cases.stream().anyMatch(c -> "XYZ".equals(c.request().getCompanyName())));
+            assertTrue(cases.stream().anyMatch(c -> c.request().getFlightDepartureDate() == null));
+            assertTrue(cases.size() >= 100);
+        }
+    }
+
+    @Nested
+    @DisplayName("Preprocessing")
+    class PreprocessingTests {
+
+        @Test
+        @DisplayName("Should encode dates like ExtratorDeDatas and fold case of categories")
+        void shouldEncodeDatesAndCategories() {
+            // Arrange: 2026-03-02 is a Monday
+            FlightPredictionRequestDTO request = FlightPredictionRequestDTO.builder()
+                    .flightNumber("FT1234")
+                    .companyName("glo")
+                    .flightOrigin("GRU")
+                    .flightDestination("SDU")
+                    .flightDepartureDate(LocalDateTime.of(2026, 3, 2, 14, 30))
+                    .flightDistance(360)
+                    .build();
+
+            // Act
+            double[] features = predictor.encoder().encode(request);
+            double[] upper = predictor.encoder().encode(request.toUpperCase());
+
+            // Assert
+            assertArrayEquals(new double[]{3, 0, 14, 61}, Arrays.copyOf(features, 4));
+            assertArrayEquals(upper, features);
+        }
+
+        @Test
+        @DisplayName("Should give NaN date features when the departure is missing")
+        void shouldGiveNaNForMissingDate() {
+            // Arrange
+            FlightPredictionRequestDTO request = FlightPredictionRequestDTO.builder()
+                    .companyName("GLO")
+                    .flightOrigin("GRU")
+                    .flightDestination("SDU")
+                    .build();
+
+            // Act
+            double[] features = predictor.encoder().encode(request);
+
+            // Assert
+            for (int i = 0; i < 4; i++) {
+                assertTrue(Double.isNaN(features[i]));
+            }
+            assertDoesNotThrow(() -> predictor.predict(request));
+        }
+    }
+}
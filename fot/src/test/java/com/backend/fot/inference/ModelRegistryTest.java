@@ -0,0 +1,396 @@
+package com.backend.fot.inference;
+
+import com.backend.fot.dto.FlightPredictionRequestDTO;
+import com.backend.fot.dto.MLServiceResponseDTO;
+import com.backend.fot.support.ForestFixture;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link ModelRegistry}: picking up, validating and swapping model
+ * versions from a directory, and rolling back.
+ *
+ * @author FlightOnTime Team
+ * @version 1.1
+ */
+@DisplayName("ModelRegistry Tests")
+class ModelRegistryTest {
+
+    private static final ForestDump FIRST = ForestFixture.dump();
+    private static final ForestDump SECOND = ForestFixture.synthetic(5, 6, 1);
+    private static final ForestDump THIRD = ForestFixture.synthetic(5, 6, 2);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final FlightPredictionRequestDTO request = ForestFixture.cases().get(1).request();
+
+    @TempDir
+    Path directory;
+
+    @TempDir
+    Path staging;
+
+    private ModelRegistry open() {
+        return ModelRegistry.open(directory, "forest.json", file -> {
+            try (InputStream in = Files.newInputStream(file)) {
+                return ForestPredictor.load(in, objectMapper);
+            }
+        }, objectMapper, 1e-9, 2);
+    }
+
+    /**
+     * Publishes a version with the given forest and, unless {@code error} is NaN, a golden
+     * set of the fixture's requests scored by that forest and shifted by {@code error}.
+     * Written aside and renamed in, as a deployment would.
+     */
+    private void publish(String version, ForestDump dump, double error) throws IOException {
+        Path written = Files.createDirectories(staging.resolve(version));
+        objectMapper.writeValue(written.resolve("forest.json").toFile(), dump);
+        if (!Double.isNaN(error)) {
+            writeGolden(written, dump, error);
+        }
+        Files.move(written, directory.resolve(version), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void writeGolden(Path version, ForestDump dump, double error) throws IOException {
+        GoldenSet requests;
+        ObjectNode golden;
+        try (InputStream in = ForestFixture.open(ForestFixture.CASES)) {
+            requests = GoldenSet.read(in, objectMapper);
+        }
+        try (InputStream in = ForestFixture.open(ForestFixture.CASES)) {
+            golden = (ObjectNode) objectMapper.readTree(in);
+        }
+        ForestPredictor predictor = ForestPredictor.from(dump);
+        for (int i = 0; i < requests.cases().size(); i++) {
+            ArrayNode probabilities = ((ObjectNode) golden.get("cases").get(i)).putArray("probabilities");
+            for (double p : predictor.predictProba(requests.cases().get(i).request())) {
+                probabilities.add(p + error);
+            }
+        }
+        objectMapper.writeValue(version.resolve(ModelRegistry.GOLDEN_FILE).toFile(), golden);
+    }
+
+    /**
+     * Opens the registry with models that record being closed, by version.
+     */
+    private ModelRegistry openClosing(Map<String, ClosingModel> loaded) {
+        return ModelRegistry.open(directory, "forest.json", file -> {
+            ForestDump dump;
+            try (InputStream in = Files.newInputStream(file)) {
+                dump = ForestDump.read(in, objectMapper);
+            }
+            ClosingModel model = new ClosingModel(RandomForestModel.from(dump));
+            loaded.put(file.getParent().getFileName().toString(), model);
+            return new ForestPredictor(dump.model(), dump.classes(), FlightFeatureEncoder.from(dump), model,
+                    ForestPredictor.Evaluator.TRAVERSAL);
+        }, objectMapper, 1e-9, 2);
+    }
+
+    private static double confidence(ForestDump dump, FlightPredictionRequestDTO request) {
+        return ForestPredictor.from(dump).predictProba(request)[1];
+    }
+
+    @Nested
+    @DisplayName("Opening")
+    class OpeningTests {
+
+        @Test
+        @DisplayName("Should serve the newest valid version under its directory name")
+        void shouldServeNewestVersion() throws IOException {
+            // Arrange
+            publish("v1", FIRST, 0);
+            publish("v2", SECOND, 0);
+
+            // Act
+            try (ModelRegistry registry = open()) {
+                MLServiceResponseDTO response = registry.active().predict(request);
+
+                // Assert
+                assertEquals("v2", response.getModelVersion());
+                assertEquals(confidence(SECOND, request), response.getConfidence().doubleValue(), 0.0);
+                assertNull(registry.status().previous());
+            }
+        }
+
+        @Test
+        @DisplayName("Should reject a version that does not reproduce its golden set")
+        void shouldRejectInvalidVersion() throws IOException {
+            // Arrange
+            publish("v1", FIRST, 0);
+            publish("v2", SECOND, 0.01);
+
+            // Act
+            try (ModelRegistry registry = open()) {
+                // Assert
+                assertEquals("v1", registry.active().modelVersion());
+                assertTrue(registry.status().rejected().containsKey("v2"));
+            }
+        }
+
+        @Test
+        @DisplayName("Should fail when no version is valid")
+        void shouldFailWithoutValidVersion() throws IOException {
+            // Arrange
+            publish("v1", FIRST, 0.01);
+
+            // Act & Assert
+            assertThrows(IllegalStateException.class, ModelRegistryTest.this::open);
+        }
+    }
+
+    @Nested
+    @DisplayName("Swapping")
+    class SwappingTests {
+
+        @Test
+        @DisplayName("Should swap in a newer version and keep the replaced one")
+        void shouldSwapNewerVersion() throws IOException {
+            // Arrange
+            publish("v1", FIRST, 0);
+            try (ModelRegistry registry = open()) {
+                publish("v2", SECOND, 0);
+
+                // Act
+                boolean swapped = registry.refresh();
+
+                // Assert
+                assertTrue(swapped);
+                assertEquals("v2", registry.active().predict(request).getModelVersion());
+                assertEquals("v1", registry.status().previous());
+                assertEquals(1, registry.status().swaps());
+            }
+        }
+
+        @Test
+        @DisplayName("Should wait for a version still being written and ignore older ones")
+        void shouldSkipIncompleteAndOlderVersions() throws IOException {
+            // Arrange
+            publish("v2", SECOND, 0);
+            try (ModelRegistry registry = open()) {
+                publish("v1", FIRST, 0);
+                publish("v3", THIRD, Double.NaN);
+
+                // Act & Assert
+                assertFalse(registry.refresh());
+                assertTrue(registry.status().rejected().isEmpty());
+
+                writeGolden(directory.resolve("v3"), THIRD, 0);
+                assertTrue(registry.refresh());
+                assertEquals("v3", registry.active().modelVersion());
+            }
+        }
+
+        @Test
+        @DisplayName("Should serve every in-flight request from one whole version while swapping")
+        void shouldNotDisturbInFlightRequests() throws Exception {
+            // Arrange
+            publish("v1", FIRST, 0);
+            Map<String, Double> expected = Map.of("v1", confidence(FIRST, request), "v2", confidence(SECOND, request),
+                    "v3", confidence(THIRD, request));
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            AtomicBoolean running = new AtomicBoolean(true);
+            try (ModelRegistry registry = open()) {
+                List<Future<Integer>> readers = new ArrayList<>();
+                for (int t = 0; t < 4; t++) {
+                    readers.add(executor.submit(() -> {
+                        int served = 0;
+                        while (running.get()) {
+                            MLServiceResponseDTO response = registry.active().predict(request);
+                            assertTrue(expected.containsKey(response.getModelVersion()));
+                            assertEquals(expected.get(response.getModelVersion()).doubleValue(),
+                                    response.getConfidence().doubleValue(), 0.0);
+                            served++;
+                        }
+                        return served;
+                    }));
+                }
+
+                // Act
+                publish("v2", SECOND, 0);
+                assertTrue(registry.refresh());
+                publish("v3", THIRD, 0);
+                assertTrue(registry.refresh());
+                running.set(false);
+
+                // Assert
+                for (Future<Integer> reader : readers) {
+                    assertTrue(reader.get() > 0);
+                }
+                assertEquals("v3", registry.active().modelVersion());
+            } finally {
+                running.set(false);
+                executor.shutdownNow();
+            }
+        }
+
+        @Test
+        @DisplayName("Should pick up new versions in the background")
+        void shouldPollDirectory() throws Exception {
+            // Arrange
+            publish("v1", FIRST, 0);
+            try (ModelRegistry registry = open()) {
+                registry.start(20);
+
+                // Act
+                publish("v2", SECOND, 0);
+
+                // Assert
+                long deadline = System.nanoTime() + 5_000_000_000L;
+                while (!"v2".equals(registry.active().modelVersion()) && System.nanoTime() < deadline) {
+                    Thread.sleep(20);
+                }
+                assertEquals("v2", registry.active().modelVersion());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Rollback")
+    class RollbackTests {
+
+        @Test
+        @DisplayName("Should return to the previous version and not reinstall the rolled-back one")
+        void shouldRollBack() throws IOException {
+            // Arrange
+            publish("v1", FIRST, 0);
+            try (ModelRegistry registry = open()) {
+                publish("v2", SECOND, 0);
+                registry.refresh();
+
+                // Act
+                boolean rolledBack = registry.rollback();
+
+                // Assert
+                assertTrue(rolledBack);
+                MLServiceResponseDTO response = registry.active().predict(request);
+                assertEquals("v1", response.getModelVersion());
+                assertEquals(confidence(FIRST, request), response.getConfidence().doubleValue(), 0.0);
+                assertEquals("rolled back", registry.status().rejected().get("v2"));
+                assertFalse(registry.refresh());
+                assertFalse(registry.rollback());
+            }
+        }
+
+        @Test
+        @DisplayName("Should have nothing to roll back to with a single model")
+        void shouldNotRollBackFixedModel() {
+            // Arrange
+            ModelRegistry registry = ModelRegistry.of(ForestPredictor.from(FIRST));
+
+            // Act & Assert
+            assertFalse(registry.rollback());
+            assertEquals(FIRST.model(), registry.active().modelVersion());
+        }
+    }
+
+    @Nested
+    @DisplayName("Releasing models")
+    class ReleaseTests {
+
+        private final Map<String, ClosingModel> loaded = new ConcurrentHashMap<>();
+
+        @Test
+        @DisplayName("Should release a version rejected by its golden set")
+        void shouldReleaseRejectedVersion() throws IOException {
+            // Arrange
+            publish("v1", FIRST, 0);
+            try (ModelRegistry registry = openClosing(loaded)) {
+                publish("v2", SECOND, 0.01);
+
+                // Act
+                boolean activated = registry.refresh();
+
+                // Assert
+                assertFalse(activated);
+                assertTrue(loaded.get("v2").closed.get());
+                assertFalse(loaded.get("v1").closed.get());
+            }
+        }
+
+        @Test
+        @DisplayName("Should release the active and previous models on close")
+        void shouldReleaseOnClose() throws IOException {
+            // Arrange
+            publish("v1", FIRST, 0);
+            ModelRegistry registry = openClosing(loaded);
+            publish("v2", SECOND, 0);
+            registry.refresh();
+
+            // Act
+            registry.close();
+
+            // Assert
+            assertTrue(loaded.get("v1").closed.get());
+            assertTrue(loaded.get("v2").closed.get());
+        }
+    }
+
+    /**
+     * Forest that records being closed, as {@link OnnxForestModel} must be.
+     */
+    private static final class ClosingModel implements ForestModel, AutoCloseable {
+
+        private final ForestModel delegate;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        ClosingModel(ForestModel delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void predictProba(double[] features, double[] probabilities) {
+            delegate.predictProba(features, probabilities);
+        }
+
+        @Override
+        public BatchForestEvaluator batchEvaluator() {
+            return delegate.batchEvaluator();
+        }
+
+        @Override
+        public int numTrees() {
+            return delegate.numTrees();
+        }
+
+        @Override
+        public int numNodes() {
+            return delegate.numNodes();
+        }
+
+        @Override
+        public int numFeatures() {
+            return delegate.numFeatures();
+        }
+
+        @Override
+        public int numClasses() {
+            return delegate.numClasses();
+        }
+
+        @Override
+        public void close() {
+            closed.set(true);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.backend.fot.inference;
+
+import com.backend.fot.dto.MLServiceResponseDTO;
+import com.backend.fot.support.ForestFixture;
+import com.backend.fot.support.OnnxFixture;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Parity tests for {@link OnnxForestModel}: ONNX Runtime scoring a model written by
+ * {@link OnnxFixture} against tree traversal and the recorded Python output.
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ */
+@DisplayName("OnnxForestModel Tests")
+class OnnxForestModelTest {
+
+    /** ONNX Runtime adds the leaf weights in float32. */
+    private static final double FLOAT_SUM = 1e-6;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path directory;
+
+    private OnnxForestModel open(ForestDump dump, int maxBatch) throws Exception {
+        return OnnxForestModel.open(OnnxFixture.write(dump, directory.resolve("forest.onnx")), objectMapper, 1,
+                maxBatch);
+    }
+
+    @Nested
+    @DisplayName("Parity")
+    class ParityTests {
+
+        @Test
+        @DisplayName("Should reproduce predict_proba for every recorded case")
+        void shouldMatchRecordedProbabilities() throws Exception {
+            // Arrange
+            try (OnnxForestModel model = open(ForestFixture.dump(), 256)) {
+                double[] probabilities = new double[2];
+
+                for (ForestFixture.Case fixtureCase : ForestFixture.cases()) {
+                    // Act
+                    model.predictProba(fixtureCase.features(), probabilities);
+
+                    // Assert
+                    assertArrayEquals(fixtureCase.probabilities(), probabilities, FLOAT_SUM);
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("Should match traversal row by row and in batches split into several runs")
+        void shouldMatchTraversal() throws Exception {
+            // Arrange
+            ForestDump dump = ForestFixture.synthetic(20, 12, 9);
+            RandomForestModel arrays = RandomForestModel.from(dump);
+            double[][] rows = ForestFixture.randomRows(500, 3);
+            FeatureBatch batch = new FeatureBatch(arrays.numFeatures(), rows.length);
+            for (double[] row : rows) {
+                batch.add(row);
+            }
+            double[] batchProbabilities = new double[rows.length * 2];
+
+            try (OnnxForestModel model = open(dump, 64)) {
+                // Act
+                model.batchEvaluator().predictProba(batch, batchProbabilities);
+
+                // Assert
+                for (int row = 0; row < rows.length; row++) {
+                    double[] expected = arrays.predictProba(rows[row]);
+                    assertArrayEquals(expected, model.predictProba(rows[row]), FLOAT_SUM, "row " + row);
+                    assertEquals(expected[1], batchProbabilities[row * 2 + 1], FLOAT_SUM, "batch row " + row);
+                }
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Model file")
+    class ModelFileTests {
+
+        @Test
+        @DisplayName("Should read the header and sizes from the metadata")
+        void shouldReadHeader() throws Exception {
+            // Arrange
+            ForestDump dump = ForestFixture.dump();
+
+            // Act
+            try (OnnxForestModel model = open(dump, 256)) {
+                // Assert
+                assertEquals(dump.model(), model.header().model());
+                assertEquals(dump.features(), model.header().features());
+                assertArrayEquals(dump.classes(), model.header().classes());
+                assertEquals(dump.trees().size(), model.numTrees());
+                assertEquals(RandomForestModel.from(dump).numNodes(), model.numNodes());
+            }
+        }
+
+        @Test
+        @DisplayName("Should reject ONNX models without the exporter's metadata")
+        void shouldRejectModelWithoutHeader() throws Exception {
+            // Arrange
+            Path file = directory.resolve("bare.onnx");
+            Files.write(file, OnnxFixture.encode(ForestFixture.dump(), false));
+
+            // Act & Assert
+            assertThrows(IllegalArgumentException.class, () -> OnnxForestModel.open(file, objectMapper, 1, 256));
+        }
+
+        @Test
+        @DisplayName("Should fail to load files that are not ONNX")
+        void shouldFailOnOtherFiles() throws Exception {
+            // Arrange
+            Path file = directory.resolve("forest.json");
+            Files.writeString(file, "{}");
+
+            // Act & Assert
+            assertThrows(IOException.class, () -> OnnxForestModel.open(file, objectMapper, 1, 256));
+        }
+    }
+
+    @Nested
+    @DisplayName("Predictor")
+    class PredictorTests {
+
+        @Test
+        @DisplayName("Should score requests like the traversing predictor")
+        void shouldMatchTraversingPredictor() throws Exception {
+            // Arrange
+            ForestPredictor traversal = ForestPredictor.from(ForestFixture.dump());
+
+            try (OnnxForestModel model = open(ForestFixture.dump(), 256)) {
+                ForestPredictor onnx = ForestPredictor.onnx(model);
+
+                for (ForestFixture.Case fixtureCase : ForestFixture.cases()) {
+                    // Act
+                    MLServiceResponseDTO response = onnx.predict(fixtureCase.request());
+
+                    // Assert
+                    assertEquals(traversal.predict(fixtureCase.request()).getConfidence().doubleValue(),
+                            response.getConfidence().doubleValue(), FLOAT_SUM);
+                    if (Math.abs(fixtureCase.probabilities()[1] - 0.5) > FLOAT_SUM) {
+                        assertEquals(fixtureCase.prediction(), response.getPrediction());
+                    }
+                }
+                assertEquals(ForestFixture.dump().model(), onnx.modelVersion());
+            }
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.backend.fot.inference;
+
+import com.backend.fot.dto.FlightPredictionRequestDTO;
+import com.backend.fot.dto.FlightPredictionResponseDTO;
+import com.backend.fot.dto.MLServiceResponseDTO;
+import com.backend.fot.dto.PredictionExplanationDTO;
+import com.backend.fot.support.ForestFixture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link PredictionExplainer}.
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ */
+@DisplayName("PredictionExplainer Tests")
+class PredictionExplainerTest {
+
+    private static final double TOLERANCE = 1e-4;
+
+    private PredictionExplainer explainer;
+
+    @AfterEach
+    void tearDown() {
+        if (explainer != null) {
+            explainer.close();
+        }
+    }
+
+    private static FlightPredictionRequestDTO request() {
+        return ForestFixture.cases().get(0).request();
+    }
+
+    /** Response as the prediction service builds it from a model's answer. */
+    private static FlightPredictionResponseDTO served(ForestPredictor predictor, FlightPredictionRequestDTO request) {
+        MLServiceResponseDTO answer = predictor.predict(request);
+        return FlightPredictionResponseDTO.builder()
+                .prediction(answer.getPredictionEnum())
+                .probability(answer.getConfidence().doubleValue())
+                .modelVersion(answer.getModelVersion())
+                .build();
+    }
+
+    private static PredictionExplainer local(ModelRegistry registry, TreeShapExplainer fixed) {
+        return new PredictionExplainer(registry, fixed, 16, TOLERANCE, 1, 4);
+    }
+
+    @Nested
+    @DisplayName("LOCAL engine")
+    class LocalTests {
+
+        @Test
+        @DisplayName("Should explain with the registry's active version")
+        void shouldExplainWithActiveVersion() {
+            // Arrange
+            ForestPredictor predictor = ForestPredictor.from(ForestFixture.dump()).withModelVersion("v2");
+            explainer = local(ModelRegistry.of(predictor), null);
+            FlightPredictionRequestDTO request = request();
+            FlightPredictionResponseDTO response = served(predictor, request);
+
+            // Act
+            PredictionExplanationDTO explanation = explainer.explain(request, response);
+
+            // Assert
+            assertTrue(explainer.canExplain());
+            assertNotNull(explanation);
+            assertEquals("v2", explanation.getModelVersion());
+            assertEquals(response.getProbability(), explanation.getProbability(), TOLERANCE);
+            assertEquals(0, explainer.mismatches());
+        }
+
+        @Test
+        @DisplayName("Should build the explainer once per version")
+        void shouldCacheExplainerPerVersion() {
+            // Arrange
+            ForestPredictor predictor = ForestPredictor.from(ForestFixture.dump());
+            explainer = local(ModelRegistry.of(predictor), null);
+            FlightPredictionRequestDTO request = request();
+            FlightPredictionResponseDTO response = served(predictor, request);
+
+            // Act
+            explainer.explain(request, response);
+            explainer.explain(request, response);
+
+            // Assert
+            assertEquals(1, explainer.cacheMisses());
+            assertEquals(1, explainer.cacheHits());
+        }
+
+        @Test
+        @DisplayName("Should drop the explanation when another version served the prediction")
+        void shouldDropOtherVersion() {
+            // Arrange
+            ForestPredictor active = ForestPredictor.from(ForestFixture.dump()).withModelVersion("v2");
+            explainer = local(ModelRegistry.of(active), null);
+            FlightPredictionRequestDTO request = request();
+            FlightPredictionResponseDTO response = served(active.withModelVersion("v1"), request);
+
+            // Act
+            PredictionExplanationDTO explanation = explainer.explain(request, response);
+
+            // Assert
+            assertNull(explanation);
+            assertEquals(0, explainer.mismatches(), "no explainer claims v1, nothing was computed");
+        }
+
+        @Test
+        @DisplayName("Should fall back to the fixed dump only when it agrees with the prediction")
+        void shouldCheckFallbackAgainstVersion() {
+            // Arrange
+            ForestPredictor active = ForestPredictor.from(ForestFixture.dump()).withModelVersion("v2");
+            TreeShapExplainer fixed = TreeShapExplainer.from(ForestFixture.dump(), 16);
+            explainer = local(ModelRegistry.of(active), fixed);
+            FlightPredictionRequestDTO request = request();
+            FlightPredictionResponseDTO response = served(active.withModelVersion("v1"), request);
+
+            // Act
+            PredictionExplanationDTO explanation = explainer.explain(request, response);
+
+            // Assert
+            assertNull(explanation);
+            assertEquals(1, explainer.mismatches());
+        }
+    }
+
+    @Nested
+    @DisplayName("Fixed dump")
+    class FixedTests {
+
+        @Test
+        @DisplayName("Should explain a prediction without a version when the probability agrees")
+        void shouldExplainMatchingProbability() {
+            // Arrange
+            ForestPredictor predictor = ForestPredictor.from(ForestFixture.dump());
+            explainer = local(null, TreeShapExplainer.from(ForestFixture.dump(), 16));
+            FlightPredictionRequestDTO request = request();
+            FlightPredictionResponseDTO response = served(predictor, request).toBuilder()
+                    .modelVersion(null)
+                    .build();
+
+            // Act
+            PredictionExplanationDTO explanation = explainer.explain(request, response);
+
+            // Assert
+            assertNotNull(explanation);
+            assertEquals(response.getProbability(), explanation.getProbability(), TOLERANCE);
+        }
+
+        @Test
+        @DisplayName("Should drop the explanation when the probability disagrees")
+        void shouldDropMismatchingProbability() {
+            // Arrange
+            ForestPredictor predictor = ForestPredictor.from(ForestFixture.dump());
+            explainer = local(null, TreeShapExplainer.from(ForestFixture.dump(), 16));
+            FlightPredictionRequestDTO request = request();
+            FlightPredictionResponseDTO served = served(predictor, request);
+            FlightPredictionResponseDTO response = served.toBuilder()
+                    .modelVersion(null)
+                    .probability(served.getProbability() > 0.5 ? served.getProbability() - 0.1
+                            : served.getProbability() + 0.1)
+                    .build();
+
+            // Act
+            PredictionExplanationDTO explanation = explainer.explain(request, response);
+
+            // Assert
+            assertNull(explanation);
+            assertEquals(1, explainer.mismatches());
+        }
+
+        @Test
+        @DisplayName("Should report nothing to explain without a dump or JSON model")
+        void shouldNotExplainWithoutModel() {
+            // Arrange
+            explainer = local(null, null);
+            FlightPredictionRequestDTO request = request();
+
+            // Act
+            PredictionExplanationDTO explanation = explainer.explain(request,
+                    served(ForestPredictor.from(ForestFixture.dump()), request));
+
+            // Assert
+            assertFalse(explainer.canExplain());
+            assertNull(explanation);
+        }
+    }
+
+    @Nested
+    @DisplayName("Explanation pool")
+    class AsyncTests {
+
+        @Test
+        @DisplayName("Should explain off the calling thread")
+        void shouldExplainAsync() throws Exception {
+            // Arrange
+            ForestPredictor predictor = ForestPredictor.from(ForestFixture.dump());
+            explainer = local(ModelRegistry.of(predictor), null);
+            FlightPredictionRequestDTO request = request();
+            FlightPredictionResponseDTO response = served(predictor, request);
+
+            // Act
+            PredictionExplanationDTO explanation = explainer.explainAsync(request, response)
+                    .get(5, TimeUnit.SECONDS);
+
+            // Assert
+            assertEquals(explainer.explain(request, response).getContributions(), explanation.getContributions());
+        }
+
+        @Test
+        @DisplayName("Should answer without an explanation once the pool is closed")
+        void shouldSkipWhenRejected() throws Exception {
+            // Arrange
+            ForestPredictor predictor = ForestPredictor.from(ForestFixture.dump());
+            explainer = local(ModelRegistry.of(predictor), null);
+            FlightPredictionRequestDTO request = request();
+            explainer.close();
+
+            // Act
+            PredictionExplanationDTO explanation = explainer.explainAsync(request, served(predictor, request))
+                    .get(5, TimeUnit.SECONDS);
+
+            // Assert
+            assertNull(explanation);
+            assertEquals(1, explainer.rejections());
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.backend.fot.inference;
+
+import com.backend.fot.dto.FlightPredictionRequestDTO;
+import com.backend.fot.dto.MLServiceResponseDTO;
+import com.backend.fot.support.ForestFixture;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link PredictionTable}, its {@link MinimalPerfectHash} and the
+ * {@link PredictionTableJob} that writes it.
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ */
+@DisplayName("PredictionTable Tests")
+class PredictionTableTest {
+
+    private static final LocalDate FIRST_DATE = LocalDate.of(2026, 10, 1);
+    private static final int DAYS = 60;
+
+    private final ForestPredictor predictor = ForestPredictor.from(ForestFixture.dump());
+
+    @TempDir
+    Path directory;
+
+    /** The fixture's flights with a departure, as a schedule. */
+    private static List<PredictionTable.Departure> schedule() {
+        List<PredictionTable.Departure> schedule = new ArrayList<>();
+        for (ForestFixture.Case fixtureCase : ForestFixture.cases()) {
+            FlightPredictionRequestDTO request = fixtureCase.request();
+            if (request.getFlightDepartureDate() != null) {
+                schedule.add(new PredictionTable.Departure(request.getCompanyName(), request.getFlightOrigin(),
+                        request.getFlightDestination(), request.getFlightDepartureDate().getHour()));
+            }
+        }
+        return schedule;
+    }
+
+    private PredictionTable write(List<PredictionTable.Departure> schedule) throws IOException {
+        Path file = directory.resolve("predictions.fotp");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            PredictionTable.write(predictor, schedule, FIRST_DATE, DAYS, out);
+        }
+        return PredictionTable.open(file);
+    }
+
+    private static FlightPredictionRequestDTO request(PredictionTable.Departure departure, LocalDateTime at) {
+        return FlightPredictionRequestDTO.builder()
+                .flightNumber("FT1234")
+                .companyName(departure.airline())
+                .flightOrigin(departure.origin())
+                .flightDestination(departure.destination())
+                .flightDepartureDate(at)
+                .flightDistance(500)
+                .build();
+    }
+
+    @Nested
+    @DisplayName("Lookups")
+    class LookupTests {
+
+        @Test
+        @DisplayName("Should return what live scoring returns for every scheduled departure")
+        void shouldMatchLiveScoring() throws IOException {
+            // Arrange
+            List<PredictionTable.Departure> schedule = schedule();
+            PredictionTable table = write(schedule);
+
+            // Act & Assert
+            assertEquals(new HashSet<>(schedule).size() * DAYS, table.size());
+            for (PredictionTable.Departure departure : schedule) {
+                for (int day : new int[]{0, 17, DAYS - 1}) {
+                    for (int minute : new int[]{0, 59}) {
+                        FlightPredictionRequestDTO request = request(departure,
+                                FIRST_DATE.plusDays(day).atTime(departure.hour(), minute));
+                        MLServiceResponseDTO expected = predictor.predict(request);
+                        MLServiceResponseDTO actual = table.lookup(request);
+
+                        assertNotNull(actual, departure + " on day " + day);
+                        assertEquals(expected.getPrediction(), actual.getPrediction());
+                        assertEquals(expected.getConfidence(), actual.getConfidence());
+                        assertEquals(expected.getModelVersion(), actual.getModelVersion());
+                    }
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("Should ignore the case of the codes")
+        void shouldFoldCase() throws IOException {
+            // Arrange
+            PredictionTable table = write(List.of(new PredictionTable.Departure("glo", "gig", "gru", 14)));
+            FlightPredictionRequestDTO request = FlightPredictionRequestDTO.builder()
+                    .companyName("Glo")
+                    .flightOrigin("GIG")
+                    .flightDestination("gru")
+                    .flightDepartureDate(FIRST_DATE.atTime(14, 30))
+                    .build();
+
+            // Act
+            MLServiceResponseDTO actual = table.lookup(request);
+
+            // Assert
+            assertNotNull(actual);
+            assertEquals(predictor.predict(request).getConfidence(), actual.getConfidence());
+        }
+
+        @Test
+        @DisplayName("Should miss departures outside the schedule or the horizon")
+        void shouldMissUnscheduledDepartures() throws IOException {
+            // Arrange
+            PredictionTable.Departure scheduled = new PredictionTable.Departure("GLO", "GIG", "GRU", 14);
+            PredictionTable table = write(List.of(scheduled));
+            LocalDateTime inHorizon = FIRST_DATE.plusDays(3).atTime(14, 0);
+
+            // Act & Assert
+            assertNotNull(table.lookup(request(scheduled, inHorizon)));
+            assertNull(table.lookup(request(scheduled, inHorizon.withHour(15))));
+            assertNull(table.lookup(request(scheduled, FIRST_DATE.minusDays(1).atTime(14, 0))));
+            assertNull(table.lookup(request(scheduled, FIRST_DATE.plusDays(DAYS).atTime(14, 0))));
+            assertNull(table.lookup(request(new PredictionTable.Departure("GLO", "GRU", "GIG", 14), inHorizon)));
+            assertNull(table.lookup(request(new PredictionTable.Departure("AZU", "GIG", "GRU", 14), inHorizon)));
+            assertNull(table.lookup(request(scheduled, null)));
+            assertNull(table.lookup(request(scheduled, inHorizon).toBuilder().companyName("GLOB").build()));
+        }
+
+        @Test
+        @DisplayName("Should miss everything when no table is configured")
+        void shouldMissOnEmptyTable() {
+            // Arrange
+            PredictionTable table = PredictionTable.empty();
+
+            // Act & Assert
+            assertEquals(0, table.size());
+            assertNull(table.lookup(ForestFixture.cases().get(1).request()));
+        }
+    }
+
+    @Nested
+    @DisplayName("Minimal perfect hash")
+    class HashTests {
+
+        @Test
+        @DisplayName("Should give every key its own index below the number of keys")
+        void shouldMapKeysOntoIndices() {
+            // Arrange
+            Random random = new Random(42);
+            Set<Long> distinct = new HashSet<>();
+            while (distinct.size() < 100_000) {
+                distinct.add(random.nextLong());
+            }
+            long[] keys = distinct.stream().mapToLong(Long::longValue).toArray();
+
+            // Act
+            MinimalPerfectHash hash = MinimalPerfectHash.build(keys);
+
+            // Assert
+            boolean[] taken = new boolean[keys.length];
+            for (long key : keys) {
+                int index = hash.indexOf(key);
+                assertTrue(index >= 0 && index < keys.length, "index " + index);
+                assertFalse(taken[index], "index " + index + " given twice");
+                taken[index] = true;
+            }
+        }
+
+        @Test
+        @DisplayName("Should reject repeated keys")
+        void shouldRejectRepeatedKeys() {
+            // Act & Assert
+            assertThrows(IllegalArgumentException.class, () -> MinimalPerfectHash.build(new long[]{1, 2, 1}));
+        }
+    }
+
+    @Nested
+    @DisplayName("Offline job")
+    class JobTests {
+
+        @Test
+        @DisplayName("Should read a schedule and replace the table in place")
+        void shouldWriteTableFromSchedule() throws IOException {
+            // Arrange
+            Path csv = Files.writeString(directory.resolve("schedule.csv"), """
+                    companhia,origem,destino,hora
+                    # Voos diários
+                    GLO,GIG,GRU,14:05
+                    tam,CGH,SDU,7
+
+                    GLO,GIG,GRU,14:40
+                    """);
+            Path out = directory.resolve("predictions.fotp");
+            Files.writeString(out, "previous table");
+
+            // Act
+            List<PredictionTable.Departure> schedule = PredictionTableJob.readSchedule(csv);
+            int entries = PredictionTableJob.run(predictor, schedule, FIRST_DATE, 10, out);
+            PredictionTable table = PredictionTable.open(out);
+
+            // Assert
+            assertEquals(List.of(new PredictionTable.Departure("GLO", "GIG", "GRU", 14),
+                    new PredictionTable.Departure("TAM", "CGH", "SDU", 7),
+                    new PredictionTable.Departure("GLO", "GIG", "GRU", 14)), schedule);
+            assertEquals(20, entries);
+            assertEquals(20, table.size());
+            assertEquals(FIRST_DATE.plusDays(9), table.lastDate());
+            assertNotNull(table.lookup(request(schedule.get(1), FIRST_DATE.plusDays(9).atTime(7, 50))));
+        }
+
+        @Test
+        @DisplayName("Should name the line of an invalid departure")
+        void shouldRejectInvalidLine() throws IOException {
+            // Arrange
+            Path csv = Files.writeString(directory.resolve("schedule.csv"), "GLO,GIG,GRU,14\nGLO,GIG,GRU,25\n");
+
+            // Act
+            IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                    () -> PredictionTableJob.readSchedule(csv));
+
+            // Assert
+            assertTrue(error.getMessage().contains("line 2"), error.getMessage());
+        }
+    }
+
+    @Nested
+    @DisplayName("Invalid files")
+    class InvalidFileTests {
+
+        @Test
+        @DisplayName("Should reject files that are not prediction tables")
+        void shouldRejectOtherFiles() throws IOException {
+            // Arrange
+            Path file = Files.write(directory.resolve("other.fotp"), new byte[64]);
+
+            // Act & Assert
+            assertThrows(IllegalArgumentException.class, () -> PredictionTable.open(file));
+        }
+
+        @Test
+        @DisplayName("Should reject truncated tables")
+        void shouldRejectTruncatedTable() throws IOException {
+            // Arrange
+            write(schedule());
+            Path file = directory.resolve("predictions.fotp");
+            byte[] bytes = Files.readAllBytes(file);
+            Path truncated = Files.write(directory.resolve("truncated.fotp"),
+                    Arrays.copyOf(bytes, bytes.length - 4));
+
+            // Act & Assert
+            assertThrows(IllegalArgumentException.class, () -> PredictionTable.open(truncated));
+        }
+    }
+}
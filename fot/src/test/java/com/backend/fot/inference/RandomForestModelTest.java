@@ -0,0 +1,143 @@
+package com.backend.fot.inference;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RandomForestModel on hand-built trees.
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ */
+@DisplayName("RandomForestModel Unit Tests")
+class RandomForestModelTest {
+
+    /**
+     * One split on feature 0 at {@code threshold}: left leaf [0.9, 0.1], right leaf [0.2, 0.8].
+     */
+    static ForestDump.Tree stump(double threshold, boolean missingGoesLeft) {
+        return new ForestDump.Tree(
+                new int[]{1, -1, -1},
+                new int[]{2, -1, -1},
+                new int[]{0, -2, -2},
+                new double[]{threshold, -2, -2},
+                new int[]{missingGoesLeft ? 1 : 0, 0, 0},
+                new double[][]{{0.5, 0.5}, {0.9, 0.1}, {0.2, 0.8}});
+    }
+
+    static ForestDump dump(List<ForestDump.Tree> trees) {
+        return new ForestDump(ForestDump.FORMAT, ForestDump.VERSION, "test", null, new int[]{0, 1},
+                List.of("x0", "x1"), new ForestDump.Preprocessing(null, List.of(), List.of()), trees);
+    }
+
+    @Nested
+    @DisplayName("Traversal")
+    class TraversalTests {
+
+        @Test
+        @DisplayName("Should send values equal to the threshold left")
+        void shouldSendValuesEqualToThresholdLeft() {
+            // Arrange
+            RandomForestModel model = RandomForestModel.from(dump(List.of(stump(0.5, false))));
+
+            // Act
+            double[] atThreshold = model.predictProba(new double[]{0.5, 0});
+            double[] above = model.predictProba(new double[]{0.5000001, 0});
+
+            // Assert
+            assertArrayEquals(new double[]{0.9, 0.1}, atThreshold);
+            assertArrayEquals(new double[]{0.2, 0.8}, above);
+        }
+
+        @Test
+        @DisplayName("Should compare features as float32 like sklearn")
+        void shouldCompareFeaturesAsFloat32() {
+            // Arrange: 0.1 as float32 is 0.100000001..., above the float64 threshold 0.1
+            RandomForestModel model = RandomForestModel.from(dump(List.of(stump(0.1, false))));
+
+            // Act
+            double[] probabilities = model.predictProba(new double[]{0.1, 0});
+
+            // Assert
+            assertArrayEquals(new double[]{0.2, 0.8}, probabilities);
+        }
+
+        @Test
+        @DisplayName("Should route NaN by missing_go_to_left")
+        void shouldRouteNaNByMissingDirection() {
+            // Arrange
+            RandomForestModel missingLeft = RandomForestModel.from(dump(List.of(stump(0.5, true))));
+            RandomForestModel missingRight = RandomForestModel.from(dump(List.of(stump(0.5, false))));
+            double[] row = {Double.NaN, 0};
+
+            // Act & Assert
+            assertArrayEquals(new double[]{0.9, 0.1}, missingLeft.predictProba(row));
+            assertArrayEquals(new double[]{0.2, 0.8}, missingRight.predictProba(row));
+        }
+
+        @Test
+        @DisplayName("Should average leaf probabilities across trees")
+        void shouldAverageAcrossTrees() {
+            // Arrange
+            RandomForestModel model = RandomForestModel.from(dump(List.of(stump(0.5, false), stump(2.0, false))));
+
+            // Act: first tree goes right, second left
+            double[] probabilities = model.predictProba(new double[]{1.0, 0});
+
+            // Assert
+            assertEquals(0.55, probabilities[0], 1e-15);
+            assertEquals(0.45, probabilities[1], 1e-15);
+            assertEquals(2, model.numTrees());
+            assertEquals(6, model.numNodes());
+        }
+
+        @Test
+        @DisplayName("Should reject rows with the wrong number of features")
+        void shouldRejectWrongRowLength() {
+            // Arrange
+            RandomForestModel model = RandomForestModel.from(dump(List.of(stump(0.5, false))));
+
+            // Act & Assert
+            assertThrows(IllegalArgumentException.class, () -> model.predictProba(new double[]{1.0}));
+        }
+    }
+
+    @Nested
+    @DisplayName("Validation")
+    class ValidationTests {
+
+        @Test
+        @DisplayName("Should reject a dump without trees")
+        void shouldRejectEmptyForest() {
+            // Act & Assert
+            assertThrows(IllegalArgumentException.class, () -> RandomForestModel.from(dump(List.of())));
+        }
+
+        @Test
+        @DisplayName("Should reject splits on unknown features")
+        void shouldRejectUnknownFeature() {
+            // Arrange
+            ForestDump.Tree tree = stump(0.5, false);
+            tree.feature()[0] = 7;
+
+            // Act & Assert
+            assertThrows(IllegalArgumentException.class, () -> RandomForestModel.from(dump(List.of(tree))));
+        }
+
+        @Test
+        @DisplayName("Should reject children that point backwards")
+        void shouldRejectCycles() {
+            // Arrange
+            ForestDump.Tree tree = stump(0.5, false);
+            tree.childrenRight()[0] = 0;
+
+            // Act & Assert
+            assertThrows(IllegalArgumentException.class, () -> RandomForestModel.from(dump(List.of(tree))));
+        }
+    }
+}
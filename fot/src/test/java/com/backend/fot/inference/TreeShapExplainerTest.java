@@ -0,0 +1,326 @@
+package com.backend.fot.inference;
+
+import com.backend.fot.dto.FlightPredictionRequestDTO;
+import com.backend.fot.dto.PredictionExplanationDTO;
+import com.backend.fot.support.ForestFixture;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link TreeShapExplainer}, checked against Shapley values computed by
+ * brute force over every feature subset.
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ */
+@DisplayName("TreeShapExplainer Tests")
+class TreeShapExplainerTest {
+
+    private static final double TOLERANCE = 1e-12;
+
+    /**
+     * Random tree over {@code numFeatures} features with training weights that add
+     * up from the leaves, repeating features along paths.
+     */
+    private static ForestDump.Tree weightedTree(Random random, int numFeatures, int maxDepth) {
+        List<int[]> nodes = new ArrayList<>();
+        List<double[]> values = new ArrayList<>();
+        List<Double> thresholds = new ArrayList<>();
+        List<Double> samples = new ArrayList<>();
+        addNode(random, numFeatures, maxDepth, 0, nodes, thresholds, values, samples);
+        int count = nodes.size();
+        int[] left = new int[count];
+        int[] right = new int[count];
+        int[] feature = new int[count];
+        int[] missing = new int[count];
+        double[] threshold = new double[count];
+        double[] weights = new double[count];
+        for (int n = 0; n < count; n++) {
+            feature[n] = nodes.get(n)[0];
+            left[n] = nodes.get(n)[1];
+            right[n] = nodes.get(n)[2];
+            missing[n] = nodes.get(n)[3];
+            threshold[n] = thresholds.get(n);
+            weights[n] = samples.get(n);
+        }
+        return new ForestDump.Tree(left, right, feature, threshold, missing, values.toArray(new double[0][]),
+                weights);
+    }
+
+    private static int addNode(Random random, int numFeatures, int maxDepth, int depth, List<int[]> nodes,
+                               List<Double> thresholds, List<double[]> values, List<Double> samples) {
+        int node = nodes.size();
+        double p = random.nextDouble();
+        values.add(new double[]{1 - p, p});
+        thresholds.add(-2.0);
+        samples.add(0.0);
+        if (depth >= maxDepth || depth >= 1 && random.nextDouble() < 0.2) {
+            nodes.add(new int[]{-2, -1, -1, 0});
+            samples.set(node, 1.0 + random.nextInt(50));
+            return node;
+        }
+        int[] split = {random.nextInt(numFeatures), -1, -1, random.nextInt(2)};
+        nodes.add(split);
+        thresholds.set(node, random.nextInt(10) + 0.5);
+        split[1] = addNode(random, numFeatures, maxDepth, depth + 1, nodes, thresholds, values, samples);
+        split[2] = addNode(random, numFeatures, maxDepth, depth + 1, nodes, thresholds, values, samples);
+        samples.set(node, samples.get(split[1]) + samples.get(split[2]));
+        return node;
+    }
+
+    /** Trees over the fixture's features and preprocessing, so requests can be explained. */
+    private static ForestDump forest(List<ForestDump.Tree> trees) {
+        ForestDump fixture = ForestFixture.dump();
+        return new ForestDump(fixture.format(), fixture.version(), "test", null, fixture.classes(),
+                fixture.features(), fixture.preprocessing(), trees);
+    }
+
+    private static ForestDump weightedForest(int trees, int maxDepth, long seed) {
+        Random random = new Random(seed);
+        List<ForestDump.Tree> drawn = new ArrayList<>();
+        for (int t = 0; t < trees; t++) {
+            drawn.add(weightedTree(random, ForestFixture.dump().features().size(), maxDepth));
+        }
+        return forest(drawn);
+    }
+
+    /**
+     * Expected probability of delay of one tree when only the features in
+     * {@code known} are set to the row's values, the others following each branch
+     * in proportion to its weight.
+     */
+    private static double conditional(ForestDump.Tree tree, double[] weights, int node, double[] row, int known) {
+        if (tree.childrenLeft()[node] < 0) {
+            return tree.value()[node][1];
+        }
+        int left = tree.childrenLeft()[node];
+        int right = tree.childrenRight()[node];
+        int feature = tree.feature()[node];
+        if ((known & 1 << feature) != 0) {
+            double x = row[feature];
+            boolean goLeft = Double.isNaN(x) ? tree.missingGoToLeft()[node] != 0
+                    : (float) x <= tree.threshold()[node];
+            return conditional(tree, weights, goLeft ? left : right, row, known);
+        }
+        return (weights[left] * conditional(tree, weights, left, row, known)
+                + weights[right] * conditional(tree, weights, right, row, known)) / weights[node];
+    }
+
+    /** Shapley values by definition: every subset of the other features, weighted by its size. */
+    private static double[] bruteForce(ForestDump dump, double[] row) {
+        int numFeatures = row.length;
+        double[] value = new double[1 << numFeatures];
+        for (ForestDump.Tree tree : dump.trees()) {
+            for (int subset = 0; subset < value.length; subset++) {
+                value[subset] += conditional(tree, weights(tree), 0, row, subset) / dump.trees().size();
+            }
+        }
+        double[] factorial = new double[numFeatures + 1];
+        factorial[0] = 1;
+        for (int i = 1; i <= numFeatures; i++) {
+            factorial[i] = factorial[i - 1] * i;
+        }
+        double[] phi = new double[numFeatures];
+        for (int f = 0; f < numFeatures; f++) {
+            for (int subset = 0; subset < value.length; subset++) {
+                if ((subset & 1 << f) == 0) {
+                    int size = Integer.bitCount(subset);
+                    phi[f] += factorial[size] * factorial[numFeatures - size - 1] / factorial[numFeatures]
+                            * (value[subset | 1 << f] - value[subset]);
+                }
+            }
+        }
+        return phi;
+    }
+
+    /** The dump's weights, or the even split the explainer assumes without them. */
+    private static double[] weights(ForestDump.Tree tree) {
+        if (tree.nodeSamples() != null) {
+            return tree.nodeSamples();
+        }
+        double[] weights = new double[tree.childrenLeft().length];
+        weights[0] = 1;
+        fillEvenly(tree, weights, 0);
+        return weights;
+    }
+
+    private static void fillEvenly(ForestDump.Tree tree, double[] weights, int node) {
+        if (tree.childrenLeft()[node] >= 0) {
+            weights[tree.childrenLeft()[node]] = weights[node] / 2;
+            weights[tree.childrenRight()[node]] = weights[node] / 2;
+            fillEvenly(tree, weights, tree.childrenLeft()[node]);
+            fillEvenly(tree, weights, tree.childrenRight()[node]);
+        }
+    }
+
+    private static double sum(double[] values) {
+        double total = 0;
+        for (double value : values) {
+            total += value;
+        }
+        return total;
+    }
+
+    @Nested
+    @DisplayName("SHAP values")
+    class ShapValueTests {
+
+        @Test
+        @DisplayName("Should match brute-force Shapley values with training weights")
+        void shouldMatchBruteForce() {
+            // Arrange
+            ForestDump dump = weightedForest(8, 7, 42);
+            TreeShapExplainer explainer = TreeShapExplainer.from(dump, 0);
+            Random random = new Random(7);
+
+            for (int r = 0; r < 50; r++) {
+                double[] row = new double[dump.features().size()];
+                for (int f = 0; f < row.length; f++) {
+                    row[f] = random.nextInt(8) == 0 ? Double.NaN : random.nextInt(11);
+                }
+
+                // Act
+                double[] actual = explainer.shapValues(row);
+
+                // Assert
+                assertArrayEquals(bruteForce(dump, row), actual, TOLERANCE);
+            }
+        }
+
+        @Test
+        @DisplayName("Should match brute-force Shapley values with even splits when the dump has no weights")
+        void shouldMatchBruteForceWithoutWeights() {
+            // Arrange
+            ForestDump dump = ForestFixture.dump();
+            TreeShapExplainer explainer = TreeShapExplainer.from(dump, 0);
+
+            // Act & Assert
+            assertFalse(explainer.hasNodeSamples());
+            for (double[] row : ForestFixture.randomRows(10, 42)) {
+                assertArrayEquals(bruteForce(dump, row), explainer.shapValues(row), TOLERANCE);
+            }
+        }
+
+        @Test
+        @DisplayName("Should add up to the forest's probability of delay")
+        void shouldAddUpToPrediction() {
+            // Arrange
+            ForestDump dump = ForestFixture.synthetic(50, 12, 42);
+            TreeShapExplainer explainer = TreeShapExplainer.from(dump, 0);
+            RandomForestModel model = RandomForestModel.from(dump);
+
+            // Act & Assert
+            for (double[] row : ForestFixture.randomRows(200, 7)) {
+                double explained = explainer.baseValue() + sum(explainer.shapValues(row));
+                assertEquals(model.predictProba(row)[1], explained, 1e-9);
+            }
+        }
+
+        @Test
+        @DisplayName("Should give nothing to features no tree splits on")
+        void shouldIgnoreUnusedFeatures() {
+            // Arrange
+            ForestDump dump = forest(List.of(RandomForestModelTest.stump(0.5, false)));
+            TreeShapExplainer explainer = TreeShapExplainer.from(dump, 0);
+
+            // Act
+            double[] phi = explainer.shapValues(new double[]{0.7, 3, 14, 200, 0.4, 0.6, 0.5});
+
+            // Assert: even split, base 0.45, leaf 0.8
+            assertEquals(0.45, explainer.baseValue(), TOLERANCE);
+            assertArrayEquals(new double[]{0.35, 0, 0, 0, 0, 0, 0}, phi, TOLERANCE);
+        }
+
+        @Test
+        @DisplayName("Should reject nodes without training weight")
+        void shouldRejectEmptyNodes() {
+            // Arrange
+            ForestDump.Tree stump = RandomForestModelTest.stump(0.5, false);
+            ForestDump.Tree empty = new ForestDump.Tree(stump.childrenLeft(), stump.childrenRight(), stump.feature(),
+                    stump.threshold(), stump.missingGoToLeft(), stump.value(), new double[]{10, 10, 0});
+
+            // Act & Assert
+            assertThrows(IllegalArgumentException.class,
+                    () -> TreeShapExplainer.from(forest(List.of(empty)), 0));
+        }
+    }
+
+    @Nested
+    @DisplayName("Explanations")
+    class ExplanationTests {
+
+        @Test
+        @DisplayName("Should explain a flight's probability of delay, largest contribution first")
+        void shouldExplainFlight() {
+            // Arrange
+            ForestPredictor predictor = ForestPredictor.from(ForestFixture.dump());
+            TreeShapExplainer explainer = TreeShapExplainer.from(ForestFixture.dump(), 0);
+            FlightPredictionRequestDTO request = ForestFixture.cases().get(1).request();
+
+            // Act
+            PredictionExplanationDTO explanation = explainer.explain(request);
+
+            // Assert
+            Map<String, Double> contributions = explanation.getContributions();
+            assertEquals(ForestFixture.dump().features().size(), contributions.size());
+            assertEquals(predictor.predict(request).getConfidence().doubleValue(), explanation.getProbability(),
+                    TOLERANCE);
+            double total = explanation.getBaseValue();
+            double previous = Double.POSITIVE_INFINITY;
+            for (double contribution : contributions.values()) {
+                assertTrue(Math.abs(contribution) <= previous);
+                previous = Math.abs(contribution);
+                total += contribution;
+            }
+            assertEquals(explanation.getProbability(), total, 1e-9);
+            assertEquals(predictor.modelVersion(), explanation.getModelVersion());
+        }
+
+        @Test
+        @DisplayName("Should answer repeated feature rows from the cache")
+        void shouldCacheByFeatureRow() {
+            // Arrange
+            TreeShapExplainer explainer = TreeShapExplainer.from(ForestFixture.dump(), 1024);
+            FlightPredictionRequestDTO request = ForestFixture.cases().get(1).request();
+            // Another flight number and minute encode to the same feature row
+            FlightPredictionRequestDTO sameRow = request.toBuilder()
+                    .flightNumber("ZZ9999")
+                    .flightDepartureDate(request.getFlightDepartureDate().withMinute(59))
+                    .build();
+
+            // Act
+            PredictionExplanationDTO first = explainer.explain(request);
+            PredictionExplanationDTO second = explainer.explain(sameRow);
+
+            // Assert
+            assertSame(first, second);
+            assertEquals(1, explainer.cacheMisses());
+            assertEquals(1, explainer.cacheHits());
+        }
+
+        @Test
+        @DisplayName("Should explain every flight the same with and without the cache")
+        void shouldNotChangeExplanationsWithCache() {
+            // Arrange
+            TreeShapExplainer cached = TreeShapExplainer.from(ForestFixture.dump(), 2);
+            TreeShapExplainer uncached = TreeShapExplainer.from(ForestFixture.dump(), 0);
+
+            // Act & Assert
+            for (int round = 0; round < 2; round++) {
+                for (ForestFixture.Case fixtureCase : ForestFixture.cases()) {
+                    assertEquals(uncached.explain(fixtureCase.request()).getContributions(),
+                            cached.explain(fixtureCase.request()).getContributions());
+                }
+            }
+            assertEquals(0, uncached.cacheHits() + uncached.cacheMisses());
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.backend.fot.resilience;
+
+import com.backend.fot.client.MLServiceClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AdaptiveConcurrencyLimiter, using hand-completed futures as calls.
+ *
+ * @author FlightOnTime Team
+ * @version 1.2
+ */
+@DisplayName("AdaptiveConcurrencyLimiter Tests")
+class AdaptiveConcurrencyLimiterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AdaptiveConcurrencyLimiter limiter;
+    private final AtomicInteger started = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Fixed limit of 2, two queue slots, 200ms maximum wait
+        limiter = new AdaptiveConcurrencyLimiter(meterRegistry, true, 2, 2, 2, 1.5, 2, 200);
+    }
+
+    private CompletableFuture<String> submit(CompletableFuture<String> call) {
+        return limiter.executeAsync(() -> {
+            started.incrementAndGet();
+            return call;
+        });
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+
+    private double rejected(String reason) {
+        return meterRegistry.get(AdaptiveConcurrencyLimiter.REJECTED_COUNTER).tag("reason", reason).counter().count();
+    }
+
+    @Nested
+    @DisplayName("Permits and queue")
+    class QueueTests {
+
+        @Test
+        @DisplayName("Should queue calls over the limit and start them as permits free up")
+        void shouldQueueAndGrant() {
+            // Arrange
+            CompletableFuture<String> first = new CompletableFuture<>();
+            submit(first);
+            submit(new CompletableFuture<>());
+
+            // Act
+            CompletableFuture<String> queued = submit(CompletableFuture.completedFuture("queued"));
+            int startedWhileFull = started.get();
+            double queueWhileFull = gauge("ml.client.limiter.queue");
+            first.complete("done");
+
+            // Assert
+            assertEquals(2, startedWhileFull);
+            assertEquals(1.0, queueWhileFull);
+            assertEquals("queued", queued.join());
+            assertEquals(0.0, gauge("ml.client.limiter.queue"));
+            assertEquals(1.0, gauge("ml.client.limiter.inflight"));
+            assertEquals(2.0, gauge("ml.client.limiter.limit"));
+        }
+
+        @Test
+        @DisplayName("Should reject immediately when the queue is full")
+        void shouldRejectWhenQueueFull() {
+            // Arrange
+            for (int i = 0; i < 4; i++) {
+                submit(new CompletableFuture<>());
+            }
+
+            // Act
+            CompletableFuture<String> rejectedCall = submit(new CompletableFuture<>());
+
+            // Assert
+            CompletionException error = assertThrows(CompletionException.class, rejectedCall::join);
+            assertInstanceOf(CallNotPermittedException.class, error.getCause());
+            assertEquals(2, started.get());
+            assertEquals(1, rejected("queue_full"));
+        }
+
+        @Test
+        @DisplayName("Should reject queued calls whose wait expires")
+        void shouldRejectAfterMaxWait() {
+            // Arrange
+            submit(new CompletableFuture<>());
+            submit(new CompletableFuture<>());
+
+            // Act
+            long start = System.nanoTime();
+            CompletableFuture<String> queued = submit(new CompletableFuture<>());
+            CompletionException error = assertThrows(CompletionException.class, queued::join);
+            long waitedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            // Assert
+            assertInstanceOf(CallNotPermittedException.class, error.getCause());
+            assertTrue(waitedMs >= 150 && waitedMs < 2000, "waited " + waitedMs + "ms");
+            assertEquals(1, rejected("queue_timeout"));
+            assertEquals(0, limiter.getQueueDepth());
+        }
+
+        @Test
+        @DisplayName("Should give up the queue slot when a queued call is cancelled")
+        void shouldDropCancelledWaiters() {
+            // Arrange
+            CompletableFuture<String> first = new CompletableFuture<>();
+            submit(first);
+            submit(new CompletableFuture<>());
+            CompletableFuture<String> queued = submit(new CompletableFuture<>());
+
+            // Act
+            queued.cancel(true);
+            first.complete("done");
+
+            // Assert
+            assertEquals(0, limiter.getQueueDepth());
+            assertEquals(1, limiter.getInFlight());
+            assertEquals(2, started.get());
+        }
+
+        @Test
+        @DisplayName("Should free the permit of a blocking call that throws")
+        void shouldReleaseOnBlockingFailure() {
+            // Act
+            assertThrows(IllegalStateException.class, () -> limiter.execute(() -> {
+                throw new IllegalStateException("boom");
+            }));
+
+            // Assert
+            assertEquals(0, limiter.getInFlight());
+            assertEquals("ok", limiter.execute(() -> "ok"));
+        }
+
+        @Test
+        @DisplayName("Should pass calls straight through when disabled")
+        void shouldPassThroughWhenDisabled() {
+            // Arrange
+            AdaptiveConcurrencyLimiter disabled =
+                    new AdaptiveConcurrencyLimiter(new SimpleMeterRegistry(), false, 1, 1, 1, 1.5, 0, 10);
+            disabled.executeAsync(CompletableFuture::new);
+
+            // Act & Assert
+            assertEquals("ok", disabled.executeAsync(() -> CompletableFuture.completedFuture("ok")).join());
+        }
+    }
+
+    @Nested
+    @DisplayName("Limit adjustment")
+    class LimitTests {
+
+        private AdaptiveConcurrencyLimiter adaptive;
+
+        @BeforeEach
+        void setUp() {
+            adaptive = new AdaptiveConcurrencyLimiter(new SimpleMeterRegistry(), true, 20, 2, 100, 1.5, 2, 200);
+        }
+
+        @Test
+        @DisplayName("Should shrink the limit when calls time out")
+        void shouldShrinkOnTimeouts() {
+            // Act
+            for (int i = 0; i < 5; i++) {
+                CompletableFuture<String> call = adaptive.executeAsync(
+                        () -> CompletableFuture.failedFuture(new TimeoutException("read timed out")));
+                assertThrows(CompletionException.class, call::join);
+            }
+            assertThrows(IllegalStateException.class, () -> adaptive.execute(() -> {
+                throw new IllegalStateException("boom");
+            }));
+
+            // Assert
+            assertTrue(adaptive.getLimit() < 20 * 0.6, "limit " + adaptive.getLimit());
+            assertEquals(0, adaptive.getInFlight());
+        }
+
+        @Test
+        @DisplayName("Should not shrink the limit when a call is cancelled")
+        void shouldIgnoreCancelledCalls() {
+            // Arrange
+            CompletableFuture<String> call = adaptive.executeAsync(CompletableFuture::new);
+
+            // Act
+            call.cancel(true);
+
+            // Assert
+            assertEquals(20, adaptive.getLimit());
+            assertEquals(0, adaptive.getInFlight());
+        }
+
+        @Test
+        @DisplayName("Should not shrink the limit for caller deadlines or 4xx answers")
+        void shouldIgnoreCallerCausedFailures() {
+            // Act
+            for (int i = 0; i < 20; i++) {
+                CompletableFuture<String> call = adaptive.executeAsync(() -> CompletableFuture.failedFuture(
+                        new DeadlineExceededException("ML call did not complete within the caller's deadline (1ms)")));
+                assertThrows(CompletionException.class, call::join);
+                assertThrows(DeadlineExceededException.class, () -> adaptive.execute(() -> {
+                    throw new DeadlineExceededException("ML call deadline expired before the request was sent");
+                }));
+                assertThrows(MLServiceClient.MLServiceException.class, () -> adaptive.execute(() -> {
+                    throw new MLServiceClient.MLServiceException("ML service responded with HTTP 400", 400);
+                }));
+            }
+
+            // Assert
+            assertEquals(20, adaptive.getLimit());
+            assertEquals(0, adaptive.getInFlight());
+        }
+
+        @Test
+        @DisplayName("Should shrink the limit on 5xx answers")
+        void shouldShrinkOnServerErrors() {
+            // Act
+            for (int i = 0; i < 5; i++) {
+                assertThrows(MLServiceClient.MLServiceException.class, () -> adaptive.execute(() -> {
+                    throw new MLServiceClient.MLServiceException("ML service responded with HTTP 500", 500);
+                }));
+            }
+
+            // Assert
+            assertTrue(adaptive.getLimit() < 20 * 0.6, "limit " + adaptive.getLimit());
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.backend.fot.resilience;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CircuitBreaker, driven by a manual clock.
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ */
+@DisplayName("CircuitBreaker Tests")
+class CircuitBreakerTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(3000);
+
+    private final AtomicLong clock = new AtomicLong();
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        // window 10, evaluated from 5 calls, 50% failures or 80% slow calls, 10s open, 2 probes
+        breaker = new CircuitBreaker(10, 5, 50, 80,
+                Duration.ofSeconds(2), Duration.ofSeconds(10), 2, clock::get);
+    }
+
+    private void record(int successes, int failures) {
+        for (int i = 0; i < successes; i++) {
+            assertTrue(breaker.tryAcquirePermission());
+            breaker.onSuccess(FAST);
+        }
+        for (int i = 0; i < failures; i++) {
+            assertTrue(breaker.tryAcquirePermission());
+            breaker.onError(FAST);
+        }
+    }
+
+    private void open() {
+        record(0, 5);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Nested
+    @DisplayName("CLOSED state")
+    class ClosedTests {
+
+        @Test
+        @DisplayName("Should stay closed until the minimum number of calls is reached")
+        void shouldWaitForMinimumCalls() {
+            record(0, 4);
+
+            assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        }
+
+        @Test
+        @DisplayName("Should open when the failure rate reaches the threshold")
+        void shouldOpenOnFailureRate() {
+            record(5, 4);
+            assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+            record(0, 1);
+
+            assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        }
+
+        @Test
+        @DisplayName("Should open when the slow-call rate reaches the threshold")
+        void shouldOpenOnSlowCallRate() {
+            for (int i = 0; i < 5; i++) {
+                breaker.tryAcquirePermission();
+                breaker.onSuccess(SLOW);
+            }
+
+            assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        }
+
+        @Test
+        @DisplayName("Should evaluate only the most recent calls")
+        void shouldRollWindow() {
+            record(6, 0);
+            record(0, 4);
+            record(4, 0);
+            assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+            // 5 failures in the last 10 calls, although only 5 of 15 overall
+            record(0, 1);
+
+            assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        }
+    }
+
+    @Nested
+    @DisplayName("OPEN and HALF_OPEN states")
+    class OpenTests {
+
+        @Test
+        @DisplayName("Should reject calls while open")
+        void shouldRejectWhileOpen() {
+            open();
+            clock.addAndGet(Duration.ofSeconds(9).toNanos());
+
+            assertFalse(breaker.tryAcquirePermission());
+        }
+
+        @Test
+        @DisplayName("Should allow a limited number of probes after the open duration")
+        void shouldLimitProbes() {
+            open();
+            clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+            assertTrue(breaker.tryAcquirePermission());
+            assertTrue(breaker.tryAcquirePermission());
+            assertFalse(breaker.tryAcquirePermission());
+            assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        }
+
+        @Test
+        @DisplayName("Should close after all probes succeed")
+        void shouldCloseAfterSuccessfulProbes() {
+            open();
+            clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+            record(2, 0);
+
+            assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+            record(0, 4);
+            assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(), "window restarts after closing");
+        }
+
+        @Test
+        @DisplayName("Should reopen when a probe fails")
+        void shouldReopenOnFailedProbe() {
+            open();
+            clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+            record(1, 1);
+
+            assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+            assertFalse(breaker.tryAcquirePermission());
+        }
+
+        @Test
+        @DisplayName("Should hand back unused probe permissions")
+        void shouldReleaseUnusedProbe() {
+            open();
+            clock.addAndGet(Duration.ofSeconds(10).toNanos());
+            assertTrue(breaker.tryAcquirePermission());
+            assertTrue(breaker.tryAcquirePermission());
+
+            breaker.releasePermission();
+
+            assertTrue(breaker.tryAcquirePermission());
+        }
+    }
+}
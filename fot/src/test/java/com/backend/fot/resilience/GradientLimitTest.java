@@ -0,0 +1,109 @@
+package com.backend.fot.resilience;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for GradientLimit.
+ *
+ * @author FlightOnTime Team
+ * @version 1.1
+ */
+@DisplayName("GradientLimit Tests")
+class GradientLimitTest {
+
+    private static final long RTT = TimeUnit.MILLISECONDS.toNanos(20);
+
+    @Nested
+    @DisplayName("Limit adjustment")
+    class AdjustmentTests {
+
+        @Test
+        @DisplayName("Should grow while the RTT stays flat and the limit is in use")
+        void shouldGrowWithFlatLatency() {
+            // Arrange
+            GradientLimit limit = new GradientLimit(10, 1, 100, 1.5, 100);
+
+            // Act
+            for (int i = 0; i < 50; i++) {
+                limit.onSample(RTT, limit.getLimit());
+            }
+
+            // Assert
+            assertTrue(limit.getLimit() > 10, "limit " + limit.getLimit());
+        }
+
+        @Test
+        @DisplayName("Should not grow while most permits are unused")
+        void shouldIgnoreIdleSamples() {
+            // Arrange
+            GradientLimit limit = new GradientLimit(10, 1, 100, 1.5, 100);
+
+            // Act
+            for (int i = 0; i < 50; i++) {
+                limit.onSample(RTT, 2);
+            }
+
+            // Assert
+            assertEquals(10, limit.getLimit());
+        }
+
+        @Test
+        @DisplayName("Should shrink when the RTT inflates past the tolerance")
+        void shouldShrinkOnLatencyInflation() {
+            // Arrange
+            GradientLimit limit = new GradientLimit(50, 1, 100, 1.5, 100);
+            for (int i = 0; i < 20; i++) {
+                limit.onSample(RTT, 50);
+            }
+            int before = limit.getLimit();
+
+            // Act - the server starts queueing: latency quadruples
+            for (int i = 0; i < 30; i++) {
+                limit.onSample(4 * RTT, limit.getLimit());
+            }
+
+            // Assert
+            assertTrue(limit.getLimit() < before / 2, before + " -> " + limit.getLimit());
+        }
+
+        @Test
+        @DisplayName("Should cut the limit multiplicatively on drops, down to the minimum")
+        void shouldBackOffOnDrops() {
+            // Arrange
+            GradientLimit limit = new GradientLimit(50, 5, 100, 1.5, 100);
+
+            // Act
+            int afterOne = limit.onDrop();
+            for (int i = 0; i < 100; i++) {
+                limit.onDrop();
+            }
+
+            // Assert
+            assertEquals(45, afterOne);
+            assertEquals(5, limit.getLimit());
+        }
+
+        @Test
+        @DisplayName("Should stay within the configured bounds")
+        void shouldRespectBounds() {
+            // Arrange
+            GradientLimit limit = new GradientLimit(10, 4, 12, 1.5, 1000);
+
+            // Act & Assert
+            for (int i = 0; i < 100; i++) {
+                limit.onSample(RTT, limit.getLimit());
+            }
+            assertEquals(12, limit.getLimit());
+            for (int i = 0; i < 60; i++) {
+                limit.onSample(100 * RTT, limit.getLimit());
+            }
+            assertEquals(4, limit.getLimit());
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.backend.fot.resilience;
+
+import com.backend.fot.client.MLServiceClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MLServiceGuard.
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ */
+@DisplayName("MLServiceGuard Tests")
+class MLServiceGuardTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private MLServiceGuard guard;
+    private final AtomicInteger outboundCalls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        CircuitBreaker breaker = new CircuitBreaker(10, 5, 50, 80,
+                Duration.ofSeconds(2), Duration.ofSeconds(30), 1, System::nanoTime);
+        guard = new MLServiceGuard(meterRegistry, breaker, 2);
+    }
+
+    private String failingCall() {
+        outboundCalls.incrementAndGet();
+        throw new MLServiceClient.MLServiceException("Failed to communicate with ML service: timeout");
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.get(MLServiceGuard.CALLS_COUNTER).tag("outcome", outcome).counter().count();
+    }
+
+    @Nested
+    @DisplayName("Circuit breaker")
+    class CircuitBreakerTests {
+
+        @Test
+        @DisplayName("Should fail fast without calling the ML service once the breaker opens")
+        void shouldFailFastWhenOpen() {
+            // Arrange
+            for (int i = 0; i < 5; i++) {
+                assertThrows(MLServiceClient.MLServiceException.class, () -> guard.execute(MLServiceGuardTest.this::failingCall));
+            }
+            assertEquals(CircuitBreaker.State.OPEN, guard.getCircuitState());
+
+            // Act
+            long start = System.nanoTime();
+            CallNotPermittedException rejection = assertThrows(CallNotPermittedException.class,
+                    () -> guard.execute(MLServiceGuardTest.this::failingCall));
+            long elapsed = System.nanoTime() - start;
+
+            // Assert
+            assertEquals(5, outboundCalls.get());
+            assertInstanceOf(MLServiceClient.MLServiceException.class, rejection);
+            assertTrue(elapsed < TimeUnit.MILLISECONDS.toNanos(50), "rejection took " + elapsed + "ns");
+            assertEquals(5, count("failure"));
+            assertEquals(1, count("circuit_open"));
+            assertEquals(1.0, meterRegistry.get("ml.client.circuit.state").tag("state", "open").gauge().value());
+        }
+
+        @Test
+        @DisplayName("Should record async failures and reject subsequent async calls")
+        void shouldTrackAsyncCalls() {
+            // Arrange
+            for (int i = 0; i < 5; i++) {
+                guard.executeAsync(() -> CompletableFuture.failedFuture(
+                        new MLServiceClient.MLServiceException("ML service responded with HTTP 500")));
+            }
+
+            // Act
+            CompletableFuture<String> rejected = guard.executeAsync(() -> CompletableFuture.completedFuture("ok"));
+
+            // Assert
+            CompletionException error = assertThrows(CompletionException.class, rejected::join);
+            assertInstanceOf(CallNotPermittedException.class, error.getCause());
+        }
+
+        @Test
+        @DisplayName("Should not count concurrency limiter rejections as failures")
+        void shouldIgnoreLimiterRejections() {
+            // Act
+            for (int i = 0; i < 10; i++) {
+                guard.executeAsync(() -> CompletableFuture.failedFuture(
+                        new CallNotPermittedException("ML service concurrency limit reached")));
+            }
+
+            // Assert
+            assertEquals(CircuitBreaker.State.CLOSED, guard.getCircuitState());
+            assertEquals(0, count("failure"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Bulkhead")
+    class BulkheadTests {
+
+        @Test
+        @DisplayName("Should reject calls beyond the concurrency limit and free slots on completion")
+        void shouldLimitConcurrentCalls() {
+            // Arrange
+            CompletableFuture<String> first = new CompletableFuture<>();
+            CompletableFuture<String> second = new CompletableFuture<>();
+            guard.executeAsync(() -> first);
+            guard.executeAsync(() -> second);
+
+            // Act
+            CompletableFuture<String> third = guard.executeAsync(() -> CompletableFuture.completedFuture("ok"));
+            first.complete("done");
+            CompletableFuture<String> fourth = guard.executeAsync(() -> CompletableFuture.completedFuture("ok"));
+
+            // Assert
+            CompletionException error = assertThrows(CompletionException.class, third::join);
+            assertTrue(error.getCause().getMessage().contains("bulkhead"));
+            assertEquals("ok", fourth.join());
+            assertEquals(1, count("bulkhead_full"));
+            assertEquals(CircuitBreaker.State.CLOSED, guard.getCircuitState());
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.backend.fot.resilience;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RequestHedger, using hand-completed futures as replicas.
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ */
+@DisplayName("RequestHedger Tests")
+class RequestHedgerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RequestHedger hedger;
+
+    private final Map<String, CompletableFuture<String>> pending = new ConcurrentHashMap<>();
+    private final List<String> calls = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // 10ms hedge delay until latency samples exist, 50% budget
+        hedger = new RequestHedger(meterRegistry, true, 95, 1, 10, 50);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hedger.shutdown();
+    }
+
+    private CompletableFuture<String> call(String replica) {
+        calls.add(replica);
+        CompletableFuture<String> future = new CompletableFuture<>();
+        pending.put(replica, future);
+        return future;
+    }
+
+    private CompletableFuture<String> instant(String replica) {
+        calls.add(replica);
+        return CompletableFuture.completedFuture(replica);
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.get(RequestHedger.HEDGE_COUNTER).tag("outcome", outcome).counter().count();
+    }
+
+    private void earnBudget(int requests) {
+        for (int i = 0; i < requests; i++) {
+            hedger.execute("a", "b", this::instant).join();
+        }
+        calls.clear();
+    }
+
+    @Nested
+    @DisplayName("Hedging")
+    class HedgingTests {
+
+        @Test
+        @DisplayName("Should hedge a slow call, use the first reply and cancel the other")
+        void shouldHedgeAndCancelLoser() throws Exception {
+            // Arrange
+            earnBudget(2);
+
+            // Act
+            CompletableFuture<String> result = hedger.execute("a", "b", RequestHedgerTest.this::call);
+            waitFor(() -> pending.containsKey("b"));
+            pending.get("b").complete("from-b");
+
+            // Assert
+            assertEquals("from-b", result.get(1, TimeUnit.SECONDS));
+            assertTrue(pending.get("a").isCancelled());
+            assertEquals(List.of("a", "b"), calls);
+            assertEquals(1, count("won"));
+        }
+
+        @Test
+        @DisplayName("Should not hedge calls that answer before the delay")
+        void shouldNotHedgeFastCalls() {
+            // Act
+            hedger.execute("a", "b", RequestHedgerTest.this::instant).join();
+
+            // Assert
+            assertEquals(List.of("a"), calls);
+            assertEquals(0, count("sent"));
+        }
+
+        @Test
+        @DisplayName("Should skip the hedge when the budget is exhausted")
+        void shouldRespectBudget() throws Exception {
+            // Act - the budget starts empty and one call only earns half a token
+            CompletableFuture<String> result = hedger.execute("a", "b", RequestHedgerTest.this::call);
+            waitFor(() -> count("budget_exhausted") == 1);
+            pending.get("a").complete("from-a");
+
+            // Assert
+            assertEquals("from-a", result.get(1, TimeUnit.SECONDS));
+            assertEquals(List.of("a"), calls);
+        }
+
+        @Test
+        @DisplayName("Should call the primary directly when there is no second replica")
+        void shouldCallDirectlyWithoutSecondary() {
+            // Act
+            String result = hedger.execute("a", null, RequestHedgerTest.this::instant).join();
+
+            // Assert
+            assertEquals("a", result);
+            assertEquals(List.of("a"), calls);
+        }
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Condition not met within 2s");
+            }
+            Thread.sleep(2);
+        }
+    }
+}
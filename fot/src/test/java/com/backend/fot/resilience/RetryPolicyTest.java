@@ -0,0 +1,191 @@
+package com.backend.fot.resilience;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RetryPolicy.
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ */
+@DisplayName("RetryPolicy Tests")
+class RetryPolicyTest {
+
+    private static final Predicate<Throwable> RETRYABLE = error -> error instanceof IllegalStateException;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RetryPolicy retryPolicy;
+    private final AtomicInteger attempts = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // 3 attempts, 1..5ms backoff, 10% budget (starts with 10 retries saved up)
+        retryPolicy = new RetryPolicy(meterRegistry, true, 3, 1, 5, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        retryPolicy.shutdown();
+    }
+
+    private static Deadline deadline() {
+        return Deadline.after(Duration.ofSeconds(5));
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.get(RetryPolicy.RETRY_COUNTER).tag("outcome", outcome).counter().count();
+    }
+
+    /**
+     * @return call failing with {@code error} the first {@code failures} times, then answering "ok"
+     */
+    private CompletableFuture<String> failing(int failures, RuntimeException error) {
+        return attempts.incrementAndGet() <= failures
+                ? CompletableFuture.failedFuture(error)
+                : CompletableFuture.completedFuture("ok");
+    }
+
+    private String failingBlocking(int failures, RuntimeException error) {
+        if (attempts.incrementAndGet() <= failures) {
+            throw error;
+        }
+        return "ok";
+    }
+
+    @Nested
+    @DisplayName("Retrying")
+    class RetryingTests {
+
+        @Test
+        @DisplayName("Should absorb a transient failure on async and blocking calls")
+        void shouldRetryTransientFailure() {
+            // Act
+            String async = retryPolicy.executeAsync(deadline(), RETRYABLE,
+                    () -> failing(1, new IllegalStateException("503"))).join();
+            attempts.set(0);
+            String blocking = retryPolicy.execute(deadline(), RETRYABLE,
+                    () -> failingBlocking(1, new IllegalStateException("503")));
+
+            // Assert
+            assertEquals("ok", async);
+            assertEquals("ok", blocking);
+            assertEquals(2, count("sent"));
+            assertEquals(2, count("recovered"));
+        }
+
+        @Test
+        @DisplayName("Should not retry failures that are not retryable")
+        void shouldNotRetryOtherFailures() {
+            // Act
+            CompletionException error = assertThrows(CompletionException.class,
+                    () -> retryPolicy.executeAsync(deadline(), RETRYABLE,
+                            () -> failing(1, new IllegalArgumentException("500"))).join());
+
+            // Assert
+            assertInstanceOf(IllegalArgumentException.class, error.getCause());
+            assertEquals(1, attempts.get());
+            assertEquals(0, count("sent"));
+        }
+
+        @Test
+        @DisplayName("Should stop after the maximum number of attempts")
+        void shouldStopAfterMaxAttempts() {
+            // Act
+            assertThrows(IllegalStateException.class, () -> retryPolicy.execute(deadline(), RETRYABLE,
+                    () -> failingBlocking(10, new IllegalStateException("503"))));
+
+            // Assert
+            assertEquals(3, attempts.get());
+        }
+
+        @Test
+        @DisplayName("Should not retry when the pause would outlast the deadline")
+        void shouldRespectDeadline() {
+            // Act
+            assertThrows(CompletionException.class, () -> retryPolicy.executeAsync(Deadline.after(Duration.ZERO),
+                    RETRYABLE, () -> failing(1, new IllegalStateException("503"))).join());
+
+            // Assert
+            assertEquals(1, attempts.get());
+            assertEquals(1, count("deadline_exceeded"));
+        }
+
+        @Test
+        @DisplayName("Should cancel the pending retry when the caller cancels")
+        void shouldCancelPendingRetry() throws Exception {
+            // Arrange - long pauses so the retry is still pending when cancelled
+            RetryPolicy slowPolicy = new RetryPolicy(new SimpleMeterRegistry(), true, 3, 200, 200, 10);
+
+            // Act
+            CompletableFuture<String> result = slowPolicy.executeAsync(deadline(), RETRYABLE,
+                    () -> failing(1, new IllegalStateException("503")));
+            result.cancel(true);
+            TimeUnit.MILLISECONDS.sleep(400);
+            slowPolicy.shutdown();
+
+            // Assert
+            assertEquals(1, attempts.get());
+        }
+    }
+
+    @Nested
+    @DisplayName("Retry budget")
+    class BudgetTests {
+
+        @Test
+        @DisplayName("Should stop retrying once the budget is spent")
+        void shouldStopWhenBudgetIsSpent() {
+            // Act - every call fails; the initial 10 tokens plus 10% of the calls pay for retries
+            int calls = 50;
+            for (int i = 0; i < calls; i++) {
+                assertThrows(IllegalStateException.class, () -> retryPolicy.execute(deadline(), RETRYABLE, () -> {
+                    attempts.incrementAndGet();
+                    throw new IllegalStateException("503");
+                }));
+            }
+
+            // Assert - without a budget 50 calls would have sent 100 retries
+            int retries = attempts.get() - calls;
+            assertTrue(retries <= 10 + calls / 10, "sent " + retries + " retries");
+            assertTrue(count("budget_exhausted") > 0);
+        }
+    }
+
+    @Nested
+    @DisplayName("Backoff")
+    class BackoffTests {
+
+        @Test
+        @DisplayName("Should draw pauses between the base delay and three times the previous one, capped")
+        void shouldApplyDecorrelatedJitter() {
+            // Arrange
+            RetryPolicy policy = new RetryPolicy(new SimpleMeterRegistry(), true, 3, 10, 100, 10);
+            long base = TimeUnit.MILLISECONDS.toNanos(10);
+            long max = TimeUnit.MILLISECONDS.toNanos(100);
+
+            // Act & Assert
+            long previous = base;
+            for (int i = 0; i < 1000; i++) {
+                long next = policy.nextDelayNanos(previous);
+                assertTrue(next >= base && next <= Math.min(max, previous * 3), "pause " + next);
+                previous = next;
+            }
+            policy.shutdown();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.backend.fot.service;
+
+import com.backend.fot.dto.FlightPredictionResponseDTO;
+import com.backend.fot.enums.FlightPrediction;
+import com.backend.fot.inference.ForestPredictor;
+import com.backend.fot.inference.ModelRegistry;
+import com.backend.fot.support.ForestFixture;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LocalPredictionService.
+ *
+ * @author FlightOnTime Team
+ * @version 1.1
+ */
+@DisplayName("LocalPredictionService Unit Tests")
+class LocalPredictionServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private LocalPredictionService predictionService;
+    private ForestFixture.Case fixtureCase;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        predictionService = new LocalPredictionService(ModelRegistry.of(ForestPredictor.from(ForestFixture.dump())),
+                meterRegistry);
+        fixtureCase = ForestFixture.cases().get(0);
+    }
+
+    @Nested
+    @DisplayName("Predictions")
+    class PredictionTests {
+
+        @Test
+        @DisplayName("Should answer with the local model's probability of delay")
+        void shouldAnswerWithLocalProbability() {
+            // Act
+            FlightPredictionResponseDTO response = predictionService.predictDelay(fixtureCase.request());
+
+            // Assert
+            assertEquals(FlightPrediction.fromValue(fixtureCase.prediction()), response.getPrediction());
+            assertEquals(fixtureCase.probabilities()[1], response.getProbability(), 1e-12);
+            assertEquals(PredictionServiceImpl.determineConfidenceLevel(response.getProbability()),
+                    response.getConfidence());
+            assertEquals(1, meterRegistry.get("ml.inference.local").timer().count());
+        }
+
+        @Test
+        @DisplayName("Should complete the async variants before returning")
+        void shouldCompleteAsyncImmediately() {
+            // Act
+            CompletableFuture<FlightPredictionResponseDTO> future =
+                    predictionService.predictDelayAsync(fixtureCase.request(), Duration.ofMillis(1));
+
+            // Assert
+            assertTrue(future.isDone());
+            assertEquals(fixtureCase.probabilities()[1], future.join().getProbability(), 1e-12);
+        }
+    }
+}
@@ -1,26 +1,44 @@
 package com.backend.fot.service;
 
+import com.backend.fot.client.MLPredictionBatcher;
 import com.backend.fot.client.MLServiceClient;
+import com.backend.fot.client.SingleFlightMLClient;
 import com.backend.fot.dto.FlightPredictionRequestDTO;
 import com.backend.fot.dto.FlightPredictionResponseDTO;
 import com.backend.fot.dto.MLServiceResponseDTO;
 import com.backend.fot.enums.FlightPrediction;
+import com.backend.fot.exceptions.PredictionTimeoutException;
+import com.backend.fot.inference.ForestPredictor;
+import com.backend.fot.inference.PredictionTable;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
-import org.mockito.InjectMocks;
+import com.backend.fot.resilience.Deadline;
+import com.backend.fot.resilience.MLServiceGuard;
+import com.backend.fot.support.ForestFixture;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -35,7 +53,7 @@ import static org.mockito.Mockito.*;
  * - Cobertura de casos de sucesso e falha
  * 
  * @author FlightOnTime Team
- * @version 1.0
+ * @version 1.1
  */
 @ExtendWith(MockitoExtension.class)
 @DisplayName("PredictionServiceImpl Unit Tests")
@@ -44,13 +62,17 @@ class PredictionServiceImplTest {
     @Mock
     private MLServiceClient mlServiceClient;
 
-    @InjectMocks
     private PredictionServiceImpl predictionService;
 
+    private SimpleMeterRegistry meterRegistry;
+
     private FlightPredictionRequestDTO validRequest;
 
     @BeforeEach
     void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        predictionService = serviceWith(PredictionTable.empty());
+
         // Arrange: criar request válido para reutilização
         validRequest = FlightPredictionRequestDTO.builder()
                 .flightNumber("AZ1234")
@@ -62,6 +84,15 @@ class PredictionServiceImplTest {
                 .build();
     }
 
+    private PredictionServiceImpl serviceWith(PredictionTable predictionTable) {
+        MLPredictionBatcher disabledBatcher =
+                new MLPredictionBatcher(mlServiceClient, meterRegistry, false, 32, 2000, 100);
+        MLServiceGuard guard = new MLServiceGuard(meterRegistry, 50, 20, 50, 80, 2000, 10000, 5, 100);
+        return new PredictionServiceImpl(
+                new SingleFlightMLClient(mlServiceClient, disabledBatcher, guard, meterRegistry),
+                predictionTable, meterRegistry, 5000);
+    }
+
     @Nested
     @DisplayName("Successful Prediction Tests")
     class SuccessfulPredictionTests {
@@ -75,7 +106,7 @@ class PredictionServiceImplTest {
                     .confidence(new BigDecimal("0.85"))
                     .build();
             
-            when(mlServiceClient.predict(any(FlightPredictionRequestDTO.class)))
+            when(mlServiceClient.predict(any(FlightPredictionRequestDTO.class), any(Deadline.class)))
                     .thenReturn(mlResponse);
 
             // Act
@@ -88,7 +119,7 @@ class PredictionServiceImplTest {
             assertEquals(0.85, result.getProbability(), 0.001, 
                     "Probability should match ML service confidence");
             
-            verify(mlServiceClient, times(1)).predict(validRequest);
+            verify(mlServiceClient, times(1)).predict(eq(validRequest), any(Deadline.class));
         }
 
         @Test
@@ -100,7 +131,7 @@ class PredictionServiceImplTest {
                     .confidence(new BigDecimal("0.92"))
                     .build();
             
-            when(mlServiceClient.predict(any(FlightPredictionRequestDTO.class)))
+            when(mlServiceClient.predict(any(FlightPredictionRequestDTO.class), any(Deadline.class)))
                     .thenReturn(mlResponse);
 
             // Act
@@ -112,7 +143,7 @@ class PredictionServiceImplTest {
                     "Prediction should be DELAYED for ML prediction 1");
             assertEquals(0.92, result.getProbability(), 0.001);
             
-            verify(mlServiceClient).predict(validRequest);
+            verify(mlServiceClient).predict(eq(validRequest), any(Deadline.class));
         }
     }
 
@@ -141,7 +172,7 @@ class PredictionServiceImplTest {
                     .confidence(new BigDecimal(probability))
                     .build();
             
-            when(mlServiceClient.predict(any(FlightPredictionRequestDTO.class)))
+            when(mlServiceClient.predict(any(FlightPredictionRequestDTO.class), any(Deadline.class)))
                     .thenReturn(mlResponse);
 
             // Act
@@ -165,7 +196,7 @@ class PredictionServiceImplTest {
         @DisplayName("Should throw RuntimeException when ML service fails")
         void shouldThrowRuntimeException_WhenMLServiceFails() {
             // Arrange
-            when(mlServiceClient.predict(any(FlightPredictionRequestDTO.class)))
+            when(mlServiceClient.predict(any(FlightPredictionRequestDTO.class), any(Deadline.class)))
                     .thenThrow(new MLServiceClient.MLServiceException("ML service unavailable"));
 
             // Act & Assert
@@ -180,7 +211,89 @@ class PredictionServiceImplTest {
             assertInstanceOf(MLServiceClient.MLServiceException.class, exception.getCause(),
                     "Cause should be MLServiceException");
             
-            verify(mlServiceClient).predict(validRequest);
+            verify(mlServiceClient).predict(eq(validRequest), any(Deadline.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("Async Prediction Tests")
+    class AsyncPredictionTests {
+
+        @Test
+        @DisplayName("Should complete with DELAYED prediction when async ML call succeeds")
+        void shouldCompleteWithPrediction_WhenAsyncCallSucceeds() {
+            // Arrange
+            MLServiceResponseDTO mlResponse = MLServiceResponseDTO.builder()
+                    .prediction(1)
+                    .confidence(new BigDecimal("0.92"))
+                    .build();
+
+            when(mlServiceClient.predictAsync(any(FlightPredictionRequestDTO.class), any(Deadline.class)))
+                    .thenReturn(CompletableFuture.completedFuture(mlResponse));
+
+            // Act
+            FlightPredictionResponseDTO result = predictionService.predictDelayAsync(validRequest).join();
+
+            // Assert
+            assertEquals(FlightPrediction.DELAYED, result.getPrediction());
+            assertEquals(0.92, result.getProbability(), 0.001);
+            assertEquals(FlightPredictionResponseDTO.ConfidenceLevel.VERY_HIGH, result.getConfidence());
+            verify(mlServiceClient).predictAsync(eq(validRequest), any(Deadline.class));
+            verify(mlServiceClient, never()).predict(any(), any());
+        }
+
+        @Test
+        @DisplayName("Should complete exceptionally when async ML call fails")
+        void shouldCompleteExceptionally_WhenAsyncCallFails() {
+            // Arrange
+            when(mlServiceClient.predictAsync(any(FlightPredictionRequestDTO.class), any(Deadline.class)))
+                    .thenReturn(CompletableFuture.failedFuture(
+                            new MLServiceClient.MLServiceException("ML service unavailable")));
+
+            // Act
+            CompletableFuture<FlightPredictionResponseDTO> future = predictionService.predictDelayAsync(validRequest);
+
+            // Assert
+            CompletionException exception = assertThrows(CompletionException.class, future::join);
+            assertTrue(exception.getCause().getMessage().contains("Failed to get prediction"));
+            assertInstanceOf(MLServiceClient.MLServiceException.class, exception.getCause().getCause());
+        }
+
+        @Test
+        @DisplayName("Should time out when the client budget runs out before the ML service answers")
+        void shouldTimeOut_WhenBudgetIsSpent() {
+            // Arrange
+            when(mlServiceClient.predictAsync(any(FlightPredictionRequestDTO.class), any(Deadline.class)))
+                    .thenReturn(new CompletableFuture<>());
+
+            // Act
+            long start = System.nanoTime();
+            CompletableFuture<FlightPredictionResponseDTO> future =
+                    predictionService.predictDelayAsync(validRequest, Duration.ofMillis(100));
+            CompletionException exception = assertThrows(CompletionException.class, future::join);
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+            // Assert
+            assertInstanceOf(PredictionTimeoutException.class, exception.getCause());
+            assertTrue(elapsedMs < 2000, "timed out after " + elapsedMs + "ms");
+        }
+
+        @Test
+        @DisplayName("Should never give the ML call more than the configured deadline")
+        void shouldCapClientBudget() {
+            // Arrange
+            when(mlServiceClient.predictAsync(any(FlightPredictionRequestDTO.class), any(Deadline.class)))
+                    .thenReturn(CompletableFuture.completedFuture(MLServiceResponseDTO.builder()
+                            .prediction(0)
+                            .confidence(new BigDecimal("0.70"))
+                            .build()));
+
+            // Act
+            predictionService.predictDelayAsync(validRequest, Duration.ofHours(1)).join();
+
+            // Assert
+            verify(mlServiceClient).predictAsync(eq(validRequest),
+                    argThat(deadline -> deadline.remainingMillis() <= 5000));
         }
     }
 
@@ -197,7 +310,7 @@ class PredictionServiceImplTest {
                     .confidence(new BigDecimal("0.75"))
                     .build();
             
-            when(mlServiceClient.predict(any())).thenReturn(mlResponse);
+            when(mlServiceClient.predict(any(), any())).thenReturn(mlResponse);
 
             // Act
             FlightPredictionResponseDTO result = predictionService.predictDelay(validRequest);
@@ -216,7 +329,7 @@ class PredictionServiceImplTest {
                     .confidence(new BigDecimal("0.70"))
                     .build();
             
-            when(mlServiceClient.predict(validRequest)).thenReturn(mlResponse);
+            when(mlServiceClient.predict(eq(validRequest), any())).thenReturn(mlResponse);
 
             // Act
             predictionService.predictDelay(validRequest);
@@ -228,7 +341,67 @@ class PredictionServiceImplTest {
                     request.getFlightOrigin().equals("GIG") &&
                     request.getFlightDestination().equals("GRU") &&
                     request.getFlightDistance().equals(350)
-            ));
+            ), any(Deadline.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("Precomputed Table Tests")
+    class PrecomputedTableTests {
+
+        @TempDir
+        Path directory;
+
+        private final ForestPredictor predictor = ForestPredictor.from(ForestFixture.dump());
+
+        private PredictionServiceImpl tableService() throws IOException {
+            Path file = directory.resolve("predictions.fotp");
+            LocalDateTime departure = validRequest.getFlightDepartureDate();
+            try (OutputStream out = Files.newOutputStream(file)) {
+                PredictionTable.write(predictor, List.of(new PredictionTable.Departure("AZ", "GIG", "GRU",
+                        departure.getHour())), departure.toLocalDate().minusDays(1), 3, out);
+            }
+            return serviceWith(PredictionTable.open(file));
+        }
+
+        @Test
+        @DisplayName("Should answer scheduled flights from the table without calling the ML service")
+        void shouldAnswerScheduledFlightFromTable() throws IOException {
+            // Arrange
+            PredictionServiceImpl service = tableService();
+            MLServiceResponseDTO expected = predictor.predict(validRequest);
+
+            // Act
+            FlightPredictionResponseDTO result = service.predictDelay(validRequest);
+            FlightPredictionResponseDTO asyncResult = service.predictDelayAsync(validRequest).join();
+
+            // Assert
+            assertEquals(expected.getPredictionEnum(), result.getPrediction());
+            assertEquals(expected.getConfidence().doubleValue(), result.getProbability(), 0.0);
+            assertEquals(result.getProbability(), asyncResult.getProbability(), 0.0);
+            assertEquals(2.0, meterRegistry.get("ml.prediction.table").tag("result", "hit").counter().count());
+            verifyNoInteractions(mlServiceClient);
+        }
+
+        @Test
+        @DisplayName("Should call the ML service for flights missing from the table")
+        void shouldFallBackOnMiss() throws IOException {
+            // Arrange
+            PredictionServiceImpl service = tableService();
+            FlightPredictionRequestDTO unscheduled = validRequest.toBuilder().flightDestination("CGH").build();
+            when(mlServiceClient.predict(any(FlightPredictionRequestDTO.class), any(Deadline.class)))
+                    .thenReturn(MLServiceResponseDTO.builder()
+                            .prediction(1)
+                            .confidence(new BigDecimal("0.77"))
+                            .build());
+
+            // Act
+            FlightPredictionResponseDTO result = service.predictDelay(unscheduled);
+
+            // Assert
+            assertEquals(0.77, result.getProbability(), 0.001);
+            assertEquals(1.0, meterRegistry.get("ml.prediction.table").tag("result", "miss").counter().count());
+            verify(mlServiceClient, times(1)).predict(eq(unscheduled), any(Deadline.class));
         }
     }
 }
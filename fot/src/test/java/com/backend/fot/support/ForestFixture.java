@@ -0,0 +1,198 @@
+package com.backend.fot.support;
+
+import com.backend.fot.dto.FlightPredictionRequestDTO;
+import com.backend.fot.inference.ForestDump;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Exported forest and parity cases under {@code src/test/resources/inference}.
+ * <p>
+ * {@code forest.json} is a dump in the format of {@code export_forest.py};
+ * {@code forest-fixture.json} holds, per case, the request fields, the feature row
+ * produced by the Python preprocessing and the probabilities from
+ * {@code predict_proba}. Both come from {@code Modelagem/Modelos/synthetic_forest.py};
+ * {@code export_forest.py --fixture} writes the same files for the real model.
+ * </p>
+ * <p>
+ * {@link #synthetic(int, int, long)} draws forests of any size over the same
+ * features, the way {@code synthetic_forest.py} does, for tests and benchmarks that
+ * need deeper or more trees than the recorded dump.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ */
+public final class ForestFixture {
+
+    public static final String DUMP = "/inference/forest.json";
+    public static final String CASES = "/inference/forest-fixture.json";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final int DATE_FEATURES = 4;
+    private static final int DATE_RANGE = 366;
+
+    private ForestFixture() {
+    }
+
+    /**
+     * One recorded prediction.
+     *
+     * @param request       request built from the case's input
+     * @param features      feature row from the Python preprocessing; NaN for missing
+     * @param probabilities class probabilities from {@code predict_proba}
+     * @param prediction    class from {@code predict}
+     */
+    public record Case(FlightPredictionRequestDTO request, double[] features, double[] probabilities,
+                       int prediction) {
+    }
+
+    public static ForestDump dump() {
+        try (InputStream in = open(DUMP)) {
+            return ForestDump.read(in, OBJECT_MAPPER);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static InputStream open(String resource) {
+        InputStream in = ForestFixture.class.getResourceAsStream(resource);
+        if (in == null) {
+            throw new IllegalStateException("Missing test resource " + resource);
+        }
+        return in;
+    }
+
+    public static List<Case> cases() {
+        try (InputStream in = open(CASES)) {
+            List<Case> cases = new ArrayList<>();
+            for (JsonNode node : OBJECT_MAPPER.readTree(in).get("cases")) {
+                cases.add(new Case(request(node.get("input")), doubles(node.get("features")),
+                        doubles(node.get("probabilities")), node.get("prediction").asInt()));
+            }
+            return cases;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Draws a forest over the fixture's features and preprocessing: trees in
+     * pre-order, splits on random features and thresholds, and below depth 2 a
+     * one-in-four chance that a node is a leaf, as {@code synthetic_forest.py}.
+     *
+     * @param trees    number of trees
+     * @param maxDepth deepest level of a tree
+     * @param seed     random seed
+     * @return forest dump
+     */
+    public static ForestDump synthetic(int trees, int maxDepth, long seed) {
+        ForestDump fixture = dump();
+        Random random = new Random(seed);
+        List<ForestDump.Tree> drawn = new ArrayList<>(trees);
+        for (int t = 0; t < trees; t++) {
+            drawn.add(syntheticTree(random, fixture.features().size(), maxDepth));
+        }
+        return new ForestDump(fixture.format(), fixture.version(), "synthetic-" + trees + "x" + maxDepth,
+                null, fixture.classes(), fixture.features(), fixture.preprocessing(), drawn);
+    }
+
+    /**
+     * Draws feature rows in the fixture's ranges (date parts up to 366, encodings
+     * in [0, 1)), with one value in fifty missing.
+     *
+     * @param rows number of rows
+     * @param seed random seed
+     * @return rows of {@code dump().features()} width
+     */
+    public static double[][] randomRows(int rows, long seed) {
+        Random random = new Random(seed);
+        double[][] data = new double[rows][dump().features().size()];
+        for (double[] row : data) {
+            for (int f = 0; f < row.length; f++) {
+                row[f] = random.nextInt(50) == 0 ? Double.NaN : value(random, f);
+            }
+        }
+        return data;
+    }
+
+    private static ForestDump.Tree syntheticTree(Random random, int numFeatures, int maxDepth) {
+        List<int[]> splits = new ArrayList<>();
+        List<double[]> values = new ArrayList<>();
+        List<Double> thresholds = new ArrayList<>();
+        addNode(random, numFeatures, maxDepth, 0, splits, thresholds, values);
+        int nodes = splits.size();
+        int[] left = new int[nodes];
+        int[] right = new int[nodes];
+        int[] feature = new int[nodes];
+        int[] missing = new int[nodes];
+        double[] threshold = new double[nodes];
+        for (int n = 0; n < nodes; n++) {
+            int[] split = splits.get(n);
+            feature[n] = split[0];
+            left[n] = split[1];
+            right[n] = split[2];
+            missing[n] = split[3];
+            threshold[n] = thresholds.get(n);
+        }
+        return new ForestDump.Tree(left, right, feature, threshold, missing, values.toArray(new double[0][]));
+    }
+
+    private static int addNode(Random random, int numFeatures, int maxDepth, int depth, List<int[]> splits,
+                               List<Double> thresholds, List<double[]> values) {
+        int node = splits.size();
+        double p = random.nextDouble();
+        values.add(new double[]{1 - p, p});
+        if (depth >= maxDepth || depth >= 2 && random.nextDouble() < 0.25) {
+            splits.add(new int[]{-2, -1, -1, 0});
+            thresholds.add(-2.0);
+            return node;
+        }
+        int f = random.nextInt(numFeatures);
+        int[] split = {f, -1, -1, random.nextInt(2)};
+        splits.add(split);
+        thresholds.add(f < DATE_FEATURES ? random.nextInt(DATE_RANGE) + 0.5 : random.nextDouble());
+        split[1] = addNode(random, numFeatures, maxDepth, depth + 1, splits, thresholds, values);
+        split[2] = addNode(random, numFeatures, maxDepth, depth + 1, splits, thresholds, values);
+        return node;
+    }
+
+    private static double value(Random random, int f) {
+        return f < DATE_FEATURES ? random.nextInt(DATE_RANGE) + random.nextDouble() : random.nextDouble();
+    }
+
+    private static FlightPredictionRequestDTO request(JsonNode input) {
+        JsonNode departure = input.get("data_partida");
+        return FlightPredictionRequestDTO.builder()
+                .flightNumber("FT1234")
+                .companyName(text(input, "companhia"))
+                .flightOrigin(text(input, "origem"))
+                .flightDestination(text(input, "destino"))
+                .flightDepartureDate(departure == null || departure.isNull()
+                        ? null
+                        : LocalDateTime.parse(departure.asText()))
+                .flightDistance(500)
+                .build();
+    }
+
+    private static String text(JsonNode input, String field) {
+        JsonNode value = input.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static double[] doubles(JsonNode array) {
+        double[] values = new double[array.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = array.get(i).isNull() ? Double.NaN : array.get(i).asDouble();
+        }
+        return values;
+    }
+}
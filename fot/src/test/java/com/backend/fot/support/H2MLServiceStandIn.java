@@ -0,0 +1,238 @@
+package com.backend.fot.support;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.Message;
+import org.apache.hc.core5.http.URIScheme;
+import org.apache.hc.core5.http.impl.bootstrap.HttpAsyncServer;
+import org.apache.hc.core5.http.nio.AsyncRequestConsumer;
+import org.apache.hc.core5.http.nio.AsyncServerRequestHandler;
+import org.apache.hc.core5.http.nio.entity.BasicAsyncEntityConsumer;
+import org.apache.hc.core5.http.nio.support.AsyncResponseBuilder;
+import org.apache.hc.core5.http.nio.support.BasicRequestConsumer;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.http2.config.H2Config;
+import org.apache.hc.core5.http2.impl.nio.bootstrap.H2ServerBootstrap;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.reactor.IOSession;
+import org.apache.hc.core5.reactor.IOSessionListener;
+import org.apache.hc.core5.reactor.ListenerEndpoint;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking ML service stand-in that speaks either HTTP/1.1 or h2c (HTTP/2 with
+ * prior knowledge).
+ * <p>
+ * Serves the same endpoints and answers as {@link MLServiceStandIn}, optionally after
+ * a fixed delay that does not hold a thread, so many calls can be in flight at once.
+ * Both protocols run the same handlers on the same I/O reactor setup, which lets a
+ * benchmark compare them. Accepted and concurrently open connections are counted.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ */
+public final class H2MLServiceStandIn implements AutoCloseable {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ScheduledExecutorService delayer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ml-h2-stand-in-delay");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final AtomicInteger peakOpenConnections = new AtomicInteger();
+    private final HttpAsyncServer server;
+    private final int port;
+    private volatile long delayMs;
+
+    private H2MLServiceStandIn(HttpVersionPolicy versionPolicy, int maxConcurrentStreams) throws IOException {
+        server = H2ServerBootstrap.bootstrap()
+                .setVersionPolicy(versionPolicy)
+                .setH2Config(H2Config.custom()
+                        .setPushEnabled(false)
+                        .setMaxConcurrentStreams(maxConcurrentStreams)
+                        .build())
+                .setIOReactorConfig(IOReactorConfig.custom().setIoThreadCount(2).build())
+                .setIOSessionListener(new ConnectionCounter())
+                .register("/predict", new Handler(false))
+                .register("/predict/batch", new Handler(true))
+                .register("/health", new Handler(false))
+                .create();
+        server.start();
+        try {
+            ListenerEndpoint endpoint = server.listen(new InetSocketAddress("127.0.0.1", 0), URIScheme.HTTP).get();
+            port = ((InetSocketAddress) endpoint.getAddress()).getPort();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * Starts an h2c stand-in on an ephemeral loopback port.
+     *
+     * @param maxConcurrentStreams {@code SETTINGS_MAX_CONCURRENT_STREAMS} advertised to clients
+     * @return running stand-in
+     * @throws IOException if the port cannot be bound
+     */
+    public static H2MLServiceStandIn startH2c(int maxConcurrentStreams) throws IOException {
+        return new H2MLServiceStandIn(HttpVersionPolicy.FORCE_HTTP_2, maxConcurrentStreams);
+    }
+
+    /**
+     * Starts an HTTP/1.1 stand-in on an ephemeral loopback port.
+     *
+     * @return running stand-in
+     * @throws IOException if the port cannot be bound
+     */
+    public static H2MLServiceStandIn startHttp1() throws IOException {
+        return new H2MLServiceStandIn(HttpVersionPolicy.FORCE_HTTP_1, H2Config.DEFAULT.getMaxConcurrentStreams());
+    }
+
+    /**
+     * @return URL of the single prediction endpoint, as expected by {@code ml.service.url}
+     */
+    public String predictUrl() {
+        return "http://127.0.0.1:" + port + "/predict";
+    }
+
+    /**
+     * Delays every answer, like a model that takes a while to score.
+     *
+     * @param delayMs delay in milliseconds
+     */
+    public void setDelayMs(long delayMs) {
+        this.delayMs = delayMs;
+    }
+
+    public int calls() {
+        return calls.get();
+    }
+
+    /**
+     * @return connections accepted so far
+     */
+    public int connections() {
+        return connections.get();
+    }
+
+    /**
+     * @return most connections that were open at the same time
+     */
+    public int peakOpenConnections() {
+        return peakOpenConnections.get();
+    }
+
+    @Override
+    public void close() {
+        server.close(CloseMode.IMMEDIATE);
+        delayer.shutdownNow();
+    }
+
+    private final class Handler implements AsyncServerRequestHandler<Message<HttpRequest, byte[]>> {
+
+        private final boolean batch;
+
+        Handler(boolean batch) {
+            this.batch = batch;
+        }
+
+        @Override
+        public AsyncRequestConsumer<Message<HttpRequest, byte[]>> prepare(HttpRequest request,
+                                                                         EntityDetails entityDetails,
+                                                                         HttpContext context) {
+            return new BasicRequestConsumer<>(entityDetails != null ? new BasicAsyncEntityConsumer() : null);
+        }
+
+        @Override
+        public void handle(Message<HttpRequest, byte[]> message, ResponseTrigger responseTrigger,
+                           HttpContext context) throws HttpException, IOException {
+            String json;
+            if ("GET".equals(message.getHead().getMethod())) {
+                json = "{\"status\":\"UP\",\"model_loaded\":true}";
+            } else {
+                calls.incrementAndGet();
+                JsonNode body = objectMapper.readTree(message.getBody());
+                if (batch) {
+                    ArrayNode results = objectMapper.createArrayNode();
+                    for (JsonNode flight : body) {
+                        results.add(MLServiceStandIn.predict(objectMapper, flight));
+                    }
+                    json = objectMapper.writeValueAsString(results);
+                } else {
+                    json = objectMapper.writeValueAsString(MLServiceStandIn.predict(objectMapper, body));
+                }
+            }
+
+            Runnable respond = () -> {
+                try {
+                    responseTrigger.submitResponse(AsyncResponseBuilder.create(HttpStatus.SC_OK)
+                            .setEntity(json, ContentType.APPLICATION_JSON)
+                            .build(), context);
+                } catch (HttpException | IOException e) {
+                    // Client went away
+                }
+            };
+            long delay = delayMs;
+            if (delay > 0) {
+                delayer.schedule(respond, delay, TimeUnit.MILLISECONDS);
+            } else {
+                respond.run();
+            }
+        }
+    }
+
+    private final class ConnectionCounter implements IOSessionListener {
+
+        @Override
+        public void connected(IOSession session) {
+            connections.incrementAndGet();
+            peakOpenConnections.accumulateAndGet(openConnections.incrementAndGet(), Math::max);
+        }
+
+        @Override
+        public void disconnected(IOSession session) {
+            openConnections.decrementAndGet();
+        }
+
+        @Override
+        public void startTls(IOSession session) {
+        }
+
+        @Override
+        public void inputReady(IOSession session) {
+        }
+
+        @Override
+        public void outputReady(IOSession session) {
+        }
+
+        @Override
+        public void timeout(IOSession session) {
+        }
+
+        @Override
+        public void exception(IOSession session, Exception ex) {
+        }
+    }
+}
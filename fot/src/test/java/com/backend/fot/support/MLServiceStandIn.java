@@ -0,0 +1,176 @@
+package com.backend.fot.support;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process stand-in for the ML service used by client tests and benchmarks.
+ * <p>
+ * Serves {@code /predict}, {@code /predict/batch} and {@code /health} with the same
+ * JSON shapes as {@code mock_ml_service.py}. Predictions are derived from a hash of
+ * the request fields, so the same flight always gets the same answer.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ */
+public final class MLServiceStandIn implements AutoCloseable {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final AtomicInteger singleCalls = new AtomicInteger();
+    private final AtomicInteger batchCalls = new AtomicInteger();
+    private final AtomicInteger batchedItems = new AtomicInteger();
+    private final AtomicInteger healthCalls = new AtomicInteger();
+    private volatile long delayMillis;
+    private volatile boolean modelLoaded = true;
+
+    private MLServiceStandIn(HttpServer server, ExecutorService executor) {
+        this.server = server;
+        this.executor = executor;
+        server.setExecutor(executor);
+        server.createContext("/predict/batch", this::handleBatch);
+        server.createContext("/predict", this::handleSingle);
+        server.createContext("/health", this::handleHealth);
+    }
+
+    /**
+     * Starts a stand-in on an ephemeral loopback port.
+     *
+     * @return running stand-in
+     * @throws IOException if the port cannot be bound
+     */
+    public static MLServiceStandIn start() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        MLServiceStandIn standIn = new MLServiceStandIn(server, Executors.newFixedThreadPool(8));
+        server.start();
+        return standIn;
+    }
+
+    /**
+     * @return URL of the single prediction endpoint, as expected by {@code ml.service.url}
+     */
+    public String predictUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/predict";
+    }
+
+    /**
+     * Makes every prediction endpoint wait before answering, to simulate a slow replica.
+     *
+     * @param delayMillis delay in milliseconds
+     */
+    public void setDelayMillis(long delayMillis) {
+        this.delayMillis = delayMillis;
+    }
+
+    /**
+     * Makes {@code /health} answer like the model server before its model is loaded
+     * (503 with {@code "model_loaded": false}).
+     *
+     * @param modelLoaded whether the model is loaded
+     */
+    public void setModelLoaded(boolean modelLoaded) {
+        this.modelLoaded = modelLoaded;
+    }
+
+    public int healthCalls() {
+        return healthCalls.get();
+    }
+
+    public int singleCalls() {
+        return singleCalls.get();
+    }
+
+    public int batchCalls() {
+        return batchCalls.get();
+    }
+
+    public int batchedItems() {
+        return batchedItems.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handleSingle(HttpExchange exchange) throws IOException {
+        singleCalls.incrementAndGet();
+        pause();
+        JsonNode flight = objectMapper.readTree(exchange.getRequestBody());
+        respond(exchange, 200, objectMapper.writeValueAsString(predict(flight)));
+    }
+
+    private void handleBatch(HttpExchange exchange) throws IOException {
+        batchCalls.incrementAndGet();
+        pause();
+        JsonNode flights = objectMapper.readTree(exchange.getRequestBody());
+        if (!flights.isArray()) {
+            respond(exchange, 400, "{\"error\":\"Expected a JSON array\"}");
+            return;
+        }
+        ArrayNode results = objectMapper.createArrayNode();
+        for (JsonNode flight : flights) {
+            results.add(predict(flight));
+        }
+        batchedItems.addAndGet(flights.size());
+        respond(exchange, 200, objectMapper.writeValueAsString(results));
+    }
+
+    private void handleHealth(HttpExchange exchange) throws IOException {
+        healthCalls.incrementAndGet();
+        if (modelLoaded) {
+            respond(exchange, 200, "{\"status\":\"UP\",\"model_loaded\":true}");
+        } else {
+            respond(exchange, 503, "{\"status\":\"DOWN\",\"model_loaded\":false}");
+        }
+    }
+
+    private void pause() {
+        if (delayMillis > 0) {
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private ObjectNode predict(JsonNode flight) {
+        return predict(objectMapper, flight);
+    }
+
+    /**
+     * Deterministic prediction shared by the stand-ins: same flight, same answer.
+     */
+    static ObjectNode predict(ObjectMapper objectMapper, JsonNode flight) {
+        int hash = flight.toString().hashCode() & Integer.MAX_VALUE;
+        ObjectNode result = objectMapper.createObjectNode();
+        result.put("prediction", hash % 2);
+        result.put("confidence", 0.5 + (hash % 50) / 100.0);
+        return result;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.backend.fot.support;
+
+import com.backend.fot.inference.ForestDump;
+import com.backend.fot.inference.OnnxForestModel;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a {@link ForestDump} as the ONNX model {@code export_onnx.py} produces, so
+ * tests and benchmarks can run ONNX Runtime without Python or a binary fixture.
+ * <p>
+ * The model is one {@code TreeEnsembleClassifier} (domain {@code ai.onnx.ml},
+ * version 3) from {@code input} to {@code label} and {@code probabilities}, leaf
+ * weights divided by the number of trees so their sum is the forest average, and
+ * the dump header plus tree and node counts in the metadata. Thresholds are rounded
+ * down to float32, as the exporter does. The protobuf messages are encoded by hand;
+ * field numbers follow {@code onnx.proto}.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ */
+public final class OnnxFixture {
+
+    private static final int FLOAT = 1;
+    private static final int INT64 = 7;
+
+    private static final int ATTRIBUTE_FLOATS = 6;
+    private static final int ATTRIBUTE_INTS = 7;
+    private static final int ATTRIBUTE_STRING = 3;
+    private static final int ATTRIBUTE_STRINGS = 8;
+
+    private OnnxFixture() {
+    }
+
+    /**
+     * Writes the forest of a dump as an ONNX model.
+     *
+     * @param dump forest to convert
+     * @param file where to write the model
+     * @return {@code file}
+     * @throws IOException if the file cannot be written
+     */
+    public static Path write(ForestDump dump, Path file) throws IOException {
+        Files.write(file, encode(dump, true));
+        return file;
+    }
+
+    /**
+     * Encodes the forest of a dump as an ONNX model.
+     *
+     * @param dump     forest to convert
+     * @param metadata whether to add the header {@link OnnxForestModel} needs
+     * @return serialized {@code ModelProto}
+     * @throws IOException if the header cannot be serialized
+     */
+    public static byte[] encode(ForestDump dump, boolean metadata) throws IOException {
+        Message model = new Message()
+                .varint(1, 8)                                   // ir_version
+                .message(8, new Message().string(1, "").varint(2, 15))
+                .message(8, new Message().string(1, "ai.onnx.ml").varint(2, 3))
+                .string(2, "OnnxFixture")                       // producer_name
+                .message(7, graph(dump));
+        if (metadata) {
+            ForestDump header = new ForestDump(dump.format(), dump.version(), dump.model(), dump.sklearnVersion(),
+                    dump.classes(), dump.features(), dump.preprocessing(), List.of());
+            int nodes = dump.trees().stream().mapToInt(tree -> tree.childrenLeft().length).sum();
+            Map<String, String> props = new LinkedHashMap<>();
+            props.put(OnnxForestModel.HEADER, new ObjectMapper().writeValueAsString(header));
+            props.put(OnnxForestModel.NUM_TREES, String.valueOf(dump.trees().size()));
+            props.put(OnnxForestModel.NUM_NODES, String.valueOf(nodes));
+            props.forEach((key, value) -> model.message(14, new Message().string(1, key).string(2, value)));
+        }
+        return model.toByteArray();
+    }
+
+    private static Message graph(ForestDump dump) {
+        int numTrees = dump.trees().size();
+        List<Long> treeIds = new ArrayList<>();
+        List<Long> nodeIds = new ArrayList<>();
+        List<Long> featureIds = new ArrayList<>();
+        List<String> modes = new ArrayList<>();
+        List<Float> values = new ArrayList<>();
+        List<Long> trueIds = new ArrayList<>();
+        List<Long> falseIds = new ArrayList<>();
+        List<Long> missingTrue = new ArrayList<>();
+        List<Long> classTreeIds = new ArrayList<>();
+        List<Long> classNodeIds = new ArrayList<>();
+        List<Long> classIds = new ArrayList<>();
+        List<Float> classWeights = new ArrayList<>();
+
+        for (int t = 0; t < numTrees; t++) {
+            ForestDump.Tree tree = dump.trees().get(t);
+            for (int n = 0; n < tree.childrenLeft().length; n++) {
+                boolean leaf = tree.childrenLeft()[n] < 0;
+                treeIds.add((long) t);
+                nodeIds.add((long) n);
+                featureIds.add(leaf ? 0L : tree.feature()[n]);
+                modes.add(leaf ? "LEAF" : "BRANCH_LEQ");
+                values.add(leaf ? 0f : floorToFloat(tree.threshold()[n]));
+                trueIds.add(leaf ? 0L : tree.childrenLeft()[n]);
+                falseIds.add(leaf ? 0L : tree.childrenRight()[n]);
+                missingTrue.add(!leaf && tree.missingGoToLeft()[n] != 0 ? 1L : 0L);
+                if (leaf) {
+                    for (int c = 0; c < dump.classes().length; c++) {
+                        classTreeIds.add((long) t);
+                        classNodeIds.add((long) n);
+                        classIds.add((long) c);
+                        classWeights.add((float) (tree.value()[n][c] / numTrees));
+                    }
+                }
+            }
+        }
+        List<Long> labels = new ArrayList<>();
+        for (int label : dump.classes()) {
+            labels.add((long) label);
+        }
+
+        Message node = new Message()
+                .string(1, "input")
+                .string(2, "label")
+                .string(2, "probabilities")
+                .string(3, "forest")
+                .string(4, "TreeEnsembleClassifier")
+                .string(7, "ai.onnx.ml")
+                .message(5, ints("classlabels_int64s", labels))
+                .message(5, ints("nodes_treeids", treeIds))
+                .message(5, ints("nodes_nodeids", nodeIds))
+                .message(5, ints("nodes_featureids", featureIds))
+                .message(5, strings("nodes_modes", modes))
+                .message(5, floats("nodes_values", values))
+                .message(5, ints("nodes_truenodeids", trueIds))
+                .message(5, ints("nodes_falsenodeids", falseIds))
+                .message(5, ints("nodes_missing_value_tracks_true", missingTrue))
+                .message(5, ints("class_treeids", classTreeIds))
+                .message(5, ints("class_nodeids", classNodeIds))
+                .message(5, ints("class_ids", classIds))
+                .message(5, floats("class_weights", classWeights))
+                .message(5, new Message().string(1, "post_transform").bytes(4, "NONE")
+                        .varint(20, ATTRIBUTE_STRING));
+
+        return new Message()
+                .message(1, node)
+                .string(2, "forest")
+                .message(11, valueInfo("input", FLOAT, dump.features().size()))
+                .message(12, valueInfo("label", INT64, -1))
+                .message(12, valueInfo("probabilities", FLOAT, dump.classes().length));
+    }
+
+    /** Tensor of {@code [N]} ({@code columns < 0}) or {@code [N, columns]}. */
+    private static Message valueInfo(String name, int elementType, int columns) {
+        Message shape = new Message().message(1, new Message().string(2, "N"));
+        if (columns >= 0) {
+            shape.message(1, new Message().varint(1, columns));
+        }
+        Message tensor = new Message().varint(1, elementType).message(2, shape);
+        return new Message().string(1, name).message(2, new Message().message(1, tensor));
+    }
+
+    private static Message ints(String name, List<Long> values) {
+        Message packed = new Message();
+        values.forEach(packed::rawVarint);
+        return new Message().string(1, name).bytes(8, packed.toByteArray()).varint(20, ATTRIBUTE_INTS);
+    }
+
+    private static Message floats(String name, List<Float> values) {
+        Message packed = new Message();
+        values.forEach(packed::rawFloat);
+        return new Message().string(1, name).bytes(7, packed.toByteArray()).varint(20, ATTRIBUTE_FLOATS);
+    }
+
+    private static Message strings(String name, List<String> values) {
+        Message attribute = new Message().string(1, name);
+        values.forEach(value -> attribute.bytes(9, value));
+        return attribute.varint(20, ATTRIBUTE_STRINGS);
+    }
+
+    /** Largest float not above {@code value}, like {@code convert_forest.float32_abaixo}. */
+    private static float floorToFloat(double value) {
+        float rounded = (float) value;
+        return rounded <= value ? rounded : Math.nextDown(rounded);
+    }
+
+    /**
+     * Protobuf message writer: varint fields (wire type 0) and length-delimited
+     * fields (wire type 2), which is all {@code onnx.proto} needs here.
+     */
+    private static final class Message {
+
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        Message varint(int field, long value) {
+            rawVarint((long) field << 3);
+            return rawVarint(value);
+        }
+
+        Message string(int field, String value) {
+            return bytes(field, value);
+        }
+
+        Message bytes(int field, String value) {
+            return bytes(field, value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        Message bytes(int field, byte[] value) {
+            rawVarint((long) field << 3 | 2);
+            rawVarint(value.length);
+            out.writeBytes(value);
+            return this;
+        }
+
+        Message message(int field, Message value) {
+            return bytes(field, value.toByteArray());
+        }
+
+        Message rawVarint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                out.write((int) (value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.write((int) value);
+            return this;
+        }
+
+        Message rawFloat(float value) {
+            int bits = Float.floatToIntBits(value);
+            for (int i = 0; i < 4; i++) {
+                out.write(bits >>> (8 * i));
+            }
+            return this;
+        }
+
+        byte[] toByteArray() {
+            return out.toByteArray();
+        }
+    }
+}
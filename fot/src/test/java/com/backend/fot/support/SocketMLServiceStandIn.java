@@ -0,0 +1,319 @@
+package com.backend.fot.support;
+
+import com.backend.fot.client.MLWireCodec;
+import com.backend.fot.dto.FlightPredictionRequestDTO;
+import com.backend.fot.dto.MLServiceResponseDTO;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.net.URLEncoder;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ML service stand-in on a raw socket channel, listening either on a Unix domain
+ * socket or on a loopback TCP port.
+ * <p>
+ * Serves the same endpoints and answers as {@link MLServiceStandIn} with a small
+ * keep-alive HTTP/1.1 loop. Both address families run the same server code, so a
+ * benchmark comparing them measures the transport and not the server.
+ * </p>
+ * <p>
+ * Prediction endpoints also accept {@link MLWireCodec} frames and answer them with a
+ * frame; a frame gets the same prediction as the equivalent JSON body.
+ * </p>
+ *
+ * @author FlightOnTime Team
+ * @version 1.0
+ */
+public final class SocketMLServiceStandIn implements AutoCloseable {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ServerSocketChannel server;
+    private final Path socketPath;
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "ml-stand-in");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicInteger singleCalls = new AtomicInteger();
+    private final AtomicInteger batchCalls = new AtomicInteger();
+    private final AtomicInteger healthCalls = new AtomicInteger();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicInteger frameCalls = new AtomicInteger();
+    private final MLWireCodec jsonCodec = new MLWireCodec(MLWireCodec.Contract.WRAPPER, MLWireCodec.Encoding.JSON);
+    private volatile boolean modelLoaded = true;
+    private volatile boolean frameSupported = true;
+
+    private SocketMLServiceStandIn(ServerSocketChannel server, Path socketPath) {
+        this.server = server;
+        this.socketPath = socketPath;
+        executor.execute(this::acceptLoop);
+    }
+
+    /**
+     * Starts a stand-in listening on a Unix domain socket.
+     *
+     * @param socketPath socket file to create; must not exist yet
+     * @return running stand-in
+     * @throws IOException if the socket cannot be bound
+     */
+    public static SocketMLServiceStandIn startUnix(Path socketPath) throws IOException {
+        ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        server.bind(UnixDomainSocketAddress.of(socketPath));
+        return new SocketMLServiceStandIn(server, socketPath);
+    }
+
+    /**
+     * Starts a stand-in on an ephemeral loopback TCP port.
+     *
+     * @return running stand-in
+     * @throws IOException if the port cannot be bound
+     */
+    public static SocketMLServiceStandIn startTcp() throws IOException {
+        ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.INET);
+        server.bind(new InetSocketAddress("127.0.0.1", 0));
+        return new SocketMLServiceStandIn(server, null);
+    }
+
+    /**
+     * @return URL of the single prediction endpoint, as expected by {@code ml.service.url}
+     */
+    public String predictUrl() {
+        if (socketPath != null) {
+            return "http+unix://" + URLEncoder.encode(socketPath.toString(), StandardCharsets.UTF_8) + "/predict";
+        }
+        try {
+            return "http://127.0.0.1:" + ((InetSocketAddress) server.getLocalAddress()).getPort() + "/predict";
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Makes {@code /health} answer like the model server before its model is loaded.
+     *
+     * @param modelLoaded whether the model is loaded
+     */
+    public void setModelLoaded(boolean modelLoaded) {
+        this.modelLoaded = modelLoaded;
+    }
+
+    /**
+     * Makes prediction endpoints answer frames with 415, like a JSON-only service.
+     *
+     * @param frameSupported whether frame bodies are accepted
+     */
+    public void setFrameSupported(boolean frameSupported) {
+        this.frameSupported = frameSupported;
+    }
+
+    public int singleCalls() {
+        return singleCalls.get();
+    }
+
+    public int batchCalls() {
+        return batchCalls.get();
+    }
+
+    public int healthCalls() {
+        return healthCalls.get();
+    }
+
+    /**
+     * @return prediction calls that were answered with a frame
+     */
+    public int frameCalls() {
+        return frameCalls.get();
+    }
+
+    /**
+     * @return connections accepted so far; stays low while clients reuse connections
+     */
+    public int connections() {
+        return connections.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+        executor.shutdownNow();
+        if (socketPath != null) {
+            Files.deleteIfExists(socketPath);
+        }
+    }
+
+    private void acceptLoop() {
+        while (server.isOpen()) {
+            try {
+                SocketChannel channel = server.accept();
+                connections.incrementAndGet();
+                if (socketPath == null) {
+                    channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                }
+                executor.execute(() -> serve(channel));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(SocketChannel channel) {
+        try (channel) {
+            InputStream in = new BufferedInputStream(Channels.newInputStream(channel));
+            OutputStream out = Channels.newOutputStream(channel);
+            while (true) {
+                String requestLine = readLine(in);
+                if (requestLine == null || requestLine.isEmpty()) {
+                    return;
+                }
+                String[] parts = requestLine.split(" ");
+                int contentLength = 0;
+                String contentType = null;
+                boolean chunked = false;
+                boolean close = false;
+                for (String line = readLine(in); line != null && !line.isEmpty(); line = readLine(in)) {
+                    String header = line.toLowerCase(Locale.ROOT);
+                    if (header.startsWith("content-length:")) {
+                        contentLength = Integer.parseInt(line.substring(15).trim());
+                    } else if (header.startsWith("content-type:")) {
+                        contentType = line.substring(13).trim();
+                    } else if (header.startsWith("transfer-encoding:") && header.contains("chunked")) {
+                        chunked = true;
+                    } else if (header.startsWith("connection:") && header.contains("close")) {
+                        close = true;
+                    }
+                }
+                byte[] body = chunked ? readChunked(in) : in.readNBytes(contentLength);
+                respond(out, route(parts[0], parts[1], contentType, body));
+                if (close) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            // Client went away
+        }
+    }
+
+    private Response route(String method, String path, String contentType, byte[] body) throws IOException {
+        if ("GET".equals(method) && path.equals("/health")) {
+            healthCalls.incrementAndGet();
+            return modelLoaded
+                    ? Response.json(200, "{\"status\":\"UP\",\"model_loaded\":true}")
+                    : Response.json(503, "{\"status\":\"DOWN\",\"model_loaded\":false}");
+        }
+        boolean single = "POST".equals(method) && path.equals("/predict");
+        boolean batch = "POST".equals(method) && path.equals("/predict/batch");
+        if ((single || batch) && MLWireCodec.isFrame(contentType)) {
+            if (!frameSupported) {
+                return Response.json(415, "{\"error\":\"Unsupported Media Type\"}");
+            }
+            (single ? singleCalls : batchCalls).incrementAndGet();
+            frameCalls.incrementAndGet();
+            return new Response(200, MLWireCodec.FRAME_CONTENT_TYPE, MLWireCodec.encodeFrameResponses(
+                    predictFrame(MLWireCodec.decodeFrameRequests(body))));
+        }
+        if (single) {
+            singleCalls.incrementAndGet();
+            JsonNode flight = objectMapper.readTree(body);
+            return Response.json(200, objectMapper.writeValueAsString(MLServiceStandIn.predict(objectMapper, flight)));
+        }
+        if (batch) {
+            batchCalls.incrementAndGet();
+            JsonNode flights = objectMapper.readTree(body);
+            ArrayNode results = objectMapper.createArrayNode();
+            for (JsonNode flight : flights) {
+                results.add(MLServiceStandIn.predict(objectMapper, flight));
+            }
+            return Response.json(200, objectMapper.writeValueAsString(results));
+        }
+        return Response.json(404, "{\"error\":\"Not found\"}");
+    }
+
+    /**
+     * Predicts each flight from the JSON body the client would have sent for it.
+     */
+    private List<MLServiceResponseDTO> predictFrame(List<FlightPredictionRequestDTO> flights) throws IOException {
+        List<MLServiceResponseDTO> results = new ArrayList<>(flights.size());
+        for (FlightPredictionRequestDTO flight : flights) {
+            JsonNode json = objectMapper.readTree(jsonCodec.encode(flight));
+            results.add(objectMapper.treeToValue(MLServiceStandIn.predict(objectMapper, json),
+                    MLServiceResponseDTO.class));
+        }
+        return results;
+    }
+
+    private static void respond(OutputStream out, Response response) throws IOException {
+        byte[] body = response.body();
+        String head = "HTTP/1.1 " + response.status() + (response.status() == 200 ? " OK" : " Error") + "\r\n"
+                + "Content-Type: " + response.contentType() + "\r\n"
+                + "Content-Length: " + body.length + "\r\n\r\n";
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(head.length() + body.length);
+        bytes.write(head.getBytes(StandardCharsets.ISO_8859_1));
+        bytes.write(body);
+        out.write(bytes.toByteArray());
+        out.flush();
+    }
+
+    private static byte[] readChunked(InputStream in) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        for (int size = chunkSize(in); size > 0; size = chunkSize(in)) {
+            body.write(in.readNBytes(size));
+            readLine(in);
+        }
+        // Trailers up to the blank line
+        for (String line = readLine(in); line != null && !line.isEmpty(); line = readLine(in)) {
+            // ignored
+        }
+        return body.toByteArray();
+    }
+
+    private static int chunkSize(InputStream in) throws IOException {
+        String line = readLine(in);
+        if (line == null) {
+            throw new IOException("Chunked request truncated");
+        }
+        int extension = line.indexOf(';');
+        return Integer.parseInt((extension >= 0 ? line.substring(0, extension) : line).trim(), 16);
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b == '\n') {
+                int end = line.length();
+                return end > 0 && line.charAt(end - 1) == '\r' ? line.substring(0, end - 1) : line.toString();
+            }
+            line.append((char) b);
+        }
+        return line.length() == 0 ? null : line.toString();
+    }
+
+    private record Response(int status, String contentType, byte[] body) {
+
+        static Response json(int status, String json) {
+            return new Response(status, MLWireCodec.JSON_CONTENT_TYPE, json.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -1,8 +1,10 @@
 from flask import Blueprint, request, jsonify
-from app.services.ml_client import get_ml_client
+from app.services.ml_client import get_ml_client, DEADLINE_HEADER
+from app.exceptions import MLServiceTimeoutError
 from app.services.ml_client_interface import IMLServiceClient
 from pydantic import BaseModel, Field, ValidationError, field_validator
 import logging
+import time
 
 logger = logging.getLogger(__name__)
 
@@ -53,6 +55,37 @@ class FlightPredictionRequest(BaseModel):
         return v.upper() if v else v
 
 
+def _read_deadline():
+    """
+    Reads the deadline propagated by the Java API (epoch milliseconds)
+
+    Returns None when the header is missing or malformed.
+    """
+    value = request.headers.get(DEADLINE_HEADER)
+    if not value:
+        return None
+    try:
+        return int(value)
+    except ValueError:
+        logger.warning(f"Ignoring malformed {DEADLINE_HEADER} header: {value}")
+        return None
+
+
+def _reject_non_json():
+    """
+    Answers 415 to a body declared in another format than JSON
+
+    The Java API may send its binary frame (application/x-fot-frame) and only
+    falls back to JSON on 415. A request without Content-Type is still read as JSON.
+    """
+    if request.mimetype and not request.is_json:
+        logger.info(f"Unsupported Content-Type: {request.mimetype}")
+        return jsonify({
+            "error": f"Unsupported Content-Type {request.mimetype}, expected application/json"
+        }), 415
+    return None
+
+
 @bp.route('/predict', methods=['POST'])
 def predict():
     """
@@ -79,7 +112,18 @@ def predict():
     """
 
     try:
+        # 0. Drop work the Java API has already given up on
+        deadline_ms = _read_deadline()
+        if deadline_ms is not None and deadline_ms <= time.time() * 1000:
+            logger.warning("Request deadline already expired, skipping prediction")
+            return jsonify({
+                "error": "Request deadline expired"
+            }), 504
+
         # 1. Receive flight data from Java API
+        unsupported = _reject_non_json()
+        if unsupported:
+            return unsupported
         try:
             flight_data = request.get_json(force=True)
         except Exception as json_error:
@@ -102,7 +146,11 @@ def predict():
         # 3. Forward to external ML service
         logger.info("Forwarding to external ML service...")
         ml_client = get_client()  # Use dependency injection
-        ml_result = ml_client.predict(validated_data.model_dump())
+        if deadline_ms is not None:
+            ml_result = ml_client.predict(
+                validated_data.model_dump(), deadline_ms=deadline_ms)
+        else:
+            ml_result = ml_client.predict(validated_data.model_dump())
 
         # 4. Map ML service response to Java API format
         # ML service returns: {"prediction": 0/1, "probability": 0.85}
@@ -124,6 +172,13 @@ def predict():
             "details": e.errors()
         }), 400
 
+    except MLServiceTimeoutError as e:
+        logger.warning(f"ML service timeout: {e.message}")
+        return jsonify({
+            "error": "ML service timeout",
+            "message": e.message
+        }), 504
+
     except Exception as e:
         logger.error(f"Processing error: {str(e)}")
         return jsonify({
@@ -132,6 +187,98 @@ def predict():
         }), 500
 
 
+@bp.route('/predict/batch', methods=['POST'])
+def predict_batch():
+    """
+    Batch endpoint for flight delay prediction
+
+    Called by the Java API's MLPredictionBatcher with the WRAPPER contract.
+    Forwards the whole list to the ML service's batch endpoint in one request.
+
+    Request Body: JSON list of flights, each in the /predict format
+
+    Response: JSON list in request order, each in the /predict format
+    [
+        {"prediction": 1, "confidence": 0.85},
+        ...
+    ]
+    """
+
+    try:
+        # 0. Drop work the Java API has already given up on
+        deadline_ms = _read_deadline()
+        if deadline_ms is not None and deadline_ms <= time.time() * 1000:
+            logger.warning("Request deadline already expired, skipping batch prediction")
+            return jsonify({
+                "error": "Request deadline expired"
+            }), 504
+
+        # 1. Receive flight list from Java API
+        unsupported = _reject_non_json()
+        if unsupported:
+            return unsupported
+        try:
+            flights = request.get_json(force=True)
+        except Exception as json_error:
+            logger.warning(f"Invalid JSON or empty body: {json_error}")
+            return jsonify({
+                "error": "Empty request body"
+            }), 400
+
+        if not isinstance(flights, list) or not flights:
+            return jsonify({
+                "error": "Expected a non-empty JSON list"
+            }), 400
+
+        logger.info(f"Batch of {len(flights)} flights received from Java API")
+
+        # 2. Validate every flight
+        validated_flights = [
+            FlightPredictionRequest(**flight).model_dump() for flight in flights
+        ]
+
+        # 3. Forward to external ML service in a single request
+        ml_client = get_client()  # Use dependency injection
+        if deadline_ms is not None:
+            ml_results = ml_client.predict_batch(
+                validated_flights, deadline_ms=deadline_ms)
+        else:
+            ml_results = ml_client.predict_batch(validated_flights)
+
+        # 4. Map probability -> confidence, keeping request order
+        response = [
+            {
+                "prediction": ml_result.get("prediction"),
+                "confidence": ml_result.get("probability")
+            }
+            for ml_result in ml_results
+        ]
+
+        logger.info(f"Returning {len(response)} results to Java API")
+        return jsonify(response), 200
+
+    except (ValidationError, TypeError) as e:
+        logger.warning(f"Validation error: {e}")
+        return jsonify({
+            "error": "Invalid data",
+            "details": e.errors() if isinstance(e, ValidationError) else str(e)
+        }), 400
+
+    except MLServiceTimeoutError as e:
+        logger.warning(f"ML service timeout: {e.message}")
+        return jsonify({
+            "error": "ML service timeout",
+            "message": e.message
+        }), 504
+
+    except Exception as e:
+        logger.error(f"Batch processing error: {str(e)}")
+        return jsonify({
+            "error": "Integration wrapper error",
+            "message": str(e)
+        }), 500
+
+
 @bp.route('/health', methods=['GET'])
 def health():
     """
@@ -150,11 +297,16 @@ def health():
         wrapper_status = "HEALTHY" if ml_status.get(
             "status") == "UP" else "DEGRADED"
 
-        return jsonify({
+        body = {
             "status": wrapper_status,
             "service": "Flask ML Wrapper",
             "ml_service": ml_status
-        }), 200 if wrapper_status == "HEALTHY" else 503
+        }
+        # Forward the model server's flag so the Java API can see it
+        if "model_loaded" in ml_status:
+            body["model_loaded"] = ml_status["model_loaded"]
+
+        return jsonify(body), 200 if wrapper_status == "HEALTHY" else 503
 
     except Exception as e:
         logger.error(f"Health check failed: {e}")
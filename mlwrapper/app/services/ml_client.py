@@ -1,5 +1,5 @@
 import requests
-from typing import Dict, Any
+from typing import Dict, Any, List, Optional
 from app.config import Config
 from app.services.ml_client_interface import IMLServiceClient
 from app.exceptions import (
@@ -15,6 +15,9 @@ from urllib3.util.retry import Retry
 
 logger = logging.getLogger(__name__)
 
+# Deadline propagated by the Java API, as epoch milliseconds
+DEADLINE_HEADER = 'X-Request-Deadline'
+
 
 class MLServiceClient(IMLServiceClient):
     """
@@ -30,11 +33,15 @@ class MLServiceClient(IMLServiceClient):
 
         # Configure session with retry strategy
         self.session = requests.Session()
+        # The Java API retries 503s and connect failures within a retry budget;
+        # retrying here too would multiply attempts, so only a refused
+        # connection is retried once, quickly
         retry_strategy = Retry(
-            total=3,  # Total retry attempts
-            backoff_factor=1,  # Wait 1, 2, 4 seconds between retries
-            # Retry on these HTTP codes
-            status_forcelist=[429, 500, 502, 503, 504],
+            total=1,
+            connect=1,
+            read=0,
+            status=0,
+            backoff_factor=0.1,
             allowed_methods=["POST", "GET"]
         )
         adapter = HTTPAdapter(max_retries=retry_strategy)
@@ -42,9 +49,10 @@ class MLServiceClient(IMLServiceClient):
         self.session.mount("https://", adapter)
 
         logger.info(f"MLServiceClient configured for: {self.ml_service_url}")
-        logger.info("Retry strategy: 3 attempts with exponential backoff")
+        logger.info("Retry strategy: 1 retry on connection failures only")
 
-    def predict(self, flight_data: Dict[str, Any]) -> Dict[str, Any]:
+    def predict(self, flight_data: Dict[str, Any],
+                deadline_ms: Optional[int] = None) -> Dict[str, Any]:
         """
         Sends request to external ML service
 
@@ -58,6 +66,8 @@ class MLServiceClient(IMLServiceClient):
                 "flightDepartureDate": "2025-12-20T14:30:00",
                 "flightDistance": 3974
             }
+            deadline_ms: Deadline propagated by the Java API (X-Request-Deadline,
+                epoch milliseconds). Caps the timeout and is forwarded downstream.
 
         Returns:
             ML service response:
@@ -79,22 +89,17 @@ class MLServiceClient(IMLServiceClient):
             start_time = time.time()
 
             # Prepare payload expected by the external ML service
-            # Map Java API field names -> ML service (Portuguese) field names
-            ml_payload = {
-                'companhia': flight_data.get('companyName'),
-                'origem': flight_data.get('flightOrigin'),
-                'destino': flight_data.get('flightDestination'),
-                'data_partida': flight_data.get('flightDepartureDate'),
-                # include distance if available (model may ignore)
-                'nr_assentos_ofertados': flight_data.get('flightDistance')
-            }
+            ml_payload = _to_ml_payload(flight_data)
+
+            headers = {'Content-Type': 'application/json'}
+            timeout = self._deadline_timeout(deadline_ms, headers)
 
             # Make HTTP POST request to ML service with retry
             response = self.session.post(
                 self.ml_service_url,
                 json=ml_payload,
-                headers={'Content-Type': 'application/json'},
-                timeout=self.timeout
+                headers=headers,
+                timeout=timeout
             )
 
             # Calculate response time
@@ -115,9 +120,95 @@ class MLServiceClient(IMLServiceClient):
 
             return result
 
+        except MLServiceTimeoutError:
+            logger.warning("Request deadline expired before calling ML service")
+            raise
+
+        except requests.exceptions.Timeout:
+            logger.error(
+                f"Timeout connecting to ML service after {timeout}s")
+            raise MLServiceTimeoutError()
+
+        except requests.exceptions.ConnectionError as e:
+            logger.error(f"Connection error with ML service: {str(e)}")
+            raise MLServiceConnectionError()
+
+        except requests.exceptions.HTTPError as e:
+            logger.error(
+                f"HTTP error from ML service: {e.response.status_code}")
+            error_detail = e.response.json() if e.response.content else {}
+            raise MLServiceHTTPError(
+                f"ML service error: {error_detail}",
+                status_code=e.response.status_code
+            )
+
+        except Exception as e:
+            logger.error(f"Unexpected error calling ML service: {str(e)}")
+            raise MLServiceError(str(e))
+
+    def predict_batch(self, flights: List[Dict[str, Any]],
+                      deadline_ms: Optional[int] = None) -> List[Dict[str, Any]]:
+        """
+        Sends several flights to the ML service's batch endpoint in one request
+
+        The model service scores the whole list with a single vectorized call
+        at <ML_SERVICE_URL>/batch.
+
+        Args:
+            flights: Flights coming from the Java API, same format as predict()
+            deadline_ms: Deadline propagated by the Java API (X-Request-Deadline,
+                epoch milliseconds). Caps the timeout and is forwarded downstream.
+
+        Returns:
+            One ML service result per flight, in request order:
+            [{"prediction": 0 or 1, "probability": 0.85}, ...]
+
+        Raises:
+            Exception: If there's an error communicating with ML service
+        """
+
+        timeout = self.timeout
+        try:
+            logger.info(f"Sending batch of {len(flights)} flights to ML service")
+
+            start_time = time.time()
+
+            ml_payload = [_to_ml_payload(flight) for flight in flights]
+
+            headers = {'Content-Type': 'application/json'}
+            timeout = self._deadline_timeout(deadline_ms, headers)
+
+            response = self.session.post(
+                self.ml_service_url.rstrip('/') + '/batch',
+                json=ml_payload,
+                headers=headers,
+                timeout=timeout
+            )
+
+            elapsed_time = time.time() - start_time
+            logger.info(f"ML service responded to batch in {elapsed_time:.2f}s")
+
+            response.raise_for_status()
+
+            results = response.json()
+            if not isinstance(results, list) or len(results) != len(flights):
+                raise MLServiceError(
+                    f"ML service returned {len(results) if isinstance(results, list) else 'no'} "
+                    f"results for {len(flights)} flights"
+                )
+
+            return results
+
+        except MLServiceTimeoutError:
+            logger.warning("Request deadline expired before calling ML service")
+            raise
+
+        except MLServiceError:
+            raise
+
         except requests.exceptions.Timeout:
             logger.error(
-                f"Timeout connecting to ML service after {self.timeout}s")
+                f"Timeout connecting to ML service after {timeout}s")
             raise MLServiceTimeoutError()
 
         except requests.exceptions.ConnectionError as e:
@@ -137,20 +228,65 @@ class MLServiceClient(IMLServiceClient):
             logger.error(f"Unexpected error calling ML service: {str(e)}")
             raise MLServiceError(str(e))
 
+    def _deadline_timeout(self, deadline_ms: Optional[int],
+                          headers: Dict[str, str]) -> float:
+        """
+        Caps the request timeout at the Java API's deadline and forwards it
+
+        Raises:
+            MLServiceTimeoutError: If the deadline has already expired
+        """
+        if deadline_ms is None:
+            return self.timeout
+        # Never wait longer than the Java API will
+        remaining = deadline_ms / 1000.0 - time.time()
+        if remaining <= 0:
+            raise MLServiceTimeoutError("Request deadline expired")
+        headers[DEADLINE_HEADER] = str(deadline_ms)
+        return min(self.timeout, remaining)
+
     def health_check(self) -> Dict[str, Any]:
         """
         Checks if external ML service is available
         """
 
+        model_loaded = None
         try:
             # Try to make request to health endpoint (adjust according to ML service API)
             health_url = self.ml_service_url.replace('/predict', '/health')
             response = requests.get(health_url, timeout=5)
+            model_loaded = _read_model_loaded(response)
             response.raise_for_status()
-            return {"status": "UP", "ml_service": "OK"}
+            result = {"status": "UP", "ml_service": "OK"}
         except Exception as e:
             logger.warning(f"ML service health check failed: {e}")
-            return {"status": "DOWN", "ml_service": str(e)}
+            result = {"status": "DOWN", "ml_service": str(e)}
+
+        # Reported by the model server; the Java API's health prober reads it
+        if model_loaded is not None:
+            result["model_loaded"] = model_loaded
+        return result
+
+
+def _to_ml_payload(flight_data: Dict[str, Any]) -> Dict[str, Any]:
+    """Maps Java API field names to the ML service (Portuguese) field names"""
+    return {
+        'companhia': flight_data.get('companyName'),
+        'origem': flight_data.get('flightOrigin'),
+        'destino': flight_data.get('flightDestination'),
+        'data_partida': flight_data.get('flightDepartureDate'),
+        # include distance if available (model may ignore)
+        'nr_assentos_ofertados': flight_data.get('flightDistance')
+    }
+
+
+def _read_model_loaded(response) -> Optional[bool]:
+    """Reads the model_loaded flag from a model server /health response, if present"""
+    try:
+        value = response.json().get('model_loaded')
+    except Exception:
+        return None
+    return value if isinstance(value, bool) else None
 
 
 # Singleton
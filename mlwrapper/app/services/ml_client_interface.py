@@ -6,7 +6,7 @@ Allows multiple implementations (real, mock, stub) following DIP.
 """
 
 from abc import ABC, abstractmethod
-from typing import Dict, Any
+from typing import Dict, Any, List, Optional
 
 
 class IMLServiceClient(ABC):
@@ -20,12 +20,14 @@ class IMLServiceClient(ABC):
     """
 
     @abstractmethod
-    def predict(self, flight_data: Dict[str, Any]) -> Dict[str, Any]:
+    def predict(self, flight_data: Dict[str, Any],
+                deadline_ms: Optional[int] = None) -> Dict[str, Any]:
         """
         Sends prediction request to ML service
 
         Args:
             flight_data: Flight information dictionary
+            deadline_ms: Caller's deadline as epoch milliseconds, if any
 
         Returns:
             Prediction result with format:
@@ -39,6 +41,25 @@ class IMLServiceClient(ABC):
         """
         pass
 
+    @abstractmethod
+    def predict_batch(self, flights: List[Dict[str, Any]],
+                      deadline_ms: Optional[int] = None) -> List[Dict[str, Any]]:
+        """
+        Sends several flights to the ML service in a single request
+
+        Args:
+            flights: Flight information dictionaries
+            deadline_ms: Caller's deadline as epoch milliseconds, if any
+
+        Returns:
+            One prediction result per flight, in request order,
+            with the same format as predict()
+
+        Raises:
+            Exception: If communication fails
+        """
+        pass
+
     @abstractmethod
     def health_check(self) -> Dict[str, Any]:
         """
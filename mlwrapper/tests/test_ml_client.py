@@ -14,7 +14,8 @@ from app.services.ml_client import MLServiceClient
 from app.exceptions import (
     MLServiceTimeoutError,
     MLServiceConnectionError,
-    MLServiceHTTPError
+    MLServiceHTTPError,
+    MLServiceError
 )
 import requests
 
@@ -79,6 +80,51 @@ class TestMLServiceClient:
             with pytest.raises(MLServiceHTTPError):
                 ml_client.predict({"flightNumber": "AA1234"})
 
+    def test_predict_batch_success(self, ml_client):
+        """Test that a batch is posted to the ML service's batch endpoint"""
+
+        mock_response = Mock()
+        mock_response.status_code = 200
+        mock_response.json.return_value = [
+            {"prediction": 1, "probability": 0.92},
+            {"prediction": 0, "probability": 0.31}
+        ]
+        mock_response.raise_for_status = Mock()
+
+        with patch.object(ml_client.session, 'post', return_value=mock_response) as mock_post:
+            result = ml_client.predict_batch([
+                {"flightNumber": "AA1234", "companyName": "AA"},
+                {"flightNumber": "AA5678", "companyName": "AA"}
+            ])
+
+            assert [r['prediction'] for r in result] == [1, 0]
+            assert mock_post.call_args[0][0].endswith('/predict/batch')
+            payload = mock_post.call_args[1]['json']
+            assert len(payload) == 2
+            assert payload[0]['companhia'] == 'AA'
+
+    def test_predict_batch_result_count_mismatch(self, ml_client):
+        """Test that a batch answered with the wrong number of results fails"""
+
+        mock_response = Mock()
+        mock_response.status_code = 200
+        mock_response.json.return_value = [{"prediction": 1, "probability": 0.92}]
+        mock_response.raise_for_status = Mock()
+
+        with patch.object(ml_client.session, 'post', return_value=mock_response):
+            with pytest.raises(MLServiceError):
+                ml_client.predict_batch([
+                    {"flightNumber": "AA1234"},
+                    {"flightNumber": "AA5678"}
+                ])
+
+    def test_predict_batch_timeout(self, ml_client):
+        """Test batch prediction timeout"""
+
+        with patch.object(ml_client.session, 'post', side_effect=requests.exceptions.Timeout):
+            with pytest.raises(MLServiceTimeoutError):
+                ml_client.predict_batch([{"flightNumber": "AA1234"}])
+
     def test_health_check_success(self, ml_client):
         """Test successful health check"""
 
@@ -102,9 +148,26 @@ class TestMLServiceClient:
             assert result['status'] == 'DOWN'
             assert 'ml_service' in result
 
+    def test_health_check_model_not_loaded(self, ml_client):
+        """Test that model_loaded from the model server is passed on"""
+
+        mock_response = Mock()
+        mock_response.status_code = 503
+        mock_response.json.return_value = {"status": "DOWN", "model_loaded": False}
+        mock_response.raise_for_status = Mock(
+            side_effect=requests.exceptions.HTTPError("503 Server Error"))
+
+        with patch('requests.get', return_value=mock_response):
+            result = ml_client.health_check()
+
+            assert result['status'] == 'DOWN'
+            assert result['model_loaded'] is False
+
     def test_retry_configuration(self, ml_client):
         """Test that retry strategy is configured"""
 
         assert ml_client.session is not None
         adapter = ml_client.session.get_adapter('http://')
-        assert adapter.max_retries.total == 3
+        assert adapter.max_retries.total == 1
+        assert adapter.max_retries.status == 0
+        assert adapter.max_retries.read == 0
@@ -1,3 +1,5 @@
+import time
+
 import pytest
 from app import create_app
 from unittest.mock import patch, MagicMock
@@ -61,6 +63,19 @@ class TestPredictEndpoint:
         data = response.get_json()
         assert 'error' in data
 
+    def test_predict_frame_body_unsupported(self, client):
+        """Test that a binary frame gets 415, so the Java API falls back to JSON"""
+
+        response = client.post(
+            '/predict',
+            data=b'\x01\x00\x01',
+            content_type='application/x-fot-frame'
+        )
+
+        assert response.status_code == 415
+        data = response.get_json()
+        assert 'error' in data
+
     def test_predict_invalid_data(self, client):
         """Test prediction with invalid data"""
 
@@ -144,6 +159,150 @@ class TestPredictEndpoint:
             assert called_data['flightOrigin'] == 'JFK'
             assert called_data['flightDestination'] == 'LAX'
 
+    def test_predict_expired_deadline(self, client):
+        """Test that work past the caller's deadline is dropped"""
+
+        with patch('app.routes.prediction_routes.get_client') as mock_get_client:
+            mock_ml_client = MagicMock()
+            mock_get_client.return_value = mock_ml_client
+
+            response = client.post('/predict', json={
+                "flightNumber": "AA1234",
+                "companyName": "AA",
+                "flightOrigin": "JFK",
+                "flightDestination": "LAX",
+                "flightDepartureDate": "2025-12-20T14:30:00",
+                "flightDistance": 3974
+            }, headers={'X-Request-Deadline': str(int(time.time() * 1000) - 1)})
+
+            assert response.status_code == 504
+            mock_ml_client.predict.assert_not_called()
+
+    def test_predict_forwards_deadline(self, client):
+        """Test that the deadline is passed on to the ML client"""
+
+        deadline_ms = int(time.time() * 1000) + 5000
+
+        with patch('app.routes.prediction_routes.get_client') as mock_get_client:
+            mock_ml_client = MagicMock()
+            mock_ml_client.predict.return_value = {
+                "prediction": 0, "probability": 0.7}
+            mock_get_client.return_value = mock_ml_client
+
+            response = client.post('/predict', json={
+                "flightNumber": "AA1234",
+                "companyName": "AA",
+                "flightOrigin": "JFK",
+                "flightDestination": "LAX",
+                "flightDepartureDate": "2025-12-20T14:30:00",
+                "flightDistance": 3974
+            }, headers={'X-Request-Deadline': str(deadline_ms)})
+
+            assert response.status_code == 200
+            assert mock_ml_client.predict.call_args[1]['deadline_ms'] == deadline_ms
+
+
+class TestPredictBatchEndpoint:
+    """Tests for /predict/batch endpoint"""
+
+    FLIGHT = {
+        "flightNumber": "AA1234",
+        "companyName": "AA",
+        "flightOrigin": "JFK",
+        "flightDestination": "LAX",
+        "flightDepartureDate": "2025-12-20T14:30:00",
+        "flightDistance": 3974
+    }
+
+    def test_predict_batch_success(self, client):
+        """Test that a batch is forwarded once and answered in order"""
+
+        with patch('app.routes.prediction_routes.get_client') as mock_get_client:
+            mock_ml_client = MagicMock()
+            mock_ml_client.predict_batch.return_value = [
+                {"prediction": 1, "probability": 0.85},
+                {"prediction": 0, "probability": 0.30}
+            ]
+            mock_get_client.return_value = mock_ml_client
+
+            response = client.post('/predict/batch', json=[
+                self.FLIGHT,
+                {**self.FLIGHT, "flightNumber": "AA5678", "flightOrigin": "mia"}
+            ])
+
+            assert response.status_code == 200
+            data = response.get_json()
+            assert data == [
+                {"prediction": 1, "confidence": 0.85},
+                {"prediction": 0, "confidence": 0.30}
+            ]
+            mock_ml_client.predict_batch.assert_called_once()
+            called_flights = mock_ml_client.predict_batch.call_args[0][0]
+            assert called_flights[1]['flightOrigin'] == 'MIA'
+
+    def test_predict_batch_empty_list(self, client):
+        """Test batch prediction with an empty list"""
+
+        response = client.post('/predict/batch', json=[])
+
+        assert response.status_code == 400
+        data = response.get_json()
+        assert 'error' in data
+
+    def test_predict_batch_frame_body_unsupported(self, client):
+        """Test that a binary frame batch gets 415"""
+
+        response = client.post(
+            '/predict/batch',
+            data=b'\x01\x00\x02',
+            content_type='application/x-fot-frame'
+        )
+
+        assert response.status_code == 415
+
+    def test_predict_batch_invalid_flight(self, client):
+        """Test that one invalid flight rejects the batch"""
+
+        with patch('app.routes.prediction_routes.get_client') as mock_get_client:
+            mock_ml_client = MagicMock()
+            mock_get_client.return_value = mock_ml_client
+
+            response = client.post('/predict/batch', json=[
+                self.FLIGHT,
+                {**self.FLIGHT, "flightDistance": -100}
+            ])
+
+            assert response.status_code == 400
+            mock_ml_client.predict_batch.assert_not_called()
+
+    def test_predict_batch_expired_deadline(self, client):
+        """Test that a batch past the caller's deadline is dropped"""
+
+        with patch('app.routes.prediction_routes.get_client') as mock_get_client:
+            mock_ml_client = MagicMock()
+            mock_get_client.return_value = mock_ml_client
+
+            response = client.post('/predict/batch', json=[self.FLIGHT],
+                                   headers={'X-Request-Deadline': str(int(time.time() * 1000) - 1)})
+
+            assert response.status_code == 504
+            mock_ml_client.predict_batch.assert_not_called()
+
+    def test_predict_batch_ml_service_error(self, client):
+        """Test batch prediction when ML service fails"""
+
+        with patch('app.routes.prediction_routes.get_client') as mock_get_client:
+            mock_ml_client = MagicMock()
+            mock_ml_client.predict_batch.side_effect = Exception(
+                "ML service unavailable")
+            mock_get_client.return_value = mock_ml_client
+
+            response = client.post('/predict/batch', json=[self.FLIGHT])
+
+            assert response.status_code == 500
+            data = response.get_json()
+            assert 'error' in data
+
 
 class TestHealthEndpoint:
     """Tests for /health endpoint"""
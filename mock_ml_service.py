@@ -30,6 +30,28 @@ def predict():
     
     return jsonify(response), 200
 
+@app.route('/predict/batch', methods=['POST'])
+def predict_batch():
+    """
+    Mock batch prediction endpoint
+    Receives a JSON array of flights and returns one prediction per flight, in order
+    """
+    data = request.get_json()
+    if not isinstance(data, list):
+        return jsonify({"error": "Expected a JSON array"}), 400
+
+    response = [
+        {
+            "prediction": random.choice([0, 1]),
+            "confidence": round(random.uniform(0.6, 0.95), 2)
+        }
+        for _ in data
+    ]
+
+    print(f"Mock ML Service - Batch of {len(data)} flights")
+
+    return jsonify(response), 200
+
 if __name__ == '__main__':
     print("Starting Mock ML Service on port 8000...")
     app.run(host='0.0.0.0', port=8000, debug=False)